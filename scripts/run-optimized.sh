@@ -0,0 +1,27 @@
+#!/usr/bin/env sh
+# Launches the extracted AOT jar with the AppCDS archive from the training run.
+# Build first with: ./gradlew -Poptimized cdsArchive
+#
+# - Runs on the JDK that dumped the archive (recorded in java-executable): any other
+#   JVM would reject the archive and silently start without it
+# - -Xshare:on makes the JVM exit with an error instead of running without CDS
+# - AOT fixed the bean set at build time: the replica, sharded and reactive profiles
+#   and the fortis.*.enabled switches cannot be changed here (see build.gradle)
+set -e
+cd "$(dirname "$0")/.."
+
+DIR="${OPTIMIZED_DIR:-build/optimized}"
+JAR="$DIR/fortis-0.0.1-SNAPSHOT.jar"
+
+if [ ! -f "$DIR/application.jsa" ] || [ ! -f "$DIR/java-executable" ]; then
+    echo "Missing $DIR/application.jsa or $DIR/java-executable - run ./gradlew -Poptimized cdsArchive first" >&2
+    exit 1
+fi
+
+JAVA="$(cat "$DIR/java-executable")"
+if [ ! -x "$JAVA" ]; then
+    echo "The JDK that built the CDS archive is gone ($JAVA) - rebuild with ./gradlew -Poptimized cdsArchive" >&2
+    exit 1
+fi
+
+exec "$JAVA" -Xshare:on -XX:SharedArchiveFile="$DIR/application.jsa" -Dspring.aot.enabled=true $JAVA_OPTS -jar "$JAR" "$@"
@@ -0,0 +1,8 @@
+#!/usr/bin/env sh
+# Launches the regular boot jar (no AOT, no CDS).
+# Build first with: ./gradlew bootJar
+set -e
+cd "$(dirname "$0")/.."
+
+JAR="${JAR:-build/libs/fortis-0.0.1-SNAPSHOT.jar}"
+exec java $JAVA_OPTS -jar "$JAR" "$@"
@@ -0,0 +1,70 @@
+#!/usr/bin/env bash
+# Compares time-to-first-request of the plain jar against the AOT + AppCDS jar.
+#
+# Usage: scripts/startup-benchmark.sh [runs]
+#
+# Each run starts the application, polls until the first HTTP response is served
+# (any status code counts), records the elapsed time and stops the process.
+#
+# Both modes run on the JDK that dumped the CDS archive, so only AOT + CDS differ.
+# The optimized mode uses -Xshare:on: if the archive cannot be mapped the JVM exits
+# and the benchmark stops instead of timing a start without CDS.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RUNS="${1:-5}"
+PORT="${PORT:-18080}"
+URL="http://localhost:${PORT}/api/auth/verify?token=benchmark"
+BENCH_DIR=build/bench
+
+mkdir -p "$BENCH_DIR"
+
+echo "Building plain jar..."
+./gradlew -q clean bootJar
+cp build/libs/fortis-0.0.1-SNAPSHOT.jar "$BENCH_DIR/plain.jar"
+
+echo "Building optimized jar and CDS archive..."
+./gradlew -q -Poptimized cdsArchive
+JAVA="$(cat build/optimized/java-executable)"
+
+echo "Checking that the CDS archive maps into $JAVA..."
+if ! "$JAVA" -Xshare:on -XX:SharedArchiveFile=build/optimized/application.jsa -Dspring.aot.enabled=true \
+        -Dspring.context.exit=onRefresh -jar build/optimized/fortis-0.0.1-SNAPSHOT.jar \
+        > "$BENCH_DIR/cds-check.log" 2>&1; then
+    echo "CDS archive is not usable, see $BENCH_DIR/cds-check.log" >&2
+    exit 1
+fi
+
+time_to_first_request() {
+    local start_ns end_ns pid
+    start_ns=$(date +%s%N)
+    "$@" --server.port="$PORT" > "$BENCH_DIR/last-run.log" 2>&1 &
+    pid=$!
+
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' "$URL" || true)" != "000" ]; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "application exited early, see $BENCH_DIR/last-run.log" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+
+    end_ns=$(date +%s%N)
+    kill "$pid" && wait "$pid" 2>/dev/null || true
+    echo $(( (end_ns - start_ns) / 1000000 ))
+}
+
+run_mode() {
+    local label=$1; shift
+    local total=0 ms
+    for _ in $(seq "$RUNS"); do
+        ms=$(time_to_first_request "$@")
+        total=$(( total + ms ))
+        printf '  %-10s %6d ms\n' "$label" "$ms"
+    done
+    printf '%-10s average %6d ms over %d runs\n' "$label" $(( total / RUNS )) "$RUNS"
+}
+
+run_mode plain "$JAVA" -jar "$BENCH_DIR/plain.jar"
+run_mode optimized "$JAVA" -Xshare:on -XX:SharedArchiveFile=build/optimized/application.jsa -Dspring.aot.enabled=true \
+    -jar build/optimized/fortis-0.0.1-SNAPSHOT.jar
@@ -2,11 +2,21 @@ package com.the_olujare.fortis;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 
-@SpringBootApplication
+// R2DBC is wired explicitly by ReactiveConfig (reactive profile only)
+@SpringBootApplication(exclude = {
+		R2dbcAutoConfiguration.class,
+		R2dbcDataAutoConfiguration.class,
+		R2dbcRepositoriesAutoConfiguration.class,
+		R2dbcTransactionManagerAutoConfiguration.class
+})
 public class FortisApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(FortisApplication.class, args);
 	}
 
-}
\ No newline at end of file
+}
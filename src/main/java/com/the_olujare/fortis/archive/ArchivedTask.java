@@ -0,0 +1,11 @@
+package com.the_olujare.fortis.archive;
+
+import java.time.Instant;
+
+/**
+ * A completed task as stored inside an archive segment.
+ * Owner and completion are implied by the segment, so they are not repeated per task.
+ */
+
+public record ArchivedTask(long id, String title, String description, Instant updatedAt) {
+}
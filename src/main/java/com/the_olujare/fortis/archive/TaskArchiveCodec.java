@@ -0,0 +1,57 @@
+package com.the_olujare.fortis.archive;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Payload format of archive segments: a JSON array of ArchivedTask, deflate-compressed.
+ *
+ * - Jackson writes straight into the deflater and reads straight from the inflater,
+ *   so no uncompressed copy of a segment is ever held as a whole
+ * - Task titles and descriptions repeat a lot within one user's tasks,
+ *   which is what makes per-user segments compress well
+ */
+
+@Component
+@RequiredArgsConstructor
+public class TaskArchiveCodec {
+
+    private static final TypeReference<List<ArchivedTask>> TASK_LIST = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+
+    public byte[] encode(List<ArchivedTask> tasks) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (OutputStream out = new DeflaterOutputStream(compressed, deflater)) {
+            objectMapper.writeValue(out, tasks);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return compressed.toByteArray();
+    }
+
+    public List<ArchivedTask> decode(byte[] payload) {
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(payload))) {
+            return objectMapper.readValue(in, TASK_LIST);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
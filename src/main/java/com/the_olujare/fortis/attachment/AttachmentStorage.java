@@ -0,0 +1,224 @@
+package com.the_olujare.fortis.attachment;
+
+import com.the_olujare.fortis.exception.PayloadTooLargeException;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed attachment files on local disk.
+ *
+ * Layout: {directory}/ab/cd/abcd…(SHA-256 of the content); uploads in progress live in {directory}/tmp,
+ * blobs about to be purged in {directory}/trash.
+ *
+ * store():
+ * - Copies the stream to a temp file through one 64 KB buffer, hashing and counting as it goes
+ * - More than maxBytes aborts the upload with 413; the temp file is removed
+ * - The finished file is forced to disk and atomically moved to its content address;
+ *   identical content is stored once (the existing file's mtime is refreshed instead,
+ *   and the file is stored again if it vanished meanwhile)
+ *
+ * transfer():
+ * - On Tomcat, hands the file region to the connector's sendfile, which writes it to the
+ *   socket with FileChannel.transferTo (no copy through the JVM heap)
+ * - Elsewhere (and for MockMvc), transferTo into the response's output stream channel
+ *
+ * Blobs are never deleted when an attachment goes away; AttachmentBlobPurgeService
+ * removes unreferenced files older than a grace period. It moves a blob to the trash
+ * before its final checks (moveToTrash()), so an upload either refreshed the blob
+ * before the move, and the purge sees it and restores it, or finds it gone and stores
+ * the content again.
+ */
+
+@Component
+public class AttachmentStorage {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final PayloadTooLargeException TOO_LARGE =
+            new PayloadTooLargeException("Attachment exceeds the maximum size");
+
+    @Value("${fortis.attachments.directory:attachments}")
+    private String directory;
+
+    @Value("${fortis.attachments.max-bytes:26214400}")
+    private long maxBytes;
+
+    private Path root;
+    private Path tempDirectory;
+    private Path trashDirectory;
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Path.of(directory).toAbsolutePath();
+        tempDirectory = root.resolve("tmp");
+        trashDirectory = root.resolve("trash");
+        Files.createDirectories(tempDirectory);
+        Files.createDirectories(trashDirectory);
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    public Blob store(InputStream content) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(tempDirectory, "upload-", ".part");
+        long size = 0;
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                byte[] chunk = new byte[BUFFER_SIZE];
+                ByteBuffer wrapped = ByteBuffer.wrap(chunk);
+                int read;
+                while ((read = content.read(chunk)) != -1) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw TOO_LARGE;
+                    }
+                    digest.update(chunk, 0, read);
+                    wrapped.clear().limit(read);
+                    while (wrapped.hasRemaining()) {
+                        channel.write(wrapped);
+                    }
+                }
+                channel.force(true);
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathFor(hash);
+            Files.createDirectories(target.getParent());
+            if (refresh(target)) {
+                Files.delete(temp);
+            } else {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return new Blob(hash, size);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * Writes bytes [start, start + length) of a blob as the response body.
+     * Headers (status, Content-Length, Content-Range) must be set by the caller.
+     */
+    public void transfer(String sha256, long start, long length,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = pathFor(sha256);
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long end = start + length;
+            while (position < end) {
+                long transferred = channel.transferTo(position, end - position, out);
+                if (transferred <= 0) {
+                    throw new IOException("Attachment file is shorter than recorded: " + sha256);
+                }
+                position += transferred;
+            }
+        }
+    }
+
+    /**
+     * Every stored blob file (the file name is its SHA-256); the caller closes the stream.
+     */
+    public Stream<Path> blobFiles() throws IOException {
+        return Files.find(root, 3, (path, attributes) -> attributes.isRegularFile()
+                && !path.startsWith(tempDirectory) && !path.startsWith(trashDirectory));
+    }
+
+    /**
+     * Moves a blob out of its content address, so no later upload can re-use it.
+     * Returns the trashed file, or null if the blob is already gone.
+     */
+    public Path moveToTrash(Path blobFile) throws IOException {
+        try {
+            return Files.move(blobFile, trashDirectory.resolve(blobFile.getFileName()), StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Puts a trashed blob back, unless an upload has stored the same content again meanwhile.
+     */
+    public void restore(Path trashedFile) throws IOException {
+        Path target = pathFor(hashOf(trashedFile));
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(trashedFile, target);
+        } catch (FileAlreadyExistsException e) {
+            Files.delete(trashedFile);
+        }
+    }
+
+    /**
+     * Blobs left in the trash by an interrupted purge; the caller closes the stream.
+     */
+    public Stream<Path> trashedFiles() throws IOException {
+        return Files.list(trashDirectory);
+    }
+
+    public static String hashOf(Path blobFile) {
+        return blobFile.getFileName().toString();
+    }
+
+    // Re-uses a stored blob; false if there is none, also when the purge has just moved it away
+    private static boolean refresh(Path blobFile) throws IOException {
+        try {
+            Files.setLastModifiedTime(blobFile, FileTime.fromMillis(System.currentTimeMillis()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private Path pathFor(String sha256) {
+        if (sha256.length() != 64 || !sha256.chars().allMatch(HexFormat::isHexDigit)) {
+            throw new IllegalArgumentException("Not a SHA-256 hex digest: " + sha256);
+        }
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Blob(String sha256, long size) {
+    }
+}
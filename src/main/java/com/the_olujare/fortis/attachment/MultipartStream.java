@@ -0,0 +1,223 @@
+package com.the_olujare.fortis.attachment;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.MediaType;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming reader for multipart/form-data request bodies (RFC 7578).
+ *
+ * Parts are read one after the other straight from the request stream through a
+ * single fixed buffer: a part's content is never held in memory or spooled to a temp file.
+ *
+ * - nextPart() skips whatever is left of the current part and returns the next one
+ * - Part.content() ends exactly at the next boundary
+ * - Part headers are capped at MAX_HEADER_BYTES; malformed bodies fail with a
+ *   RuntimeException (HTTP 400), a body cut short with an EOFException
+ *
+ * Used instead of Spring's MultipartResolver, which is disabled
+ * (spring.servlet.multipart.enabled=false) because it writes every part to disk
+ * before the controller runs.
+ */
+
+public final class MultipartStream {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_HEADER_BYTES = 8 * 1024;
+    private static final byte[] HEADER_END = {'\r', '\n', '\r', '\n'};
+
+    private final InputStream in;
+    private final byte[] delimiter;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int head;
+    private int tail;
+    private boolean finished;
+    private PartInputStream current;
+
+    public MultipartStream(InputStream in, String boundary) {
+        if (boundary == null || boundary.isEmpty() || boundary.length() > 70) {
+            throw new RuntimeException("Invalid multipart boundary");
+        }
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.US_ASCII);
+        // The first boundary has no CRLF in front of it; pretend it had, so every delimiter looks the same
+        buffer[0] = '\r';
+        buffer[1] = '\n';
+        tail = 2;
+    }
+
+    /**
+     * Boundary parameter of a multipart/form-data Content-Type, or null if it is not one.
+     */
+    public static String boundary(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            if (!MediaType.MULTIPART_FORM_DATA.includes(mediaType)) {
+                return null;
+            }
+            String boundary = mediaType.getParameter("boundary");
+            if (boundary != null && boundary.length() > 1 && boundary.startsWith("\"") && boundary.endsWith("\"")) {
+                boundary = boundary.substring(1, boundary.length() - 1);
+            }
+            return boundary;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public Part nextPart() throws IOException {
+        if (finished) {
+            return null;
+        }
+        // Skip the preamble, or the unread rest of the previous part
+        (current != null ? current : new PartInputStream()).skipToEnd();
+
+        ensure(2);
+        if (buffer[head] == '-' && buffer[head + 1] == '-') {
+            finished = true;
+            return null;
+        }
+        if (buffer[head] != '\r' || buffer[head + 1] != '\n') {
+            throw new RuntimeException("Malformed multipart body");
+        }
+        head += 2;
+
+        String headers = readHeaders();
+        String name = null;
+        String filename = null;
+        String contentType = null;
+        for (String line : headers.split("\r\n")) {
+            int colon = line.indexOf(':');
+            if (colon <= 0) {
+                continue;
+            }
+            String header = line.substring(0, colon).trim();
+            String value = line.substring(colon + 1).trim();
+            if (header.equalsIgnoreCase("Content-Disposition")) {
+                ContentDisposition disposition = ContentDisposition.parse(value);
+                name = disposition.getName();
+                filename = disposition.getFilename();
+            } else if (header.equalsIgnoreCase("Content-Type")) {
+                contentType = value;
+            }
+        }
+
+        current = new PartInputStream();
+        return new Part(name, filename, contentType, current);
+    }
+
+    private String readHeaders() throws IOException {
+        while (true) {
+            int end = indexOf(HEADER_END, head, tail);
+            if (end >= 0) {
+                String headers = new String(buffer, head, end - head, StandardCharsets.UTF_8);
+                head = end + HEADER_END.length;
+                return headers;
+            }
+            if (tail - head > MAX_HEADER_BYTES) {
+                throw new RuntimeException("Multipart part headers too large");
+            }
+            if (!fill()) {
+                throw new EOFException("Unexpected end of multipart body");
+            }
+        }
+    }
+
+    private void ensure(int bytes) throws IOException {
+        while (tail - head < bytes) {
+            if (!fill()) {
+                throw new EOFException("Unexpected end of multipart body");
+            }
+        }
+    }
+
+    // Moves unread bytes to the front and reads more; false at end of stream
+    private boolean fill() throws IOException {
+        if (head > 0) {
+            System.arraycopy(buffer, head, buffer, 0, tail - head);
+            tail -= head;
+            head = 0;
+        }
+        if (tail == buffer.length) {
+            return true;
+        }
+        int read = in.read(buffer, tail, buffer.length - tail);
+        if (read < 0) {
+            return false;
+        }
+        tail += read;
+        return true;
+    }
+
+    private int indexOf(byte[] pattern, int from, int to) {
+        outer:
+        for (int i = from; i <= to - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (buffer[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * One part: its Content-Disposition name and filename, Content-Type, and content.
+     */
+    public record Part(String name, String filename, String contentType, InputStream content) {
+    }
+
+    private final class PartInputStream extends InputStream {
+        private boolean ended;
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) throws IOException {
+            if (ended) {
+                return -1;
+            }
+            if (length == 0) {
+                return 0;
+            }
+            while (true) {
+                int found = indexOf(delimiter, head, tail);
+                // Without a delimiter, the last delimiter.length - 1 bytes may be the start of one
+                int available = found >= 0 ? found - head : tail - head - (delimiter.length - 1);
+                if (found == head) {
+                    head += delimiter.length;
+                    ended = true;
+                    return -1;
+                }
+                if (available > 0) {
+                    int count = Math.min(length, available);
+                    System.arraycopy(buffer, head, target, offset, count);
+                    head += count;
+                    return count;
+                }
+                if (!fill()) {
+                    throw new EOFException("Unexpected end of multipart body");
+                }
+            }
+        }
+
+        private void skipToEnd() throws IOException {
+            byte[] skip = new byte[8 * 1024];
+            while (read(skip, 0, skip.length) >= 0) {
+                // discard
+            }
+        }
+    }
+}
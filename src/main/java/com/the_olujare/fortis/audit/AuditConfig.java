@@ -0,0 +1,13 @@
+package com.the_olujare.fortis.audit;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the fortis.audit.* properties read by AuditLog.
+ */
+
+@Configuration
+@EnableConfigurationProperties(AuditProperties.class)
+public class AuditConfig {
+}
@@ -0,0 +1,23 @@
+package com.the_olujare.fortis.audit;
+
+/**
+ * Security-relevant outcomes recorded by AuditLog.
+ *
+ * - Written as the third column of a segment line, so names are part of the file format
+ * - EVENTS_DROPPED is written by AuditLog itself; its subject is the number of events lost
+ *   since the previous record, so gaps are visible inside the chain
+ */
+
+public enum AuditEventType {
+    REGISTERED,
+    LOGIN_SUCCEEDED,
+    LOGIN_FAILED,
+    LOGIN_BLOCKED,
+    TOKEN_REFRESHED,
+    REFRESH_TOKEN_REUSED,
+    LOGGED_OUT,
+    PASSWORD_RESET_REQUESTED,
+    PASSWORD_RESET,
+    EMAIL_VERIFIED,
+    EVENTS_DROPPED
+}
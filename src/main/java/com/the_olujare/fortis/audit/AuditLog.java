@@ -0,0 +1,159 @@
+package com.the_olujare.fortis.audit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Tamper-evident audit trail of authentication events (see AuthService).
+ *
+ * Request path:
+ * - record() puts the event into a preallocated AuditRingBuffer: one CAS, no lock, no I/O
+ * - When the buffer is full the event is dropped and counted; the caller is never slowed down
+ *
+ * Writer thread ("audit-writer"):
+ * - Drains up to batchSize events, appends them to the hash chain and writes them
+ *   with one FileChannel write per batch (AuditSegmentWriter)
+ * - Events lost since the previous batch are written as one EVENTS_DROPPED record,
+ *   so gaps show up in the chain itself
+ * - Sleeps idleWaitMs when there is nothing to write; drains everything on shutdown
+ *
+ * If the segment directory cannot be opened (or is locked by another writer),
+ * the audit log stays disabled and every event counts as dropped.
+ *
+ * Metrics:
+ * - fortis.audit.events.written
+ * - fortis.audit.events.dropped{reason=buffer_full|write_failed|disabled}
+ * - fortis.audit.buffer.pending
+ */
+
+@Slf4j
+@Service
+public class AuditLog {
+
+    private final AuditProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final AuditRingBuffer ringBuffer;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong writeFailed = new AtomicLong();
+    private final AtomicLong disabledDrops = new AtomicLong();
+
+    private volatile boolean running;
+    private AuditSegmentWriter writer;
+    private Thread writerThread;
+    private long reportedLost;
+
+    public AuditLog(AuditProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.ringBuffer = new AuditRingBuffer(properties.getBufferSize());
+    }
+
+    @PostConstruct
+    void start() {
+        FunctionCounter.builder("fortis.audit.events.written", written, AtomicLong::get)
+                .description("Audit events persisted to segment files")
+                .register(meterRegistry);
+        FunctionCounter.builder("fortis.audit.events.dropped", ringBuffer, AuditRingBuffer::dropped)
+                .description("Audit events lost before reaching disk")
+                .tag("reason", "buffer_full")
+                .register(meterRegistry);
+        FunctionCounter.builder("fortis.audit.events.dropped", writeFailed, AtomicLong::get)
+                .description("Audit events lost before reaching disk")
+                .tag("reason", "write_failed")
+                .register(meterRegistry);
+        FunctionCounter.builder("fortis.audit.events.dropped", disabledDrops, AtomicLong::get)
+                .description("Audit events lost before reaching disk")
+                .tag("reason", "disabled")
+                .register(meterRegistry);
+        Gauge.builder("fortis.audit.buffer.pending", ringBuffer, AuditRingBuffer::pending)
+                .description("Audit events waiting for the writer")
+                .register(meterRegistry);
+
+        if (!properties.isEnabled()) {
+            return;
+        }
+        AuditSegmentWriter segmentWriter = new AuditSegmentWriter(
+                Path.of(properties.getDirectory()), properties.getSegmentMaxBytes(), properties.isFsync());
+        try {
+            segmentWriter.open();
+        } catch (IOException e) {
+            log.error("Audit log disabled: could not open {}", properties.getDirectory(), e);
+            return;
+        }
+
+        writer = segmentWriter;
+        running = true;
+        writerThread = new Thread(this::writeLoop, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.warn("Could not close audit segment", e);
+        }
+    }
+
+    public void record(AuditEventType type, Long userId, String subject) {
+        if (!running) {
+            disabledDrops.incrementAndGet();
+            return;
+        }
+        ringBuffer.offer(type, userId, subject);
+    }
+
+    /**
+     * Recomputes the hash chain over every segment on disk.
+     */
+    public AuditVerification verify() throws IOException {
+        return AuditSegmentWriter.verify(Path.of(properties.getDirectory()));
+    }
+
+    private void writeLoop() {
+        long idleWaitNanos = TimeUnit.MILLISECONDS.toNanos(properties.getIdleWaitMs());
+        while (true) {
+            // Read the flag first: anything published before it turned false is still drained
+            boolean stopping = !running;
+            int drained = ringBuffer.drain(writer::append, properties.getBatchSize());
+
+            long lost = ringBuffer.dropped() + writeFailed.get();
+            if (lost > reportedLost) {
+                writer.append(System.currentTimeMillis(), AuditEventType.EVENTS_DROPPED, null,
+                        Long.toString(lost - reportedLost));
+                reportedLost = lost;
+            }
+
+            int pending = writer.pendingRecords();
+            int failed = writer.flush();
+            written.addAndGet(pending - failed);
+            writeFailed.addAndGet(failed);
+
+            if (drained == 0) {
+                if (stopping) {
+                    return;
+                }
+                LockSupport.parkNanos(this, idleWaitNanos);
+            }
+        }
+    }
+}
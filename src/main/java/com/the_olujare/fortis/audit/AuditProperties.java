@@ -0,0 +1,42 @@
+package com.the_olujare.fortis.audit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Binds the fortis.audit.* settings used by AuditLog.
+ *
+ * directory
+ *  - Where segment files are written. One writer per directory (guarded by a lock file).
+ *
+ * bufferSize
+ *  - Ring buffer slots, rounded up to a power of two.
+ *  - Events published while all slots are taken are dropped and counted.
+ *
+ * batchSize
+ *  - Maximum events per segment write.
+ *
+ * segmentMaxBytes
+ *  - A new segment is started once the current one would grow past this size.
+ *
+ * fsync
+ *  - Force every batch to disk before the next one; off trades durability for throughput.
+ *
+ * idleWaitMs
+ *  - How long the writer sleeps when the buffer is empty.
+ */
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "fortis.audit")
+public class AuditProperties {
+
+    private boolean enabled = true;
+    private String directory = "audit";
+    private int bufferSize = 65_536;
+    private int batchSize = 512;
+    private long segmentMaxBytes = 64L * 1024 * 1024;
+    private boolean fsync = true;
+    private long idleWaitMs = 10;
+}
@@ -0,0 +1,106 @@
+package com.the_olujare.fortis.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded multi-producer / single-consumer queue of audit events over a preallocated slot array.
+ *
+ * Producers (request threads):
+ * - Claim a sequence with one CAS, fill the slot, then publish it with a volatile write
+ * - Never block and never allocate: when every slot is still unread, the event is dropped and counted
+ *
+ * Consumer (AuditLog's writer thread):
+ * - Reads slots in sequence order while they are published, then releases them in one write
+ *
+ * A slot is reused for sequence s + capacity only after the consumer has released s,
+ * so a published slot is never overwritten before it is read.
+ */
+
+final class AuditRingBuffer {
+
+    /**
+     * Receives the fields of one published slot. Must not keep references past the call.
+     */
+    interface Handler {
+        void onEvent(long timestamp, AuditEventType type, Long userId, String subject);
+    }
+
+    private final Slot[] slots;
+    private final int mask;
+    // Next sequence to claim
+    private final AtomicLong claimed = new AtomicLong();
+    // Next sequence to read; every lower slot is free
+    private final AtomicLong released = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    AuditRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.slots = new Slot[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    boolean offer(AuditEventType type, Long userId, String subject) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - released.get() >= slots.length) {
+                dropped.increment();
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        Slot slot = slots[(int) (sequence & mask)];
+        slot.timestamp = System.currentTimeMillis();
+        slot.type = type;
+        slot.userId = userId;
+        slot.subject = subject;
+        slot.sequence = sequence;  // volatile write publishes the fields above
+        return true;
+    }
+
+    /**
+     * Hands up to max published events to the handler, in order. Single consumer only.
+     */
+    int drain(Handler handler, int max) {
+        long next = released.get();
+        int count = 0;
+        while (count < max) {
+            Slot slot = slots[(int) (next & mask)];
+            if (slot.sequence != next) {
+                break;
+            }
+            handler.onEvent(slot.timestamp, slot.type, slot.userId, slot.subject);
+            slot.subject = null;
+            next++;
+            count++;
+        }
+        if (count > 0) {
+            released.set(next);
+        }
+        return count;
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    long pending() {
+        return claimed.get() - released.get();
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    private static final class Slot {
+        private volatile long sequence = -1;
+        private long timestamp;
+        private AuditEventType type;
+        private Long userId;
+        private String subject;
+    }
+}
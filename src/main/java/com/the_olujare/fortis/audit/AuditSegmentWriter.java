@@ -0,0 +1,349 @@
+package com.the_olujare.fortis.audit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Append-only, hash-chained audit segments.
+ *
+ * File format:
+ * - Segments are named audit-{first sequence, 20 digits}.log and only ever appended to
+ * - One UTF-8 line per record: seq, epoch millis, type, user id (or -), subject, prev hash, hash (tab-separated)
+ * - hash = SHA-256(prev hash bytes + the first five columns); the first record's prev hash is all zeros
+ * - The chain continues across segments, so deleting, reordering or editing any line breaks verify()
+ *
+ * Writing:
+ * - append() only builds the pending batch; flush() writes it with one FileChannel write
+ *   (rotating first if the segment would exceed segmentMaxBytes) and optionally forces it
+ * - A failed flush truncates the partial write and rewinds the chain to the last persisted record
+ *
+ * Recovery:
+ * - open() takes an exclusive lock file, drops a torn last line left by a crash,
+ *   and continues the chain from the last complete record
+ *
+ * Not thread-safe: used only by AuditLog's writer thread.
+ */
+
+@Slf4j
+final class AuditSegmentWriter implements AutoCloseable {
+
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String LOCK_FILE = "audit.lock";
+    private static final int MAX_SUBJECT_LENGTH = 256;
+    private static final int TAIL_READ_BYTES = 8192;
+    private static final HexFormat HEX = HexFormat.of();
+    private static final byte[] GENESIS_HASH = new byte[32];
+
+    private final Path directory;
+    private final long segmentMaxBytes;
+    private final boolean fsync;
+    private final MessageDigest digest;
+    private final StringBuilder batch = new StringBuilder(64 * 1024);
+    private final StringBuilder record = new StringBuilder(512);
+
+    private FileChannel lockChannel;
+    private FileLock lock;
+    private FileChannel segment;
+    private long segmentSize;
+
+    // Chain head including the pending batch
+    private long nextSequence;
+    private byte[] lastHash;
+    // Chain head as persisted
+    private long persistedSequence;
+    private byte[] persistedHash;
+    private int pendingRecords;
+
+    AuditSegmentWriter(Path directory, long segmentMaxBytes, boolean fsync) {
+        this.directory = directory;
+        this.segmentMaxBytes = segmentMaxBytes;
+        this.fsync = fsync;
+        this.digest = sha256();
+    }
+
+    void open() throws IOException {
+        Files.createDirectories(directory);
+        lockChannel = FileChannel.open(directory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("Audit directory is in use by another writer: " + directory);
+        }
+
+        nextSequence = 1;
+        lastHash = GENESIS_HASH;
+        List<Path> segments = segments(directory);
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            if (recoverChainHead(segments.get(i))) {
+                break;
+            }
+        }
+        persistedSequence = nextSequence;
+        persistedHash = lastHash;
+
+        List<Path> remaining = segments(directory);
+        openSegment(remaining.isEmpty() ? newSegmentPath(nextSequence) : remaining.get(remaining.size() - 1));
+    }
+
+    void append(long timestamp, AuditEventType type, Long userId, String subject) {
+        record.setLength(0);
+        record.append(nextSequence).append('\t')
+                .append(timestamp).append('\t')
+                .append(type.name()).append('\t')
+                .append(userId == null ? "-" : userId.toString()).append('\t');
+        appendSubject(record, subject);
+
+        byte[] hash = hash(lastHash, record);
+        batch.append(record).append('\t')
+                .append(HEX.formatHex(lastHash)).append('\t')
+                .append(HEX.formatHex(hash)).append('\n');
+
+        lastHash = hash;
+        nextSequence++;
+        pendingRecords++;
+    }
+
+    int pendingRecords() {
+        return pendingRecords;
+    }
+
+    /**
+     * Writes the pending batch. On failure the batch is discarded and its size returned as lost.
+     */
+    int flush() {
+        if (pendingRecords == 0) {
+            return 0;
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(batch.toString().getBytes(StandardCharsets.UTF_8));
+        long sizeBefore = segmentSize;
+        try {
+            if (segmentSize > 0 && segmentSize + bytes.remaining() > segmentMaxBytes) {
+                rotate();
+                sizeBefore = 0;
+            }
+            while (bytes.hasRemaining()) {
+                segmentSize += segment.write(bytes);
+            }
+            if (fsync) {
+                segment.force(false);
+            }
+            persistedSequence = nextSequence;
+            persistedHash = lastHash;
+            pendingRecords = 0;
+            batch.setLength(0);
+            return 0;
+        } catch (IOException e) {
+            int lost = pendingRecords;
+            log.error("Could not write {} audit records", lost, e);
+            discardPending(sizeBefore);
+            return lost;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (segment != null) {
+                segment.close();
+            }
+        } finally {
+            if (lock != null) {
+                lock.release();
+                lockChannel.close();
+            }
+        }
+    }
+
+    /**
+     * Recomputes the chain over every segment in the directory.
+     * A line torn by a crash at the very end of the last segment is ignored.
+     */
+    static AuditVerification verify(Path directory) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] expectedPrev = GENESIS_HASH;
+        long expectedSequence = 1;
+        List<Path> segments = segments(directory);
+
+        for (int s = 0; s < segments.size(); s++) {
+            Path segment = segments.get(s);
+            boolean lastSegment = s == segments.size() - 1;
+            byte[] content = Files.readAllBytes(segment);
+            int end = content.length;
+            if (lastSegment) {
+                while (end > 0 && content[end - 1] != '\n') {
+                    end--;
+                }
+            }
+            try (BufferedReader reader = new BufferedReader(new StringReader(
+                    new String(content, 0, end, StandardCharsets.UTF_8)))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int hashStart = line.lastIndexOf('\t');
+                    int prevStart = hashStart < 0 ? -1 : line.lastIndexOf('\t', hashStart - 1);
+                    if (prevStart < 0) {
+                        return AuditVerification.broken(expectedSequence - 1, expectedSequence, segment, "malformed line");
+                    }
+                    String body = line.substring(0, prevStart);
+                    long sequence;
+                    try {
+                        sequence = Long.parseLong(body.substring(0, body.indexOf('\t')));
+                    } catch (RuntimeException e) {
+                        return AuditVerification.broken(expectedSequence - 1, expectedSequence, segment, "malformed sequence");
+                    }
+                    if (sequence != expectedSequence) {
+                        return AuditVerification.broken(expectedSequence - 1, expectedSequence, segment,
+                                "expected sequence " + expectedSequence + " but found " + sequence);
+                    }
+                    if (!line.substring(prevStart + 1, hashStart).equals(HEX.formatHex(expectedPrev))) {
+                        return AuditVerification.broken(expectedSequence - 1, sequence, segment, "previous hash mismatch");
+                    }
+                    digest.reset();
+                    digest.update(expectedPrev);
+                    digest.update(body.getBytes(StandardCharsets.UTF_8));
+                    byte[] hash = digest.digest();
+                    if (!line.substring(hashStart + 1).equals(HEX.formatHex(hash))) {
+                        return AuditVerification.broken(expectedSequence - 1, sequence, segment, "hash mismatch");
+                    }
+                    expectedPrev = hash;
+                    expectedSequence++;
+                }
+            }
+        }
+        return AuditVerification.intact(expectedSequence - 1, segments.size(), HEX.formatHex(expectedPrev));
+    }
+
+    private void rotate() throws IOException {
+        segment.close();
+        // Logged so the chain head can be anchored outside this directory
+        log.info("Audit segment closed at sequence {} with hash {}", persistedSequence - 1, HEX.formatHex(persistedHash));
+        openSegment(newSegmentPath(persistedSequence));
+    }
+
+    private void openSegment(Path path) throws IOException {
+        segment = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentSize = segment.size();
+    }
+
+    private void discardPending(long sizeBefore) {
+        nextSequence = persistedSequence;
+        lastHash = persistedHash;
+        pendingRecords = 0;
+        batch.setLength(0);
+        try {
+            segment.truncate(sizeBefore);
+            segmentSize = sizeBefore;
+        } catch (IOException e) {
+            log.error("Could not truncate a partial audit write; verify() will report the torn record", e);
+        }
+    }
+
+    /**
+     * Reads the last complete record of a segment, truncating a torn tail line.
+     * Returns false (after deleting it) if the segment holds no complete record.
+     */
+    private boolean recoverChainHead(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            int length = (int) Math.min(size, TAIL_READ_BYTES);
+            ByteBuffer tail = ByteBuffer.allocate(length);
+            channel.read(tail, size - length);
+            byte[] bytes = tail.array();
+
+            int end = length;
+            while (end > 0 && bytes[end - 1] != '\n') {
+                end--;
+            }
+            if (end < length) {
+                log.warn("Truncating torn audit record at the end of {}", path);
+                channel.truncate(size - (length - end));
+                channel.force(true);
+            }
+            if (end == 0) {
+                if (size - length == 0) {
+                    channel.close();
+                    Files.delete(path);
+                    return false;
+                }
+                throw new IOException("Audit record longer than " + TAIL_READ_BYTES + " bytes in " + path);
+            }
+
+            int start = end - 1;
+            while (start > 0 && bytes[start - 1] != '\n') {
+                start--;
+            }
+            String line = new String(bytes, start, end - 1 - start, StandardCharsets.UTF_8);
+            nextSequence = Long.parseLong(line.substring(0, line.indexOf('\t'))) + 1;
+            lastHash = HEX.parseHex(line.substring(line.lastIndexOf('\t') + 1));
+            return true;
+        }
+    }
+
+    private byte[] hash(byte[] previous, CharSequence content) {
+        digest.reset();
+        digest.update(previous);
+        digest.update(content.toString().getBytes(StandardCharsets.UTF_8));
+        return digest.digest();
+    }
+
+    // Tabs and line breaks would break the line format; long subjects are cut
+    private static void appendSubject(StringBuilder target, String subject) {
+        if (subject == null) {
+            target.append('-');
+            return;
+        }
+        int length = Math.min(subject.length(), MAX_SUBJECT_LENGTH);
+        for (int i = 0; i < length; i++) {
+            char c = subject.charAt(i);
+            target.append(c == '\t' || c == '\n' || c == '\r' ? ' ' : c);
+        }
+    }
+
+    private Path newSegmentPath(long firstSequence) {
+        return directory.resolve(SEGMENT_PREFIX + String.format("%020d", firstSequence) + SEGMENT_SUFFIX);
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
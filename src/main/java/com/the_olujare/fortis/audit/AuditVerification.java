@@ -0,0 +1,29 @@
+package com.the_olujare.fortis.audit;
+
+import java.nio.file.Path;
+
+/**
+ * Result of AuditLog.verify().
+ *
+ * - intact → every record's hash matches and sequences are gapless
+ * - headHash → hash of the last verified record; compare it with an externally anchored value
+ * - brokenAtSequence / brokenSegment / reason → first record that failed, when not intact
+ */
+
+public record AuditVerification(boolean intact,
+                                long verifiedRecords,
+                                int segments,
+                                String headHash,
+                                Long brokenAtSequence,
+                                String brokenSegment,
+                                String reason) {
+
+    static AuditVerification intact(long verifiedRecords, int segments, String headHash) {
+        return new AuditVerification(true, verifiedRecords, segments, headHash, null, null, null);
+    }
+
+    static AuditVerification broken(long verifiedRecords, long brokenAtSequence, Path segment, String reason) {
+        return new AuditVerification(false, verifiedRecords, 0, null, brokenAtSequence,
+                segment.getFileName().toString(), reason);
+    }
+}
@@ -0,0 +1,305 @@
+package com.the_olujare.fortis.batch;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.Part;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One batch sub-request, presented to Spring MVC as a request of its own.
+ *
+ * - Method, path, query parameters, headers and body come from the sub-request
+ * - Attributes are private to the sub-request, so sub-requests running in parallel
+ *   never see each other's (or the batch request's) handler mappings and path caches
+ * - Connection details (remote address, scheme, host, context path) are the batch request's
+ * - No async processing and no multipart: streams and uploads are not batchable
+ */
+
+public class SubRequest extends HttpServletRequestWrapper {
+
+    private final String method;
+    private final String requestUri;
+    private final String queryString;
+    private final Map<String, String[]> parameters;
+    private final Map<String, List<String>> headers = new LinkedCaseInsensitiveMap<>();
+    private final byte[] body;
+    private final Map<String, Object> attributes = new HashMap<>();
+
+    /**
+     * @param path path relative to the context root, optionally with a query string
+     */
+    public SubRequest(HttpServletRequest batchRequest, String method, String path,
+                      Map<String, String> headers, byte[] body) {
+        super(batchRequest);
+        int query = path.indexOf('?');
+        this.method = method;
+        this.requestUri = batchRequest.getContextPath() + (query < 0 ? path : path.substring(0, query));
+        this.queryString = query < 0 ? null : path.substring(query + 1);
+        this.parameters = parseQuery(queryString);
+        this.body = body;
+        if (headers != null) {
+            headers.forEach((name, value) -> this.headers.put(name, List.of(value)));
+        }
+    }
+
+    private static Map<String, String[]> parseQuery(String queryString) {
+        Map<String, List<String>> values = new LinkedHashMap<>();
+        if (queryString != null) {
+            for (String pair : queryString.split("&")) {
+                if (pair.isEmpty()) {
+                    continue;
+                }
+                int separator = pair.indexOf('=');
+                String name = URLDecoder.decode(separator < 0 ? pair : pair.substring(0, separator), StandardCharsets.UTF_8);
+                String value = separator < 0 ? "" : URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+                values.computeIfAbsent(name, key -> new ArrayList<>()).add(value);
+            }
+        }
+        Map<String, String[]> parameters = new LinkedHashMap<>();
+        values.forEach((name, list) -> parameters.put(name, list.toArray(String[]::new)));
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return requestUri;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        StringBuffer url = new StringBuffer(getScheme()).append("://").append(getServerName());
+        if (getServerPort() > 0) {
+            url.append(':').append(getServerPort());
+        }
+        return url.append(requestUri);
+    }
+
+    @Override
+    public String getServletPath() {
+        return requestUri.substring(getContextPath().length());
+    }
+
+    @Override
+    public String getPathInfo() {
+        return null;
+    }
+
+    @Override
+    public String getPathTranslated() {
+        return null;
+    }
+
+    @Override
+    public String getQueryString() {
+        return queryString;
+    }
+
+    @Override
+    public String getParameter(String name) {
+        String[] values = parameters.get(name);
+        return values == null ? null : values[0];
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return parameters;
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parameters.keySet());
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        return parameters.get(name);
+    }
+
+    @Override
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return values == null ? null : values.get(0);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        return Collections.enumeration(headers.getOrDefault(name, List.of()));
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(headers.keySet());
+    }
+
+    @Override
+    public int getIntHeader(String name) {
+        String value = getHeader(name);
+        return value == null ? -1 : Integer.parseInt(value);
+    }
+
+    @Override
+    public long getDateHeader(String name) {
+        String value = getHeader(name);
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid date header " + name + ": " + value, e);
+        }
+    }
+
+    @Override
+    public String getContentType() {
+        return getHeader("Content-Type");
+    }
+
+    @Override
+    public int getContentLength() {
+        return body.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return body.length;
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return StandardCharsets.UTF_8.name();
+    }
+
+    @Override
+    public void setCharacterEncoding(String encoding) {
+        // Sub-request bodies are always UTF-8 JSON
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        ByteArrayInputStream in = new ByteArrayInputStream(body);
+        return new ServletInputStream() {
+            @Override
+            public boolean isFinished() {
+                return in.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                throw new UnsupportedOperationException("Sub-request bodies are read synchronously");
+            }
+
+            @Override
+            public int read() {
+                return in.read();
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) {
+                return in.read(buffer, offset, length);
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(new ArrayList<>(attributes.keySet()));
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    @Override
+    public DispatcherType getDispatcherType() {
+        return DispatcherType.REQUEST;
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return false;
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return false;
+    }
+
+    @Override
+    public AsyncContext startAsync() {
+        throw new IllegalStateException("Async processing is not supported in batch requests");
+    }
+
+    @Override
+    public AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse) {
+        throw new IllegalStateException("Async processing is not supported in batch requests");
+    }
+
+    @Override
+    public AsyncContext getAsyncContext() {
+        throw new IllegalStateException("Async processing is not supported in batch requests");
+    }
+
+    @Override
+    public Collection<Part> getParts() throws ServletException {
+        throw new ServletException("Multipart is not supported in batch requests");
+    }
+
+    @Override
+    public Part getPart(String name) throws ServletException {
+        throw new ServletException("Multipart is not supported in batch requests");
+    }
+}
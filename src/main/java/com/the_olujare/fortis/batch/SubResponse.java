@@ -0,0 +1,297 @@
+package com.the_olujare.fortis.batch;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.MediaType;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Captures the response of one batch sub-request in memory.
+ *
+ * Status, headers and body never reach the batch response: every method that would write
+ * to it is overridden here. Cookies are dropped (no batchable endpoint sets any).
+ */
+
+public class SubResponse extends HttpServletResponseWrapper {
+
+    private final Map<String, List<String>> headers = new LinkedCaseInsensitiveMap<>();
+    private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+    private int status = SC_OK;
+    private String characterEncoding = StandardCharsets.UTF_8.name();
+    private Locale locale = Locale.getDefault();
+    private boolean committed;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    public SubResponse(HttpServletResponse batchResponse) {
+        super(batchResponse);
+    }
+
+    public byte[] getContentAsByteArray() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return content.toByteArray();
+    }
+
+    /**
+     * First value of every header, in the order they were set.
+     */
+    public Map<String, String> getHeaderMap() {
+        Map<String, String> first = new LinkedHashMap<>();
+        headers.forEach((name, values) -> first.put(name, values.get(0)));
+        return first;
+    }
+
+    @Override
+    public void setStatus(int status) {
+        if (!committed) {
+            this.status = status;
+        }
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void sendError(int status) {
+        sendError(status, null);
+    }
+
+    @Override
+    public void sendError(int status, String message) {
+        if (committed) {
+            throw new IllegalStateException("Response already committed");
+        }
+        this.status = status;
+        this.committed = true;
+    }
+
+    @Override
+    public void sendRedirect(String location) {
+        if (committed) {
+            throw new IllegalStateException("Response already committed");
+        }
+        this.status = SC_FOUND;
+        setHeader("Location", location);
+        this.committed = true;
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (value == null) {
+            headers.remove(name);
+        } else {
+            List<String> values = new ArrayList<>(1);
+            values.add(value);
+            headers.put(name, values);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (value != null) {
+            headers.computeIfAbsent(name, key -> new ArrayList<>(1)).add(value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        setHeader(name, Integer.toString(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        addHeader(name, Integer.toString(value));
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        setHeader(name, formatDate(date));
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        addHeader(name, formatDate(date));
+    }
+
+    private static String formatDate(long date) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(date).atZone(ZoneOffset.UTC));
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return headers.containsKey(name);
+    }
+
+    @Override
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return values == null ? null : values.get(0);
+    }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        return List.copyOf(headers.getOrDefault(name, List.of()));
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        return List.copyOf(headers.keySet());
+    }
+
+    @Override
+    public void setContentType(String contentType) {
+        if (contentType == null) {
+            headers.remove("Content-Type");
+            return;
+        }
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        if (mediaType.getCharset() != null) {
+            characterEncoding = mediaType.getCharset().name();
+        }
+        setHeader("Content-Type", contentType);
+    }
+
+    @Override
+    public String getContentType() {
+        return getHeader("Content-Type");
+    }
+
+    @Override
+    public void setCharacterEncoding(String characterEncoding) {
+        if (characterEncoding != null) {
+            this.characterEncoding = characterEncoding;
+        }
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding;
+    }
+
+    @Override
+    public void setContentLength(int length) {
+        setContentLengthLong(length);
+    }
+
+    @Override
+    public void setContentLengthLong(long length) {
+        setHeader("Content-Length", Long.toString(length));
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called");
+        }
+        if (outputStream == null) {
+            outputStream = new ServletOutputStream() {
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    throw new UnsupportedOperationException("Sub-responses are written synchronously");
+                }
+
+                @Override
+                public void write(int b) {
+                    content.write(b);
+                }
+
+                @Override
+                public void write(byte[] buffer, int offset, int length) {
+                    content.write(buffer, offset, length);
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (outputStream != null) {
+            throw new IllegalStateException("getOutputStream() has already been called");
+        }
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(content, Charset.forName(characterEncoding)));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() {
+        if (writer != null) {
+            writer.flush();
+        }
+        committed = true;
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        headers.clear();
+        status = SC_OK;
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (committed) {
+            throw new IllegalStateException("Response already committed");
+        }
+        content.reset();
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+        // Everything is buffered
+    }
+
+    @Override
+    public int getBufferSize() {
+        return content.size();
+    }
+
+    @Override
+    public void setLocale(Locale locale) {
+        this.locale = locale;
+    }
+
+    @Override
+    public Locale getLocale() {
+        return locale;
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        // Dropped, see class comment
+    }
+}
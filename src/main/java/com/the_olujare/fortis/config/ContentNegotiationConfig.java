@@ -0,0 +1,48 @@
+package com.the_olujare.fortis.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary response formats, chosen by the client's Accept header.
+ *
+ * - application/json          → default, unchanged
+ * - application/cbor          → MappingJackson2CborHttpMessageConverter
+ * - application/x-jackson-smile → MappingJackson2SmileHttpMessageConverter
+ *
+ * Request bodies are accepted in the same formats via Content-Type.
+ *
+ * Both converters are built from Spring Boot's Jackson2ObjectMapperBuilder,
+ * so they share every customization of the JSON mapper (modules, date handling, inclusion).
+ * Declaring them as beans puts them in Boot's HttpMessageConverters instead of
+ * the bare defaults Spring MVC would otherwise register.
+ *
+ * BlackbirdModule replaces reflective getter calls with generated lambdas for every DTO;
+ * TaskResponse goes further with its own serializer (see TaskResponseSerializer).
+ */
+
+@Configuration
+public class ContentNegotiationConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,93 @@
+package com.the_olujare.fortis.config;
+
+import com.the_olujare.fortis.util.EmailUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rewrites stored emails into EmailUtil's canonical form before traffic arrives.
+ *
+ * Why:
+ * - Login, lockout and password reset look emails up by exact match on the normalized
+ *   string; accounts registered before normalization may still hold mixed case and
+ *   would otherwise never be found again
+ *
+ * What runs:
+ * - Every fortis_user row whose email is not already trimmed and lower-cased is
+ *   updated to EmailUtil.normalize(email)
+ * - A row is left untouched, and logged as a collision, when another account already
+ *   holds the normalized email or several rows normalize to the same one; those
+ *   accounts need to be merged or renamed by hand
+ *
+ * Idempotent:
+ * - Runs first among the ApplicationRunners on every start; once the table is clean
+ *   it is a single scan that finds nothing
+ */
+
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class EmailNormalizationRunner implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${fortis.email-normalization.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        // The SQL filter only narrows the scan; the stored value always comes from EmailUtil
+        Map<String, List<Long>> idsByEmail = new LinkedHashMap<>();
+        jdbcTemplate.query("select id, email from fortis_user where email <> lower(trim(email)) order by id",
+                rs -> {
+                    idsByEmail.computeIfAbsent(EmailUtil.normalize(rs.getString("email")), email -> new ArrayList<>())
+                            .add(rs.getLong("id"));
+                });
+        if (idsByEmail.isEmpty()) {
+            return;
+        }
+
+        int migrated = 0;
+        int collisions = 0;
+        for (Map.Entry<String, List<Long>> entry : idsByEmail.entrySet()) {
+            String email = entry.getKey();
+            List<Long> ids = entry.getValue();
+            if (ids.size() == 1 && normalize(ids.get(0), email)) {
+                migrated++;
+                continue;
+            }
+            List<Long> holders = jdbcTemplate.queryForList(
+                    "select id from fortis_user where email = ? order by id", Long.class, email);
+            log.warn("Email collision: users {} all normalize to {} (already held by {}); left unchanged",
+                    ids, email, holders.isEmpty() ? "nobody" : holders);
+            collisions += ids.size();
+        }
+        log.info("Email normalization: {} stored email(s) lower-cased, {} left for manual review",
+                migrated, collisions);
+    }
+
+    /**
+     * Updates one row unless another account already holds the normalized email.
+     */
+    private boolean normalize(Long id, String email) {
+        return jdbcTemplate.update("update fortis_user set email = ? where id = ? "
+                + "and not exists (select 1 from fortis_user other where other.email = ?)", email, id, email) == 1;
+    }
+}
@@ -0,0 +1,223 @@
+package com.the_olujare.fortis.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.the_olujare.fortis.dto.auth.AuthResponse;
+import com.the_olujare.fortis.dto.task.TaskResponse;
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.entity.Task;
+import com.the_olujare.fortis.repository.*;
+import com.the_olujare.fortis.util.JwtUtil;
+import com.the_olujare.fortis.util.TokenHashUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+/**
+ * Exercises the hot request paths before the instance reports itself ready.
+ *
+ * Why:
+ * - Right after a deploy the JWT parser, BCrypt, Jackson serializers, Hibernate
+ *   query plans and the Security filter chain all run interpreted
+ * - Spring Boot only publishes ReadinessState.ACCEPTING_TRAFFIC after every
+ *   ApplicationRunner has returned, so blocking here keeps traffic away
+ *
+ * What runs (each step repeated to reach JIT compile thresholds):
+ * - JwtUtil: generate, parse, validate a token for a synthetic user
+ * - PasswordEncoder: encode and match
+ * - Jackson: serialize TaskResponse lists and AuthResponse
+ * - Repository finders inside a scratch transaction that is always rolled back
+ * - HTTP requests through the real filter chain (only when a server port is bound)
+ *
+ * Bounded:
+ * - Runs on a separate thread; readiness waits at most fortis.warmup.time-budget-ms
+ * - Any failure is logged and never blocks startup
+ */
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JitWarmupRunner implements ApplicationRunner {
+
+    private final JwtUtil jwtUtil;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+    private final FortisUserRepository fortisUserRepository;
+    private final TaskRepository taskRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final EmailVerificationTokenRepository emailVerificationTokenRepository;
+    private final RevokedAccessTokenRepository revokedAccessTokenRepository;
+    private final Environment environment;
+
+    @Value("${fortis.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${fortis.warmup.iterations:200}")
+    private int iterations;
+
+    @Value("${fortis.warmup.password-iterations:5}")
+    private int passwordIterations;
+
+    @Value("${fortis.warmup.time-budget-ms:10000}")
+    private long timeBudgetMs;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jit-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            executor.submit(this::warmUp).get(timeBudgetMs, TimeUnit.MILLISECONDS);
+            log.info("JIT warm-up finished in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (TimeoutException e) {
+            log.warn("JIT warm-up exceeded its {} ms budget; reporting ready anyway", timeBudgetMs);
+        } catch (ExecutionException e) {
+            log.warn("JIT warm-up failed; reporting ready anyway", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void warmUp() {
+        FortisUser syntheticUser = FortisUser.builder()
+                .id(-1L)
+                .username("warmup")
+                .email("warmup-" + UUID.randomUUID() + "@fortis.invalid")
+                .password("{warmup}")
+                .enabled(true)
+                .build();
+
+        warmUpJwt(syntheticUser);
+        warmUpPasswordHashing();
+        warmUpSerialization(syntheticUser);
+        warmUpRepositories(syntheticUser);
+        warmUpHttp();
+    }
+
+    private void warmUpJwt(FortisUser syntheticUser) {
+        for (int i = 0; i < iterations && !Thread.currentThread().isInterrupted(); i++) {
+            String token = jwtUtil.generateToken(syntheticUser);
+            jwtUtil.isTokenValid(jwtUtil.parseClaims(token), syntheticUser);
+        }
+    }
+
+    private void warmUpPasswordHashing() {
+        for (int i = 0; i < passwordIterations && !Thread.currentThread().isInterrupted(); i++) {
+            String hash = passwordEncoder.encode("warmup-password");
+            passwordEncoder.matches("warmup-password", hash);
+        }
+    }
+
+    private void warmUpSerialization(FortisUser syntheticUser) {
+        List<TaskResponse> tasks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            tasks.add(TaskResponse.builder()
+                    .id((long) i)
+                    .userId(syntheticUser.getId())
+                    .username(syntheticUser.getUsername())
+                    .title("Task " + i)
+                    .description("Warm-up task " + i)
+                    .completed(i % 2 == 0)
+                    .build());
+        }
+        AuthResponse authResponse = AuthResponse.builder()
+                .token("token")
+                .refreshToken("refresh")
+                .username(syntheticUser.getUsername())
+                .email(syntheticUser.getEmail())
+                .build();
+
+        try {
+            for (int i = 0; i < iterations && !Thread.currentThread().isInterrupted(); i++) {
+                byte[] taskJson = objectMapper.writeValueAsBytes(tasks);
+                objectMapper.readValue(taskJson, TaskResponse[].class);
+                objectMapper.writeValueAsBytes(authResponse);
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Serialization warm-up failed", e);
+        }
+    }
+
+    private void warmUpRepositories(FortisUser syntheticUser) {
+        TransactionTemplate scratch = new TransactionTemplate(transactionManager);
+        scratch.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+
+            FortisUser user = fortisUserRepository.save(FortisUser.builder()
+                    .username(syntheticUser.getUsername())
+                    .email(syntheticUser.getEmail())
+                    .password(syntheticUser.getPassword())
+                    .enabled(true)
+                    .build());
+            Task task = taskRepository.save(Task.builder().title("warmup").fortisUser(user).build());
+
+            for (int i = 0; i < iterations / 10 && !Thread.currentThread().isInterrupted(); i++) {
+                fortisUserRepository.findByEmail(user.getEmail());
+                fortisUserRepository.existsByEmail(user.getEmail());
+                taskRepository.findAllByFortisUser(user);
+                taskRepository.findById(task.getId());
+                refreshTokenRepository.findByTokenHash(TokenHashUtil.sha256("warmup"));
+                refreshTokenRepository.revokeAllByFortisUser(user);
+                passwordResetTokenRepository.findByToken("warmup");
+                emailVerificationTokenRepository.findByToken("warmup");
+                revokedAccessTokenRepository.existsById("warmup");
+            }
+        });
+    }
+
+    private void warmUpHttp() {
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        if (port == null || port <= 0) {
+            return;
+        }
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        List<HttpRequest> requests = List.of(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tasks")).GET().build(),
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/verify?token=warmup")).GET().build()
+        );
+
+        Instant deadline = Instant.now().plusMillis(timeBudgetMs);
+        for (int i = 0; i < iterations / 10 && Instant.now().isBefore(deadline); i++) {
+            for (HttpRequest request : requests) {
+                try {
+                    client.send(request, HttpResponse.BodyHandlers.discarding());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package com.the_olujare.fortis.config;
 
+import com.the_olujare.fortis.monitoring.RequestTiming;
+import com.the_olujare.fortis.service.AccessTokenDenylistService;
+import com.the_olujare.fortis.tracing.Span;
+import com.the_olujare.fortis.tracing.Tracing;
 import com.the_olujare.fortis.util.JwtConstants;
 import com.the_olujare.fortis.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,6 +18,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -25,6 +32,9 @@ import java.io.IOException;
  * Reads the Authorization header and checks for a Bearer token.
  * Extracts the JWT and pulls the user’s email from it.
  *
+ * Rejects tokens on the access-token denylist (revoked on logout).
+ * The check is an in-memory Bloom filter; the database is only hit on a filter match.
+ *
  * Loads UserDetails using the extracted email.
  * Validates the token against the user’s details.
  *
@@ -33,8 +43,14 @@ import java.io.IOException;
  *  - Attaches request-specific details.
  *  - Stores the authentication in SecurityContextHolder.
  *
- * If the header is missing or the token is invalid:
+ * If the header is missing or the token is invalid (malformed, expired, unknown user):
  *  - Skips authentication and continues the filter chain.
+ *  - Protected endpoints then answer 401 through SecurityConfig's entry point;
+ *    public ones (e.g. logout with an expired access token) still work.
+ *
+ * Token parsing/verification and the user lookup are reported to RequestTiming
+ * (Server-Timing "jwt" and "user") when fortis.server-timing.enabled is on,
+ * and traced as a "JwtAuthenticationFilter" span (the rest of the chain is outside it).
  *
  * This filter enables stateless authentication.
  * No session is created. Each request carries its own proof of identity.
@@ -46,6 +62,7 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final AccessTokenDenylistService accessTokenDenylistService;
 
     @Override
     protected void doFilterInternal(
@@ -64,17 +81,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         token = authHeader.substring(7);
-        email = jwtUtil.extractEmail(token);
+        try (Span span = Tracing.start("JwtAuthenticationFilter")) {
+            // Verified once; subject, jti and expiry are all read from these claims
+            long parseStart = RequestTiming.start();
+            Claims claims = jwtUtil.parseClaims(token);
+            RequestTiming.stop(RequestTiming.Phase.JWT, parseStart);
+            email = claims.getSubject();
+
+            if (email != null
+                    && SecurityContextHolder.getContext().getAuthentication() == null
+                    && !accessTokenDenylistService.isRevoked(claims.getId())) {
+                long lookupStart = RequestTiming.start();
+                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+                RequestTiming.stop(RequestTiming.Phase.USER, lookupStart);
 
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+                boolean tokenValid = jwtUtil.isTokenValid(claims, userDetails);
 
-            if (jwtUtil.isTokenValid(token, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(httpServletRequest));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+                if (tokenValid) {
+                    UsernamePasswordAuthenticationToken authToken =
+                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(httpServletRequest));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                }
+                span.attribute("fortis.auth.token_valid", tokenValid ? "true" : "false");
             }
+        } catch (JwtException | IllegalArgumentException | UsernameNotFoundException e) {
+            // Invalid token: continue unauthenticated
         }
 
         filterChain.doFilter(httpServletRequest, httpServletResponse);
@@ -1,5 +1,6 @@
 package com.the_olujare.fortis.config;
 
+import com.the_olujare.fortis.exception.TooManyRequestsException;
 import jakarta.servlet.http.HttpServletRequest;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
@@ -30,7 +31,7 @@ import java.util.concurrent.ConcurrentHashMap;
  *  - When the window expires, the counter resets automatically.
  *
  * Uses ConcurrentHashMap to remain thread-safe under concurrent requests.
- * Throws a runtime exception when the rate limit is exceeded.
+ * Throws a (shared, stackless) TooManyRequestsException when the rate limit is exceeded → HTTP 429.
  *
  * This approach is lightweight and suitable for basic protection.
  * It is not intended to replace distributed or production-grade rate limiting solutions.
@@ -45,6 +46,8 @@ public class RateLimitAspect {
     private final Map<String, Long> firstRequestTime = new ConcurrentHashMap<>();
     private static final int MAX_REQUESTS = 5;
     private static final long TIME_WINDOW = 60_000;
+    private static final TooManyRequestsException TOO_MANY_REQUESTS =
+            new TooManyRequestsException("Too many requests. Kindly try again later.");
 
     @Before("@annotation(rateLimited)")
     public void rateLimit() {
@@ -68,7 +71,7 @@ public class RateLimitAspect {
 
         int count = requestCounts.get(deviceIp);
         if (count >= MAX_REQUESTS) {
-            throw new RuntimeException("Too many requests. Kindly try again later.");
+            throw TOO_MANY_REQUESTS;
         }
 
         requestCounts.put(deviceIp, count + 1);
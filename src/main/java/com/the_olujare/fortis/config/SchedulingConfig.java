@@ -0,0 +1,18 @@
+package com.the_olujare.fortis.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables Spring's @Scheduled support for background maintenance jobs.
+ *
+ * Registers the configuration properties those jobs read,
+ * keeping scheduling concerns out of FortisApplication.
+ */
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(TokenPurgeProperties.class)
+public class SchedulingConfig {
+}
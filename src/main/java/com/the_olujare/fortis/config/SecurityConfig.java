@@ -1,5 +1,10 @@
 package com.the_olujare.fortis.config;
 
+import com.the_olujare.fortis.exception.ForbiddenException;
+import com.the_olujare.fortis.exception.GlobalExceptionHandler;
+import com.the_olujare.fortis.exception.UnauthorizedException;
+import com.the_olujare.fortis.monitoring.TimedPasswordEncoder;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -28,9 +33,16 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
  *
  * Authorization rules:
  * - /api/auth/** is public (registration, login, verification, password reset).
+ * - /api/admin/** requires ROLE_ADMIN (operational endpoints).
+ * - /actuator/health (liveness / readiness probes) is public for load balancers.
  * - H2 console and static resources are explicitly allowed for development.
  * - All other endpoints require a valid JWT.
  *
+ * Rejections:
+ * - No or invalid JWT on a protected endpoint → 401
+ * - Authenticated but lacking the role (e.g. /api/admin/**) → 403
+ * - Both bodies are shared, pre-serialized FortisExceptions (same shape as every other error).
+ *
  * JWT processing:
  * - JwtAuthenticationFilter runs before UsernamePasswordAuthenticationFilter.
  * - The filter extracts, validates the token, and sets the SecurityContext.
@@ -38,6 +50,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
  *
  * Password handling:
  * - BCryptPasswordEncoder is used for hashing passwords securely.
+ * - Wrapped in TimedPasswordEncoder so hashing time shows up in Server-Timing ("hash").
  *
  * AuthenticationManager:
  * - Delegates credential validation to configured authentication providers.
@@ -53,6 +66,11 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    private static final UnauthorizedException AUTHENTICATION_REQUIRED =
+            new UnauthorizedException("Authentication required");
+    private static final ForbiddenException ACCESS_DENIED =
+            new ForbiddenException("Access denied");
+
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
     @Bean
@@ -65,12 +83,22 @@ public class SecurityConfig {
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
                 .authorizeHttpRequests(auth -> auth
+                        // Completion of long-lived async responses (task stream); the request was authorized on entry
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
                         .requestMatchers("/h2-console/**").permitAll()
                         .requestMatchers("/h2-console").permitAll()
                         .requestMatchers("/webjars/**", "/css/**", "/js/**").permitAll()
                         .anyRequest().authenticated()
                 )
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint((request, response, authException) ->
+                                GlobalExceptionHandler.writeError(response, AUTHENTICATION_REQUIRED))
+                        .accessDeniedHandler((request, response, accessDeniedException) ->
+                                GlobalExceptionHandler.writeError(response, ACCESS_DENIED))
+                )
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
         httpSecurity.headers(headers -> headers
@@ -82,7 +110,7 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder());
     }
 
     @Bean
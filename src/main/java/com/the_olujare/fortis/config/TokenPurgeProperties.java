@@ -0,0 +1,46 @@
+package com.the_olujare.fortis.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Binds the fortis.token-purge.* settings used by TokenPurgeService.
+ *
+ * intervalMs
+ *  - Delay between two purge runs (also read directly by @Scheduled).
+ *
+ * refreshToken / passwordResetToken / emailVerificationToken / revokedAccessToken
+ *  - Per-table settings so each token table can be tuned or switched off.
+ *
+ * Table.batchSize
+ *  - Maximum rows deleted in one transaction.
+ *  - Keeps every delete short so locks are never held for long.
+ *
+ * Table.pauseMs
+ *  - Sleep between two chunks to leave room for request traffic.
+ *
+ * Table.maxBatchesPerRun
+ *  - Upper bound on chunks per run; the remainder is picked up next run.
+ */
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "fortis.token-purge")
+public class TokenPurgeProperties {
+
+    private long intervalMs = 3_600_000;
+    private Table refreshToken = new Table();
+    private Table passwordResetToken = new Table();
+    private Table emailVerificationToken = new Table();
+    private Table revokedAccessToken = new Table();
+
+    @Getter
+    @Setter
+    public static class Table {
+        private boolean enabled = true;
+        private int batchSize = 500;
+        private long pauseMs = 200;
+        private int maxBatchesPerRun = 100;
+    }
+}
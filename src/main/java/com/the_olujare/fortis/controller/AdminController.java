@@ -0,0 +1,55 @@
+package com.the_olujare.fortis.controller;
+
+import com.the_olujare.fortis.audit.AuditLog;
+import com.the_olujare.fortis.audit.AuditVerification;
+import com.the_olujare.fortis.dto.admin.SqlStatementStatsResponse;
+import com.the_olujare.fortis.monitoring.SqlStatementRecorder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Exposes operational endpoints for administrators.
+ * Every route requires ROLE_ADMIN (enforced in SecurityConfig).
+ *
+ * GET /api/admin/sql-stats
+ *  - Returns the top-N SQL statements recorded by SqlStatementRecorder.
+ *  - limit → number of rows (default 20).
+ *  - sortBy → total | count | max | rows (default total).
+ *
+ * DELETE /api/admin/sql-stats
+ *  - Clears the collected statistics.
+ *
+ * GET /api/admin/audit/verify
+ *  - Recomputes the audit log's hash chain and reports the first broken record, if any.
+ */
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final SqlStatementRecorder sqlStatementRecorder;
+    private final AuditLog auditLog;
+
+    @GetMapping("/sql-stats")
+    public ResponseEntity<List<SqlStatementStatsResponse>> getSqlStats(
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "total") String sortBy) {
+        return ResponseEntity.ok(sqlStatementRecorder.top(limit, sortBy));
+    }
+
+    @DeleteMapping("/sql-stats")
+    public ResponseEntity<Void> resetSqlStats() {
+        sqlStatementRecorder.reset();
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/audit/verify")
+    public ResponseEntity<AuditVerification> verifyAuditLog() throws IOException {
+        return ResponseEntity.ok(auditLog.verify());
+    }
+}
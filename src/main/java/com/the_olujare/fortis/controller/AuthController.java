@@ -3,6 +3,7 @@ package com.the_olujare.fortis.controller;
 import com.the_olujare.fortis.config.RateLimited;
 import com.the_olujare.fortis.dto.auth.*;
 import com.the_olujare.fortis.service.AuthService;
+import com.the_olujare.fortis.util.JwtConstants;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -41,6 +42,7 @@ import java.util.Map;
  *
  * POST /api/auth/logout
  *  - Invalidates the provided refresh token.
+ *  - Denylists the access token sent in the Authorization header, if any.
  *
  * Rate limiting is enforced using @RateLimited on sensitive endpoints.
  * ResponseEntity is used to provide clear HTTP responses.
@@ -90,9 +92,11 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<String> logout(@RequestBody Map<String, String> logoutRequest) {
+    public ResponseEntity<String> logout(
+            @RequestBody Map<String, String> logoutRequest,
+            @RequestHeader(value = JwtConstants.HEADER_STRING, required = false) String authHeader) {
         String refreshToken = logoutRequest.get("refreshToken");
-        authService.logout(refreshToken);
+        authService.logout(refreshToken, authHeader);
         return ResponseEntity.ok("Logged out successfully");
     }
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.the_olujare.fortis.controller;
+
+import com.the_olujare.fortis.dto.batch.BatchRequest;
+import com.the_olujare.fortis.dto.batch.BatchResponse;
+import com.the_olujare.fortis.service.BatchService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * POST /api/batch
+ *  - Runs an ordered list of task and user API calls in one round trip,
+ *    e.g. a client's launch burst (profile, task list, several toggles).
+ *  - Authenticated once, like any other request; the sub-requests carry no Authorization.
+ *  - Always 200 once the batch is accepted: each sub-request has its own status in the response.
+ *  - 400 for an invalid batch (empty, too many requests, a path or method that is not batchable).
+ *  - "atomic": true runs every sub-request in one transaction (see BatchService).
+ */
+
+@RestController
+@RequestMapping("/api/batch")
+@RequiredArgsConstructor
+public class BatchController {
+
+    private final BatchService batchService;
+
+    @PostMapping
+    public ResponseEntity<BatchResponse> executeBatch(@RequestBody BatchRequest batchRequest,
+                                                      HttpServletRequest request,
+                                                      HttpServletResponse response) {
+        return ResponseEntity.ok(batchService.execute(batchRequest, request, response));
+    }
+}
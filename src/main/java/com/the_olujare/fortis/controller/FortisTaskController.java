@@ -1,11 +1,20 @@
 package com.the_olujare.fortis.controller;
 
+import com.the_olujare.fortis.dto.task.TaskArchiveResponse;
+import com.the_olujare.fortis.dto.task.TaskChangesResponse;
+import com.the_olujare.fortis.dto.task.TaskField;
 import com.the_olujare.fortis.dto.task.TaskRequest;
 import com.the_olujare.fortis.dto.task.TaskResponse;
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.event.TaskEventHub;
+import com.the_olujare.fortis.service.IdempotencyService;
 import com.the_olujare.fortis.service.TaskService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -38,6 +47,27 @@ import java.util.List;
  *   - Quickly switches a task’s completion state.
  *   - Returns the updated task for convenience.
  *
+ * 7. GET /api/tasks/changes?since={token}&limit={n}
+ *   - Delta sync: tasks changed and ids of tasks deleted since the token, plus the next token.
+ *   - Without since, returns a snapshot of all tasks; page through with hasMore / nextToken.
+ *   - resyncRequired means the token is too old: start over without since.
+ *
+ * 8. GET /api/tasks/stream
+ *   - Server-sent events for the current user's tasks: created, updated, toggled, deleted.
+ *   - Send Last-Event-ID to resume; a "reset" event means refetch GET /api/tasks.
+ *   - Fan-out, buffering and heartbeats are handled by TaskEventHub.
+ *
+ * 9. GET /api/tasks/archive?cursor={cursor}&limit={n}
+ *   - Completed tasks moved out of the task list by the archiver, read back from compressed segments.
+ *   - Page through with hasMore / nextCursor; archived tasks are read-only.
+ *
+ * GET /api/tasks, /api/tasks/{id}, /changes and /archive accept ?fields=id,title,completed
+ * (any of id, userId, title, username, description, completed): only those fields are returned,
+ * and only the columns behind them are read. Unknown fields are rejected with 400.
+ *
+ * POST, PUT and PATCH accept an optional Idempotency-Key header: a retry with the same key
+ * gets the first response again instead of repeating the change (see IdempotencyService).
+ *
  * Take Note: ResponseEntity ensures proper HTTP response codes and payload formatting.
  * This controller’s responsibility is routing and response handling—nothing more.
  */
@@ -48,25 +78,53 @@ import java.util.List;
 public class FortisTaskController {
 
     private final TaskService taskService;
+    private final TaskEventHub taskEventHub;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
-    public ResponseEntity<TaskResponse> createTask(@RequestBody TaskRequest taskRequest) {
-        return ResponseEntity.ok(taskService.createTask(taskRequest));
+    public ResponseEntity<TaskResponse> createTask(@RequestBody TaskRequest taskRequest,
+                                                   @RequestHeader(value = IdempotencyService.HEADER, required = false)
+                                                   String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, fingerprint("POST", null, taskRequest),
+                () -> ResponseEntity.ok(taskService.createTask(taskRequest)));
     }
 
     @GetMapping
-    public ResponseEntity<List<TaskResponse>> getAllTasks() {
-        return ResponseEntity.ok(taskService.getTasksForCurrentUser());
+    public ResponseEntity<List<TaskResponse>> getAllTasks(@RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(taskService.getTasksForCurrentUser(TaskField.parse(fields)));
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<TaskChangesResponse> getChanges(@RequestParam(required = false) String since,
+                                                          @RequestParam(defaultValue = "500") int limit,
+                                                          @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(taskService.getChangesForCurrentUser(since, limit, TaskField.parse(fields)));
+    }
+
+    @GetMapping("/archive")
+    public ResponseEntity<TaskArchiveResponse> getArchive(@RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "200") int limit,
+                                                          @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(taskService.getArchivedTasksForCurrentUser(cursor, limit, TaskField.parse(fields)));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTasks(@AuthenticationPrincipal FortisUser fortisUser,
+                                  @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return taskEventHub.subscribe(fortisUser.getId(), lastEventId);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<TaskResponse> getTask(@PathVariable Long id) {
-        return ResponseEntity.ok(taskService.getTaskById(id));
+    public ResponseEntity<TaskResponse> getTask(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(taskService.getTaskById(id, TaskField.parse(fields)));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<TaskResponse> updateTask(@PathVariable Long id, @RequestBody TaskRequest taskRequest) {
-        return ResponseEntity.ok(taskService.updateTask(id, taskRequest));
+    public ResponseEntity<TaskResponse> updateTask(@PathVariable Long id, @RequestBody TaskRequest taskRequest,
+                                                   @RequestHeader(value = IdempotencyService.HEADER, required = false)
+                                                   String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, fingerprint("PUT", id, taskRequest),
+                () -> ResponseEntity.ok(taskService.updateTask(id, taskRequest)));
     }
 
     @DeleteMapping("/{id}")
@@ -76,8 +134,30 @@ public class FortisTaskController {
     }
 
     @PatchMapping("/{id}/toggle")
-    public ResponseEntity<TaskResponse> toggleComplete(@PathVariable Long id) {
-        taskService.toggleComplete(id);
-        return ResponseEntity.ok(taskService.getTaskById(id));
+    public ResponseEntity<TaskResponse> toggleComplete(@PathVariable Long id,
+                                                       @RequestHeader(value = IdempotencyService.HEADER, required = false)
+                                                       String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, fingerprint("PATCH", id, null),
+                () -> ResponseEntity.ok(taskService.toggleComplete(id)));
+    }
+
+    // What a reused Idempotency-Key must match: the operation, the task and the submitted fields
+    private static String fingerprint(String method, Long id, TaskRequest taskRequest) {
+        StringBuilder fingerprint = new StringBuilder(method).append(' ').append(id);
+        if (taskRequest != null) {
+            appendField(fingerprint, taskRequest.getTitle());
+            appendField(fingerprint, taskRequest.getDescription());
+        }
+        return fingerprint.toString();
+    }
+
+    // Length-prefixed, so no value can spill into the next field; null is distinct from the text "null"
+    private static void appendField(StringBuilder fingerprint, String value) {
+        fingerprint.append('\n');
+        if (value == null) {
+            fingerprint.append('-');
+        } else {
+            fingerprint.append(value.length()).append(':').append(value);
+        }
     }
 }
\ No newline at end of file
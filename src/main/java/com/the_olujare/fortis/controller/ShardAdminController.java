@@ -0,0 +1,63 @@
+package com.the_olujare.fortis.controller;
+
+import com.the_olujare.fortis.datasource.ShardRebalancer;
+import com.the_olujare.fortis.datasource.ShardResolver;
+import com.the_olujare.fortis.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * Administrative endpoints for task sharding.
+ * Registered only when fortis.sharding.enabled=true; requires ROLE_ADMIN.
+ *
+ * GET /api/admin/shards/users/{userId}
+ *  - Shows which shard holds the user's tasks and whether a move is in progress.
+ *
+ * POST /api/admin/shards/users/{userId}/move?targetShard=N
+ *  - Queues a move of the user's tasks to shard N, done online in the background (see ShardRebalancer).
+ *  - 202 with the queued move; Location points at its status.
+ *  - 409 if a move of the same user is already queued or running.
+ *  - Re-posting after a failed move resumes it.
+ *
+ * GET /api/admin/shards/users/{userId}/move
+ *  - Status of the user's latest move: QUEUED, RUNNING, DONE (with its result) or FAILED.
+ *  - 404 if the user was not moved since startup.
+ */
+
+@RestController
+@RequestMapping("/api/admin/shards")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "fortis.sharding.enabled", havingValue = "true")
+public class ShardAdminController {
+
+    private final ShardResolver shardResolver;
+    private final ShardRebalancer shardRebalancer;
+
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<Map<String, Object>> getAssignment(@PathVariable Long userId) {
+        ShardResolver.Assignment assignment = shardResolver.resolve(userId);
+        return ResponseEntity.ok(Map.of(
+                "userId", userId,
+                "shard", assignment.shard(),
+                "moving", assignment.moving(),
+                "shardCount", shardResolver.shardCount()));
+    }
+
+    @PostMapping("/users/{userId}/move")
+    public ResponseEntity<ShardRebalancer.MoveJob> moveUser(@PathVariable Long userId, @RequestParam int targetShard) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/admin/shards/users/" + userId + "/move"))
+                .body(shardRebalancer.submitMove(userId, targetShard));
+    }
+
+    @GetMapping("/users/{userId}/move")
+    public ResponseEntity<ShardRebalancer.MoveJob> getMove(@PathVariable Long userId) {
+        return ResponseEntity.ok(shardRebalancer.moveStatus(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("No move of this user since startup")));
+    }
+}
@@ -0,0 +1,131 @@
+package com.the_olujare.fortis.controller;
+
+import com.the_olujare.fortis.attachment.AttachmentStorage;
+import com.the_olujare.fortis.dto.task.TaskAttachmentResponse;
+import com.the_olujare.fortis.service.TaskAttachmentService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * REST endpoints for files attached to a task. Ownership is enforced by TaskAttachmentService.
+ *
+ * 1. POST /api/tasks/{taskId}/attachments
+ *   - multipart/form-data with a "file" part; streamed to disk, never buffered in memory.
+ *   - Larger than fortis.attachments.max-bytes → 413.
+ *   - Returns the attachment metadata, including its SHA-256.
+ *
+ * 2. GET /api/tasks/{taskId}/attachments
+ *   - Metadata of all attachments of the task.
+ *
+ * 3. GET /api/tasks/{taskId}/attachments/{attachmentId}
+ *   - The file, with its original name and content type (always as a download).
+ *   - Range: bytes=… for resumable and partial downloads (206, or 416 when unsatisfiable);
+ *     If-Range is honoured. Multiple ranges are answered with the whole file.
+ *   - ETag is the quoted SHA-256; If-None-Match answers 304.
+ *   - The body is sent by AttachmentStorage.transfer() without passing through the heap.
+ *
+ * 4. DELETE /api/tasks/{taskId}/attachments/{attachmentId}
+ *   - Returns HTTP 204 with no content.
+ */
+
+@RestController
+@RequestMapping("/api/tasks/{taskId}/attachments")
+@RequiredArgsConstructor
+public class TaskAttachmentController {
+
+    private final TaskAttachmentService taskAttachmentService;
+    private final AttachmentStorage attachmentStorage;
+
+    @PostMapping
+    public ResponseEntity<TaskAttachmentResponse> upload(@PathVariable Long taskId,
+                                                         HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(taskAttachmentService.upload(taskId, request));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<TaskAttachmentResponse>> getAttachments(@PathVariable Long taskId) {
+        return ResponseEntity.ok(taskAttachmentService.getAttachments(taskId));
+    }
+
+    @GetMapping("/{attachmentId}")
+    public void download(@PathVariable Long taskId,
+                         @PathVariable UUID attachmentId,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        TaskAttachmentResponse attachment = taskAttachmentService.getAttachment(taskId, attachmentId);
+        long size = attachment.getSize();
+        String etag = "\"" + attachment.getSha256() + "\"";
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setContentType(attachment.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(attachment.getFilename(), StandardCharsets.UTF_8)
+                .build()
+                .toString());
+
+        long start = 0;
+        long length = size;
+        HttpRange range = singleRange(request, etag);
+        if (range != null) {
+            try {
+                start = range.getRangeStart(size);
+                length = range.getRangeEnd(size) - start + 1;
+            } catch (IllegalArgumentException e) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.setContentLength(0);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (start + length - 1) + "/" + size);
+        }
+        response.setContentLengthLong(length);
+
+        if (HttpMethod.HEAD.matches(request.getMethod()) || length == 0) {
+            return;
+        }
+        attachmentStorage.transfer(attachment.getSha256(), start, length, request, response);
+    }
+
+    @DeleteMapping("/{attachmentId}")
+    public ResponseEntity<Void> deleteAttachment(@PathVariable Long taskId, @PathVariable UUID attachmentId) {
+        taskAttachmentService.deleteAttachment(taskId, attachmentId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // The one requested range, or null for the whole file (no, several or unparseable ranges, stale If-Range)
+    private static HttpRange singleRange(HttpServletRequest request, String etag) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
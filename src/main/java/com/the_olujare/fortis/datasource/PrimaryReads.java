@@ -0,0 +1,40 @@
+package com.the_olujare.fortis.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks the current thread's read-only transactions as primary-only.
+ *
+ * For reads that cannot rely on the per-user sticky window because nobody is
+ * authenticated yet: the auth flows (login, register, forgot-password) look users up
+ * right after another request created or changed them, and a lagging replica would
+ * answer with a missing or stale row. ReadWriteRoutingDataSource reads the flag when
+ * a connection is requested; without routing enabled it has no effect.
+ */
+
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static boolean isActive() {
+        return Boolean.TRUE.equals(ACTIVE.get());
+    }
+
+    /**
+     * Runs action with every read served by the primary, restoring the previous state afterwards.
+     */
+    public static <T> T call(Supplier<T> action) {
+        boolean previous = isActive();
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (!previous) {
+                ACTIVE.remove();
+            }
+        }
+    }
+}
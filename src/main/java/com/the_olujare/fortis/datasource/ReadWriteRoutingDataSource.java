@@ -0,0 +1,80 @@
+package com.the_olujare.fortis.datasource;
+
+import com.the_olujare.fortis.entity.FortisUser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes connections to the primary or the replica pool.
+ *
+ * Routing rules:
+ * - Read-only transactions (@Transactional(readOnly = true), Spring Data finders) → replica
+ * - Everything else (writes, no transaction) → primary
+ * - A user whose write transaction committed within the sticky window reads from the
+ *   primary (read-your-writes); the window starts at commit, however long the transaction ran
+ * - Reads inside PrimaryReads.call() (unauthenticated auth flows) → primary
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy: the transaction's read-only flag
+ * is only known after the transaction begins, so the physical connection has to be
+ * fetched lazily on the first statement.
+ *
+ * Metrics: fortis.datasource.routes counter tagged pool=primary|replica.
+ */
+
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    private final ReplicaStickiness replicaStickiness;
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+
+    public ReadWriteRoutingDataSource(ReplicaStickiness replicaStickiness, MeterRegistry meterRegistry) {
+        this.replicaStickiness = replicaStickiness;
+        this.primaryRoutes = meterRegistry.counter("fortis.datasource.routes", "pool", "primary");
+        this.replicaRoutes = meterRegistry.counter("fortis.datasource.routes", "pool", "replica");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long userId = currentUserId();
+
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (!PrimaryReads.isActive() && (userId == null || !replicaStickiness.isSticky(userId))) {
+                replicaRoutes.increment();
+                return Route.REPLICA;
+            }
+        } else if (TransactionSynchronizationManager.isActualTransactionActive() && userId != null) {
+            markWriteOnCommit(userId);
+        }
+
+        primaryRoutes.increment();
+        return Route.PRIMARY;
+    }
+
+    private void markWriteOnCommit(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            replicaStickiness.markWrite(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                replicaStickiness.markWrite(userId);
+            }
+        });
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof FortisUser fortisUser) {
+            return fortisUser.getId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,48 @@
+package com.the_olujare.fortis.datasource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-your-writes window per user.
+ *
+ * After a user runs a write transaction, their read-only transactions stay on the
+ * primary for stickyWindowMs, so they never read their own change from a lagging replica.
+ *
+ * Entries are dropped lazily when checked after the window, and swept in bulk
+ * once the map grows past a soft limit.
+ */
+
+public class ReplicaStickiness {
+
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private final long stickyWindowNanos;
+    private final Map<Long, Long> lastWriteNanos = new ConcurrentHashMap<>();
+
+    public ReplicaStickiness(long stickyWindowMs) {
+        this.stickyWindowNanos = TimeUnit.MILLISECONDS.toNanos(stickyWindowMs);
+    }
+
+    public void markWrite(Long userId) {
+        long now = System.nanoTime();
+        lastWriteNanos.put(userId, now);
+
+        if (lastWriteNanos.size() > SWEEP_THRESHOLD) {
+            lastWriteNanos.values().removeIf(writtenAt -> now - writtenAt > stickyWindowNanos);
+        }
+    }
+
+    public boolean isSticky(Long userId) {
+        Long writtenAt = lastWriteNanos.get(userId);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - writtenAt > stickyWindowNanos) {
+            lastWriteNanos.remove(userId, writtenAt);
+            return false;
+        }
+        return true;
+    }
+}
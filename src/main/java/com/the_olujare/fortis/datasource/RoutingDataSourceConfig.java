@@ -0,0 +1,91 @@
+package com.the_olujare.fortis.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Read/write split between a primary and a replica database.
+ * Active only when fortis.datasource.routing.enabled=true; otherwise Spring Boot's
+ * single auto-configured DataSource is used unchanged.
+ *
+ * Pools:
+ * - primaryDataSource → spring.datasource.* (+ spring.datasource.hikari.*)
+ * - replicaDataSource → fortis.datasource.replica.* (+ fortis.datasource.replica.hikari.*)
+ * - Both are Hikari beans, so each gets its own hikaricp.* metrics tagged by pool name
+ *
+ * dataSource (@Primary)
+ * - LazyConnectionDataSourceProxy → ReadWriteRoutingDataSource → primary / replica
+ * - JPA, Spring Data and the transaction manager all use this one
+ *
+ * Local testing:
+ * - The "replica" profile points both pools at H2 (see application-replica.properties)
+ */
+
+@Configuration
+@ConditionalOnProperty(name = "fortis.datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class RoutingDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("fortis-primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("fortis.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            @Value("${fortis.datasource.replica.url}") String url,
+            @Value("${fortis.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${fortis.datasource.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${fortis.datasource.replica.driver-class-name:${spring.datasource.driver-class-name:}}") String driverClassName) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        if (!driverClassName.isBlank()) {
+            dataSource.setDriverClassName(driverClassName);
+        }
+        dataSource.setReadOnly(true);
+        dataSource.setPoolName("fortis-replica");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaStickiness replicaStickiness(
+            @Value("${fortis.datasource.routing.sticky-window-ms:2000}") long stickyWindowMs) {
+        return new ReplicaStickiness(stickyWindowMs);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReplicaStickiness replicaStickiness,
+                                 MeterRegistry meterRegistry) {
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(replicaStickiness, meterRegistry);
+        routingDataSource.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Route.PRIMARY, primaryDataSource,
+                ReadWriteRoutingDataSource.Route.REPLICA, replicaDataSource));
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -0,0 +1,47 @@
+package com.the_olujare.fortis.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds the task shard selected for the current thread.
+ *
+ * Set by TaskShardAspect around TaskService calls, by ShardRebalancer,
+ * and through callOn() by BatchService for atomic batches.
+ * ShardRoutingDataSource reads it when a connection is requested;
+ * null means "main database".
+ */
+
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs action with the given shard selected, restoring the previous selection afterwards.
+     * For a transaction that must take its connection from the user's shard before any
+     * TaskService call selects it.
+     */
+    public static <T> T callOn(Integer shard, Supplier<T> action) {
+        Integer previous = current();
+        set(shard);
+        try {
+            return action.get();
+        } finally {
+            set(previous);
+        }
+    }
+
+    static void set(Integer shard) {
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.the_olujare.fortis.datasource;
+
+import com.the_olujare.fortis.monitoring.JdbcInstrumentationPostProcessor;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Owns one Hikari pool per task shard.
+ *
+ * Pools:
+ * - Named fortis-shard-N and registered with Micrometer (hikaricp.* tagged pool=fortis-shard-N)
+ * - Wrapped with the JDBC statement instrumentation like every other DataSource
+ *
+ * Schema:
+ * - db/shard-schema.sql is applied to every shard on startup
+ * - Shard N's task identity starts at N * 2^40 + 1, so task ids are globally unique
+ *   and keep their value when ShardRebalancer moves them to another shard
+ */
+
+public class ShardDataSources {
+
+    static final long ID_RANGE_PER_SHARD = 1L << 40;
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private final List<DataSource> dataSources = new ArrayList<>();
+
+    public ShardDataSources(ShardingProperties shardingProperties,
+                            MeterRegistry meterRegistry,
+                            JdbcInstrumentationPostProcessor jdbcInstrumentation) {
+        List<ShardingProperties.Shard> shards = shardingProperties.getShards();
+        if (shards.isEmpty()) {
+            throw new IllegalStateException("fortis.sharding.enabled=true requires at least one fortis.sharding.shards entry");
+        }
+
+        for (int index = 0; index < shards.size(); index++) {
+            ShardingProperties.Shard shard = shards.get(index);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("fortis-shard-" + index);
+            pool.setJdbcUrl(shard.getUrl());
+            pool.setUsername(shard.getUsername());
+            pool.setPassword(shard.getPassword());
+            if (shard.getDriverClassName() != null) {
+                pool.setDriverClassName(shard.getDriverClassName());
+            }
+            pool.setMaximumPoolSize(shard.getMaximumPoolSize());
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+            initializeSchema(pool, index);
+            pools.add(pool);
+            dataSources.add(jdbcInstrumentation.instrument(pool));
+        }
+    }
+
+    public int count() {
+        return dataSources.size();
+    }
+
+    public DataSource get(int shard) {
+        return dataSources.get(shard);
+    }
+
+    public JdbcTemplate jdbcTemplate(int shard) {
+        return new JdbcTemplate(get(shard));
+    }
+
+    @PreDestroy
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    private static void initializeSchema(DataSource dataSource, int index) {
+        try (Connection connection = dataSource.getConnection()) {
+            String script = new ClassPathResource("db/shard-schema.sql").getContentAsString(StandardCharsets.UTF_8)
+                    .replace("@IDENTITY_START@", Long.toString(index * ID_RANGE_PER_SHARD + 1));
+            ScriptUtils.executeSqlScript(connection, new ByteArrayResource(script.getBytes(StandardCharsets.UTF_8)));
+        } catch (SQLException | IOException e) {
+            throw new IllegalStateException("Could not initialize schema of task shard " + index, e);
+        }
+    }
+}
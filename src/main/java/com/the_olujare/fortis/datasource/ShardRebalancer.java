@@ -0,0 +1,354 @@
+package com.the_olujare.fortis.datasource;
+
+import com.the_olujare.fortis.entity.UserShardAssignment;
+import com.the_olujare.fortis.exception.ConflictException;
+import com.the_olujare.fortis.repository.UserShardAssignmentRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Moves one user's tasks from their current shard to another, online.
+ *
+ * Phases:
+ * 1. Mark the user as moving in the directory, then wait one cache TTL so every
+ *    instance rejects task writes for that user (reads keep hitting the source)
+ * 2. Copy tasks to the target in id-ordered batches, keeping their ids
+ *    (ids are globally unique, see ShardDataSources)
+ * 3. Point the directory at the target and record the source in movingFrom,
+ *    wait one cache TTL so no instance still reads the source
+ * 4. Delete the user's tasks from the source in batches, then clear movingFrom
+ *
+ * The user's delta sync counter and tombstones (task_sync_state, task_tombstone)
+ * are copied in phase 2 and deleted in phase 4 along with the tasks.
+ * Attachment rows (task_attachment) are copied with each batch of tasks and go away
+ * with them through the cascading foreign key; the files themselves are not sharded.
+ * Archive segments (task_archive_segment) are copied in phase 2 and deleted in phase 4 too.
+ *
+ * Re-running a failed move resumes it from the directory row:
+ * - movingFrom set: the directory already points at the target, so phase 4 is
+ *   finished on movingFrom before anything else
+ * - moving still set: the copy did not complete; the user's rows on every shard but
+ *   the source are cleared, then the move starts over (or is cancelled when the
+ *   re-run targets the source)
+ *
+ * Moves run one at a time on a background thread (submitMove()), since each one waits
+ * two cache TTLs; moveStatus() reports the latest move of a user.
+ * The copied column lists must match the tables in db/shard-schema.sql.
+ */
+
+@Slf4j
+public class ShardRebalancer {
+
+    public enum MoveState {
+        QUEUED, RUNNING, DONE, FAILED
+    }
+
+    public record MoveJob(Long userId, int targetShard, MoveState state, Map<String, Object> result,
+                          String error, Instant submittedAt, Instant finishedAt) {
+
+        boolean finished() {
+            return state == MoveState.DONE || state == MoveState.FAILED;
+        }
+    }
+
+    private static final ConflictException MOVE_IN_PROGRESS =
+            new ConflictException("A move of this user's tasks is already queued or running");
+
+    private static final String TASK_COLUMNS = "id, title, description, completed, user_id, change_seq, updated_at";
+    private static final String TOMBSTONE_COLUMNS = "task_id, user_id, change_seq, deleted_at";
+    private static final String ARCHIVE_COLUMNS = "id, user_id, task_count, archived_at, payload";
+    private static final String ATTACHMENT_COLUMNS =
+            "id, task_id, user_id, filename, content_type, size_bytes, sha256, created_at";
+
+    private final ShardResolver shardResolver;
+    private final ShardDataSources shardDataSources;
+    private final UserShardAssignmentRepository userShardAssignmentRepository;
+    private final long directoryCacheTtlMs;
+    private final int batchSize;
+
+    // Latest move per user; admin moves are rare, so entries are kept until restart
+    private final Map<Long, MoveJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService mover = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fortis-shard-rebalancer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ShardRebalancer(ShardResolver shardResolver,
+                           ShardDataSources shardDataSources,
+                           UserShardAssignmentRepository userShardAssignmentRepository,
+                           long directoryCacheTtlMs,
+                           int batchSize) {
+        this.shardResolver = shardResolver;
+        this.shardDataSources = shardDataSources;
+        this.userShardAssignmentRepository = userShardAssignmentRepository;
+        this.directoryCacheTtlMs = directoryCacheTtlMs;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Queues a move and returns at once; a user has at most one queued or running move.
+     */
+    public MoveJob submitMove(Long userId, int targetShard) {
+        checkShard(targetShard);
+        MoveJob queued = jobs.compute(userId, (id, previous) -> {
+            if (previous != null && !previous.finished()) {
+                throw MOVE_IN_PROGRESS;
+            }
+            return new MoveJob(userId, targetShard, MoveState.QUEUED, null, null, Instant.now(), null);
+        });
+        mover.execute(() -> run(queued));
+        return queued;
+    }
+
+    public Optional<MoveJob> moveStatus(Long userId) {
+        return Optional.ofNullable(jobs.get(userId));
+    }
+
+    @PreDestroy
+    public void close() {
+        mover.shutdownNow();
+    }
+
+    private void run(MoveJob job) {
+        jobs.put(job.userId(), new MoveJob(job.userId(), job.targetShard(), MoveState.RUNNING, null, null,
+                job.submittedAt(), null));
+        try {
+            Map<String, Object> result = moveUser(job.userId(), job.targetShard());
+            jobs.put(job.userId(), new MoveJob(job.userId(), job.targetShard(), MoveState.DONE, result, null,
+                    job.submittedAt(), Instant.now()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            jobs.put(job.userId(), new MoveJob(job.userId(), job.targetShard(), MoveState.FAILED, null,
+                    "Interrupted", job.submittedAt(), Instant.now()));
+        } catch (RuntimeException e) {
+            log.error("Could not move tasks of user {} to shard {}", job.userId(), job.targetShard(), e);
+            jobs.put(job.userId(), new MoveJob(job.userId(), job.targetShard(), MoveState.FAILED, null,
+                    e.getMessage(), job.submittedAt(), Instant.now()));
+        }
+    }
+
+    synchronized Map<String, Object> moveUser(Long userId, int targetShard) throws InterruptedException {
+        checkShard(targetShard);
+
+        UserShardAssignment previous = userShardAssignmentRepository.findById(userId).orElse(null);
+        boolean resumed = false;
+        if (previous != null && previous.getMovingFrom() != null) {
+            // Interrupted in phase 4: the target is live, the source still holds copies
+            Thread.sleep(directoryCacheTtlMs);
+            deleteUser(userId, shardDataSources.jdbcTemplate(previous.getMovingFrom()));
+            saveAssignment(userId, previous.getShardIndex(), false, null);
+            log.info("Finished deleting tasks of user {} from shard {}", userId, previous.getMovingFrom());
+            resumed = true;
+        } else if (previous != null && previous.isMoving()) {
+            // Interrupted in phase 1 or 2: any shard but the source may hold a partial copy
+            for (int shard = 0; shard < shardDataSources.count(); shard++) {
+                if (shard != previous.getShardIndex()) {
+                    deleteUser(userId, shardDataSources.jdbcTemplate(shard));
+                }
+            }
+            resumed = true;
+        }
+
+        shardResolver.invalidate(userId);
+        int sourceShard = shardResolver.resolve(userId).shard();
+        if (sourceShard == targetShard) {
+            if (previous != null && previous.isMoving()) {
+                saveAssignment(userId, sourceShard, false, null);
+            }
+            return result(userId, sourceShard, targetShard, 0, resumed);
+        }
+
+        saveAssignment(userId, sourceShard, true, null);
+        Thread.sleep(directoryCacheTtlMs);
+
+        JdbcTemplate source = shardDataSources.jdbcTemplate(sourceShard);
+        JdbcTemplate target = shardDataSources.jdbcTemplate(targetShard);
+        long moved = copyTasks(userId, source, target);
+        copySyncState(userId, source, target);
+        copyArchive(userId, source, target);
+
+        saveAssignment(userId, targetShard, false, sourceShard);
+        Thread.sleep(directoryCacheTtlMs);
+
+        deleteUser(userId, source);
+        saveAssignment(userId, targetShard, false, null);
+        log.info("Moved {} tasks of user {} from shard {} to shard {}", moved, userId, sourceShard, targetShard);
+
+        return result(userId, sourceShard, targetShard, moved, resumed);
+    }
+
+    private void checkShard(int shard) {
+        if (shard < 0 || shard >= shardDataSources.count()) {
+            throw new RuntimeException("Unknown shard: " + shard);
+        }
+    }
+
+    private static Map<String, Object> result(Long userId, int sourceShard, int targetShard, long moved, boolean resumed) {
+        return Map.of("userId", userId, "sourceShard", sourceShard, "targetShard", targetShard,
+                "moved", moved, "resumed", resumed);
+    }
+
+    private long copyTasks(Long userId, JdbcTemplate source, JdbcTemplate target) {
+        target.update("delete from task where user_id = ?", userId);
+
+        long lastId = Long.MIN_VALUE;
+        long copied = 0;
+        while (true) {
+            List<Object[]> rows = source.query(
+                    "select " + TASK_COLUMNS + " from task where user_id = ? and id > ? order by id fetch first ? rows only",
+                    (resultSet, rowNum) -> new Object[]{
+                            resultSet.getLong("id"),
+                            resultSet.getString("title"),
+                            resultSet.getString("description"),
+                            resultSet.getBoolean("completed"),
+                            resultSet.getLong("user_id"),
+                            resultSet.getLong("change_seq"),
+                            resultSet.getTimestamp("updated_at")},
+                    userId, lastId, batchSize);
+            if (rows.isEmpty()) {
+                return copied;
+            }
+
+            target.batchUpdate("insert into task (" + TASK_COLUMNS + ") values (?, ?, ?, ?, ?, ?, ?)", rows);
+            long batchLastId = (Long) rows.get(rows.size() - 1)[0];
+            copyAttachments(userId, lastId, batchLastId, source, target);
+            copied += rows.size();
+            lastId = batchLastId;
+        }
+    }
+
+    /**
+     * Attachment rows of the tasks with ids in (afterTaskId, throughTaskId], just copied.
+     * Clearing the target's tasks in copyTasks() already removed stale attachment rows (cascade).
+     */
+    private void copyAttachments(Long userId, long afterTaskId, long throughTaskId,
+                                 JdbcTemplate source, JdbcTemplate target) {
+        List<Object[]> rows = source.query(
+                "select " + ATTACHMENT_COLUMNS + " from task_attachment where user_id = ? and task_id > ? and task_id <= ?",
+                (resultSet, rowNum) -> new Object[]{
+                        resultSet.getObject("id"),
+                        resultSet.getLong("task_id"),
+                        resultSet.getLong("user_id"),
+                        resultSet.getString("filename"),
+                        resultSet.getString("content_type"),
+                        resultSet.getLong("size_bytes"),
+                        resultSet.getString("sha256"),
+                        resultSet.getTimestamp("created_at")},
+                userId, afterTaskId, throughTaskId);
+        target.batchUpdate("insert into task_attachment (" + ATTACHMENT_COLUMNS + ") values (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    /**
+     * Delta sync counter and tombstones travel with the tasks, so sync tokens stay valid after a move.
+     */
+    private void copySyncState(Long userId, JdbcTemplate source, JdbcTemplate target) {
+        target.update("delete from task_sync_state where user_id = ?", userId);
+        target.update("delete from task_tombstone where user_id = ?", userId);
+
+        List<Object[]> state = source.query(
+                "select user_id, change_seq, purged_through from task_sync_state where user_id = ?",
+                (resultSet, rowNum) -> new Object[]{
+                        resultSet.getLong("user_id"),
+                        resultSet.getLong("change_seq"),
+                        resultSet.getLong("purged_through")},
+                userId);
+        target.batchUpdate("insert into task_sync_state (user_id, change_seq, purged_through) values (?, ?, ?)", state);
+
+        long lastSeq = Long.MIN_VALUE;
+        while (true) {
+            List<Object[]> rows = source.query(
+                    "select " + TOMBSTONE_COLUMNS + " from task_tombstone where user_id = ? and change_seq > ? "
+                            + "order by change_seq fetch first ? rows only",
+                    (resultSet, rowNum) -> new Object[]{
+                            resultSet.getLong("task_id"),
+                            resultSet.getLong("user_id"),
+                            resultSet.getLong("change_seq"),
+                            resultSet.getTimestamp("deleted_at")},
+                    userId, lastSeq, batchSize);
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            target.batchUpdate("insert into task_tombstone (" + TOMBSTONE_COLUMNS + ") values (?, ?, ?, ?)", rows);
+            lastSeq = (Long) rows.get(rows.size() - 1)[2];
+        }
+    }
+
+    /**
+     * Each segment holds up to fortis.task-archive.segment-size compressed tasks,
+     * so they are copied a few at a time (batchSize / 100) rather than batchSize at once.
+     */
+    private void copyArchive(Long userId, JdbcTemplate source, JdbcTemplate target) {
+        target.update("delete from task_archive_segment where user_id = ?", userId);
+
+        long lastId = Long.MIN_VALUE;
+        int segmentBatch = Math.max(1, batchSize / 100);
+        while (true) {
+            List<Object[]> rows = source.query(
+                    "select " + ARCHIVE_COLUMNS + " from task_archive_segment where user_id = ? and id > ? "
+                            + "order by id fetch first ? rows only",
+                    (resultSet, rowNum) -> new Object[]{
+                            resultSet.getLong("id"),
+                            resultSet.getLong("user_id"),
+                            resultSet.getInt("task_count"),
+                            resultSet.getTimestamp("archived_at"),
+                            resultSet.getBytes("payload")},
+                    userId, lastId, segmentBatch);
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            target.batchUpdate("insert into task_archive_segment (" + ARCHIVE_COLUMNS + ") values (?, ?, ?, ?, ?)", rows);
+            lastId = (Long) rows.get(rows.size() - 1)[0];
+        }
+    }
+
+    private void deleteArchive(Long userId, JdbcTemplate source) {
+        source.update("delete from task_archive_segment where user_id = ?", userId);
+    }
+
+    private void deleteSyncState(Long userId, JdbcTemplate source) {
+        int deleted;
+        do {
+            deleted = source.update(
+                    "delete from task_tombstone where task_id in (select task_id from task_tombstone where user_id = ? fetch first ? rows only)",
+                    userId, batchSize);
+        } while (deleted > 0);
+        source.update("delete from task_sync_state where user_id = ?", userId);
+    }
+
+    private void deleteTasks(Long userId, JdbcTemplate source) {
+        int deleted;
+        do {
+            deleted = source.update(
+                    "delete from task where id in (select id from task where user_id = ? fetch first ? rows only)",
+                    userId, batchSize);
+        } while (deleted > 0);
+    }
+
+    private void deleteUser(Long userId, JdbcTemplate source) {
+        deleteTasks(userId, source);
+        deleteSyncState(userId, source);
+        deleteArchive(userId, source);
+    }
+
+    private void saveAssignment(Long userId, int shard, boolean moving, Integer movingFrom) {
+        userShardAssignmentRepository.save(UserShardAssignment.builder()
+                .userId(userId)
+                .shardIndex(shard)
+                .moving(moving)
+                .movingFrom(movingFrom)
+                .build());
+        shardResolver.invalidate(userId);
+    }
+}
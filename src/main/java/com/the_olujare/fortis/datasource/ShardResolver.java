@@ -0,0 +1,78 @@
+package com.the_olujare.fortis.datasource;
+
+import com.the_olujare.fortis.repository.UserShardAssignmentRepository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides which task shard holds a user's tasks.
+ *
+ * Resolution:
+ * - A row in the shard directory (user_shard) wins; it exists only for moved users
+ * - Otherwise the shard is a hash of the user id modulo the shard count
+ *
+ * Caching:
+ * - Results are cached per instance for directoryCacheTtlMs, so a request
+ *   normally resolves its shard without any query
+ * - invalidate() drops a single user after a local directory change
+ * - lookup() bypasses the cache, for background jobs that must see a move as soon as it starts
+ */
+
+public class ShardResolver {
+
+    public record Assignment(int shard, boolean moving) {
+    }
+
+    private record CachedAssignment(Assignment assignment, long loadedAtNanos) {
+    }
+
+    private static final int SWEEP_THRESHOLD = 100_000;
+
+    private final UserShardAssignmentRepository userShardAssignmentRepository;
+    private final int shardCount;
+    private final long cacheTtlNanos;
+    private final Map<Long, CachedAssignment> cache = new ConcurrentHashMap<>();
+
+    public ShardResolver(UserShardAssignmentRepository userShardAssignmentRepository, int shardCount, long cacheTtlMs) {
+        this.userShardAssignmentRepository = userShardAssignmentRepository;
+        this.shardCount = shardCount;
+        this.cacheTtlNanos = TimeUnit.MILLISECONDS.toNanos(cacheTtlMs);
+    }
+
+    public Assignment resolve(Long userId) {
+        long now = System.nanoTime();
+        CachedAssignment cached = cache.get(userId);
+        if (cached != null && now - cached.loadedAtNanos() < cacheTtlNanos) {
+            return cached.assignment();
+        }
+
+        Assignment assignment = lookup(userId);
+
+        if (cache.size() > SWEEP_THRESHOLD) {
+            cache.values().removeIf(entry -> now - entry.loadedAtNanos() >= cacheTtlNanos);
+        }
+        cache.put(userId, new CachedAssignment(assignment, now));
+        return assignment;
+    }
+
+    public Assignment lookup(Long userId) {
+        return userShardAssignmentRepository.findById(userId)
+                .map(row -> new Assignment(row.getShardIndex(), row.isMoving()))
+                .orElseGet(() -> new Assignment(hashShard(userId), false));
+    }
+
+    public void invalidate(Long userId) {
+        cache.remove(userId);
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    private int hashShard(Long userId) {
+        long mixed = userId * 0x9E3779B97F4A7C15L;
+        return (int) Math.floorMod(mixed ^ (mixed >>> 32), (long) shardCount);
+    }
+}
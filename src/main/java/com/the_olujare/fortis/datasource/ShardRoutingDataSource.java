@@ -0,0 +1,42 @@
+package com.the_olujare.fortis.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+/**
+ * Hands out connections from the shard in ShardContext, or from the main DataSource.
+ *
+ * The main DataSource keeps whatever it was before (single pool or read/write router),
+ * so users, tokens and the shard directory are unaffected by sharding.
+ * Shards are resolved lazily to keep bean post-processing free of early initialization.
+ */
+
+public class ShardRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource main;
+    private final Supplier<ShardDataSources> shardDataSources;
+
+    public ShardRoutingDataSource(DataSource main, Supplier<ShardDataSources> shardDataSources) {
+        this.main = main;
+        this.shardDataSources = shardDataSources;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return target().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return target().getConnection(username, password);
+    }
+
+    private DataSource target() {
+        Integer shard = ShardContext.current();
+        return shard == null ? main : shardDataSources.get().get(shard);
+    }
+}
@@ -0,0 +1,40 @@
+package com.the_olujare.fortis.datasource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's main "dataSource" bean in a ShardRoutingDataSource.
+ *
+ * Runs last among post-processors so the main DataSource is already instrumented
+ * (and, with read/write routing, already the replica-aware proxy) when wrapped.
+ */
+
+@Component
+@ConditionalOnProperty(name = "fortis.sharding.enabled", havingValue = "true")
+public class ShardRoutingPostProcessor implements BeanPostProcessor, Ordered {
+
+    private final ObjectProvider<ShardDataSources> shardDataSources;
+
+    public ShardRoutingPostProcessor(ObjectProvider<ShardDataSources> shardDataSources) {
+        this.shardDataSources = shardDataSources;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+            return new ShardRoutingDataSource(dataSource, shardDataSources::getObject);
+        }
+        return bean;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
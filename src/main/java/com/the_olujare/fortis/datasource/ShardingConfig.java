@@ -0,0 +1,59 @@
+package com.the_olujare.fortis.datasource;
+
+import com.the_olujare.fortis.monitoring.JdbcInstrumentationPostProcessor;
+import com.the_olujare.fortis.repository.UserShardAssignmentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires task sharding when fortis.sharding.enabled=true.
+ *
+ * - ShardDataSources  → one pool per configured shard
+ * - ShardResolver     → user id → shard (directory override, else hash)
+ * - TaskShardAspect   → routes TaskService calls to the user's shard
+ * - ShardRebalancer   → moves a user's tasks between shards in the background (admin endpoint)
+ *
+ * ShardRoutingPostProcessor wraps the main DataSource so JPA follows ShardContext.
+ * See application-sharded.properties for a local two-shard H2 setup.
+ */
+
+@Configuration
+@ConditionalOnProperty(name = "fortis.sharding.enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    public ShardDataSources shardDataSources(ShardingProperties shardingProperties,
+                                             MeterRegistry meterRegistry,
+                                             JdbcInstrumentationPostProcessor jdbcInstrumentation) {
+        return new ShardDataSources(shardingProperties, meterRegistry, jdbcInstrumentation);
+    }
+
+    @Bean
+    public ShardResolver shardResolver(UserShardAssignmentRepository userShardAssignmentRepository,
+                                       ShardDataSources shardDataSources,
+                                       ShardingProperties shardingProperties) {
+        return new ShardResolver(userShardAssignmentRepository, shardDataSources.count(),
+                shardingProperties.getDirectoryCacheTtlMs());
+    }
+
+    @Bean
+    public TaskShardAspect taskShardAspect(ShardResolver shardResolver, ShardingProperties shardingProperties) {
+        long retryAfterSeconds = Math.max(1, (shardingProperties.getDirectoryCacheTtlMs() + 999) / 1000);
+        return new TaskShardAspect(shardResolver, retryAfterSeconds);
+    }
+
+    @Bean
+    public ShardRebalancer shardRebalancer(ShardResolver shardResolver,
+                                           ShardDataSources shardDataSources,
+                                           UserShardAssignmentRepository userShardAssignmentRepository,
+                                           ShardingProperties shardingProperties,
+                                           @Value("${fortis.sharding.rebalance-batch-size:500}") int batchSize) {
+        return new ShardRebalancer(shardResolver, shardDataSources, userShardAssignmentRepository,
+                shardingProperties.getDirectoryCacheTtlMs(), batchSize);
+    }
+}
@@ -0,0 +1,43 @@
+package com.the_olujare.fortis.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binds the fortis.sharding.* settings.
+ *
+ * enabled
+ *  - Turns task sharding on. Users, tokens and the shard directory stay in the main database.
+ *
+ * directoryCacheTtlMs
+ *  - How long a resolved shard assignment is cached per instance.
+ *  - ShardRebalancer waits this long between phases so every instance sees each state.
+ *
+ * shards
+ *  - One entry per task shard, each with its own connection pool.
+ *  - Order matters: the index is the shard id and determines the task id range.
+ */
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "fortis.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+    private long directoryCacheTtlMs = 30_000;
+    private List<Shard> shards = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,68 @@
+package com.the_olujare.fortis.datasource;
+
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.exception.ServiceUnavailableException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Pins every TaskService and TaskAttachmentService call to the current user's task shard.
+ *
+ * Runs before the transaction interceptor (highest precedence), so the
+ * transaction's connection is already taken from the right shard pool.
+ *
+ * While the user is being moved by ShardRebalancer:
+ * - read-only methods keep reading from the source shard
+ * - mutations are rejected with 503 and Retry-After of one directory cache TTL,
+ *   the time each phase of the move waits for
+ */
+
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TaskShardAspect {
+
+    private final ShardResolver shardResolver;
+    private final ServiceUnavailableException tasksMoving;
+
+    public TaskShardAspect(ShardResolver shardResolver, long retryAfterSeconds) {
+        this.shardResolver = shardResolver;
+        this.tasksMoving = new ServiceUnavailableException(
+                "Your tasks are being moved. Kindly try again shortly.", retryAfterSeconds);
+    }
+
+    @Around("execution(public * com.the_olujare.fortis.service.TaskService.*(..))"
+            + " || execution(public * com.the_olujare.fortis.service.TaskAttachmentService.*(..))")
+    public Object routeToShard(ProceedingJoinPoint joinPoint) throws Throwable {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof FortisUser fortisUser)) {
+            return joinPoint.proceed();
+        }
+
+        ShardResolver.Assignment assignment = shardResolver.resolve(fortisUser.getId());
+        if (assignment.moving() && !isReadOnly(joinPoint)) {
+            throw tasksMoving;
+        }
+
+        Integer previous = ShardContext.current();
+        ShardContext.set(assignment.shard());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    private static boolean isReadOnly(ProceedingJoinPoint joinPoint) {
+        Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(
+                ((MethodSignature) joinPoint.getSignature()).getMethod(), Transactional.class);
+        return transactional != null && transactional.readOnly();
+    }
+}
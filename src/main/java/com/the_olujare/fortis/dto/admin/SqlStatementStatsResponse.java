@@ -0,0 +1,33 @@
+package com.the_olujare.fortis.dto.admin;
+
+import lombok.*;
+
+/**
+ * One row of the SQL statement statistics table returned to administrators.
+ *
+ * sql
+ *  - Normalized statement text (literals replaced by '?').
+ *
+ * count
+ *  - Number of executions since startup or the last reset.
+ *
+ * totalMs / maxMs / avgMs
+ *  - Execution time in milliseconds, excluding result-set fetch.
+ *
+ * rows
+ *  - Rows affected by updates (rows returned by queries are not counted).
+ */
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SqlStatementStatsResponse {
+    private String sql;
+    private long count;
+    private double totalMs;
+    private double maxMs;
+    private double avgMs;
+    private long rows;
+}
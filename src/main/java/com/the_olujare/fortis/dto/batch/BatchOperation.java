@@ -0,0 +1,37 @@
+package com.the_olujare.fortis.dto.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.*;
+
+import java.util.Map;
+
+/**
+ * One sub-request of a batch, as it would be sent on its own.
+ *
+ * id
+ *  - Optional client reference, echoed in the matching BatchResult.
+ *
+ * method / path
+ *  - GET, POST, PUT, PATCH or DELETE on a task or user endpoint,
+ *    e.g. "PATCH" "/api/tasks/42/toggle" or "GET" "/api/tasks?fields=id,title".
+ *
+ * headers
+ *  - Optional request headers (e.g. Idempotency-Key). Authorization is not needed:
+ *    the batch itself is authenticated once.
+ *
+ * body
+ *  - Optional JSON request body.
+ */
+
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+public class BatchOperation {
+    private String id;
+    private String method;
+    private String path;
+    private Map<String, String> headers;
+    private JsonNode body;
+}
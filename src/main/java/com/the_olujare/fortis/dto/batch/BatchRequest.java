@@ -0,0 +1,27 @@
+package com.the_olujare.fortis.dto.batch;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Body of POST /api/batch.
+ *
+ * requests
+ *  - Sub-requests, executed in this order (consecutive GETs may run in parallel).
+ *
+ * atomic
+ *  - Run every sub-request in one transaction, one after another.
+ *  - The first sub-request failing (status >= 400) rolls back the whole batch;
+ *    the ones after it are not executed.
+ */
+
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+public class BatchRequest {
+    private List<BatchOperation> requests;
+    private boolean atomic;
+}
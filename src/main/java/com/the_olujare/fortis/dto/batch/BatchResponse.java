@@ -0,0 +1,23 @@
+package com.the_olujare.fortis.dto.batch;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Response of POST /api/batch: one result per sub-request, in request order.
+ *
+ * rolledBack
+ *  - Atomic batches only: a sub-request failed and nothing was committed,
+ *    whatever the statuses of the sub-requests before it say.
+ */
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchResponse {
+    private List<BatchResult> responses;
+    private boolean rolledBack;
+}
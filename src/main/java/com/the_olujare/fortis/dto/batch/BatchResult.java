@@ -0,0 +1,33 @@
+package com.the_olujare.fortis.dto.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.*;
+
+import java.util.Map;
+
+/**
+ * Outcome of one sub-request.
+ *
+ * id
+ *  - The sub-request's id, if it had one.
+ *
+ * status / headers / body
+ *  - What the endpoint would have answered on its own; body is the parsed JSON
+ *    (or a string for other content, null when empty).
+ *  - 424 (Failed Dependency) marks a sub-request not executed because an earlier one
+ *    in an atomic batch failed.
+ *  - 503 marks a parallel read that never ran (readers saturated or still queued at the
+ *    timeout), 504 one that was still running at the timeout.
+ */
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchResult {
+    private String id;
+    private int status;
+    private Map<String, String> headers;
+    private JsonNode body;
+}
@@ -0,0 +1,29 @@
+package com.the_olujare.fortis.dto.task;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * One page of archived tasks (GET /api/tasks/archive).
+ *
+ * tasks
+ *  - Archived tasks, segment by segment in descending segment id (roughly newest first),
+ *    newest task first within a segment.
+ *  - A page holds whole segments, so it may hold a few more tasks than the requested limit.
+ *
+ * nextCursor / hasMore
+ *  - Send nextCursor as ?cursor= for the next page while hasMore is true.
+ *  - The last page can come back empty.
+ */
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskArchiveResponse {
+    private List<TaskResponse> tasks;
+    private String nextCursor;
+    private boolean hasMore;
+}
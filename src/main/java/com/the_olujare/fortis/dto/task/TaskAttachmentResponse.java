@@ -0,0 +1,35 @@
+package com.the_olujare.fortis.dto.task;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Attachment metadata returned to the client.
+ *
+ * id
+ *  - Use with GET /api/tasks/{taskId}/attachments/{id} to download.
+ *
+ * filename / contentType / size
+ *  - As uploaded.
+ *
+ * sha256
+ *  - Hex SHA-256 of the content; also the download's ETag, so clients can verify
+ *    and cache without re-downloading.
+ */
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskAttachmentResponse {
+    private UUID id;
+    private Long taskId;
+    private String filename;
+    private String contentType;
+    private long size;
+    private String sha256;
+    private Instant createdAt;
+}
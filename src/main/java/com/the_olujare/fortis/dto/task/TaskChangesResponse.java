@@ -0,0 +1,38 @@
+package com.the_olujare.fortis.dto.task;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * One page of delta sync (GET /api/tasks/changes).
+ *
+ * changed
+ *  - Tasks created or modified after the sync token, in change order.
+ *
+ * deleted
+ *  - Ids of tasks deleted after the sync token.
+ *
+ * nextToken
+ *  - Opaque; send it as ?since= on the next call.
+ *
+ * hasMore
+ *  - More changes are waiting; call again right away with nextToken.
+ *
+ * resyncRequired
+ *  - The token is older than the tombstone retention. Drop local state and
+ *    call again without since= for a full snapshot.
+ */
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskChangesResponse {
+    private List<TaskResponse> changed;
+    private List<Long> deleted;
+    private String nextToken;
+    private boolean hasMore;
+    private boolean resyncRequired;
+}
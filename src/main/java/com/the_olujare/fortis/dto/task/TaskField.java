@@ -0,0 +1,61 @@
+package com.the_olujare.fortis.dto.task;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Fields of TaskResponse a client can ask for with ?fields= on task reads.
+ *
+ * attribute
+ *  - Task entity attribute backing the field, selected only when requested.
+ *  - userId and username come from the authenticated owner, not from the task row.
+ *
+ * parse()
+ *  - "id,title,completed" → those fields; missing or blank → null (every field).
+ *  - Unknown names are rejected (400) rather than ignored, so typos do not go unnoticed.
+ */
+
+public enum TaskField {
+    ID("id", "id"),
+    USER_ID("userId", null),
+    TITLE("title", "title"),
+    USERNAME("username", null),
+    DESCRIPTION("description", "description"),
+    COMPLETED("completed", "completed");
+
+    private final String jsonName;
+    private final String attribute;
+
+    TaskField(String jsonName, String attribute) {
+        this.jsonName = jsonName;
+        this.attribute = attribute;
+    }
+
+    public String jsonName() {
+        return jsonName;
+    }
+
+    public String attribute() {
+        return attribute;
+    }
+
+    public static Set<TaskField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<TaskField> selected = EnumSet.noneOf(TaskField.class);
+        for (String name : fields.split(",")) {
+            selected.add(fromJsonName(name.trim()));
+        }
+        return selected;
+    }
+
+    private static TaskField fromJsonName(String name) {
+        for (TaskField field : values()) {
+            if (field.jsonName.equals(name)) {
+                return field;
+            }
+        }
+        throw new RuntimeException("Unknown task field: " + name);
+    }
+}
@@ -1,7 +1,11 @@
 package com.the_olujare.fortis.dto.task;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.*;
 
+import java.util.Set;
+
 /**
  * Represents task data returned to the client.
  * Used for task creation, retrieval, and updates.
@@ -24,8 +28,14 @@ import lombok.*;
  * completed
  *  - Indicates whether the task has been marked as done.
  *
+ * fields
+ *  - Fields the client asked for with ?fields= (null = all); only these are serialized.
+ *  - Not part of the payload itself.
+ *
  * This DTO exposes only client-safe fields.
  * It acts as a clean boundary between persistence and presentation.
+ *
+ * Serialized by TaskResponseSerializer (the task list is the hottest payload).
  */
 
 @Getter
@@ -33,6 +43,7 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonSerialize(using = TaskResponseSerializer.class)
 public class TaskResponse {
     private Long id;
     private Long userId;
@@ -40,4 +51,6 @@ public class TaskResponse {
     private String username;
     private String description;
     private boolean completed;
+    @JsonIgnore
+    private Set<TaskField> fields;
 }
\ No newline at end of file
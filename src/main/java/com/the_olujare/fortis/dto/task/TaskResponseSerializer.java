@@ -0,0 +1,98 @@
+package com.the_olujare.fortis.dto.task;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Hand-written serializer for TaskResponse, the element type of the task list.
+ *
+ * - Writes fields straight from the getters, no reflective bean introspection per value
+ * - Field names are pre-encoded once (SerializedString), so JSON, CBOR and Smile
+ *   generators reuse the encoded bytes instead of re-encoding them per task
+ * - Output is identical to the default bean serializer (same names, same order, nulls kept)
+ * - A sparse fieldset (TaskResponse.fields) writes only the requested fields, in the same order
+ *
+ * Keep the field list in sync with TaskResponse.
+ */
+
+public class TaskResponseSerializer extends StdSerializer<TaskResponse> {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString USER_ID = new SerializedString("userId");
+    private static final SerializedString TITLE = new SerializedString("title");
+    private static final SerializedString USERNAME = new SerializedString("username");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    private static final SerializedString COMPLETED = new SerializedString("completed");
+
+    public TaskResponseSerializer() {
+        super(TaskResponse.class);
+    }
+
+    @Override
+    public void serialize(TaskResponse task, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        if (task.getFields() != null) {
+            serializeFields(task, task.getFields(), generator);
+            return;
+        }
+        generator.writeStartObject(task, 6);
+
+        generator.writeFieldName(ID);
+        writeNullableLong(generator, task.getId());
+        generator.writeFieldName(USER_ID);
+        writeNullableLong(generator, task.getUserId());
+        generator.writeFieldName(TITLE);
+        generator.writeString(task.getTitle());
+        generator.writeFieldName(USERNAME);
+        generator.writeString(task.getUsername());
+        generator.writeFieldName(DESCRIPTION);
+        generator.writeString(task.getDescription());
+        generator.writeFieldName(COMPLETED);
+        generator.writeBoolean(task.isCompleted());
+
+        generator.writeEndObject();
+    }
+
+    private static void serializeFields(TaskResponse task, Set<TaskField> fields, JsonGenerator generator) throws IOException {
+        generator.writeStartObject(task, fields.size());
+
+        if (fields.contains(TaskField.ID)) {
+            generator.writeFieldName(ID);
+            writeNullableLong(generator, task.getId());
+        }
+        if (fields.contains(TaskField.USER_ID)) {
+            generator.writeFieldName(USER_ID);
+            writeNullableLong(generator, task.getUserId());
+        }
+        if (fields.contains(TaskField.TITLE)) {
+            generator.writeFieldName(TITLE);
+            generator.writeString(task.getTitle());
+        }
+        if (fields.contains(TaskField.USERNAME)) {
+            generator.writeFieldName(USERNAME);
+            generator.writeString(task.getUsername());
+        }
+        if (fields.contains(TaskField.DESCRIPTION)) {
+            generator.writeFieldName(DESCRIPTION);
+            generator.writeString(task.getDescription());
+        }
+        if (fields.contains(TaskField.COMPLETED)) {
+            generator.writeFieldName(COMPLETED);
+            generator.writeBoolean(task.isCompleted());
+        }
+
+        generator.writeEndObject();
+    }
+
+    private static void writeNullableLong(JsonGenerator generator, Long value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+}
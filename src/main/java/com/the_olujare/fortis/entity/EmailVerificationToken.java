@@ -31,6 +31,10 @@ import java.time.LocalDateTime;
 
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_email_verification_token", columnList = "token", unique = true),
+        @Index(name = "idx_email_verification_expiry", columnList = "expiry_date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -4,10 +4,13 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.*;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 
@@ -16,14 +19,19 @@ import java.util.List;
  *
  * - Implements Spring Security's UserDetails → required for authentication.
  * - Uses 'email' as the username for login instead of a traditional username field.
+ * - 'email' is stored normalized (EmailUtil) and indexed, so every lookup by email is an index probe.
  * - 'role' defaults to USER and is mapped to authorities as ROLE_<role>.
  * - Password stored here is the hashed version (raw password never persisted).
- * - All account checks return true → no account locking / expiration logic added yet.
+ * - 'lockedUntil' is set by LoginAttemptService after repeated failed logins → account is locked until then.
+ * - Expiration checks still return true → no account / credential expiration logic added yet.
  *
  * This class acts as the core identity model used by Spring Security during authentication and authorization.
  */
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_fortis_user_email", columnList = "email")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -47,6 +55,8 @@ public class FortisUser implements UserDetails {
     @Builder.Default
     private boolean enabled = false;
 
+    private Instant lockedUntil;
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(() -> "ROLE_" + role);
@@ -69,7 +79,7 @@ public class FortisUser implements UserDetails {
 
     @Override
     public boolean isAccountNonLocked() {
-        return true;
+        return lockedUntil == null || lockedUntil.isBefore(Instant.now());
     }
 
     @Override
@@ -32,6 +32,10 @@ import java.time.LocalDateTime;
 
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_password_reset_token", columnList = "token", unique = true),
+        @Index(name = "idx_password_reset_expiry", columnList = "expiry_date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -9,25 +9,36 @@ import java.time.Instant;
  * Represents a refresh token used to issue new access tokens.
  * Supports long-lived authentication without re-entering credentials.
  *
- * token
- *  - Unique refresh token value issued after authentication.
+ * tokenHash
+ *  - SHA-256 hash of the refresh token issued to the client.
+ *  - The raw value is never persisted; lookups go through a unique index on the hash.
+ *
+ * familyId
+ *  - Groups every token produced by rotating the same login session.
+ *  - Presenting a revoked token of a family revokes the whole family (reuse detection).
  *
  * user
  *  - The account this refresh token belongs to.
- *  - One-to-one mapping allows controlled token management per user.
+ *  - Many-to-one mapping; revocation per user is a single set-based update.
  *
  * expiryDate
  *  - Defines how long the refresh token remains valid.
  *
  * revoked
  *  - Indicates whether the token has been explicitly invalidated.
- *  - Used during logout or security events.
+ *  - Used during logout, rotation, or security events.
  *
  * This entity enables secure token rotation.
  * Access tokens remain short-lived, while refresh tokens are tightly controlled.
  */
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_refresh_token_hash", columnList = "token_hash", unique = true),
+        @Index(name = "idx_refresh_token_family", columnList = "family_id"),
+        @Index(name = "idx_refresh_token_user_revoked", columnList = "user_id, revoked"),
+        @Index(name = "idx_refresh_token_expiry", columnList = "expiry_date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -39,9 +50,13 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    private String token;
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
+
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private FortisUser fortisUser;
 
@@ -49,4 +64,4 @@ public class RefreshToken {
 
     @Builder.Default
     private boolean revoked = false;
-}
\ No newline at end of file
+}
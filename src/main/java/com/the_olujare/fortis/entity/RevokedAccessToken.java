@@ -0,0 +1,55 @@
+package com.the_olujare.fortis.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Represents an access token (JWT) that was revoked before its natural expiry.
+ * Backing store for the access-token denylist.
+ *
+ * jti
+ *  - The JWT ID claim of the revoked token.
+ *  - Primary key, so lookups are a single index probe.
+ *
+ * expiryDate
+ *  - The token's own expiration.
+ *  - Once passed, the JWT is rejected anyway and the row can be purged.
+ *
+ * Implements Persistable so save() always inserts: the id is assigned by the
+ * caller, and a merge would otherwise issue an extra SELECT first.
+ * AccessTokenDenylistService.revoke() therefore skips jtis that are already revoked.
+ *
+ * Only revoked tokens are stored. Valid tokens never touch this table;
+ * AccessTokenDenylistService filters them out in memory first.
+ */
+
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_revoked_access_token_expiry", columnList = "expiry_date")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokedAccessToken implements Persistable<String> {
+
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    private Instant expiryDate;
+
+    @Override
+    public String getId() {
+        return jti;
+    }
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
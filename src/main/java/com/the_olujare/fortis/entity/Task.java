@@ -3,6 +3,8 @@ package com.the_olujare.fortis.entity;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.Instant;
+
 /**
  * Represents a task owned by a user.
  * Used to model user-specific to-do items in the system.
@@ -22,6 +24,13 @@ import lombok.*;
  *  - Many tasks can belong to a single user.
  *  - Loaded lazily to avoid unnecessary database queries.
  *
+ * changeSeq / updatedAt
+ *  - Per-user change sequence, bumped on every create, update and toggle
+ *    (see TaskSyncStateRepository.nextChangeSeq).
+ *  - Indexed with user_id so delta sync (GET /api/tasks/changes) reads only what changed.
+ *  - Completed tasks whose updatedAt is older than fortis.task-archive.min-age-days are
+ *    moved to archive segments by TaskArchivalService (indexed with completed for that scan).
+ *
  * This entity enforces task ownership at the data level.
  * Access control is further enforced in the service layer.
  */
@@ -31,6 +40,10 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_task_user_change", columnList = "user_id, change_seq"),
+        @Index(name = "idx_task_completed_updated", columnList = "completed, updated_at")
+})
 @Builder
 public class Task {
     @Id
@@ -47,4 +60,9 @@ public class Task {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private FortisUser fortisUser;
+
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
+    private Instant updatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.the_olujare.fortis.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A compressed batch of one user's archived (completed, long untouched) tasks,
+ * stored next to the user's tasks.
+ *
+ * id
+ *  - Smallest task id in the segment. Task ids are globally unique and never reused,
+ *    so segment ids are too, and segments move between task shards unchanged.
+ *  - Newer segments do not always have higher ids (an old task may be completed late);
+ *    GET /api/tasks/archive pages by segment id, not by task id.
+ *
+ * userId / taskCount / archivedAt
+ *  - Owner, number of tasks in the payload and when TaskArchivalService wrote it.
+ *
+ * payload
+ *  - Tasks encoded by TaskArchiveCodec. Only decoded for the segments a read actually needs.
+ *
+ * Written only by TaskArchivalService (plain JDBC, also on task shards).
+ */
+
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_task_archive_segment_user", columnList = "user_id, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskArchiveSegment {
+
+    @Id
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "task_count", nullable = false)
+    private int taskCount;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] payload;
+}
@@ -0,0 +1,71 @@
+package com.the_olujare.fortis.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A file attached to a task. The content itself lives on disk (AttachmentStorage).
+ *
+ * id
+ *  - Random UUID: attachments move between task shards with their task, so ids
+ *    must not depend on a shard's identity sequence.
+ *
+ * task
+ *  - The owning task. The foreign key cascades on delete, so deleting a task
+ *    removes its attachments without extra statements.
+ *
+ * userId
+ *  - Owner of the task, denormalized so ShardRebalancer can copy a user's attachments.
+ *
+ * sha256 / sizeBytes
+ *  - Content address and size of the stored file; identical files share one blob.
+ *
+ * filename / contentType
+ *  - As uploaded (filename stripped of any path), returned on download.
+ */
+
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_task_attachment_task", columnList = "task_id"),
+        @Index(name = "idx_task_attachment_user", columnList = "user_id"),
+        @Index(name = "idx_task_attachment_sha256", columnList = "sha256")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskAttachment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "task_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Task task;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String filename;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,38 @@
+package com.the_olujare.fortis.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Per-user delta sync bookkeeping, stored next to the user's tasks.
+ *
+ * changeSeq
+ *  - Last change sequence handed out for this user's tasks.
+ *  - Incremented in place by every task mutation; the row lock serializes a user's
+ *    mutations, so sequence order is commit order and no sync can skip a change.
+ *
+ * purgedThrough
+ *  - Highest change sequence whose tombstone has been purged.
+ *  - A sync token below it can no longer be served incrementally.
+ *
+ * Only written through TaskSyncStateRepository's native statements.
+ */
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskSyncState {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
+    @Column(name = "purged_through", nullable = false)
+    private long purgedThrough;
+}
@@ -0,0 +1,59 @@
+package com.the_olujare.fortis.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Marks a deleted task so delta sync can tell clients to drop it.
+ *
+ * taskId
+ *  - Id of the deleted task (task ids are never reused).
+ *
+ * userId / changeSeq
+ *  - Owner and the change sequence of the deletion, in the same sequence as Task.changeSeq.
+ *
+ * deletedAt
+ *  - Tombstones older than fortis.task-sync.tombstone-retention-ms are purged
+ *    by TaskTombstonePurgeService; clients that fall further behind must resync.
+ *
+ * Always inserted, never updated, hence isNew() = true (no select before insert).
+ */
+
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_task_tombstone_user_change", columnList = "user_id, change_seq"),
+        @Index(name = "idx_task_tombstone_deleted_at", columnList = "deleted_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskTombstone implements Persistable<Long> {
+
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+
+    @Override
+    public Long getId() {
+        return taskId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
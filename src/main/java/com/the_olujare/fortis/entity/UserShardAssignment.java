@@ -0,0 +1,43 @@
+package com.the_olujare.fortis.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Explicit shard placement for a user's tasks.
+ * Stored in the main database; only users moved by ShardRebalancer have a row.
+ *
+ * userId
+ *  - The FortisUser whose tasks are placed.
+ *
+ * shardIndex
+ *  - Index into fortis.sharding.shards of the shard holding the tasks.
+ *
+ * moving
+ *  - True while a rebalance copies the tasks; writes are rejected, reads stay on shardIndex.
+ *
+ * movingFrom
+ *  - Shard the tasks were copied from, set when the directory flips to the target and
+ *    cleared once the source rows are deleted. A re-run move finishes that cleanup first.
+ *
+ * Users without a row live on the shard chosen by hashing their id.
+ */
+
+@Entity
+@Table(name = "user_shard")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserShardAssignment {
+
+    @Id
+    private Long userId;
+
+    private int shardIndex;
+
+    private boolean moving;
+
+    private Integer movingFrom;
+}
@@ -0,0 +1,33 @@
+package com.the_olujare.fortis.event;
+
+import com.the_olujare.fortis.dto.task.TaskResponse;
+
+/**
+ * Published by TaskService for every task mutation, inside its transaction.
+ * TaskEventHub delivers it to the owner's open streams once the transaction commits.
+ *
+ * task
+ *  - The task as the client would see it after the change
+ *    (for DELETED, as it was just before deletion).
+ */
+
+public record TaskChangedEvent(Long userId, Type type, TaskResponse task) {
+
+    public enum Type {
+        CREATED("created"),
+        UPDATED("updated"),
+        TOGGLED("toggled"),
+        DELETED("deleted");
+
+        private final String eventName;
+
+        Type(String eventName) {
+            this.eventName = eventName;
+        }
+
+        // SSE "event:" field
+        public String eventName() {
+            return eventName;
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package com.the_olujare.fortis.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user fan-out of task changes to open SSE connections (GET /api/tasks/stream).
+ *
+ * Delivery:
+ * - TaskChangedEvents are taken after commit, serialized once and framed once;
+ *   the same frame is queued on every connection of the owner
+ * - Each connection has a bounded queue drained by a small shared sender pool,
+ *   so a publisher never blocks on a socket
+ * - A connection whose queue is full is closed (drop-slow-consumer);
+ *   the client reconnects with Last-Event-ID and catches up from the replay buffer
+ * - So is a connection whose socket write blocks longer than sendTimeoutMs. The blocked
+ *   write only returns with the container's write timeout, so the pool gets a replacement
+ *   thread until it does (at most senderThreads extra); other streams keep flowing
+ *
+ * Resume:
+ * - Event ids grow across restarts (seeded from the clock)
+ * - Each user with a recent connection keeps the last replaySize events
+ * - A Last-Event-ID older than the replay buffer (or too many events behind)
+ *   gets a single "reset" event: the client should refetch GET /api/tasks
+ *
+ * Idle cost:
+ * - An idle connection is an async request (no thread), a queue and an emitter
+ * - A heartbeat comment every heartbeatIntervalMs keeps proxies from closing
+ *   idle streams and detects dead clients
+ * - Connections end after maxLifetimeMs; clients reconnect and resume transparently
+ * - Heartbeats and the stall watchdog run on a thread of their own, never behind
+ *   the maintenance jobs on Spring's scheduler
+ *
+ * Events are local to this instance; mutations on other instances are not streamed.
+ */
+
+@Slf4j
+@Service
+public class TaskEventHub {
+
+    private static final String RESET_EVENT = "reset";
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${fortis.task-stream.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${fortis.task-stream.replay-size:256}")
+    private int replaySize;
+
+    @Value("${fortis.task-stream.replay-retention-ms:600000}")
+    private long replayRetentionMs;
+
+    @Value("${fortis.task-stream.max-lifetime-ms:1800000}")
+    private long maxLifetimeMs;
+
+    @Value("${fortis.task-stream.sender-threads:4}")
+    private int senderThreads;
+
+    @Value("${fortis.task-stream.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+
+    @Value("${fortis.task-stream.heartbeat-interval-ms:15000}")
+    private long heartbeatIntervalMs;
+
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1_000);
+    private final ConcurrentHashMap<Long, UserChannel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Set<ResponseBodyEmitter.DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+
+    private ThreadPoolExecutor sender;
+    private ScheduledExecutorService watchdog;
+    private Counter dropped;
+
+    public TaskEventHub(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        sender = new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "task-stream-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-stream-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watchdog.scheduleWithFixedDelay(() -> runSafely("heartbeat", this::heartbeat),
+                heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+        watchdog.scheduleWithFixedDelay(() -> runSafely("stall check", this::closeStalledStreams),
+                sendTimeoutMs, sendTimeoutMs, TimeUnit.MILLISECONDS);
+        Gauge.builder("fortis.task.stream.connections", connections, AtomicInteger::get)
+                .description("Open task change streams")
+                .register(meterRegistry);
+        dropped = Counter.builder("fortis.task.stream.dropped")
+                .description("Streams closed because the client could not keep up")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(Subscriber::close));
+        watchdog.shutdownNow();
+        sender.shutdownNow();
+    }
+
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        Subscriber subscriber = new Subscriber(new SseEmitter(maxLifetimeMs), bufferSize);
+        Long lastSeen = parseEventId(lastEventId);
+        connections.incrementAndGet();
+
+        // Replay and registration happen atomically for the channel, so no event falls in between
+        channels.compute(userId, (id, channel) -> {
+            UserChannel current = channel != null ? channel : new UserChannel(sequence.get());
+            synchronized (current) {
+                subscriber.channel = current;
+                current.subscribers.add(subscriber);
+                subscriber.offer(SseEmitter.event().comment("connected").build());
+                if (lastSeen != null) {
+                    current.replayTo(subscriber, lastSeen);
+                }
+            }
+            return current;
+        });
+
+        subscriber.emitter.onCompletion(subscriber::close);
+        subscriber.emitter.onTimeout(subscriber::close);
+        subscriber.emitter.onError(error -> subscriber.close());
+        return subscriber.emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        // Nobody streams this user and no one can resume: nothing to keep
+        if (!channels.containsKey(event.userId())) {
+            return;
+        }
+
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event.task());
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize task event {} for user {}", event.type(), event.userId(), e);
+            return;
+        }
+
+        channels.computeIfPresent(event.userId(), (userId, channel) -> {
+            synchronized (channel) {
+                // Ids are assigned under the channel lock so each user's replay buffer stays in id order
+                long id = sequence.incrementAndGet();
+                Frame frame = new Frame(id, SseEmitter.event()
+                        .id(Long.toString(id))
+                        .name(event.type().eventName())
+                        .data(json)
+                        .build());
+                channel.append(frame);
+                channel.subscribers.forEach(subscriber -> subscriber.offer(frame.data()));
+            }
+            return channel;
+        });
+    }
+
+    void heartbeat() {
+        long now = System.currentTimeMillis();
+        for (Long userId : channels.keySet()) {
+            channels.computeIfPresent(userId, (id, channel) -> {
+                synchronized (channel) {
+                    if (channel.subscribers.isEmpty()) {
+                        return now - channel.lastActive > replayRetentionMs ? null : channel;
+                    }
+                    channel.subscribers.forEach(subscriber -> subscriber.offer(heartbeat));
+                    channel.lastActive = now;
+                }
+                return channel;
+            });
+        }
+    }
+
+    /**
+     * Closes streams whose current send has been blocked for longer than sendTimeoutMs.
+     */
+    void closeStalledStreams() {
+        long now = System.nanoTime();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        for (UserChannel channel : channels.values()) {
+            channel.subscribers.forEach(subscriber -> subscriber.abortIfStalled(now, timeoutNanos));
+        }
+    }
+
+    // An exception escaping a periodic task would cancel all its later runs
+    private static void runSafely(String job, Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.warn("Task stream {} failed", job, e);
+        }
+    }
+
+    public int connectionCount() {
+        return connections.get();
+    }
+
+    // Grows the pool by one while a stalled send holds a thread, and shrinks it back once the send returns
+    private synchronized boolean resizeSender(int delta) {
+        int size = sender.getCorePoolSize() + delta;
+        if (delta > 0) {
+            if (size > 2 * senderThreads) {
+                return false;
+            }
+            sender.setMaximumPoolSize(size);
+            sender.setCorePoolSize(size);
+        } else {
+            sender.setCorePoolSize(size);
+            sender.setMaximumPoolSize(size);
+        }
+        return true;
+    }
+
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return Long.MIN_VALUE;  // unusable id: treated as too old → reset
+        }
+    }
+
+    private record Frame(long id, Set<ResponseBodyEmitter.DataWithMediaType> data) {
+    }
+
+    /**
+     * Open connections and recent events of one user. Guarded by its own monitor.
+     */
+    private final class UserChannel {
+        private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+        private final ArrayDeque<Frame> replay = new ArrayDeque<>();
+        // Every event with a higher id is still in the replay buffer
+        private long horizon;
+        private long lastActive = System.currentTimeMillis();
+
+        private UserChannel(long horizon) {
+            this.horizon = horizon;
+        }
+
+        private void append(Frame frame) {
+            if (replay.size() == replaySize) {
+                horizon = replay.removeFirst().id();
+            }
+            replay.addLast(frame);
+        }
+
+        private void replayTo(Subscriber subscriber, long lastSeen) {
+            long missed = replay.stream().filter(frame -> frame.id() > lastSeen).count();
+            if (lastSeen < horizon || missed >= bufferSize) {
+                subscriber.offer(SseEmitter.event().name(RESET_EVENT).data("{}").build());
+                return;
+            }
+            replay.stream()
+                    .filter(frame -> frame.id() > lastSeen)
+                    .forEach(frame -> subscriber.offer(frame.data()));
+        }
+    }
+
+    /**
+     * One SSE connection: a bounded queue with at most one sender thread draining it.
+     * The monitor guards the hand-off between a sending thread and the stall watchdog.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile UserChannel channel;
+        // Send in progress (start time, 0 when none) and what to do once it returns; guarded by this
+        private long sendStartedNanos;
+        private boolean stalledSend;
+        private boolean replaced;
+        private boolean completeAfterSend;
+
+        private Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        private void offer(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(frame)) {
+                dropped.increment();
+                close();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Set<ResponseBodyEmitter.DataWithMediaType> frame = queue.poll();
+                if (frame == null) {
+                    draining.set(false);
+                    // An offer may have landed after poll() but before the flag was cleared
+                    if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                synchronized (this) {
+                    sendStartedNanos = System.nanoTime();
+                }
+                boolean failed = false;
+                try {
+                    emitter.send(frame);
+                } catch (IOException | IllegalStateException e) {
+                    failed = true;
+                }
+                boolean closedDuringSend;
+                synchronized (this) {
+                    sendStartedNanos = 0;
+                    stalledSend = false;
+                    if (replaced) {
+                        resizeSender(-1);
+                        replaced = false;
+                    }
+                    closedDuringSend = completeAfterSend;
+                }
+                if (closedDuringSend) {
+                    complete();
+                    return;
+                }
+                if (failed) {
+                    close();
+                    return;
+                }
+            }
+        }
+
+        private synchronized void abortIfStalled(long now, long timeoutNanos) {
+            if (sendStartedNanos == 0 || stalledSend || now - sendStartedNanos < timeoutNanos) {
+                return;
+            }
+            stalledSend = true;
+            if (detach()) {
+                dropped.increment();
+            }
+            completeAfterSend = true;
+            replaced = resizeSender(1);
+        }
+
+        private void close() {
+            synchronized (this) {
+                if (!detach()) {
+                    return;
+                }
+                // complete() would wait for the send in progress; the sending thread completes instead
+                if (sendStartedNanos != 0) {
+                    completeAfterSend = true;
+                    return;
+                }
+            }
+            complete();
+        }
+
+        private boolean detach() {
+            if (!closed.compareAndSet(false, true)) {
+                return false;
+            }
+            queue.clear();
+            UserChannel current = channel;
+            if (current != null) {
+                current.subscribers.remove(this);
+                current.lastActive = System.currentTimeMillis();
+            }
+            connections.decrementAndGet();
+            return true;
+        }
+
+        private void complete() {
+            try {
+                emitter.complete();
+            } catch (IllegalStateException e) {
+                // Already completed by the container
+            }
+        }
+    }
+}
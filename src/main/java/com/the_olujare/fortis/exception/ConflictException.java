@@ -0,0 +1,16 @@
+package com.the_olujare.fortis.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when a request conflicts with one still being processed,
+ * e.g. a retry whose Idempotency-Key is held by an in-flight request.
+ *
+ * Results in an HTTP 409 response.
+ */
+
+public class ConflictException extends FortisException {
+    public ConflictException(String message) {
+        super(message, HttpStatus.CONFLICT);
+    }
+}
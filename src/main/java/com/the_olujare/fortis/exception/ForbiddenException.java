@@ -0,0 +1,17 @@
+package com.the_olujare.fortis.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when the caller is known but not allowed to proceed,
+ * e.g. logging in before the email address has been verified,
+ * or calling an admin endpoint without ROLE_ADMIN.
+ *
+ * Results in an HTTP 403 response.
+ */
+
+public class ForbiddenException extends FortisException {
+    public ForbiddenException(String message) {
+        super(message, HttpStatus.FORBIDDEN);
+    }
+}
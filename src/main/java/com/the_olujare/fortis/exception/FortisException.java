@@ -0,0 +1,55 @@
+package com.the_olujare.fortis.exception;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Base type for expected failures: bad credentials, invalid tokens, missing tasks, rate limits.
+ *
+ * Under credential-stuffing and scanner traffic these are thrown far more often than
+ * real errors, so they are built to be cheap:
+ *
+ * - Stackless: no stack trace is captured and suppression is disabled.
+ *   A stack trace would only ever show the same throw site anyway.
+ * - Shareable: with no stack and a fixed message, one instance can be thrown by every
+ *   request (see the static constants in TaskService, AuthService and RateLimitAspect).
+ * - Pre-serialized: the JSON error body is encoded once; only the timestamp is
+ *   appended per response (see responseBody()).
+ *
+ * Each subclass fixes the HTTP status; GlobalExceptionHandler and the security
+ * entry points write the body as-is.
+ */
+
+public abstract class FortisException extends RuntimeException {
+
+    private static final byte[] TIMESTAMP_SUFFIX = "\"}".getBytes(StandardCharsets.US_ASCII);
+
+    private final HttpStatus status;
+    private final byte[] bodyPrefix;
+
+    protected FortisException(String message, HttpStatus status) {
+        super(message, null, false, false);
+        this.status = status;
+        this.bodyPrefix = ("{\"error\":\"" + new String(JsonStringEncoder.getInstance().quoteAsString(message))
+                + "\",\"status\":" + status.value() + ",\"timestamp\":\"").getBytes(StandardCharsets.UTF_8);
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Same shape as every other error body: {"error": ..., "status": ..., "timestamp": ...}.
+     */
+    public byte[] responseBody() {
+        byte[] timestamp = Instant.now().toString().getBytes(StandardCharsets.US_ASCII);
+        byte[] body = new byte[bodyPrefix.length + timestamp.length + TIMESTAMP_SUFFIX.length];
+        System.arraycopy(bodyPrefix, 0, body, 0, bodyPrefix.length);
+        System.arraycopy(timestamp, 0, body, bodyPrefix.length, timestamp.length);
+        System.arraycopy(TIMESTAMP_SUFFIX, 0, body, bodyPrefix.length + timestamp.length, TIMESTAMP_SUFFIX.length);
+        return body;
+    }
+}
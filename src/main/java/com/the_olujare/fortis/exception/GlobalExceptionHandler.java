@@ -1,10 +1,14 @@
 package com.the_olujare.fortis.exception;
 
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -12,9 +16,12 @@ import java.util.Map;
  * Centralized exception handling for the entire application.
  * Converts server-side exceptions into consistent HTTP responses.
  *
- * ResourceNotFoundException
- *  - Returned when a requested entity cannot be found.
- *  - Responds with HTTP 404.
+ * FortisException (UnauthorizedException, ForbiddenException,
+ * ResourceNotFoundException, TooManyRequestsException, ServiceUnavailableException)
+ *  - Expected failures with their own status: 401, 403, 404, 429 or 503.
+ *  - The body is pre-serialized by the exception, so nothing is built per request
+ *    besides the timestamp. Always JSON, whatever the Accept header.
+ *  - A ServiceUnavailableException with a retry delay also sets Retry-After.
  *
  * RuntimeException
  *  - Catches business and validation errors.
@@ -28,15 +35,25 @@ import java.util.Map;
  *  - Creates a uniform error payload.
  *  - Includes error message, HTTP status code, and timestamp.
  *
+ * writeError()
+ *  - Writes a FortisException from outside Spring MVC (security filters and entry points,
+ *    the concurrency limiter).
+ *
  * This approach keeps controllers clean.
  * It ensures clients receive predictable and readable error responses.
  */
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
-    @ExceptionHandler(ResourceNotFoundException.class)
-    public ResponseEntity<Map<String, Object>> handleResourceNotFound(ResourceNotFoundException resourceNotFoundException) {
-        return buildErrorResponse(resourceNotFoundException.getMessage(), HttpStatus.NOT_FOUND);
+    @ExceptionHandler(FortisException.class)
+    public ResponseEntity<byte[]> handleFortisException(FortisException fortisException) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(fortisException.getStatus());
+        if (fortisException instanceof ServiceUnavailableException unavailable && unavailable.getRetryAfterSeconds() > 0) {
+            response.header(HttpHeaders.RETRY_AFTER, Long.toString(unavailable.getRetryAfterSeconds()));
+        }
+        return response
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(fortisException.responseBody());
     }
 
     @ExceptionHandler(RuntimeException.class)
@@ -49,6 +66,14 @@ public class GlobalExceptionHandler {
         return buildErrorResponse("An unexpected error occurred", HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    public static void writeError(HttpServletResponse httpServletResponse, FortisException fortisException) throws IOException {
+        byte[] body = fortisException.responseBody();
+        httpServletResponse.setStatus(fortisException.getStatus().value());
+        httpServletResponse.setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        httpServletResponse.setContentLength(body.length);
+        httpServletResponse.getOutputStream().write(body);
+    }
+
     private ResponseEntity<Map<String, Object>> buildErrorResponse(String message, HttpStatus status) {
         Map<String, Object> body = new HashMap<>();
         body.put("error", message);
@@ -56,4 +81,4 @@ public class GlobalExceptionHandler {
         body.put("timestamp", java.time.Instant.now());
         return new ResponseEntity<>(body, status);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,15 @@
+package com.the_olujare.fortis.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when an upload exceeds its size cap (see AttachmentStorage).
+ *
+ * Results in an HTTP 413 response.
+ */
+
+public class PayloadTooLargeException extends FortisException {
+    public PayloadTooLargeException(String message) {
+        super(message, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+}
@@ -1,5 +1,7 @@
 package com.the_olujare.fortis.exception;
 
+import org.springframework.http.HttpStatus;
+
 /**
  * Thrown when a requested resource cannot be found.
  * Used to signal missing entities such as users or tasks.
@@ -10,8 +12,8 @@ package com.the_olujare.fortis.exception;
  * The message provided explains which resource was not found.
  */
 
-public class ResourceNotFoundException extends RuntimeException {
+public class ResourceNotFoundException extends FortisException {
     public ResourceNotFoundException(String message){
-        super(message);
+        super(message, HttpStatus.NOT_FOUND);
     }
-}
\ No newline at end of file
+}
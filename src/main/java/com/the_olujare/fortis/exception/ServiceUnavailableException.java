@@ -0,0 +1,31 @@
+package com.the_olujare.fortis.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when the server cannot serve the request right now: the concurrency
+ * limit of the request's partition is reached (see ConcurrencyLimitFilter), or
+ * the user's tasks are being moved to another shard (see TaskShardAspect).
+ *
+ * retryAfterSeconds, when positive, is sent as the Retry-After header.
+ *
+ * Results in an HTTP 503 response.
+ */
+
+public class ServiceUnavailableException extends FortisException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message) {
+        this(message, 0);
+    }
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message, HttpStatus.SERVICE_UNAVAILABLE);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,16 @@
+package com.the_olujare.fortis.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when a client is throttled: the per-IP rate limit is exceeded
+ * or the account is temporarily locked after repeated failed logins.
+ *
+ * Results in an HTTP 429 response.
+ */
+
+public class TooManyRequestsException extends FortisException {
+    public TooManyRequestsException(String message) {
+        super(message, HttpStatus.TOO_MANY_REQUESTS);
+    }
+}
@@ -0,0 +1,17 @@
+package com.the_olujare.fortis.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when the caller could not be authenticated:
+ * wrong credentials, or an access, refresh, reset or verification token
+ * that is unknown, expired or revoked.
+ *
+ * Results in an HTTP 401 response.
+ */
+
+public class UnauthorizedException extends FortisException {
+    public UnauthorizedException(String message) {
+        super(message, HttpStatus.UNAUTHORIZED);
+    }
+}
@@ -0,0 +1,137 @@
+package com.the_olujare.fortis.limiter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-flight limit of one partition, adjusted from observed latency (gradient algorithm).
+ *
+ * Per window of completed requests:
+ * - shortRtt: average latency of the window
+ * - longRtt:  slow moving average of shortRtt (the "normal" latency)
+ * - gradient = clamp(tolerance * longRtt / shortRtt, 0.5, 1)
+ * - newLimit = limit * gradient + sqrt(limit)
+ *
+ * While latency stays within tolerance the gradient is 1 and the limit grows by sqrt(limit)
+ * per window; when the database slows down, latency rises and the limit shrinks towards
+ * the concurrency the backend can actually serve. Windows where the partition never used
+ * half its limit do not grow it (no evidence more would help).
+ *
+ * Admission is a CAS on the in-flight counter; the window bookkeeping is synchronized
+ * but only touched on completion.
+ */
+
+final class AdaptiveConcurrencyLimit {
+
+    enum Priority {
+        HIGH,
+        LOW
+    }
+
+    private static final double LONG_RTT_SMOOTHING = 0.1;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+    private final int minWindowSamples;
+    private final double tolerance;
+    private final double smoothing;
+    private final double lowPriorityShare;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+    private volatile int lowPriorityLimit;
+
+    // Guarded by this
+    private double estimatedLimit;
+    private double longRttNanos;
+    private long windowStartNanos;
+    private long windowRttSumNanos;
+    private int windowSamples;
+    private int windowMaxInFlight;
+
+    AdaptiveConcurrencyLimit(ConcurrencyLimitProperties properties, ConcurrencyLimitProperties.Partition partition) {
+        this.minLimit = Math.max(1, partition.getMinLimit());
+        this.maxLimit = Math.max(minLimit, partition.getMaxLimit());
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(properties.getWindowMs());
+        this.minWindowSamples = properties.getMinWindowSamples();
+        this.tolerance = properties.getTolerance();
+        this.smoothing = properties.getSmoothing();
+        this.lowPriorityShare = 1.0 - properties.getLowPriorityHeadroom();
+        this.estimatedLimit = Math.clamp(partition.getInitialLimit(), minLimit, maxLimit);
+        this.windowStartNanos = System.nanoTime();
+        publish();
+    }
+
+    boolean tryAcquire(Priority priority) {
+        int threshold = priority == Priority.HIGH ? limit : lowPriorityLimit;
+        while (true) {
+            int current = inFlight.get();
+            if (current >= threshold) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Ends a request and feeds its latency into the current window.
+     */
+    void release(long rttNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        sample(rttNanos, inFlightBefore, System.nanoTime());
+    }
+
+    /**
+     * Ends a request without a latency sample (e.g. it went async and no longer holds a thread).
+     */
+    void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    boolean saturated() {
+        return inFlight.get() >= limit;
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    synchronized void sample(long rttNanos, int inFlightAtCompletion, long nowNanos) {
+        windowRttSumNanos += rttNanos;
+        windowSamples++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtCompletion);
+        if (windowSamples < minWindowSamples || nowNanos - windowStartNanos < windowNanos) {
+            return;
+        }
+
+        double shortRtt = (double) windowRttSumNanos / windowSamples;
+        longRttNanos = longRttNanos == 0 ? shortRtt : longRttNanos * (1 - LONG_RTT_SMOOTHING) + shortRtt * LONG_RTT_SMOOTHING;
+        double gradient = Math.clamp(tolerance * longRttNanos / shortRtt, MIN_GRADIENT, 1.0);
+        boolean appLimited = windowMaxInFlight < estimatedLimit / 2;
+
+        if (gradient < 1.0 || !appLimited) {
+            double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            estimatedLimit = Math.clamp(estimatedLimit * (1 - smoothing) + newLimit * smoothing, minLimit, maxLimit);
+            publish();
+        }
+
+        windowStartNanos = nowNanos;
+        windowRttSumNanos = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+    }
+
+    private void publish() {
+        int rounded = (int) estimatedLimit;
+        lowPriorityLimit = Math.max(1, (int) (rounded * lowPriorityShare));
+        limit = rounded;
+    }
+}
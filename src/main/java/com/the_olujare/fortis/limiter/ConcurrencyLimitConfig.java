@@ -0,0 +1,32 @@
+package com.the_olujare.fortis.limiter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers the load shedder (fortis.concurrency-limit.enabled).
+ *
+ * Filter order: TracingFilter, ServerTimingFilter, then ConcurrencyLimitFilter,
+ * so shed requests still show up in traces and Server-Timing, and ahead of
+ * Spring Security so a shed request costs no token validation or user lookup.
+ */
+
+@Configuration
+@ConditionalOnProperty(name = "fortis.concurrency-limit.enabled", havingValue = "true")
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(ConcurrencyLimitProperties properties,
+                                                                                 MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(properties, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+}
@@ -0,0 +1,141 @@
+package com.the_olujare.fortis.limiter;
+
+import com.the_olujare.fortis.exception.GlobalExceptionHandler;
+import com.the_olujare.fortis.exception.ServiceUnavailableException;
+import com.the_olujare.fortis.limiter.AdaptiveConcurrencyLimit.Priority;
+import com.the_olujare.fortis.util.JwtConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sheds load before it reaches Spring Security, so a slow database cannot tie up every Tomcat thread.
+ *
+ * Partitions (independent adaptive limits, see AdaptiveConcurrencyLimit):
+ * - /api/auth/**  (login, registration, refresh; BCrypt-heavy, anonymous)
+ * - /api/tasks/** and /api/batch (authenticated traffic)
+ * - Everything else is not limited (health probes, admin, users)
+ *
+ * Priority, cheapest first to go:
+ * - Auth requests are low priority, and are shed outright while the tasks partition is saturated
+ * - Task requests without a Bearer token are low priority (they end in 401 anyway)
+ * - Low priority requests only get the partition's limit minus lowPriorityHeadroom
+ *
+ * The Bearer check only looks at the header: the token is validated later by
+ * JwtAuthenticationFilter, which is the expensive part this filter protects.
+ *
+ * Shed requests get a 503 with Retry-After straight away; nothing waits in a queue.
+ * Async requests (the task stream) release their slot when the thread is handed back
+ * and are not counted as latency samples. Attachment transfers hold a slot but are not
+ * sampled either: their duration follows the file size and the client's bandwidth.
+ * Batches hold one slot for all their sub-requests and are not sampled: their duration
+ * follows the number of sub-requests.
+ */
+
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String AUTH_PREFIX = "/api/auth";
+    private static final String TASKS_PREFIX = "/api/tasks";
+    private static final String BATCH_PREFIX = "/api/batch";
+    private static final String ATTACHMENTS_SEGMENT = "/attachments";
+    private static final String RETRY_AFTER_SECONDS = "1";
+    private static final ServiceUnavailableException SERVER_BUSY =
+            new ServiceUnavailableException("Server is busy. Kindly try again later.");
+
+    private final AdaptiveConcurrencyLimit authLimit;
+    private final AdaptiveConcurrencyLimit tasksLimit;
+    private final Counter authShed;
+    private final Counter tasksShedHigh;
+    private final Counter tasksShedLow;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.authLimit = new AdaptiveConcurrencyLimit(properties, properties.getAuth());
+        this.tasksLimit = new AdaptiveConcurrencyLimit(properties, properties.getTasks());
+        registerGauges(meterRegistry, "auth", authLimit);
+        registerGauges(meterRegistry, "tasks", tasksLimit);
+        this.authShed = shedCounter(meterRegistry, "auth", Priority.LOW);
+        this.tasksShedHigh = shedCounter(meterRegistry, "tasks", Priority.HIGH);
+        this.tasksShedLow = shedCounter(meterRegistry, "tasks", Priority.LOW);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        AdaptiveConcurrencyLimit limit;
+        Counter shed;
+        boolean batch = matches(path, BATCH_PREFIX);
+        if (batch || matches(path, TASKS_PREFIX)) {
+            String authHeader = request.getHeader(JwtConstants.HEADER_STRING);
+            boolean bearer = authHeader != null && authHeader.startsWith(JwtConstants.TOKEN_PREFIX);
+            limit = tasksLimit;
+            shed = bearer ? tasksShedHigh : tasksShedLow;
+            if (!limit.tryAcquire(bearer ? Priority.HIGH : Priority.LOW)) {
+                reject(response, shed);
+                return;
+            }
+        } else if (matches(path, AUTH_PREFIX)) {
+            limit = authLimit;
+            if (tasksLimit.saturated() || !limit.tryAcquire(Priority.LOW)) {
+                reject(response, authShed);
+                return;
+            }
+        } else {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean sampled = false;
+        try {
+            filterChain.doFilter(request, response);
+            sampled = !request.isAsyncStarted() && !batch && !path.contains(ATTACHMENTS_SEGMENT);
+        } finally {
+            if (sampled) {
+                limit.release(System.nanoTime() - start);
+            } else {
+                // Failed, async, file transfer and batch requests are not latency evidence
+                limit.releaseWithoutSample();
+            }
+        }
+    }
+
+    private static boolean matches(String path, String prefix) {
+        return path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/');
+    }
+
+    private static void reject(HttpServletResponse response, Counter shed) throws IOException {
+        shed.increment();
+        response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        GlobalExceptionHandler.writeError(response, SERVER_BUSY);
+    }
+
+    private static void registerGauges(MeterRegistry meterRegistry, String partition, AdaptiveConcurrencyLimit limit) {
+        Gauge.builder("fortis.concurrency.limit", limit, AdaptiveConcurrencyLimit::limit)
+                .description("Current adaptive in-flight limit")
+                .tag("partition", partition)
+                .register(meterRegistry);
+        Gauge.builder("fortis.concurrency.inflight", limit, AdaptiveConcurrencyLimit::inFlight)
+                .description("Requests currently in flight")
+                .tag("partition", partition)
+                .register(meterRegistry);
+    }
+
+    private static Counter shedCounter(MeterRegistry meterRegistry, String partition, Priority priority) {
+        return Counter.builder("fortis.concurrency.shed")
+                .description("Requests rejected with 503 by the concurrency limiter")
+                .tag("partition", partition)
+                .tag("priority", priority.name().toLowerCase())
+                .register(meterRegistry);
+    }
+}
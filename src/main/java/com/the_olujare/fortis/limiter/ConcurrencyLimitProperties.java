@@ -0,0 +1,59 @@
+package com.the_olujare.fortis.limiter;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Binds the fortis.concurrency-limit.* settings.
+ *
+ * auth / tasks
+ *  - Independent limits for /api/auth/** and /api/tasks/**.
+ *  - initialLimit is the starting point; the limit then moves between minLimit and maxLimit.
+ *  - Keep the sum of both maxLimits below server.tomcat.threads.max (200),
+ *    so other endpoints (health, admin) always find a thread.
+ *
+ * windowMs / minWindowSamples
+ *  - Latency is averaged per window; a window closes after windowMs and at least minWindowSamples requests.
+ *
+ * tolerance
+ *  - How much slower than the long-term average a window may be before the limit shrinks (1.5 = 50%).
+ *
+ * smoothing
+ *  - Weight of each window's new limit (0..1); lower reacts slower but steadier.
+ *
+ * lowPriorityHeadroom
+ *  - Share of a partition's limit only authenticated requests may use (0..1).
+ */
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "fortis.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+    private long windowMs = 1_000;
+    private int minWindowSamples = 20;
+    private double tolerance = 1.5;
+    private double smoothing = 0.2;
+    private double lowPriorityHeadroom = 0.2;
+    private Partition auth = new Partition(20, 2, 40);
+    private Partition tasks = new Partition(50, 4, 150);
+
+    @Getter
+    @Setter
+    public static class Partition {
+        private int initialLimit;
+        private int minLimit;
+        private int maxLimit;
+
+        public Partition() {
+        }
+
+        Partition(int initialLimit, int minLimit, int maxLimit) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+        }
+    }
+}
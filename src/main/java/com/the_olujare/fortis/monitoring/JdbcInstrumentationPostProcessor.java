@@ -0,0 +1,83 @@
+package com.the_olujare.fortis.monitoring;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Wraps every DataSource bean so statements are timed by SqlStatementRecorder.
+ *
+ * The wrapper extends DelegatingDataSource, so unwrap() still reaches the
+ * real pool (Hikari) for metrics and health checks.
+ *
+ * Routing and delegating DataSources are left alone: their targets are pool
+ * beans that get wrapped on their own, so each statement is recorded once.
+ *
+ * The recorder is resolved lazily through an ObjectProvider to avoid pulling
+ * regular beans into early BeanPostProcessor initialization.
+ */
+
+@Component
+public class JdbcInstrumentationPostProcessor implements BeanPostProcessor, Ordered {
+
+    private final ObjectProvider<SqlStatementRecorder> recorderProvider;
+
+    public JdbcInstrumentationPostProcessor(ObjectProvider<SqlStatementRecorder> recorderProvider) {
+        this.recorderProvider = recorderProvider;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        // Proxies and routers delegate to pool beans that are instrumented themselves
+        if (bean instanceof DataSource dataSource
+                && !(bean instanceof DelegatingDataSource)
+                && !(bean instanceof AbstractRoutingDataSource)) {
+            return instrument(dataSource);
+        }
+        return bean;
+    }
+
+    // Runs before any post-processor that wraps DataSources in routers or proxies
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    /**
+     * Instruments a DataSource that is not a bean (e.g. task shard pools).
+     */
+    public DataSource instrument(DataSource dataSource) {
+        return new InstrumentedDataSource(dataSource, recorderProvider);
+    }
+
+    static final class InstrumentedDataSource extends DelegatingDataSource {
+        private final ObjectProvider<SqlStatementRecorder> recorderProvider;
+
+        private InstrumentedDataSource(DataSource target, ObjectProvider<SqlStatementRecorder> recorderProvider) {
+            super(target);
+            this.recorderProvider = recorderProvider;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return wrap(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return wrap(super.getConnection(username, password));
+        }
+
+        private Connection wrap(Connection connection) {
+            SqlStatementRecorder recorder = recorderProvider.getObject();
+            return recorder.isEnabled() ? JdbcProxies.connection(connection, recorder) : connection;
+        }
+    }
+}
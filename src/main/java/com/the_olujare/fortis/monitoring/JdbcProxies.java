@@ -0,0 +1,117 @@
+package com.the_olujare.fortis.monitoring;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * JDK dynamic proxies that time JDBC statement execution.
+ *
+ * Connection
+ *  - Wraps every Statement / PreparedStatement / CallableStatement it creates,
+ *    remembering the SQL of prepared statements.
+ *
+ * Statement
+ *  - Times execute*, reports elapsed time and affected rows to SqlStatementRecorder.
+ *
+ * Everything else is passed straight through to the real driver objects.
+ * ResultSets are returned unwrapped: column reads and next() are the hottest JDBC calls
+ * and must not pay for a reflective proxy, so rows returned by queries are not counted.
+ */
+
+final class JdbcProxies {
+
+    private JdbcProxies() {
+    }
+
+    static Connection connection(Connection target, SqlStatementRecorder recorder) {
+        return (Connection) Proxy.newProxyInstance(
+                JdbcProxies.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    String name = method.getName();
+                    if (result instanceof Statement statement
+                            && (name.equals("createStatement") || name.equals("prepareStatement") || name.equals("prepareCall"))) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                        return statement(statement, sql, recorder);
+                    }
+                    return result;
+                });
+    }
+
+    private static Statement statement(Statement target, String preparedSql, SqlStatementRecorder recorder) {
+        Class<?> type = target instanceof CallableStatement ? CallableStatement.class
+                : target instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+
+        InvocationHandler handler = new InvocationHandler() {
+            private String lastBatchSql;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String name = method.getName();
+
+                if (!name.startsWith("execute")) {
+                    if (name.equals("addBatch") && args != null && args.length == 1) {
+                        lastBatchSql = (String) args[0];
+                    }
+                    return JdbcProxies.invoke(target, method, args);
+                }
+
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : currentSql();
+                long start = System.nanoTime();
+                Object result = null;
+                try {
+                    result = JdbcProxies.invoke(target, method, args);
+                } finally {
+                    recorder.record(sql, System.nanoTime() - start, affectedRows(result));
+                }
+                return result;
+            }
+
+            private String currentSql() {
+                return preparedSql != null ? preparedSql : lastBatchSql;
+            }
+        };
+
+        return (Statement) Proxy.newProxyInstance(JdbcProxies.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static long affectedRows(Object result) {
+        if (result instanceof Integer count) {
+            return Math.max(0, count);
+        }
+        if (result instanceof Long count) {
+            return Math.max(0, count);
+        }
+        if (result instanceof int[] counts) {
+            long total = 0;
+            for (int count : counts) {
+                total += Math.max(0, count);
+            }
+            return total;
+        }
+        if (result instanceof long[] counts) {
+            long total = 0;
+            for (long count : counts) {
+                total += Math.max(0, count);
+            }
+            return total;
+        }
+        return 0;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.the_olujare.fortis.monitoring;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every Spring Data repository call for RequestTiming ("repo").
+ *
+ * Includes the ORM work around the SQL (mapping, flushes, proxies);
+ * the difference to "db" is what Hibernate costs on top of the database.
+ */
+
+@Aspect
+@Component
+@ConditionalOnProperty(name = "fortis.server-timing.enabled", havingValue = "true")
+public class RepositoryTimingAspect {
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = RequestTiming.start();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            RequestTiming.stop(RequestTiming.Phase.REPOSITORY, start);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.the_olujare.fortis.monitoring;
+
+/**
+ * Per-request latency breakdown, reported by ServerTimingFilter as a Server-Timing header.
+ *
+ * Usage at a measuring point:
+ *   long start = RequestTiming.start();
+ *   ... work ...
+ *   RequestTiming.stop(RequestTiming.Phase.JWT, start);
+ *
+ * Cost:
+ * - Without an active context (feature disabled, background threads) start() is one
+ *   ThreadLocal read returning 0 and stop() returns immediately: no clock reads, no allocation
+ * - With a context, each measurement is two System.nanoTime() calls and two array writes
+ *
+ * Phases may overlap (a user lookup is also a repository call that runs SQL);
+ * each one answers "how much time went into X", they do not add up to total.
+ *
+ * A context belongs to one request thread and is not thread-safe.
+ */
+
+public final class RequestTiming {
+
+    public enum Phase {
+        JWT("jwt", "JWT parse/verify"),
+        USER("user", "User lookup"),
+        REPOSITORY("repo", "Repository calls"),
+        DB("db", "SQL execution"),
+        HASH("hash", "Password hashing"),
+        SERIALIZATION("ser", "Response serialization");
+
+        private final String metricName;
+        private final String description;
+
+        Phase(String metricName, String description) {
+            this.metricName = metricName;
+            this.description = description;
+        }
+
+        public String metricName() {
+            return metricName;
+        }
+
+        public String description() {
+            return description;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final long[] nanos = new long[PHASES.length];
+    private final int[] counts = new int[PHASES.length];
+    private long serializationStart;
+
+    private RequestTiming() {
+    }
+
+    static RequestTiming begin() {
+        RequestTiming timing = new RequestTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public static long start() {
+        return CURRENT.get() == null ? 0 : System.nanoTime();
+    }
+
+    public static void stop(Phase phase, long start) {
+        if (start == 0) {
+            return;
+        }
+        record(phase, System.nanoTime() - start);
+    }
+
+    public static void record(Phase phase, long elapsedNanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.nanos[phase.ordinal()] += elapsedNanos;
+            timing.counts[phase.ordinal()]++;
+        }
+    }
+
+    /**
+     * Called right before the response body is written; closed by finishSerialization().
+     */
+    public static void markSerializationStart() {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null && timing.serializationStart == 0) {
+            timing.serializationStart = System.nanoTime();
+        }
+    }
+
+    void finishSerialization() {
+        if (serializationStart != 0) {
+            nanos[Phase.SERIALIZATION.ordinal()] += System.nanoTime() - serializationStart;
+            counts[Phase.SERIALIZATION.ordinal()]++;
+            serializationStart = 0;
+        }
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Server-Timing header value, e.g. {@code jwt;dur=0.214;desc="JWT parse/verify", ..., total;dur=3.105}.
+     */
+    String headerValue() {
+        StringBuilder header = new StringBuilder(256);
+        for (Phase phase : PHASES) {
+            int count = counts[phase.ordinal()];
+            if (count == 0) {
+                continue;
+            }
+            header.append(phase.metricName()).append(";dur=");
+            appendMillis(header, nanos[phase.ordinal()]);
+            header.append(";desc=\"").append(phase.description());
+            if (count > 1) {
+                header.append(" x").append(count);
+            }
+            header.append("\", ");
+        }
+        header.append("total;dur=");
+        appendMillis(header, elapsedNanos());
+        return header.toString();
+    }
+
+    /**
+     * Compact form for the access log, e.g. {@code total=3.105ms jwt=0.214ms user=1.020ms/1 ...}.
+     */
+    String logValue(long totalNanos) {
+        StringBuilder line = new StringBuilder(128).append("total=");
+        appendMillis(line, totalNanos);
+        line.append("ms");
+        for (Phase phase : PHASES) {
+            int count = counts[phase.ordinal()];
+            if (count == 0) {
+                continue;
+            }
+            line.append(' ').append(phase.metricName()).append('=');
+            appendMillis(line, nanos[phase.ordinal()]);
+            line.append("ms/").append(count);
+        }
+        return line.toString();
+    }
+
+    // Millis with microsecond precision, without String.format
+    private static void appendMillis(StringBuilder target, long nanos) {
+        long micros = Math.max(0, nanos / 1_000);
+        target.append(micros / 1_000).append('.');
+        long fraction = micros % 1_000;
+        if (fraction < 100) {
+            target.append('0');
+        }
+        if (fraction < 10) {
+            target.append('0');
+        }
+        target.append(fraction);
+    }
+}
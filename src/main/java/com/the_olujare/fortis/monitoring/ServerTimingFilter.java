@@ -0,0 +1,80 @@
+package com.the_olujare.fortis.monitoring;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Opt-in per-request latency breakdown (fortis.server-timing.enabled).
+ *
+ * Runs before Spring Security so JWT handling is inside the measured window:
+ * - Opens a RequestTiming context for the request thread
+ * - Feeds every SQL statement's time into it through SqlStatementRecorder
+ * - Adds the Server-Timing header when the response commits (ServerTimingResponseWrapper),
+ *   readable in browser dev tools and by clients reporting slow calls
+ * - Writes a sampled line per request to the "fortis.access" logger
+ *
+ * Measuring points: JwtAuthenticationFilter (jwt, user), RepositoryTimingAspect (repo),
+ * TimedPasswordEncoder (hash), ServerTimingResponseBodyAdvice (ser).
+ *
+ * Disabled (the default), this filter, the aspect and the body advice are not registered
+ * and the remaining measuring points reduce to a ThreadLocal read.
+ */
+
+@Component
+@ConditionalOnProperty(name = "fortis.server-timing.enabled", havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("fortis.access");
+
+    private final SqlStatementRecorder sqlStatementRecorder;
+
+    @Value("${fortis.server-timing.access-log-sample-rate:0.01}")
+    private double accessLogSampleRate;
+
+    @Value("${fortis.server-timing.buffer-limit-bytes:65536}")
+    private int bufferLimitBytes;
+
+    public ServerTimingFilter(SqlStatementRecorder sqlStatementRecorder) {
+        this.sqlStatementRecorder = sqlStatementRecorder;
+    }
+
+    @PostConstruct
+    void registerSqlListener() {
+        sqlStatementRecorder.addListener((sql, elapsedNanos, rows) ->
+                RequestTiming.record(RequestTiming.Phase.DB, elapsedNanos));
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        RequestTiming timing = RequestTiming.begin();
+        ServerTimingResponseWrapper timedResponse = new ServerTimingResponseWrapper(response, timing, bufferLimitBytes);
+        try {
+            filterChain.doFilter(request, timedResponse);
+            timedResponse.finish();
+        } finally {
+            RequestTiming.end();
+            if (ThreadLocalRandom.current().nextDouble() < accessLogSampleRate && ACCESS_LOG.isInfoEnabled()) {
+                ACCESS_LOG.info("{} {} {} {}", request.getMethod(), request.getRequestURI(), response.getStatus(),
+                        timing.logValue(timing.elapsedNanos()));
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.the_olujare.fortis.monitoring;
+
+import lombok.NonNull;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Marks the start of response serialization for RequestTiming ("ser").
+ *
+ * Spring calls beforeBodyWrite right before the message converter writes the body;
+ * the phase ends when ServerTimingResponseWrapper commits the response.
+ */
+
+@ControllerAdvice
+@ConditionalOnProperty(name = "fortis.server-timing.enabled", havingValue = "true")
+public class ServerTimingResponseBodyAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(@NonNull MethodParameter returnType,
+                            @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body,
+                                  @NonNull MethodParameter returnType,
+                                  @NonNull MediaType selectedContentType,
+                                  @NonNull Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  @NonNull ServerHttpRequest request,
+                                  @NonNull ServerHttpResponse response) {
+        RequestTiming.markSerializationStart();
+        return body;
+    }
+}
@@ -0,0 +1,165 @@
+package com.the_olujare.fortis.monitoring;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Holds the start of the body back until the response commits, so Server-Timing
+ * can still be added as a header once serialization has finished.
+ *
+ * Commit happens on the first flush (message converters flush once the body is complete),
+ * when more than bufferLimit bytes are written, or at the end of the request.
+ * From then on every write goes straight through: streamed responses are not held back,
+ * and a large body reports the time up to its first bufferLimit bytes.
+ */
+
+final class ServerTimingResponseWrapper extends HttpServletResponseWrapper {
+
+    private final RequestTiming timing;
+    private final int bufferLimit;
+    private final ByteArrayOutputStream buffer;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+    // Streamed (async) responses may write from another thread once committed
+    private volatile boolean committed;
+
+    ServerTimingResponseWrapper(HttpServletResponse response, RequestTiming timing, int bufferLimit) {
+        super(response);
+        this.timing = timing;
+        this.bufferLimit = bufferLimit;
+        this.buffer = new ByteArrayOutputStream(Math.min(bufferLimit, 8192));
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called");
+        }
+        if (outputStream == null) {
+            outputStream = new TimingOutputStream(getResponse().getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (outputStream != null) {
+                throw new IllegalStateException("getOutputStream() has already been called");
+            }
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1;
+            outputStream = new TimingOutputStream(getResponse().getOutputStream());
+            writer = new PrintWriter(new OutputStreamWriter(outputStream, charset));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        commit();
+        super.flushBuffer();
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return committed || super.isCommitted();
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        buffer.reset();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        buffer.reset();
+    }
+
+    /**
+     * Adds the header (if still possible) and writes whatever is held back.
+     */
+    void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        commit();
+    }
+
+    private void commit() throws IOException {
+        if (committed) {
+            return;
+        }
+        committed = true;
+        timing.finishSerialization();
+        if (!super.isCommitted()) {
+            ((HttpServletResponse) getResponse()).setHeader("Server-Timing", timing.headerValue());
+        }
+        if (buffer.size() > 0) {
+            buffer.writeTo(getResponse().getOutputStream());
+            buffer.reset();
+        }
+    }
+
+    private final class TimingOutputStream extends ServletOutputStream {
+        private final ServletOutputStream target;
+
+        private TimingOutputStream(ServletOutputStream target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (committed) {
+                target.write(b);
+                return;
+            }
+            buffer.write(b);
+            if (buffer.size() > bufferLimit) {
+                commit();
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (committed) {
+                target.write(bytes, offset, length);
+                return;
+            }
+            buffer.write(bytes, offset, length);
+            if (buffer.size() > bufferLimit) {
+                commit();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            commit();
+            target.flush();
+        }
+
+        @Override
+        public boolean isReady() {
+            return target.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            target.setWriteListener(writeListener);
+        }
+    }
+}
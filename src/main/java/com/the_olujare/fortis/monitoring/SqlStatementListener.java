@@ -0,0 +1,12 @@
+package com.the_olujare.fortis.monitoring;
+
+/**
+ * Callback invoked by SqlStatementRecorder for every executed statement.
+ *
+ * Listeners run on the thread that executed the statement and must be cheap.
+ * Used by test support to count statements per request or service call.
+ */
+
+public interface SqlStatementListener {
+    void onStatement(String sql, long elapsedNanos, long rows);
+}
@@ -0,0 +1,176 @@
+package com.the_olujare.fortis.monitoring;
+
+import com.the_olujare.fortis.dto.admin.SqlStatementStatsResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Aggregates statistics for every SQL statement executed through the instrumented DataSource.
+ * Replaces Hibernate's show-sql output, which printed every statement on the request thread.
+ *
+ * Per normalized SQL it keeps:
+ *  - execution count
+ *  - total and max execution time
+ *  - rows affected (updates; rows returned by queries are not counted, see JdbcProxies)
+ *
+ * Normalization:
+ *  - Literals become '?', IN lists collapse, whitespace is squashed
+ *  - Distinct statements are capped at maxStatements; overflow is counted under "<other>"
+ *
+ * Slow-query log:
+ *  - Only statements slower than slowThresholdMs are logged
+ *  - Logged statements are sampled with sampleRate
+ *  - Written to the "fortis.sql.slow" logger, which logback routes through an async appender
+ *
+ * Listeners:
+ *  - SqlStatementListener instances registered via addListener() see every statement
+ *  - Used by tests to enforce per-request statement budgets
+ *
+ * Recording is lock-free (LongAdder / AtomicLong), so it is cheap on the request path.
+ */
+
+@Component
+public class SqlStatementRecorder {
+
+    private static final Logger SLOW_SQL_LOG = LoggerFactory.getLogger("fortis.sql.slow");
+    private static final String OVERFLOW_KEY = "<other>";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Value("${fortis.sql-monitor.enabled:true}")
+    private boolean enabled;
+
+    @Value("${fortis.sql-monitor.slow-threshold-ms:100}")
+    private long slowThresholdMs;
+
+    @Value("${fortis.sql-monitor.sample-rate:1.0}")
+    private double sampleRate;
+
+    @Value("${fortis.sql-monitor.max-statements:2000}")
+    private int maxStatements;
+
+    private final Map<String, StatementStats> stats = new ConcurrentHashMap<>();
+    private final Map<String, String> normalizedCache = new ConcurrentHashMap<>();
+    private final List<SqlStatementListener> listeners = new CopyOnWriteArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void addListener(SqlStatementListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(SqlStatementListener listener) {
+        listeners.remove(listener);
+    }
+
+    public void record(String sql, long elapsedNanos, long rows) {
+        if (!enabled || sql == null) {
+            return;
+        }
+
+        for (SqlStatementListener listener : listeners) {
+            listener.onStatement(sql, elapsedNanos, rows);
+        }
+
+        statsFor(sql).record(elapsedNanos, rows);
+
+        if (elapsedNanos >= TimeUnit.MILLISECONDS.toNanos(slowThresholdMs)
+                && (sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+            SLOW_SQL_LOG.warn("slow statement {} ms, {} rows: {}",
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rows, sql);
+        }
+    }
+
+    public List<SqlStatementStatsResponse> top(int limit, String sortBy) {
+        Comparator<SqlStatementStatsResponse> order = switch (sortBy == null ? "total" : sortBy) {
+            case "count" -> Comparator.comparingLong(SqlStatementStatsResponse::getCount);
+            case "max" -> Comparator.comparingDouble(SqlStatementStatsResponse::getMaxMs);
+            case "rows" -> Comparator.comparingLong(SqlStatementStatsResponse::getRows);
+            default -> Comparator.comparingDouble(SqlStatementStatsResponse::getTotalMs);
+        };
+
+        return stats.entrySet().stream()
+                .map(entry -> entry.getValue().snapshot(entry.getKey()))
+                .sorted(order.reversed())
+                .limit(Math.max(1, limit))
+                .toList();
+    }
+
+    public void reset() {
+        stats.clear();
+    }
+
+    private StatementStats statsFor(String sql) {
+        String key = normalize(sql);
+        StatementStats statementStats = stats.get(key);
+        if (statementStats != null) {
+            return statementStats;
+        }
+        if (stats.size() >= maxStatements) {
+            key = OVERFLOW_KEY;
+        }
+        return stats.computeIfAbsent(key, k -> new StatementStats());
+    }
+
+    private String normalize(String sql) {
+        String cached = normalizedCache.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("in (...)");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+
+        if (normalizedCache.size() < maxStatements * 4) {
+            normalizedCache.put(sql, normalized);
+        }
+        return normalized;
+    }
+
+    private static final class StatementStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder rows = new LongAdder();
+
+        private void record(long elapsedNanos, long affectedRows) {
+            count.increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+            rows.add(affectedRows);
+        }
+
+        private SqlStatementStatsResponse snapshot(String sql) {
+            long executions = count.sum();
+            double totalMs = totalNanos.sum() / 1_000_000.0;
+            return SqlStatementStatsResponse.builder()
+                    .sql(sql)
+                    .count(executions)
+                    .totalMs(totalMs)
+                    .maxMs(maxNanos.get() / 1_000_000.0)
+                    .avgMs(executions == 0 ? 0 : totalMs / executions)
+                    .rows(rows.sum())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.the_olujare.fortis.monitoring;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * PasswordEncoder decorator that reports hashing time to RequestTiming ("hash").
+ */
+
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long start = RequestTiming.start();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            RequestTiming.stop(RequestTiming.Phase.HASH, start);
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = RequestTiming.start();
+        try {
+            return delegate.matches(rawPassword, encodedPassword);
+        } finally {
+            RequestTiming.stop(RequestTiming.Phase.HASH, start);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
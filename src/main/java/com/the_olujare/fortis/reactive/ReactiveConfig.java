@@ -0,0 +1,94 @@
+package com.the_olujare.fortis.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.the_olujare.fortis.service.AccessTokenDenylistService;
+import com.the_olujare.fortis.util.JwtUtil;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+
+import java.time.Duration;
+
+/**
+ * Optional reactive task API (WebFlux functional endpoints + R2DBC), active with the "reactive" profile.
+ *
+ * - ConnectionFactory     → pooled R2DBC connections to the same database as JPA
+ * - R2dbcEntityTemplate   → backs ReactiveTaskRepository and ReactiveUserRepository
+ * - ReactiveTaskServer    → Reactor Netty on fortis.reactive.port, serving ReactiveTaskHandler
+ *                           behind ReactiveJwtAuthenticationFilter
+ *
+ * Spring Boot's R2DBC auto-configuration is excluded in FortisApplication:
+ * its transaction manager would compete with JPA's for every @Transactional method.
+ * The handlers' multi-statement mutations (task + change sequence + tombstone) run in a
+ * TransactionalOperator over an R2dbcTransactionManager that is deliberately not a bean.
+ *
+ * Task reads and writes go to the main database only; the reactive stack
+ * does not apply replica routing or task sharding (run it with both disabled).
+ */
+
+@Configuration
+@Profile("reactive")
+@EnableR2dbcRepositories(basePackageClasses = ReactiveTaskRepository.class)
+public class ReactiveConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool connectionFactory(@Value("${fortis.reactive.r2dbc.url}") String url,
+                                            @Value("${fortis.reactive.r2dbc.username}") String username,
+                                            @Value("${fortis.reactive.r2dbc.password}") String password,
+                                            @Value("${fortis.reactive.r2dbc.max-pool-size:20}") int maxPoolSize) {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build());
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .name("fortis-r2dbc")
+                .maxSize(maxPoolSize)
+                .maxIdleTime(Duration.ofMinutes(30))
+                .build());
+    }
+
+    @Bean
+    public R2dbcEntityTemplate r2dbcEntityTemplate(ConnectionFactory connectionFactory) {
+        return new R2dbcEntityTemplate(connectionFactory);
+    }
+
+    @Bean
+    public ReactiveTaskServer reactiveTaskServer(ReactiveTaskRepository reactiveTaskRepository,
+                                                 ReactiveUserRepository reactiveUserRepository,
+                                                 JwtUtil jwtUtil,
+                                                 AccessTokenDenylistService accessTokenDenylistService,
+                                                 ConnectionFactory connectionFactory,
+                                                 ObjectMapper objectMapper,
+                                                 ApplicationEventPublisher eventPublisher,
+                                                 @Value("${fortis.reactive.host:0.0.0.0}") String host,
+                                                 @Value("${fortis.reactive.port:8081}") int port) {
+        // Same ObjectMapper as Spring MVC, so payloads are identical on both stacks
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .webFilter(new ReactiveJwtAuthenticationFilter(jwtUtil, accessTokenDenylistService, reactiveUserRepository))
+                .build();
+
+        TransactionalOperator transactionalOperator =
+                TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+        ReactiveTaskHandler handler = new ReactiveTaskHandler(reactiveTaskRepository, transactionalOperator, eventPublisher);
+        return new ReactiveTaskServer(RouterFunctions.toHttpHandler(handler.routes(), strategies), host, port);
+    }
+}
@@ -0,0 +1,91 @@
+package com.the_olujare.fortis.reactive;
+
+import com.the_olujare.fortis.service.AccessTokenDenylistService;
+import com.the_olujare.fortis.util.JwtConstants;
+import com.the_olujare.fortis.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+/**
+ * Reactive equivalent of JwtAuthenticationFilter for the reactive task API.
+ *
+ * Same checks, in the same order:
+ * - Bearer token in the Authorization header, signature and expiry verified by JwtUtil
+ * - Access-token denylist: the Bloom filter is checked inline; only on a filter hit
+ *   is the (blocking) database lookup run, on the bounded elastic scheduler
+ * - User loaded by email through R2DBC, never blocking the event loop
+ *
+ * On success the authentication is written to the Reactor context
+ * (ReactiveSecurityContextHolder), where ReactiveTaskHandler reads it.
+ * Missing or invalid tokens continue unauthenticated; the handler answers 401.
+ */
+
+public class ReactiveJwtAuthenticationFilter implements WebFilter {
+
+    private final JwtUtil jwtUtil;
+    private final AccessTokenDenylistService accessTokenDenylistService;
+    private final ReactiveUserRepository reactiveUserRepository;
+
+    public ReactiveJwtAuthenticationFilter(JwtUtil jwtUtil,
+                                           AccessTokenDenylistService accessTokenDenylistService,
+                                           ReactiveUserRepository reactiveUserRepository) {
+        this.jwtUtil = jwtUtil;
+        this.accessTokenDenylistService = accessTokenDenylistService;
+        this.reactiveUserRepository = reactiveUserRepository;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith(JwtConstants.TOKEN_PREFIX)) {
+            return chain.filter(exchange);
+        }
+
+        String token = authHeader.substring(7);
+        String email;
+        String tokenId;
+        try {
+            Claims claims = jwtUtil.parseClaims(token);
+            email = claims.getSubject();
+            tokenId = claims.getId();
+        } catch (JwtException | IllegalArgumentException e) {
+            return chain.filter(exchange);
+        }
+        if (email == null) {
+            return chain.filter(exchange);
+        }
+
+        return isRevoked(tokenId)
+                .flatMap(revoked -> revoked ? Mono.empty() : reactiveUserRepository.findByEmail(email))
+                .map(this::toAuthentication)
+                .flatMap(authentication -> chain.filter(exchange)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication))
+                        .thenReturn(Boolean.TRUE))
+                .switchIfEmpty(Mono.defer(() -> chain.filter(exchange).thenReturn(Boolean.FALSE)))
+                .then();
+    }
+
+    private Mono<Boolean> isRevoked(String tokenId) {
+        if (!accessTokenDenylistService.mightBeRevoked(tokenId)) {
+            return Mono.just(Boolean.FALSE);
+        }
+        return Mono.fromCallable(() -> accessTokenDenylistService.isRevoked(tokenId))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private UsernamePasswordAuthenticationToken toAuthentication(ReactiveUser user) {
+        return new UsernamePasswordAuthenticationToken(
+                user, null, List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole())));
+    }
+}
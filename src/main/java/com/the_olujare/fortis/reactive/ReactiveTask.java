@@ -0,0 +1,45 @@
+package com.the_olujare.fortis.reactive;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+/**
+ * R2DBC mapping of the task table, used only by the reactive task API.
+ *
+ * Same rows as the JPA Task entity, but the owner is a plain user_id column:
+ * R2DBC has no lazy associations, and the handlers only ever need the id.
+ * The schema itself is still owned by Hibernate (ddl-auto).
+ * changeSeq / updatedAt are stamped by ReactiveTaskHandler exactly as TaskService does,
+ * so delta sync sees reactive writes too.
+ */
+
+@Table("task")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReactiveTask {
+
+    @Id
+    private Long id;
+
+    private String title;
+
+    private String description;
+
+    private boolean completed;
+
+    @Column("user_id")
+    private Long userId;
+
+    @Column("change_seq")
+    private long changeSeq;
+
+    @Column("updated_at")
+    private Instant updatedAt;
+}
@@ -0,0 +1,207 @@
+package com.the_olujare.fortis.reactive;
+
+import com.the_olujare.fortis.dto.task.TaskRequest;
+import com.the_olujare.fortis.dto.task.TaskResponse;
+import com.the_olujare.fortis.event.TaskChangedEvent;
+import com.the_olujare.fortis.exception.FortisException;
+import com.the_olujare.fortis.exception.ResourceNotFoundException;
+import com.the_olujare.fortis.exception.UnauthorizedException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Non-blocking version of the FortisTaskController endpoints, same paths and payloads:
+ *
+ * - POST   /api/tasks             → create
+ * - GET    /api/tasks             → list (streamed from R2DBC)
+ * - GET    /api/tasks/{id}        → get
+ * - PUT    /api/tasks/{id}        → update title and description
+ * - DELETE /api/tasks/{id}        → 204
+ * - PATCH  /api/tasks/{id}/toggle → flip completion
+ *
+ * Ownership rules match TaskService: the user comes from the security context only,
+ * and a missing or foreign task is the same 404. Errors reuse the pre-serialized
+ * FortisException bodies of the servlet stack.
+ *
+ * Mutations take the next per-user change sequence (and deletions leave a tombstone)
+ * in one R2DBC transaction, so GET /api/tasks/changes on the servlet stack sees them.
+ * Once that transaction commits, each mutation publishes the same TaskChangedEvent as
+ * TaskService, so streams on the servlet stack (GET /api/tasks/stream) see them too.
+ */
+
+public class ReactiveTaskHandler {
+
+    private static final UnauthorizedException AUTHENTICATION_REQUIRED =
+            new UnauthorizedException("Authentication required");
+    private static final ResourceNotFoundException TASK_NOT_FOUND =
+            new ResourceNotFoundException("Task not found or access denied");
+
+    private final ReactiveTaskRepository reactiveTaskRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ReactiveTaskHandler(ReactiveTaskRepository reactiveTaskRepository,
+                               TransactionalOperator transactionalOperator,
+                               ApplicationEventPublisher eventPublisher) {
+        this.reactiveTaskRepository = reactiveTaskRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .path("/api/tasks", tasks -> tasks
+                        .POST("", this::createTask)
+                        .GET("", this::getAllTasks)
+                        .GET("/{id}", this::getTask)
+                        .PUT("/{id}", this::updateTask)
+                        .DELETE("/{id}", this::deleteTask)
+                        .PATCH("/{id}/toggle", this::toggleComplete))
+                .onError(FortisException.class, (error, request) -> errorResponse((FortisException) error))
+                .build();
+    }
+
+    private Mono<ServerResponse> createTask(ServerRequest request) {
+        return currentUser()
+                .flatMap(user -> request.bodyToMono(TaskRequest.class)
+                        .map(taskRequest -> ReactiveTask.builder()
+                                .title(taskRequest.getTitle())
+                                .description(taskRequest.getDescription())
+                                .completed(false)
+                                .userId(user.getId())
+                                .build())
+                        .flatMap(task -> markChanged(task)
+                                .flatMap(reactiveTaskRepository::save)
+                                .as(transactionalOperator::transactional))
+                        .map(task -> publish(TaskChangedEvent.Type.CREATED, mapToResponse(task, user))))
+                .flatMap(this::ok);
+    }
+
+    private Mono<ServerResponse> getAllTasks(ServerRequest request) {
+        return currentUser()
+                .flatMap(user -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(reactiveTaskRepository.findAllByUserId(user.getId())
+                                .map(task -> mapToResponse(task, user)), TaskResponse.class));
+    }
+
+    private Mono<ServerResponse> getTask(ServerRequest request) {
+        return currentUser()
+                .flatMap(user -> getTaskOrThrow(request, user)
+                        .map(task -> mapToResponse(task, user)))
+                .flatMap(this::ok);
+    }
+
+    private Mono<ServerResponse> updateTask(ServerRequest request) {
+        // Body is read before the transaction starts, so no connection waits on the client
+        return currentUser()
+                .flatMap(user -> request.bodyToMono(TaskRequest.class)
+                        .flatMap(taskRequest -> getTaskOrThrow(request, user)
+                                .map(task -> {
+                                    task.setTitle(taskRequest.getTitle());
+                                    task.setDescription(taskRequest.getDescription());
+                                    return task;
+                                })
+                                .flatMap(this::markChanged)
+                                .flatMap(reactiveTaskRepository::save)
+                                .as(transactionalOperator::transactional))
+                        .map(task -> publish(TaskChangedEvent.Type.UPDATED, mapToResponse(task, user))))
+                .flatMap(this::ok);
+    }
+
+    private Mono<ServerResponse> deleteTask(ServerRequest request) {
+        return currentUser()
+                // The task is read first: the DELETED event carries it as it was just before deletion
+                .flatMap(user -> getTaskOrThrow(request, user)
+                        .flatMap(task -> reactiveTaskRepository.deleteByIdAndUserId(task.getId(), user.getId())
+                                .flatMap(deleted -> deleted > 0
+                                        ? reactiveTaskRepository.nextChangeSeq(user.getId())
+                                                .flatMap(changeSeq -> reactiveTaskRepository.insertTombstone(
+                                                        task.getId(), user.getId(), changeSeq, Instant.now()))
+                                                .thenReturn(task)
+                                        : Mono.error(TASK_NOT_FOUND)))
+                        .as(transactionalOperator::transactional)
+                        .map(task -> publish(TaskChangedEvent.Type.DELETED, mapToResponse(task, user))))
+                .then(ServerResponse.noContent().build());
+    }
+
+    private Mono<ServerResponse> toggleComplete(ServerRequest request) {
+        return currentUser()
+                .flatMap(user -> getTaskOrThrow(request, user)
+                        .flatMap(task -> {
+                            task.setCompleted(!task.isCompleted());
+                            return markChanged(task);
+                        })
+                        .flatMap(reactiveTaskRepository::save)
+                        .as(transactionalOperator::transactional)
+                        .map(task -> publish(TaskChangedEvent.Type.TOGGLED, mapToResponse(task, user))))
+                .flatMap(this::ok);
+    }
+
+    // Runs after the transaction committed; TaskEventHub takes events without a transaction right away
+    private TaskResponse publish(TaskChangedEvent.Type type, TaskResponse taskResponse) {
+        eventPublisher.publishEvent(new TaskChangedEvent(taskResponse.getUserId(), type, taskResponse));
+        return taskResponse;
+    }
+
+    private Mono<ReactiveTask> markChanged(ReactiveTask task) {
+        return reactiveTaskRepository.nextChangeSeq(task.getUserId())
+                .map(changeSeq -> {
+                    task.setChangeSeq(changeSeq);
+                    task.setUpdatedAt(Instant.now());
+                    return task;
+                });
+    }
+
+    private Mono<ReactiveUser> currentUser() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .map(authentication -> (ReactiveUser) authentication.getPrincipal())
+                .switchIfEmpty(Mono.error(AUTHENTICATION_REQUIRED));
+    }
+
+    private Mono<ReactiveTask> getTaskOrThrow(ServerRequest request, ReactiveUser user) {
+        return reactiveTaskRepository.findByIdAndUserId(taskId(request), user.getId())
+                .switchIfEmpty(Mono.error(TASK_NOT_FOUND));
+    }
+
+    private Long taskId(ServerRequest request) {
+        try {
+            return Long.valueOf(request.pathVariable("id"));
+        } catch (NumberFormatException e) {
+            throw TASK_NOT_FOUND;
+        }
+    }
+
+    // Same as TaskService.mapToResponse, where FortisUser.getUsername() is the email
+    private TaskResponse mapToResponse(ReactiveTask task, ReactiveUser owner) {
+        return TaskResponse.builder()
+                .id(task.getId())
+                .userId(owner.getId())
+                .username(owner.getEmail())
+                .title(task.getTitle())
+                .description(task.getDescription())
+                .completed(task.isCompleted())
+                .build();
+    }
+
+    private Mono<ServerResponse> ok(TaskResponse taskResponse) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(taskResponse);
+    }
+
+    private Mono<ServerResponse> errorResponse(FortisException fortisException) {
+        return ServerResponse.status(fortisException.getStatus())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(fortisException.responseBody());
+    }
+}
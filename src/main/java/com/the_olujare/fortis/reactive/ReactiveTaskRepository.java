@@ -0,0 +1,43 @@
+package com.the_olujare.fortis.reactive;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Non-blocking counterpart of TaskRepository.
+ *
+ * Ownership is part of every query (user_id = ?), so a foreign task
+ * is indistinguishable from a missing one, as in TaskService.
+ *
+ * nextChangeSeq() and insertTombstone() are the R2DBC versions of
+ * TaskSyncStateRepository.nextChangeSeq() and saving a TaskTombstone;
+ * both must run inside the mutating transaction.
+ */
+
+public interface ReactiveTaskRepository extends R2dbcRepository<ReactiveTask, Long> {
+
+    Flux<ReactiveTask> findAllByUserId(Long userId);
+
+    Mono<ReactiveTask> findByIdAndUserId(Long id, Long userId);
+
+    Mono<Long> deleteByIdAndUserId(Long id, Long userId);
+
+    @Query("""
+            select change_seq from final table (
+                merge into task_sync_state s
+                using (values (cast(:userId as bigint))) v(user_id)
+                on s.user_id = v.user_id
+                when matched then update set change_seq = s.change_seq + 1
+                when not matched then insert (user_id, change_seq, purged_through) values (v.user_id, 1, 0)
+            )""")
+    Mono<Long> nextChangeSeq(Long userId);
+
+    @Modifying
+    @Query("insert into task_tombstone (task_id, user_id, change_seq, deleted_at) values (:taskId, :userId, :changeSeq, :deletedAt)")
+    Mono<Long> insertTombstone(Long taskId, Long userId, long changeSeq, Instant deletedAt);
+}
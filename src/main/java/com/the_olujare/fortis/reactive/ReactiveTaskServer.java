@@ -0,0 +1,64 @@
+package com.the_olujare.fortis.reactive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Runs the reactive task API on its own Reactor Netty server, next to the servlet container.
+ *
+ * - The servlet stack keeps serving everything on server.port (auth, users, admin, tasks)
+ * - This server serves only /api/tasks, on fortis.reactive.port
+ * - Both read the same database, so tokens issued by /api/auth work on either port
+ *
+ * Started after the application context is refreshed, stopped before it closes.
+ */
+
+@Slf4j
+public class ReactiveTaskServer implements SmartLifecycle {
+
+    private final HttpHandler httpHandler;
+    private final String host;
+    private final int port;
+
+    private volatile DisposableServer server;
+
+    public ReactiveTaskServer(HttpHandler httpHandler, String host, int port) {
+        this.httpHandler = httpHandler;
+        this.host = host;
+        this.port = port;
+    }
+
+    @Override
+    public void start() {
+        server = HttpServer.create()
+                .host(host)
+                .port(port)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        log.info("Reactive task API started on port {}", server.port());
+    }
+
+    @Override
+    public void stop() {
+        DisposableServer current = server;
+        if (current != null) {
+            current.disposeNow();
+            server = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    // Actual port, also when fortis.reactive.port=0
+    public int getPort() {
+        DisposableServer current = server;
+        return current != null ? current.port() : port;
+    }
+}
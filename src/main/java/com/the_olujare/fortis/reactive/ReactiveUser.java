@@ -0,0 +1,30 @@
+package com.the_olujare.fortis.reactive;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Read-only R2DBC view of fortis_user: just what request authentication needs.
+ * The password hash is deliberately not mapped.
+ *
+ * Used as the principal of the reactive task API (see ReactiveJwtAuthenticationFilter).
+ */
+
+@Table("fortis_user")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReactiveUser {
+
+    @Id
+    private Long id;
+
+    private String email;
+
+    private String role;
+
+    private boolean enabled;
+}
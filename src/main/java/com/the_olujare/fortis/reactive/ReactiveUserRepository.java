@@ -0,0 +1,14 @@
+package com.the_olujare.fortis.reactive;
+
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking user lookup for ReactiveJwtAuthenticationFilter.
+ * Mirrors FortisUserRepository.findByEmail (the JWT subject is the email).
+ */
+
+public interface ReactiveUserRepository extends R2dbcRepository<ReactiveUser, Long> {
+
+    Mono<ReactiveUser> findByEmail(String email);
+}
@@ -1,7 +1,15 @@
 package com.the_olujare.fortis.repository;
 
 import com.the_olujare.fortis.entity.EmailVerificationToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -14,9 +22,21 @@ import java.util.Optional;
  *  - Retrieves a verification token using its string value.
  *  - Used when validating email confirmation requests.
  *
+ * findPurgeableIds() / deleteAllByIdIn()
+ *  - Select and delete one bounded chunk of used or expired tokens.
+ *  - Used by TokenPurgeService so each delete is a short transaction.
+ *
  * Returns Optional to safely handle missing or invalid tokens.
  */
 
 public interface EmailVerificationTokenRepository extends JpaRepository<EmailVerificationToken, Long> {
     Optional<EmailVerificationToken> findByToken(String token);
-}
\ No newline at end of file
+
+    @Query("select t.id from EmailVerificationToken t where t.used = true or t.expiryDate < :now")
+    List<Long> findPurgeableIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("delete from EmailVerificationToken t where t.id in :ids")
+    int deleteAllByIdIn(@Param("ids") List<Long> ids);
+}
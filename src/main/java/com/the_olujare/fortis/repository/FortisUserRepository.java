@@ -2,7 +2,12 @@ package com.the_olujare.fortis.repository;
 
 import com.the_olujare.fortis.entity.FortisUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.Optional;
 
 /**
@@ -12,13 +17,18 @@ import java.util.Optional;
  * Extends JpaRepository to inherit standard CRUD operations.
  *
  * findByEmail()
- *  - Retrieves a user using their email address.
+ *  - Retrieves a user using their normalized email address (see EmailUtil).
  *  - Used during login and token validation.
  *
  * existsByEmail()
  *  - Checks if an email is already registered.
  *  - Prevents duplicate account creation during registration.
  *
+ * updateLockedUntil()
+ *  - Sets or clears the lockout deadline without loading the user.
+ *  - Exact match on the normalized email, so it is an index lookup on idx_fortis_user_email.
+ *  - Called by LoginAttemptService only when a lockout starts or ends.
+ *
  * Returns Optional where absence is a valid outcome.
  */
 
@@ -26,4 +36,9 @@ import java.util.Optional;
 public interface FortisUserRepository extends JpaRepository<FortisUser, Long> {
     Optional<FortisUser> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    @Modifying
+    @Transactional
+    @Query("update FortisUser u set u.lockedUntil = :lockedUntil where u.email = :email")
+    int updateLockedUntil(@Param("email") String email, @Param("lockedUntil") Instant lockedUntil);
 }
\ No newline at end of file
@@ -1,8 +1,15 @@
 package com.the_olujare.fortis.repository;
 
 import com.the_olujare.fortis.entity.PasswordResetToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -15,9 +22,21 @@ import java.util.Optional;
  *  - Locates a password reset token by its string value.
  *  - Used to validate reset requests before updating passwords.
  *
+ * findPurgeableIds() / deleteAllByIdIn()
+ *  - Select and delete one bounded chunk of used or expired tokens.
+ *  - Used by TokenPurgeService so each delete is a short transaction.
+ *
  * Returns Optional to safely handle expired or invalid tokens.
  */
 
 public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
     Optional<PasswordResetToken> findByToken(String token);
-}
\ No newline at end of file
+
+    @Query("select t.id from PasswordResetToken t where t.used = true or t.expiryDate < :now")
+    List<Long> findPurgeableIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("delete from PasswordResetToken t where t.id in :ids")
+    int deleteAllByIdIn(@Param("ids") List<Long> ids);
+}
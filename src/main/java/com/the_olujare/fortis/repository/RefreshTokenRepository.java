@@ -2,8 +2,16 @@ package com.the_olujare.fortis.repository;
 
 import com.the_olujare.fortis.entity.FortisUser;
 import com.the_olujare.fortis.entity.RefreshToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 /**
@@ -12,15 +20,55 @@ import java.util.Optional;
  *
  * Inherits standard CRUD operations from JpaRepository.
  *
- * findByToken()
- *  - Retrieves a refresh token using its string value.
- *  - Used when issuing new access tokens or invalidating sessions.
+ * findByTokenHash()
+ *  - Retrieves a refresh token by the SHA-256 hash of its value.
+ *  - Fetches the owning user in the same statement for rotation.
+ *
+ * revokeAllByFortisUser()
+ *  - Revokes every active token of a user with one UPDATE.
+ *  - Used on login so token history never has to be loaded.
+ *
+ * revokeIfActive()
+ *  - Atomically claims a token for rotation.
+ *  - Returns 0 when another request already rotated it (treated as reuse).
+ *
+ * revokeFamily()
+ *  - Revokes a whole rotation family with one UPDATE.
+ *  - Runs in its own transaction so reuse detection survives the caller's rollback.
+ *
+ * findPurgeableIds() / deleteAllByIdIn()
+ *  - Select and delete one bounded chunk of expired tokens.
+ *  - Revoked tokens are kept until expiry so family reuse detection keeps working.
  *
  * Returns Optional to safely handle revoked or expired tokens.
  */
 
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
-    Optional<RefreshToken> findByToken(String token);
-    List<RefreshToken> findAllByFortisUser(FortisUser fortisUser);
-}
\ No newline at end of file
+
+    @EntityGraph(attributePaths = "fortisUser")
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    @Modifying
+    @Transactional
+    @Query("update RefreshToken r set r.revoked = true where r.fortisUser = :fortisUser and r.revoked = false")
+    int revokeAllByFortisUser(@Param("fortisUser") FortisUser fortisUser);
+
+    @Modifying
+    @Transactional
+    @Query("update RefreshToken r set r.revoked = true where r.id = :id and r.revoked = false")
+    int revokeIfActive(@Param("id") Long id);
+
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query("update RefreshToken r set r.revoked = true where r.familyId = :familyId and r.revoked = false")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    @Query("select r.id from RefreshToken r where r.expiryDate < :now")
+    List<Long> findPurgeableIds(@Param("now") Instant now, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("delete from RefreshToken r where r.id in :ids")
+    int deleteAllByIdIn(@Param("ids") List<Long> ids);
+}
@@ -0,0 +1,41 @@
+package com.the_olujare.fortis.repository;
+
+import com.the_olujare.fortis.entity.RevokedAccessToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository for managing RevokedAccessToken entities.
+ * Backs the access-token denylist used on logout.
+ *
+ * Inherits standard CRUD operations from JpaRepository.
+ * existsById() confirms a Bloom filter hit with a primary-key lookup.
+ *
+ * findActiveIds()
+ *  - Loads the jti of every revoked token that has not expired yet.
+ *  - Used to (re)build the in-memory Bloom filter.
+ *
+ * findPurgeableIds() / deleteAllByIdIn()
+ *  - Select and delete one bounded chunk of entries past their token's expiry.
+ */
+
+public interface RevokedAccessTokenRepository extends JpaRepository<RevokedAccessToken, String> {
+
+    @Query("select t.jti from RevokedAccessToken t where t.expiryDate >= :now")
+    List<String> findActiveIds(@Param("now") Instant now);
+
+    @Query("select t.jti from RevokedAccessToken t where t.expiryDate < :now")
+    List<String> findPurgeableIds(@Param("now") Instant now, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("delete from RevokedAccessToken t where t.jti in :ids")
+    int deleteAllByIdIn(@Param("ids") List<String> ids);
+}
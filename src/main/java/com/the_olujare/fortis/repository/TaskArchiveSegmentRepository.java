@@ -0,0 +1,18 @@
+package com.the_olujare.fortis.repository;
+
+import com.the_olujare.fortis.entity.TaskArchiveSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+/**
+ * Repository for archived task segments.
+ *
+ * findFirstByUserIdAndIdLessThanOrderByIdDesc()
+ *  - The user's next segment below a cursor, one at a time, so a page of
+ *    GET /api/tasks/archive loads (and decompresses) only the segments it returns.
+ */
+
+public interface TaskArchiveSegmentRepository extends JpaRepository<TaskArchiveSegment, Long> {
+    Optional<TaskArchiveSegment> findFirstByUserIdAndIdLessThanOrderByIdDesc(Long userId, Long id);
+}
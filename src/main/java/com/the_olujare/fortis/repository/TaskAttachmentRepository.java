@@ -0,0 +1,24 @@
+package com.the_olujare.fortis.repository;
+
+import com.the_olujare.fortis.entity.TaskAttachment;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository for task attachment metadata.
+ *
+ * findByTaskIdOrderByCreatedAt()
+ *  - Attachments of one task, oldest first (task_id index).
+ *
+ * findByIdAndTaskId()
+ *  - One attachment, only if it belongs to the given (already ownership-checked) task.
+ */
+
+public interface TaskAttachmentRepository extends JpaRepository<TaskAttachment, UUID> {
+    List<TaskAttachment> findByTaskIdOrderByCreatedAt(Long taskId);
+
+    Optional<TaskAttachment> findByIdAndTaskId(UUID id, Long taskId);
+}
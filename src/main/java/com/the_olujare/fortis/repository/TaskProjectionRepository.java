@@ -0,0 +1,35 @@
+package com.the_olujare.fortis.repository;
+
+import com.the_olujare.fortis.dto.task.TaskField;
+import com.the_olujare.fortis.entity.Task;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Task reads that select only the columns of a sparse fieldset (?fields=).
+ * Mixed into TaskRepository; implemented by TaskProjectionRepositoryImpl.
+ *
+ * - id and change_seq are always selected, plus the columns behind the requested fields
+ * - Results are unmanaged Task instances with only those attributes set:
+ *   map them to responses, never modify or save them
+ * - Owner is matched on the user_id column, so FortisUser is never joined
+ *
+ * findByFortisUserId()
+ *  - Same rows as TaskRepository.findAllByFortisUser.
+ *
+ * findByIdAndFortisUserId()
+ *  - One task, only if the given user owns it (the ownership check in the query itself).
+ *
+ * findChangedSince()
+ *  - Same rows as TaskRepository.findByFortisUserAndChangeSeqGreaterThan..., at most limit of them.
+ */
+
+public interface TaskProjectionRepository {
+    List<Task> findByFortisUserId(Long userId, Set<TaskField> fields);
+
+    Optional<Task> findByIdAndFortisUserId(Long id, Long userId, Set<TaskField> fields);
+
+    List<Task> findChangedSince(Long userId, long changeSeq, Set<TaskField> fields, int limit);
+}
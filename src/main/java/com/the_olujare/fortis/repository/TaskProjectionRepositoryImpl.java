@@ -0,0 +1,96 @@
+package com.the_olujare.fortis.repository;
+
+import com.the_olujare.fortis.dto.task.TaskField;
+import com.the_olujare.fortis.entity.Task;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Criteria tuple queries behind TaskProjectionRepository.
+ * The select list is built per call, so each fieldset gets exactly its columns.
+ */
+
+public class TaskProjectionRepositoryImpl implements TaskProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Task> findByFortisUserId(Long userId, Set<TaskField> fields) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Task> task = query.from(Task.class);
+        query.multiselect(columns(task, fields))
+                .where(builder.equal(task.get("fortisUser").get("id"), userId));
+
+        return toTasks(entityManager.createQuery(query).getResultList());
+    }
+
+    @Override
+    public Optional<Task> findByIdAndFortisUserId(Long id, Long userId, Set<TaskField> fields) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Task> task = query.from(Task.class);
+        query.multiselect(columns(task, fields))
+                .where(builder.equal(task.get("id"), id),
+                        builder.equal(task.get("fortisUser").get("id"), userId));
+
+        return toTasks(entityManager.createQuery(query).getResultList()).stream().findFirst();
+    }
+
+    @Override
+    public List<Task> findChangedSince(Long userId, long changeSeq, Set<TaskField> fields, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Task> task = query.from(Task.class);
+        query.multiselect(columns(task, fields))
+                .where(builder.equal(task.get("fortisUser").get("id"), userId),
+                        builder.greaterThan(task.get("changeSeq"), changeSeq))
+                .orderBy(builder.asc(task.get("changeSeq")), builder.asc(task.get("id")));
+
+        return toTasks(entityManager.createQuery(query).setMaxResults(limit).getResultList());
+    }
+
+    private static List<Selection<?>> columns(Root<Task> task, Set<TaskField> fields) {
+        List<Selection<?>> columns = new ArrayList<>();
+        columns.add(task.get("id").alias("id"));
+        columns.add(task.get("changeSeq").alias("changeSeq"));
+        for (TaskField field : fields) {
+            if (field.attribute() != null && !field.attribute().equals("id")) {
+                columns.add(task.get(field.attribute()).alias(field.attribute()));
+            }
+        }
+        return columns;
+    }
+
+    private static List<Task> toTasks(List<Tuple> rows) {
+        List<Task> tasks = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Task task = new Task();
+            for (TupleElement<?> column : row.getElements()) {
+                Object value = row.get(column);
+                switch (column.getAlias()) {
+                    case "id" -> task.setId((Long) value);
+                    case "changeSeq" -> task.setChangeSeq((Long) value);
+                    case "title" -> task.setTitle((String) value);
+                    case "description" -> task.setDescription((String) value);
+                    case "completed" -> task.setCompleted((Boolean) value);
+                    default -> throw new IllegalStateException("Unmapped task column: " + column.getAlias());
+                }
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+}
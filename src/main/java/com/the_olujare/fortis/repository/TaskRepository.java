@@ -2,6 +2,7 @@ package com.the_olujare.fortis.repository;
 
 import com.the_olujare.fortis.entity.Task;
 import com.the_olujare.fortis.entity.FortisUser;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
@@ -16,9 +17,17 @@ import java.util.List;
  *  - Retrieves all tasks that belong to a specific user.
  *  - Used to enforce task ownership at the query level.
  *
- * This method prevents cross-user data access by design.
+ * findByFortisUserAndChangeSeqGreaterThan...()
+ *  - Tasks of a user changed after a sync token, in change order, one page at a time.
+ *  - Served by the (user_id, change_seq) index; cost follows the page, not the task count.
+ *
+ * Sparse fieldset reads (?fields=) come from TaskProjectionRepository.
+ *
+ * These methods prevent cross-user data access by design.
  */
 
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskProjectionRepository {
     List<Task> findAllByFortisUser(FortisUser fortisUser);
+
+    List<Task> findByFortisUserAndChangeSeqGreaterThanOrderByChangeSeqAscIdAsc(FortisUser fortisUser, long changeSeq, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.the_olujare.fortis.repository;
+
+import com.the_olujare.fortis.entity.TaskSyncState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Repository for per-user delta sync state.
+ *
+ * nextChangeSeq()
+ *  - Increments (or creates) the user's counter and returns the new value in one statement.
+ *  - Must run inside the mutating transaction: the row stays locked until commit.
+ *  - H2 syntax (FINAL TABLE over MERGE); on PostgreSQL the equivalent is
+ *    INSERT ... ON CONFLICT (user_id) DO UPDATE ... RETURNING change_seq.
+ *
+ * purgedThrough is advanced by TaskTombstonePurgeService (plain JDBC, also on task shards).
+ */
+
+public interface TaskSyncStateRepository extends JpaRepository<TaskSyncState, Long> {
+
+    @Query(nativeQuery = true, value = """
+            select change_seq from final table (
+                merge into task_sync_state s
+                using (values (cast(:userId as bigint))) v(user_id)
+                on s.user_id = v.user_id
+                when matched then update set change_seq = s.change_seq + 1
+                when not matched then insert (user_id, change_seq, purged_through) values (v.user_id, 1, 0)
+            )""")
+    long nextChangeSeq(@Param("userId") Long userId);
+}
@@ -0,0 +1,19 @@
+package com.the_olujare.fortis.repository;
+
+import com.the_olujare.fortis.entity.TaskTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+/**
+ * Repository for task tombstones (deleted tasks, kept for delta sync).
+ *
+ * findByUserIdAndChangeSeqGreaterThanOrderByChangeSeq()
+ *  - Deletions after a sync token, oldest first, one page at a time.
+ *  - Served by the (user_id, change_seq) index.
+ */
+
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+    List<TaskTombstone> findByUserIdAndChangeSeqGreaterThanOrderByChangeSeq(Long userId, long changeSeq, Pageable pageable);
+}
@@ -0,0 +1,14 @@
+package com.the_olujare.fortis.repository;
+
+import com.the_olujare.fortis.entity.UserShardAssignment;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Repository for managing UserShardAssignment entities.
+ * Backs the shard directory consulted by ShardResolver.
+ *
+ * Inherits findById() / save() from JpaRepository; the user id is the key.
+ */
+
+public interface UserShardAssignmentRepository extends JpaRepository<UserShardAssignment, Long> {
+}
@@ -0,0 +1,101 @@
+package com.the_olujare.fortis.service;
+
+import com.the_olujare.fortis.entity.RevokedAccessToken;
+import com.the_olujare.fortis.repository.RevokedAccessTokenRepository;
+import com.the_olujare.fortis.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Denylist for access tokens revoked before they expire (e.g. on logout).
+ *
+ * Lookup path (per request):
+ * - In-memory Bloom filter first → "not revoked" answered with no I/O
+ * - Only on a filter hit is the database consulted to rule out a false positive
+ *
+ * Storage:
+ * - RevokedAccessToken rows keyed by jti, carrying the token's own expiry
+ * - Expired rows are removed by TokenPurgeService
+ *
+ * Filter lifecycle:
+ * - Built from the database when the bean is initialized, before the web server
+ *   accepts traffic (and before JitWarmupRunner sends its warm-up requests)
+ * - Until the first build completes, every jti counts as a filter hit, so
+ *   revocations already in the database are never missed
+ * - Rebuilt periodically so expired entries drop out and revocations made on
+ *   other instances become visible
+ * - Local revocations are added immediately
+ */
+
+@Service
+@RequiredArgsConstructor
+public class AccessTokenDenylistService {
+
+    private final RevokedAccessTokenRepository revokedAccessTokenRepository;
+
+    @Value("${fortis.access-denylist.expected-entries:100000}")
+    private long expectedEntries;
+
+    @Value("${fortis.access-denylist.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    // Local revocations not yet seen by a rebuild; re-applied so a swap never loses them
+    private final Set<String> pendingRevocations = ConcurrentHashMap.newKeySet();
+
+    // Null until the first build: mightBeRevoked then defers every jti to the database
+    private volatile BloomFilter bloomFilter;
+
+    // RevokedAccessToken.isNew() is always true (no SELECT before the INSERT), so a token
+    // that is already denylisted must be skipped here or a second logout would hit the primary key
+    public void revoke(String jti, Instant expiryDate) {
+        if (jti == null || expiryDate == null || expiryDate.isBefore(Instant.now()) || isRevoked(jti)) {
+            return;
+        }
+
+        revokedAccessTokenRepository.save(RevokedAccessToken.builder()
+                .jti(jti)
+                .expiryDate(expiryDate)
+                .build());
+        pendingRevocations.add(jti);
+        BloomFilter filter = bloomFilter;
+        if (filter != null) {
+            filter.put(jti);
+        }
+    }
+
+    public boolean isRevoked(String jti) {
+        return mightBeRevoked(jti) && revokedAccessTokenRepository.existsById(jti);
+    }
+
+    // Filter-only check, never blocks: lets non-blocking callers skip the database lookup
+    public boolean mightBeRevoked(String jti) {
+        BloomFilter filter = bloomFilter;
+        return jti != null && (filter == null || filter.mightContain(jti));
+    }
+
+    @PostConstruct
+    void buildFilter() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${fortis.access-denylist.rebuild-interval-ms:60000}",
+            fixedDelayString = "${fortis.access-denylist.rebuild-interval-ms:60000}")
+    public void rebuild() {
+        List<String> activeIds = revokedAccessTokenRepository.findActiveIds(Instant.now());
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, activeIds.size() * 2L), falsePositiveRate);
+        activeIds.forEach(rebuilt::put);
+        pendingRevocations.forEach(rebuilt::put);
+        bloomFilter = rebuilt;
+        pendingRevocations.forEach(rebuilt::put);
+        pendingRevocations.removeAll(new HashSet<>(activeIds));
+    }
+}
@@ -0,0 +1,126 @@
+package com.the_olujare.fortis.service;
+
+import com.the_olujare.fortis.attachment.AttachmentStorage;
+import com.the_olujare.fortis.datasource.ShardDataSources;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Deletes attachment files that no task_attachment row refers to any more.
+ *
+ * - Only files untouched for graceMs are considered: an upload that has just stored
+ *   (or re-used) a blob inserts its row well within that time
+ * - A blob is kept while any database (main, and every task shard when sharding
+ *   is enabled) still has a row with its hash
+ * - An upload may re-use a candidate between these checks and its deletion, so the blob
+ *   is moved to the trash first and both checks run again there: an upload that re-used
+ *   it before the move shows as a fresh mtime or a row and puts it back; a later upload
+ *   finds it gone and stores the content anew (see AttachmentStorage)
+ * - Blobs left in the trash by an interrupted run are put back before anything else
+ *
+ * Plain JDBC, like TaskTombstonePurgeService, so the check runs against shard pools too.
+ *
+ * Metric: fortis.attachment.purge.files
+ */
+
+@Slf4j
+@Service
+public class AttachmentBlobPurgeService {
+
+    private final AttachmentStorage attachmentStorage;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<ShardDataSources> shardDataSources;
+    private final Counter purgedFiles;
+
+    @Value("${fortis.attachments.orphan-grace-ms:3600000}")
+    private long graceMs;
+
+    public AttachmentBlobPurgeService(AttachmentStorage attachmentStorage,
+                                      JdbcTemplate jdbcTemplate,
+                                      ObjectProvider<ShardDataSources> shardDataSources,
+                                      MeterRegistry meterRegistry) {
+        this.attachmentStorage = attachmentStorage;
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardDataSources = shardDataSources;
+        this.purgedFiles = meterRegistry.counter("fortis.attachment.purge.files");
+    }
+
+    @Scheduled(initialDelayString = "${fortis.attachments.purge-interval-ms:3600000}",
+            fixedDelayString = "${fortis.attachments.purge-interval-ms:3600000}")
+    public void purgeOrphanedBlobs() {
+        List<JdbcTemplate> databases = new ArrayList<>();
+        databases.add(jdbcTemplate);
+        ShardDataSources shards = shardDataSources.getIfAvailable();
+        if (shards != null) {
+            for (int shard = 0; shard < shards.count(); shard++) {
+                databases.add(shards.jdbcTemplate(shard));
+            }
+        }
+
+        long cutoff = System.currentTimeMillis() - graceMs;
+        long total = 0;
+        try {
+            try (Stream<Path> trashed = attachmentStorage.trashedFiles()) {
+                for (Path file : (Iterable<Path>) trashed::iterator) {
+                    attachmentStorage.restore(file);
+                }
+            }
+            try (Stream<Path> blobs = attachmentStorage.blobFiles()) {
+                for (Path blob : (Iterable<Path>) blobs::iterator) {
+                    if (orphaned(blob, databases, cutoff) && purge(blob, databases, cutoff)) {
+                        purgedFiles.increment();
+                        total++;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Attachment purge stopped early", e);
+        }
+
+        if (total > 0) {
+            log.info("Purged {} unreferenced attachment files", total);
+        }
+    }
+
+    private static boolean orphaned(Path file, List<JdbcTemplate> databases, long cutoff) throws IOException {
+        return Files.getLastModifiedTime(file).toMillis() <= cutoff
+                && !referenced(databases, AttachmentStorage.hashOf(file));
+    }
+
+    private boolean purge(Path blob, List<JdbcTemplate> databases, long cutoff) throws IOException {
+        Path trashed = attachmentStorage.moveToTrash(blob);
+        if (trashed == null) {
+            return false;
+        }
+        if (!orphaned(trashed, databases, cutoff)) {
+            attachmentStorage.restore(trashed);
+            return false;
+        }
+        Files.delete(trashed);
+        return true;
+    }
+
+    private static boolean referenced(List<JdbcTemplate> databases, String sha256) {
+        for (JdbcTemplate database : databases) {
+            List<Integer> rows = database.queryForList(
+                    "select 1 from task_attachment where sha256 = ? fetch first 1 rows only", Integer.class, sha256);
+            if (!rows.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
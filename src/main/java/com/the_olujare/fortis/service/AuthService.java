@@ -1,21 +1,37 @@
 package com.the_olujare.fortis.service;
 
+import com.the_olujare.fortis.audit.AuditEventType;
+import com.the_olujare.fortis.audit.AuditLog;
+import com.the_olujare.fortis.datasource.PrimaryReads;
 import com.the_olujare.fortis.dto.auth.*;
 import com.the_olujare.fortis.entity.EmailVerificationToken;
 import com.the_olujare.fortis.entity.PasswordResetToken;
 import com.the_olujare.fortis.entity.RefreshToken;
 import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.exception.ForbiddenException;
 import com.the_olujare.fortis.exception.ResourceNotFoundException;
+import com.the_olujare.fortis.exception.TooManyRequestsException;
+import com.the_olujare.fortis.exception.UnauthorizedException;
 import com.the_olujare.fortis.repository.EmailVerificationTokenRepository;
 import com.the_olujare.fortis.repository.FortisUserRepository;
 import com.the_olujare.fortis.repository.PasswordResetTokenRepository;
 import com.the_olujare.fortis.repository.RefreshTokenRepository;
+import com.the_olujare.fortis.util.EmailUtil;
+import com.the_olujare.fortis.util.JwtConstants;
 import com.the_olujare.fortis.util.JwtUtil;
+import com.the_olujare.fortis.util.TokenHashUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -26,23 +42,30 @@ import java.util.UUID;
  *
  * Handles the full auth lifecycle:
  * - User registration with email verification
- * - Secure login using Spring Security authentication
+ * - Secure login using Spring Security authentication (single user lookup)
  * - JWT access token generation
  * - Refresh token creation, rotation, and revocation
  * - Password reset via time-bound tokens
  * - Account activation through email verification
- * - Explicit logout by revoking refresh tokens
+ * - Explicit logout by revoking refresh tokens and denylisting the access token
  *
  * Security guarantees:
  * - Passwords are always hashed before persistence
  * - Tokens are time-limited and single-use where applicable
  * - Refresh tokens support rotation to reduce replay risk
+ * - Refresh tokens are stored hashed and grouped into rotation families
+ * - Replaying a rotated refresh token revokes its whole family
  * - Disabled accounts cannot authenticate until verified
+ * - Repeated failed logins lock the account with exponential backoff
  *
  * Design notes:
  * - Business logic is isolated from controllers
  * - Persistence concerns are delegated to repositories
  * - JWT logic is encapsulated in JwtUtil
+ * - Expected failures throw shared stackless exceptions (401/403/429), see FortisException
+ * - Outcomes are recorded in the tamper-evident AuditLog without blocking the request
+ * - With read/write routing, every user and token lookup reads the primary: token flows
+ *   run in write transactions, the unauthenticated user lookups inside PrimaryReads
  * - Email sending is mocked for development and test visibility
  *
  * This service enforces correctness first.
@@ -53,6 +76,19 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class AuthService {
 
+    private static final UnauthorizedException INVALID_CREDENTIALS =
+            new UnauthorizedException("Invalid email or password");
+    private static final ForbiddenException EMAIL_NOT_VERIFIED =
+            new ForbiddenException("Email not verified. Kindly verify your email before logging in.");
+    private static final UnauthorizedException INVALID_REFRESH_TOKEN =
+            new UnauthorizedException("Invalid refresh token");
+    private static final UnauthorizedException REFRESH_TOKEN_EXPIRED =
+            new UnauthorizedException("Refresh token expired or revoked");
+    private static final UnauthorizedException INVALID_RESET_TOKEN =
+            new UnauthorizedException("Invalid or expired reset token");
+    private static final UnauthorizedException INVALID_VERIFICATION_TOKEN =
+            new UnauthorizedException("Invalid or expired verification token");
+
     private final FortisUserRepository fortisUserRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
@@ -61,21 +97,27 @@ public class AuthService {
     private final EmailVerificationTokenRepository emailVerificationTokenRepository;
     //private final JavaMailSender javaMailSender;
     private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenService refreshTokenService;
+    private final AccessTokenDenylistService accessTokenDenylistService;
+    private final LoginAttemptService loginAttemptService;
+    private final AuditLog auditLog;
 
     public AuthResponse register(RegisterRequest registerRequest) {
-        if (fortisUserRepository.existsByEmail(registerRequest.getEmail())) {
+        String email = EmailUtil.normalize(registerRequest.getEmail());
+        if (PrimaryReads.call(() -> fortisUserRepository.existsByEmail(email))) {
             throw new RuntimeException("Email already in use");
         }
 
         FortisUser fortisUser = FortisUser.builder()
                 .username(registerRequest.getUsername())
-                .email(registerRequest.getEmail())
+                .email(email)
                 .password(passwordEncoder.encode(registerRequest.getPassword()))
                 .role("USER")
                 .enabled(false)
                 .build();
 
         fortisUserRepository.save(fortisUser);
+        auditLog.record(AuditEventType.REGISTERED, fortisUser.getId(), fortisUser.getEmail());
 
         //Generate verification token
 
@@ -103,32 +145,54 @@ public class AuthService {
     }
 
     public AuthResponse login(LoginRequest loginRequest) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword())
-        );
+        // The user may have been registered, verified or reset a moment ago: never read it from a lagging replica
+        return PrimaryReads.call(() -> authenticate(loginRequest));
+    }
 
-        FortisUser fortisUser = fortisUserRepository.findByEmail(loginRequest.getEmail())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    private AuthResponse authenticate(LoginRequest loginRequest) {
+        // Locked accounts are rejected here, before any password hash is computed.
+        try {
+            loginAttemptService.checkNotLocked(loginRequest.getEmail());
+        } catch (TooManyRequestsException e) {
+            auditLog.record(AuditEventType.LOGIN_BLOCKED, null, loginRequest.getEmail());
+            throw e;
+        }
 
-        refreshTokenRepository.findAllByFortisUser(fortisUser)
-                .forEach(refreshToken -> {
-                    refreshToken.setRevoked(true);
-                    refreshTokenRepository.save(refreshToken);
-                });
+        // The authenticated principal is the FortisUser already loaded by UserDetailsServiceImpl.
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword())
+            );
+        } catch (BadCredentialsException e) {
+            loginAttemptService.recordFailure(loginRequest.getEmail());
+            auditLog.record(AuditEventType.LOGIN_FAILED, null, loginRequest.getEmail());
+            throw INVALID_CREDENTIALS;
+        } catch (DisabledException e) {
+            auditLog.record(AuditEventType.LOGIN_FAILED, null, loginRequest.getEmail());
+            throw EMAIL_NOT_VERIFIED;
+        } catch (LockedException e) {
+            auditLog.record(AuditEventType.LOGIN_BLOCKED, null, loginRequest.getEmail());
+            throw LoginAttemptService.ACCOUNT_LOCKED;
+        }
+        loginAttemptService.recordSuccess(loginRequest.getEmail());
+        FortisUser fortisUser = (FortisUser) authentication.getPrincipal();
+        auditLog.record(AuditEventType.LOGIN_SUCCEEDED, fortisUser.getId(), fortisUser.getEmail());
 
+        String newRefreshToken = refreshTokenService.issueForLogin(fortisUser);
         String accessToken = jwtUtil.generateToken(fortisUser);
-        RefreshToken newRefreshToken = createRefreshToken(fortisUser);
 
         return AuthResponse.builder()
                 .token(accessToken)
-                .refreshToken(newRefreshToken.getToken())
+                .refreshToken(newRefreshToken)
                 .username(fortisUser.getUsername())
                 .email(fortisUser.getEmail())
                 .build();
     }
 
     public void forgotPassword(ForgotPasswordRequest forgotPasswordRequest) {
-        FortisUser fortisUser = fortisUserRepository.findByEmail(forgotPasswordRequest.getEmail())
+        String email = EmailUtil.normalize(forgotPasswordRequest.getEmail());
+        FortisUser fortisUser = PrimaryReads.call(() -> fortisUserRepository.findByEmail(email))
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + forgotPasswordRequest.getEmail()));
 
         // Generate secure token
@@ -142,6 +206,7 @@ public class AuthService {
                 .build();
 
         passwordResetTokenRepository.save(resetToken);
+        auditLog.record(AuditEventType.PASSWORD_RESET_REQUESTED, fortisUser.getId(), fortisUser.getEmail());
 
         // Simulate sending email (in real app, send actual email)
         String resetLink = "http://localhost:8080/api/auth/reset-password?token=" + token;
@@ -153,12 +218,13 @@ public class AuthService {
         // sendResetEmail(user.getEmail(), resetLink);
     }
 
+    @Transactional
     public void resetPassword(ResetPasswordRequest resetPasswordRequest) {
         PasswordResetToken resetToken = passwordResetTokenRepository.findByToken(resetPasswordRequest.getToken())
-                .orElseThrow(() -> new RuntimeException("Invalid or expired reset token"));
+                .orElseThrow(() -> INVALID_RESET_TOKEN);
 
         if (resetToken.isUsed() || resetToken.isExpired()) {
-            throw new RuntimeException("Token is invalid or has expired");
+            throw INVALID_RESET_TOKEN;
         }
 
         FortisUser fortisUser = resetToken.getFortisUser();
@@ -167,14 +233,16 @@ public class AuthService {
 
         resetToken.setUsed(true);
         passwordResetTokenRepository.save(resetToken);
+        auditLog.record(AuditEventType.PASSWORD_RESET, fortisUser.getId(), null);
     }
 
+    @Transactional
     public String verifyEmail(String token) {
         EmailVerificationToken emailVerificationToken = emailVerificationTokenRepository.findByToken(token)
-                .orElseThrow(() -> new RuntimeException("Invalid verification token"));
+                .orElseThrow(() -> INVALID_VERIFICATION_TOKEN);
 
         if (emailVerificationToken.isUsed() || emailVerificationToken.isExpired()) {
-            throw new RuntimeException("Token is invalid or expired");
+            throw INVALID_VERIFICATION_TOKEN;
         }
 
         FortisUser fortisUser = emailVerificationToken.getFortisUser();
@@ -183,50 +251,82 @@ public class AuthService {
 
         emailVerificationToken.setUsed(true);
         emailVerificationTokenRepository.save(emailVerificationToken);
+        auditLog.record(AuditEventType.EMAIL_VERIFIED, fortisUser.getId(), null);
 
         return "Email has been successfully verified! You can now log in.";
     }
 
-    private RefreshToken createRefreshToken(FortisUser fortisUser) {
-        RefreshToken refreshToken = RefreshToken.builder()
-                .fortisUser(fortisUser)
-                .token(UUID.randomUUID().toString())
-                .expiryDate(Instant.now().plusSeconds(7 * 24 * 60 * 60)) // 7 days
-                .revoked(false)
-                .build();
-        return refreshTokenRepository.save(refreshToken);
-    }
-
+    @Transactional
     public AuthResponse refreshToken(String refreshTokenStr) {
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(refreshTokenStr)
-                .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
+        if (refreshTokenStr == null) {
+            throw INVALID_REFRESH_TOKEN;
+        }
 
-        if (refreshToken.isRevoked() || refreshToken.getExpiryDate().isBefore(Instant.now())) {
-            throw new RuntimeException("Refresh token expired or revoked");
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(TokenHashUtil.sha256(refreshTokenStr))
+                .orElseThrow(() -> INVALID_REFRESH_TOKEN);
+
+        // A revoked token coming back means it was stolen or replayed: kill the whole family.
+        // Checked before expiry, so replaying a stolen token after it expired still counts as reuse.
+        if (refreshToken.isRevoked()) {
+            throw revokeFamilyOnReuse(refreshToken);
         }
 
-        FortisUser fortisUser = refreshToken.getFortisUser();
+        if (refreshToken.getExpiryDate().isBefore(Instant.now())) {
+            throw REFRESH_TOKEN_EXPIRED;
+        }
 
-        // Optional: rotate refresh token (more secure)
-        refreshToken.setRevoked(true);
-        refreshTokenRepository.save(refreshToken);
-        RefreshToken newRefreshToken = createRefreshToken(fortisUser);
+        // Another request rotated it between the lookup and this claim: same as a replay.
+        if (refreshTokenRepository.revokeIfActive(refreshToken.getId()) == 0) {
+            throw revokeFamilyOnReuse(refreshToken);
+        }
+
+        FortisUser fortisUser = refreshToken.getFortisUser();
+        String newRefreshToken = refreshTokenService.createRefreshToken(fortisUser, refreshToken.getFamilyId());
 
         String newAccessToken = jwtUtil.generateToken(fortisUser);
+        auditLog.record(AuditEventType.TOKEN_REFRESHED, fortisUser.getId(), null);
 
         return AuthResponse.builder()
                 .token(newAccessToken)
-                .refreshToken(newRefreshToken.getToken())
+                .refreshToken(newRefreshToken)
                 .username(fortisUser.getUsername())
                 .email(fortisUser.getEmail())
                 .build();
     }
 
-    public void logout(String refreshTokenStr) {
-        refreshTokenRepository.findByToken(refreshTokenStr)
-                .ifPresent(token -> {
-                    token.setRevoked(true);
-                    refreshTokenRepository.save(token);
-                });
+    private UnauthorizedException revokeFamilyOnReuse(RefreshToken refreshToken) {
+        refreshTokenRepository.revokeFamily(refreshToken.getFamilyId());
+        auditLog.record(AuditEventType.REFRESH_TOKEN_REUSED, refreshToken.getFortisUser().getId(), null);
+        return REFRESH_TOKEN_EXPIRED;
+    }
+
+    @Transactional
+    public void logout(String refreshTokenStr, String authHeader) {
+        if (authHeader != null && authHeader.startsWith(JwtConstants.TOKEN_PREFIX)) {
+            revokeAccessToken(authHeader.substring(7));
+        }
+
+        if (refreshTokenStr == null) {
+            auditLog.record(AuditEventType.LOGGED_OUT, null, null);
+            return;
+        }
+
+        // getId() on the lazy owner reads the foreign key; the user is not loaded
+        Long userId = refreshTokenRepository.findByTokenHash(TokenHashUtil.sha256(refreshTokenStr))
+                .map(token -> {
+                    refreshTokenRepository.revokeFamily(token.getFamilyId());
+                    return token.getFortisUser().getId();
+                })
+                .orElse(null);
+        auditLog.record(AuditEventType.LOGGED_OUT, userId, null);
+    }
+
+    private void revokeAccessToken(String accessToken) {
+        try {
+            Claims claims = jwtUtil.parseClaims(accessToken);
+            accessTokenDenylistService.revoke(claims.getId(), claims.getExpiration().toInstant());
+        } catch (JwtException | IllegalArgumentException e) {
+            // Already invalid or expired: nothing left to revoke
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,406 @@
+package com.the_olujare.fortis.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.the_olujare.fortis.batch.SubRequest;
+import com.the_olujare.fortis.batch.SubResponse;
+import com.the_olujare.fortis.datasource.ShardContext;
+import com.the_olujare.fortis.datasource.ShardResolver;
+import com.the_olujare.fortis.dto.batch.BatchOperation;
+import com.the_olujare.fortis.dto.batch.BatchRequest;
+import com.the_olujare.fortis.dto.batch.BatchResponse;
+import com.the_olujare.fortis.dto.batch.BatchResult;
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.tracing.Span;
+import com.the_olujare.fortis.tracing.Tracing;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Executes the sub-requests of POST /api/batch against the existing controllers.
+ *
+ * Dispatch:
+ * - Each sub-request goes through a DispatcherServlet of its own over the application
+ *   context, so it reaches the same controllers, advice and exception handling
+ *   as a standalone request, but not the filter chain
+ * - The batch request was authenticated once by JwtAuthenticationFilter; its
+ *   SecurityContext is what every sub-request runs with
+ * - Because sub-requests bypass the security filter chain, only task and user endpoints
+ *   are batchable (no admin, auth or nested batch); streams and attachments are excluded too
+ *
+ * Ordering:
+ * - Sub-requests run in request order; a run of consecutive GETs is executed in parallel
+ *   on the readers pool, so reads never overtake the writes before them
+ * - Reads are independent of each other by definition (GETs change nothing)
+ *
+ * Parallel reads:
+ * - The readers pool has a bounded queue; a read it cannot take is answered 503 without running
+ * - A run of reads waits at most read-timeout-ms; a read still queued then is withdrawn
+ *   and answered 503, a read already running is answered 504 and its late result dropped
+ *
+ * Atomic batches:
+ * - Every sub-request runs sequentially in one transaction; task service calls join it
+ * - The first status >= 400 rolls everything back; later sub-requests get 424
+ * - TaskChangedEvents are published after commit, so streams never see rolled-back changes
+ * - Idempotency-Key is refused: IdempotencyService would keep a response that was rolled back
+ * - With sharding, the transaction is opened on the user's task shard
+ */
+
+@Slf4j
+@Service
+public class BatchService {
+
+    private static final Set<String> METHODS = Set.of("GET", "POST", "PUT", "PATCH", "DELETE");
+    private static final Pattern BATCHABLE_PATH = Pattern.compile("/api/(tasks(/[A-Za-z0-9_-]+)*|user/[A-Za-z0-9_-]+)");
+    private static final Pattern NOT_BATCHABLE_PATH = Pattern.compile("/api/tasks/stream|/api/tasks/.*/attachments(/.*)?");
+
+    private final WebApplicationContext applicationContext;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectProvider<ShardResolver> shardResolver;
+    private final ThreadPoolExecutor readers;
+
+    @Value("${fortis.batch.max-requests:50}")
+    private int maxRequests;
+
+    @Value("${fortis.batch.read-timeout-ms:10000}")
+    private long readTimeoutMs;
+
+    private volatile DispatcherServlet dispatcher;
+
+    public BatchService(WebApplicationContext applicationContext,
+                        ObjectMapper objectMapper,
+                        PlatformTransactionManager transactionManager,
+                        ObjectProvider<ShardResolver> shardResolver,
+                        @Value("${fortis.batch.reader-threads:16}") int readerThreads,
+                        @Value("${fortis.batch.reader-queue:64}") int readerQueue) {
+        this.applicationContext = applicationContext;
+        this.objectMapper = objectMapper;
+        this.transactionManager = transactionManager;
+        this.shardResolver = shardResolver;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.readers = new ThreadPoolExecutor(readerThreads, readerThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(readerQueue), runnable -> {
+                    Thread thread = new Thread(runnable, "batch-reader-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        readers.shutdownNow();
+    }
+
+    public BatchResponse execute(BatchRequest batch, HttpServletRequest request, HttpServletResponse response) {
+        List<BatchOperation> operations = validate(batch);
+        DispatcherServlet servlet = dispatcher(request.getServletContext());
+
+        if (batch.isAtomic()) {
+            return executeAtomically(operations, servlet, request, response);
+        }
+
+        List<BatchResult> results = new ArrayList<>(operations.size());
+        int index = 0;
+        while (index < operations.size()) {
+            int end = index + 1;
+            while (end < operations.size() && isRead(operations.get(index)) && isRead(operations.get(end))) {
+                end++;
+            }
+            if (end - index == 1) {
+                results.add(dispatch(servlet, operations.get(index), request, response));
+            } else {
+                results.addAll(dispatchInParallel(servlet, operations.subList(index, end), request, response));
+            }
+            index = end;
+        }
+        return BatchResponse.builder().responses(results).build();
+    }
+
+    private BatchResponse executeAtomically(List<BatchOperation> operations, DispatcherServlet servlet,
+                                            HttpServletRequest request, HttpServletResponse response) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<BatchResult> results = new ArrayList<>(operations.size());
+
+        Boolean rolledBack = ShardContext.callOn(userShard(), () -> transaction.execute(status -> {
+            for (BatchOperation operation : operations) {
+                BatchResult result = dispatch(servlet, operation, request, response);
+                results.add(result);
+                if (result.getStatus() >= 400) {
+                    status.setRollbackOnly();
+                    return true;
+                }
+            }
+            return false;
+        }));
+
+        for (int i = results.size(); i < operations.size(); i++) {
+            results.add(status(operations.get(i), HttpStatus.FAILED_DEPENDENCY));
+        }
+        return BatchResponse.builder().responses(results).rolledBack(Boolean.TRUE.equals(rolledBack)).build();
+    }
+
+    private List<BatchResult> dispatchInParallel(DispatcherServlet servlet, List<BatchOperation> operations,
+                                                 HttpServletRequest request, HttpServletResponse response) {
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        List<ParallelRead> reads = new ArrayList<>(operations.size());
+        for (BatchOperation operation : operations) {
+            ParallelRead read = new ParallelRead(operation);
+            reads.add(read);
+            read.task = () -> {
+                if (!read.start()) {
+                    return;
+                }
+                SecurityContextHolder.setContext(securityContext);
+                try {
+                    read.result.complete(dispatch(servlet, operation, request, response));
+                } finally {
+                    SecurityContextHolder.clearContext();
+                    // No-op unless dispatch threw an Error
+                    read.result.complete(status(operation, HttpStatus.INTERNAL_SERVER_ERROR));
+                }
+            };
+            try {
+                readers.execute(read.task);
+            } catch (RejectedExecutionException e) {
+                // Readers saturated: answered without running
+                read.start();
+                read.result.complete(status(operation, HttpStatus.SERVICE_UNAVAILABLE));
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(reads.stream().map(ParallelRead::result).toArray(CompletableFuture[]::new))
+                    .get(readTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Unfinished reads are answered below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<BatchResult> results = new ArrayList<>(reads.size());
+        int unanswered = 0;
+        for (ParallelRead read : reads) {
+            if (read.result.isDone()) {
+                results.add(read.result.join());
+            } else if (read.start()) {
+                // Still queued: withdrawn, it will never run and gives its queue slot back
+                readers.remove(read.task);
+                results.add(status(read.operation, HttpStatus.SERVICE_UNAVAILABLE));
+                unanswered++;
+            } else {
+                results.add(read.result.getNow(status(read.operation, HttpStatus.GATEWAY_TIMEOUT)));
+                unanswered++;
+            }
+        }
+        if (unanswered > 0) {
+            log.warn("{} of {} batch reads not answered within {} ms", unanswered, reads.size(), readTimeoutMs);
+        }
+        return results;
+    }
+
+    private static BatchResult status(BatchOperation operation, HttpStatus status) {
+        return BatchResult.builder()
+                .id(operation.getId())
+                .status(status.value())
+                .build();
+    }
+
+    /**
+     * One read of a parallel run. Whoever calls start() first owns it: the reader thread
+     * runs it, or the batch thread withdraws it at the deadline.
+     */
+    private static final class ParallelRead {
+
+        private final BatchOperation operation;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final CompletableFuture<BatchResult> result = new CompletableFuture<>();
+        private Runnable task;
+
+        private ParallelRead(BatchOperation operation) {
+            this.operation = operation;
+        }
+
+        private CompletableFuture<BatchResult> result() {
+            return result;
+        }
+
+        private boolean start() {
+            return started.compareAndSet(false, true);
+        }
+    }
+
+    private BatchResult dispatch(DispatcherServlet servlet, BatchOperation operation,
+                                 HttpServletRequest request, HttpServletResponse response) {
+        String method = operation.getMethod().toUpperCase(Locale.ROOT);
+        Map<String, String> headers = new LinkedHashMap<>();
+        if (operation.getHeaders() != null) {
+            headers.putAll(operation.getHeaders());
+        }
+        // Sub-responses are embedded in the JSON batch response
+        headers.put("Accept", MediaType.APPLICATION_JSON_VALUE);
+        byte[] body = new byte[0];
+        if (operation.getBody() != null && !operation.getBody().isNull()) {
+            headers.put("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+            body = operation.getBody().toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        SubRequest subRequest = new SubRequest(request, method, operation.getPath(), headers, body);
+        SubResponse subResponse = new SubResponse(response);
+        try (Span span = Tracing.start("Batch " + method + " " + subRequest.getRequestURI())) {
+            servlet.service(subRequest, subResponse);
+        } catch (ServletException | IOException | RuntimeException e) {
+            log.warn("Batch sub-request {} {} failed", method, operation.getPath(), e);
+            return BatchResult.builder()
+                    .id(operation.getId())
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
+                    .build();
+        }
+
+        return BatchResult.builder()
+                .id(operation.getId())
+                .status(subResponse.getStatus())
+                .headers(subResponse.getHeaderMap())
+                .body(parseBody(subResponse))
+                .build();
+    }
+
+    private JsonNode parseBody(SubResponse subResponse) {
+        byte[] content = subResponse.getContentAsByteArray();
+        if (content.length == 0) {
+            return null;
+        }
+        String contentType = subResponse.getContentType();
+        if (contentType != null && MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_JSON)) {
+            try {
+                return objectMapper.readTree(content);
+            } catch (IOException e) {
+                // Not valid JSON after all: returned as text below
+            }
+        }
+        return TextNode.valueOf(new String(content, StandardCharsets.UTF_8));
+    }
+
+    private List<BatchOperation> validate(BatchRequest batch) {
+        List<BatchOperation> operations = batch.getRequests();
+        if (operations == null || operations.isEmpty()) {
+            throw new RuntimeException("A batch needs at least one request");
+        }
+        if (operations.size() > maxRequests) {
+            throw new RuntimeException("A batch holds at most " + maxRequests + " requests");
+        }
+        for (BatchOperation operation : operations) {
+            String method = operation.getMethod() == null ? "" : operation.getMethod().toUpperCase(Locale.ROOT);
+            if (!METHODS.contains(method)) {
+                throw new RuntimeException("Unsupported batch method: " + operation.getMethod());
+            }
+            String path = operation.getPath() == null ? "" : operation.getPath();
+            int query = path.indexOf('?');
+            String pathOnly = query < 0 ? path : path.substring(0, query);
+            if (!BATCHABLE_PATH.matcher(pathOnly).matches() || NOT_BATCHABLE_PATH.matcher(pathOnly).matches()) {
+                throw new RuntimeException("Not batchable: " + operation.getPath());
+            }
+            if (batch.isAtomic() && operation.getHeaders() != null
+                    && operation.getHeaders().keySet().stream().anyMatch(IdempotencyService.HEADER::equalsIgnoreCase)) {
+                throw new RuntimeException("Idempotency-Key is not supported in atomic batches");
+            }
+        }
+        return operations;
+    }
+
+    private static boolean isRead(BatchOperation operation) {
+        return operation.getMethod().equalsIgnoreCase("GET");
+    }
+
+    private Integer userShard() {
+        ShardResolver resolver = shardResolver.getIfAvailable();
+        if (resolver == null
+                || !(SecurityContextHolder.getContext().getAuthentication().getPrincipal() instanceof FortisUser fortisUser)) {
+            return null;
+        }
+        return resolver.resolve(fortisUser.getId()).shard();
+    }
+
+    /**
+     * A DispatcherServlet for sub-requests only, initialized on first use over the running
+     * application context: it finds the same handler mappings, adapters and exception resolvers.
+     */
+    private DispatcherServlet dispatcher(ServletContext servletContext) {
+        DispatcherServlet current = dispatcher;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (dispatcher == null) {
+                DispatcherServlet servlet = new DispatcherServlet(applicationContext);
+                servlet.setPublishContext(false);
+                servlet.setPublishEvents(false);
+                try {
+                    servlet.init(new ServletConfig() {
+                        @Override
+                        public String getServletName() {
+                            return "batch";
+                        }
+
+                        @Override
+                        public ServletContext getServletContext() {
+                            return servletContext;
+                        }
+
+                        @Override
+                        public String getInitParameter(String name) {
+                            return null;
+                        }
+
+                        @Override
+                        public Enumeration<String> getInitParameterNames() {
+                            return Collections.emptyEnumeration();
+                        }
+                    });
+                } catch (ServletException e) {
+                    throw new IllegalStateException("Could not initialize the batch dispatcher", e);
+                }
+                dispatcher = servlet;
+            }
+            return dispatcher;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.the_olujare.fortis.service;
+
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.exception.ConflictException;
+import com.the_olujare.fortis.util.TokenHashUtil;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key handling for task mutations, so client retries never run twice.
+ *
+ * Per (user, key):
+ * - The first request runs; its response (status, headers, body object) is kept for ttlMs
+ * - A retry after it finished gets the stored response, marked Idempotent-Replayed: true
+ * - A duplicate arriving while the first still runs waits for it and gets the same response;
+ *   after waitTimeoutMs it gets 409 instead
+ * - The same key with a different method, path or body is rejected with 400
+ *   (compared by the SHA-256 of the fingerprint, so no two requests can collide)
+ * - A failed request (any exception) stores nothing, so the client can retry it
+ *
+ * Keys are scoped per user: two users can never see each other's responses.
+ *
+ * Storage:
+ * - In memory, in lock stripes of LRU maps with a hard cap (maxKeys overall),
+ *   like LoginAttemptService; expired entries are swept every purgeIntervalMs
+ * - The cap only evicts finished entries: an in-flight one stays until its request ends,
+ *   so its duplicates always wait for it instead of running again
+ * - Bodies are stored as the DTO, so a replay is rendered in whatever format the retry Accepts
+ * - Local to this instance: a retry routed to another instance runs again
+ */
+
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int STRIPES = 64;
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final ConflictException IN_PROGRESS =
+            new ConflictException("A request with this Idempotency-Key is still in progress");
+
+    @Value("${fortis.idempotency.ttl-ms:86400000}")
+    private long ttlMs;
+
+    @Value("${fortis.idempotency.max-keys:100000}")
+    private int maxKeys;
+
+    @Value("${fortis.idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMs;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    @PostConstruct
+    void initStripes() {
+        int capacity = Math.max(1, maxKeys / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(capacity);
+        }
+    }
+
+    /**
+     * Runs the action once per (current user, key); without a key it simply runs it.
+     *
+     * @param fingerprint identifies the request (method, path, body); a reused key must match it
+     */
+    public <T> ResponseEntity<T> execute(String idempotencyKey, String fingerprint, Supplier<ResponseEntity<T>> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new RuntimeException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        Key key = new Key(currentUserId(), idempotencyKey);
+        Stripe stripe = stripeFor(key);
+        String fingerprintHash = TokenHashUtil.sha256(fingerprint);
+        long now = System.currentTimeMillis();
+        Entry entry;
+        boolean owner = false;
+
+        synchronized (stripe) {
+            entry = stripe.get(key);
+            if (entry == null || entry.expiresAt <= now) {
+                entry = new Entry(fingerprintHash);
+                stripe.put(key, entry);
+                owner = true;
+            }
+        }
+
+        if (!entry.fingerprint.equals(fingerprintHash)) {
+            throw new RuntimeException("Idempotency-Key was already used for a different request");
+        }
+        return owner ? run(key, stripe, entry, action) : replay(entry);
+    }
+
+    @Scheduled(initialDelayString = "${fortis.idempotency.purge-interval-ms:60000}",
+            fixedDelayString = "${fortis.idempotency.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                Iterator<Entry> entries = stripe.values().iterator();
+                while (entries.hasNext()) {
+                    if (entries.next().expiresAt <= now) {
+                        entries.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    private <T> ResponseEntity<T> run(Key key, Stripe stripe, Entry entry, Supplier<ResponseEntity<T>> action) {
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error e) {
+            synchronized (stripe) {
+                stripe.remove(key, entry);
+            }
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+        entry.expiresAt = System.currentTimeMillis() + ttlMs;
+        entry.response.complete(response);
+        return response;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ResponseEntity<T> replay(Entry entry) {
+        ResponseEntity<?> stored;
+        try {
+            stored = entry.response.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw IN_PROGRESS;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw IN_PROGRESS;
+        } catch (ExecutionException e) {
+            // The original failed: its duplicates fail the same way (nothing was stored)
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return (ResponseEntity<T>) ResponseEntity.status(stored.getStatusCode())
+                .headers(stored.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(stored.getBody());
+    }
+
+    private static Long currentUserId() {
+        return ((FortisUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal()).getId();
+    }
+
+    private Stripe stripeFor(Key key) {
+        return stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+    }
+
+    private record Key(Long userId, String idempotencyKey) {
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>();
+        // In flight until the response is stored
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    private static final class Stripe extends LinkedHashMap<Key, Entry> {
+        private final int capacity;
+
+        private Stripe(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        // Evicts the least recently used finished entry; over capacity only while all are in flight
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() <= capacity) {
+                return false;
+            }
+            Iterator<Entry> entries = values().iterator();
+            while (entries.hasNext()) {
+                if (entries.next().expiresAt != Long.MAX_VALUE) {
+                    entries.remove();
+                    return false;
+                }
+            }
+            return false;
+        }
+    }
+}
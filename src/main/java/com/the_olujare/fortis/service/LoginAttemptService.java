@@ -0,0 +1,156 @@
+package com.the_olujare.fortis.service;
+
+import com.the_olujare.fortis.exception.TooManyRequestsException;
+import com.the_olujare.fortis.repository.FortisUserRepository;
+import com.the_olujare.fortis.util.EmailUtil;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-account failed-login tracking with exponential lockout.
+ *
+ * Complements the IP-keyed RateLimitAspect:
+ * - Credential stuffing from many IPs still hits the same accounts
+ * - Attempts against a locked account are rejected before any BCrypt compare,
+ *   with a shared stackless TooManyRequestsException (HTTP 429)
+ *
+ * Tracking:
+ * - Keyed by normalized email (EmailUtil), the same form FortisUser.email is stored in
+ * - State lives in a fixed number of lock stripes, each an LRU map with a hard cap,
+ *   so memory stays bounded no matter how many emails an attacker sprays
+ * - Failures older than the failure window are forgotten
+ *
+ * Lockout:
+ * - After maxFailures consecutive failures the account is locked for baseLockout
+ * - Every further failure doubles the window, capped at maxLockout
+ * - A successful login clears the state
+ *
+ * Persistence:
+ * - FortisUser.lockedUntil is written only when a lock starts or is cleared,
+ *   so the database sees one UPDATE per transition, not per attempt
+ * - The UPDATE matches the normalized email exactly, so it uses idx_fortis_user_email
+ * - The persisted value lets Spring Security reject locked accounts after a restart
+ */
+
+@Service
+@RequiredArgsConstructor
+public class LoginAttemptService {
+
+    private static final int STRIPES = 64;
+    static final TooManyRequestsException ACCOUNT_LOCKED =
+            new TooManyRequestsException("Account temporarily locked. Kindly try again later.");
+
+    private final FortisUserRepository fortisUserRepository;
+
+    @Value("${fortis.login-lockout.max-failures:5}")
+    private int maxFailures;
+
+    @Value("${fortis.login-lockout.failure-window-ms:900000}")
+    private long failureWindowMs;
+
+    @Value("${fortis.login-lockout.base-lockout-ms:30000}")
+    private long baseLockoutMs;
+
+    @Value("${fortis.login-lockout.max-lockout-ms:3600000}")
+    private long maxLockoutMs;
+
+    @Value("${fortis.login-lockout.max-tracked-accounts:100000}")
+    private int maxTrackedAccounts;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    @PostConstruct
+    void initStripes() {
+        int capacity = Math.max(1, maxTrackedAccounts / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(capacity);
+        }
+    }
+
+    public void checkNotLocked(String email) {
+        String key = EmailUtil.normalize(email);
+        Stripe stripe = stripeFor(key);
+        long now = System.currentTimeMillis();
+
+        synchronized (stripe) {
+            AttemptState state = stripe.get(key);
+            if (state != null && state.lockedUntil > now) {
+                throw ACCOUNT_LOCKED;
+            }
+        }
+    }
+
+    public void recordFailure(String email) {
+        String key = EmailUtil.normalize(email);
+        Stripe stripe = stripeFor(key);
+        long now = System.currentTimeMillis();
+        long newLockedUntil = 0;
+
+        synchronized (stripe) {
+            AttemptState state = stripe.computeIfAbsent(key, k -> new AttemptState());
+            if (now - state.lastFailure > failureWindowMs && state.lockedUntil <= now) {
+                state.failures = 0;
+            }
+            state.failures++;
+            state.lastFailure = now;
+
+            if (state.failures >= maxFailures) {
+                int exponent = Math.min(state.failures - maxFailures, 30);
+                long lockout = Math.min(maxLockoutMs, baseLockoutMs << exponent);
+                state.lockedUntil = now + lockout;
+                state.persisted = true;
+                newLockedUntil = state.lockedUntil;
+            }
+        }
+
+        if (newLockedUntil > 0) {
+            fortisUserRepository.updateLockedUntil(key, Instant.ofEpochMilli(newLockedUntil));
+        }
+    }
+
+    public void recordSuccess(String email) {
+        String key = EmailUtil.normalize(email);
+        Stripe stripe = stripeFor(key);
+        boolean clearPersisted;
+
+        synchronized (stripe) {
+            AttemptState state = stripe.remove(key);
+            clearPersisted = state != null && state.persisted;
+        }
+
+        if (clearPersisted) {
+            fortisUserRepository.updateLockedUntil(key, null);
+        }
+    }
+
+    private Stripe stripeFor(String key) {
+        return stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+    }
+
+    private static final class AttemptState {
+        private int failures;
+        private long lastFailure;
+        private long lockedUntil;
+        private boolean persisted;
+    }
+
+    private static final class Stripe extends LinkedHashMap<String, AttemptState> {
+        private final int capacity;
+
+        private Stripe(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, AttemptState> eldest) {
+            return size() > capacity;
+        }
+    }
+}
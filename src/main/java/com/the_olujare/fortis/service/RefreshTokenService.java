@@ -0,0 +1,54 @@
+package com.the_olujare.fortis.service;
+
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.entity.RefreshToken;
+import com.the_olujare.fortis.repository.RefreshTokenRepository;
+import com.the_olujare.fortis.util.TokenHashUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Issues refresh tokens for AuthService.
+ *
+ * Responsibilities:
+ * - Creates a refresh token in a given rotation family and returns its raw value
+ * - Starts a new family on login after revoking the user's previous tokens
+ *
+ * Design notes:
+ * - Kept separate from AuthService so login can authenticate (BCrypt) outside
+ *   the transaction and only hold a connection for the two token writes
+ * - Only the SHA-256 hash is persisted; the raw value is handed back once
+ */
+
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    private static final long REFRESH_TOKEN_TTL_SECONDS = 7 * 24 * 60 * 60; // 7 days
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Transactional
+    public String issueForLogin(FortisUser fortisUser) {
+        refreshTokenRepository.revokeAllByFortisUser(fortisUser);
+        return createRefreshToken(fortisUser, UUID.randomUUID().toString());
+    }
+
+    @Transactional
+    public String createRefreshToken(FortisUser fortisUser, String familyId) {
+        String rawToken = UUID.randomUUID().toString();
+        RefreshToken refreshToken = RefreshToken.builder()
+                .fortisUser(fortisUser)
+                .tokenHash(TokenHashUtil.sha256(rawToken))
+                .familyId(familyId)
+                .expiryDate(Instant.now().plusSeconds(REFRESH_TOKEN_TTL_SECONDS))
+                .revoked(false)
+                .build();
+        refreshTokenRepository.save(refreshToken);
+        return rawToken;
+    }
+}
@@ -0,0 +1,239 @@
+package com.the_olujare.fortis.service;
+
+import com.the_olujare.fortis.archive.ArchivedTask;
+import com.the_olujare.fortis.archive.TaskArchiveCodec;
+import com.the_olujare.fortis.datasource.ShardDataSources;
+import com.the_olujare.fortis.datasource.ShardResolver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves completed tasks not touched for minAgeDays out of the task table into
+ * compressed per-user archive segments (task_archive_segment, see TaskArchiveCodec).
+ *
+ * Per database (main, and every task shard when sharding is enabled), per user with
+ * archivable tasks, one transaction per segment of up to segmentSize tasks:
+ * 1. Lock the user's oldest archivable tasks (by id), so a concurrent toggle or edit
+ *    either commits first (and the task is no longer archivable) or waits
+ * 2. Insert the segment, then delete the tasks
+ * 3. Leave a tombstone per task with fresh change sequences, so delta sync clients
+ *    drop archived tasks like deleted ones and snapshots stay consistent with deltas
+ * Segments are written pausing pauseMs in between, as the purge services do.
+ * Users are paged by id (keyset), so each run reads every user once however many there are.
+ * Runs every intervalMs on a thread of its own: the pauses never hold up the jobs on
+ * Spring's single scheduler thread.
+ *
+ * Tasks with attachments are never archived: deleting the task row would cascade
+ * to its attachment rows and let AttachmentBlobPurgeService remove the files.
+ *
+ * On a task shard, a user is archived only while the directory (read uncached, before
+ * every segment) places them on that shard and no move is in progress. ShardRebalancer
+ * waits one cache TTL after marking a user as moving before it copies anything, so a
+ * segment in progress commits before the copy, and stale source rows awaiting deletion
+ * after a move are never archived.
+ *
+ * Archiving publishes no TaskChangedEvent; open streams learn of it on their next delta sync.
+ * Plain JDBC so the same statements run against shard pools, which have no JPA context.
+ *
+ * Metric: fortis.task.archive.tasks
+ */
+
+@Slf4j
+@Service
+public class TaskArchivalService {
+
+    private static final String ARCHIVABLE = """
+            t.completed = true and t.updated_at < ?
+            and not exists (select 1 from task_attachment a where a.task_id = t.id)""";
+
+    // Same statement as TaskSyncStateRepository.nextChangeSeq, reserving count sequences at once
+    private static final String RESERVE_CHANGE_SEQS = """
+            select change_seq from final table (
+                merge into task_sync_state s
+                using (values (cast(? as bigint), cast(? as bigint))) v(user_id, n)
+                on s.user_id = v.user_id
+                when matched then update set change_seq = s.change_seq + v.n
+                when not matched then insert (user_id, change_seq, purged_through) values (v.user_id, v.n, 0)
+            )""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<ShardDataSources> shardDataSources;
+    private final ObjectProvider<ShardResolver> shardResolver;
+    private final TaskArchiveCodec taskArchiveCodec;
+    private final Counter archivedTasks;
+
+    @Value("${fortis.task-archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${fortis.task-archive.min-age-days:90}")
+    private long minAgeDays;
+
+    @Value("${fortis.task-archive.segment-size:500}")
+    private int segmentSize;
+
+    @Value("${fortis.task-archive.user-batch-size:100}")
+    private int userBatchSize;
+
+    @Value("${fortis.task-archive.pause-ms:200}")
+    private long pauseMs;
+
+    @Value("${fortis.task-archive.interval-ms:3600000}")
+    private long intervalMs;
+
+    private ScheduledExecutorService scheduler;
+
+    public TaskArchivalService(JdbcTemplate jdbcTemplate,
+                               ObjectProvider<ShardDataSources> shardDataSources,
+                               ObjectProvider<ShardResolver> shardResolver,
+                               TaskArchiveCodec taskArchiveCodec,
+                               MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardDataSources = shardDataSources;
+        this.shardResolver = shardResolver;
+        this.taskArchiveCodec = taskArchiveCodec;
+        this.archivedTasks = meterRegistry.counter("fortis.task.archive.tasks");
+    }
+
+    @PostConstruct
+    void startScheduler() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fortis-task-archival");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            // An exception escaping a periodic task would cancel all its later runs
+            try {
+                archiveCompletedTasks();
+            } catch (RuntimeException e) {
+                log.warn("Task archival run failed", e);
+            }
+        }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stopScheduler() {
+        scheduler.shutdownNow();
+    }
+
+    public void archiveCompletedTasks() {
+        if (!enabled) {
+            return;
+        }
+        Timestamp cutoff = Timestamp.from(Instant.now().minusMillis(minAgeDays * 86_400_000L));
+
+        try {
+            archive(jdbcTemplate, null, cutoff);
+            ShardDataSources shards = shardDataSources.getIfAvailable();
+            if (shards != null) {
+                for (int shard = 0; shard < shards.count(); shard++) {
+                    archive(shards.jdbcTemplate(shard), shard, cutoff);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @param shard index of the task shard behind database, null for the main database
+     */
+    private void archive(JdbcTemplate database, Integer shard, Timestamp cutoff) throws InterruptedException {
+        TransactionTemplate transaction = new TransactionTemplate(
+                new DataSourceTransactionManager(database.getDataSource()));
+
+        // Users are visited once per run in id order; one whose archiving failed waits for the next run
+        long lastSeen = Long.MIN_VALUE;
+        long total = 0;
+        while (true) {
+            List<Long> userIds = database.queryForList(
+                    "select distinct t.user_id from task t where t.user_id > ? and " + ARCHIVABLE
+                            + " order by t.user_id fetch first ? rows only",
+                    Long.class, lastSeen, cutoff, userBatchSize);
+            if (userIds.isEmpty()) {
+                break;
+            }
+            lastSeen = userIds.get(userIds.size() - 1);
+
+            for (Long userId : userIds) {
+                try {
+                    int archived;
+                    do {
+                        if (!servedBy(shard, userId)) {
+                            break;
+                        }
+                        Integer count = transaction.execute(status -> archiveSegment(database, userId, cutoff));
+                        archived = count == null ? 0 : count;
+                        total += archived;
+                        archivedTasks.increment(archived);
+                        if (archived == segmentSize) {
+                            Thread.sleep(pauseMs);
+                        }
+                    } while (archived == segmentSize);
+                } catch (RuntimeException e) {
+                    log.warn("Could not archive tasks of user {}", userId, e);
+                }
+            }
+        }
+
+        if (total > 0) {
+            log.info("Archived {} completed tasks", total);
+        }
+    }
+
+    private boolean servedBy(Integer shard, Long userId) {
+        if (shard == null) {
+            return true;
+        }
+        ShardResolver.Assignment assignment = shardResolver.getObject().lookup(userId);
+        return assignment.shard() == shard && !assignment.moving();
+    }
+
+    private int archiveSegment(JdbcTemplate database, Long userId, Timestamp cutoff) {
+        List<ArchivedTask> tasks = database.query(
+                "select t.id, t.title, t.description, t.updated_at from task t where t.user_id = ? and "
+                        + ARCHIVABLE + " order by t.id fetch first ? rows only for update",
+                (resultSet, rowNum) -> new ArchivedTask(
+                        resultSet.getLong("id"),
+                        resultSet.getString("title"),
+                        resultSet.getString("description"),
+                        resultSet.getTimestamp("updated_at").toInstant()),
+                userId, cutoff, segmentSize);
+        if (tasks.isEmpty()) {
+            return 0;
+        }
+
+        Timestamp now = Timestamp.from(Instant.now());
+        database.update("insert into task_archive_segment (id, user_id, task_count, archived_at, payload) values (?, ?, ?, ?, ?)",
+                tasks.get(0).id(), userId, tasks.size(), now, taskArchiveCodec.encode(tasks));
+
+        Long lastSeq = database.queryForObject(RESERVE_CHANGE_SEQS, Long.class, userId, tasks.size());
+        long seq = lastSeq - tasks.size();
+        List<Object[]> tombstones = new ArrayList<>(tasks.size());
+        List<Object[]> ids = new ArrayList<>(tasks.size());
+        for (ArchivedTask task : tasks) {
+            tombstones.add(new Object[]{task.id(), userId, ++seq, now});
+            ids.add(new Object[]{task.id()});
+        }
+        database.batchUpdate("insert into task_tombstone (task_id, user_id, change_seq, deleted_at) values (?, ?, ?, ?)", tombstones);
+        database.batchUpdate("delete from task where id = ?", ids);
+        return tasks.size();
+    }
+}
@@ -0,0 +1,165 @@
+package com.the_olujare.fortis.service;
+
+import com.the_olujare.fortis.attachment.AttachmentStorage;
+import com.the_olujare.fortis.attachment.MultipartStream;
+import com.the_olujare.fortis.dto.task.TaskAttachmentResponse;
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.entity.Task;
+import com.the_olujare.fortis.entity.TaskAttachment;
+import com.the_olujare.fortis.exception.PayloadTooLargeException;
+import com.the_olujare.fortis.exception.ResourceNotFoundException;
+import com.the_olujare.fortis.repository.TaskAttachmentRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Files attached to tasks, with the same ownership rules as TaskService.
+ *
+ * Ownership:
+ * - Every operation first resolves the task through TaskService.getTaskOrThrow(),
+ *   so foreign and missing tasks get the same 404 as the task endpoints
+ * - Attachments are only looked up within that task
+ *
+ * Upload:
+ * - The multipart body is parsed while it streams in (MultipartStream); the "file" part
+ *   goes straight to AttachmentStorage, other parts are skipped
+ * - No transaction is open while the body streams in: the task check and the insert
+ *   are separate short statements, so a slow client never holds a database connection
+ * - A declared Content-Length above the size cap is rejected before reading anything
+ *
+ * Deleting an attachment (or its task) removes only the metadata row;
+ * AttachmentBlobPurgeService later removes files no row refers to.
+ */
+
+@Service
+@RequiredArgsConstructor
+public class TaskAttachmentService {
+
+    private static final ResourceNotFoundException ATTACHMENT_NOT_FOUND =
+            new ResourceNotFoundException("Attachment not found or access denied");
+    private static final PayloadTooLargeException UPLOAD_TOO_LARGE =
+            new PayloadTooLargeException("Attachment exceeds the maximum size");
+
+    private static final String FILE_PART = "file";
+    private static final int MAX_FILENAME_LENGTH = 255;
+    private static final int MAX_CONTENT_TYPE_LENGTH = 255;
+    // Room for part headers and boundaries around the file itself
+    private static final long MULTIPART_OVERHEAD_BYTES = 16 * 1024;
+
+    private final TaskService taskService;
+    private final TaskAttachmentRepository taskAttachmentRepository;
+    private final AttachmentStorage attachmentStorage;
+
+    public TaskAttachmentResponse upload(Long taskId, HttpServletRequest request) throws IOException {
+        Task task = taskService.getTaskOrThrow(taskId);
+
+        String boundary = MultipartStream.boundary(request.getContentType());
+        if (boundary == null) {
+            throw new RuntimeException("Expected a multipart/form-data upload with a \"file\" part");
+        }
+        if (request.getContentLengthLong() > attachmentStorage.maxBytes() + MULTIPART_OVERHEAD_BYTES) {
+            throw UPLOAD_TOO_LARGE;
+        }
+
+        MultipartStream multipart = new MultipartStream(request.getInputStream(), boundary);
+        MultipartStream.Part part;
+        do {
+            part = multipart.nextPart();
+        } while (part != null && !(FILE_PART.equals(part.name()) && part.filename() != null));
+        if (part == null) {
+            throw new RuntimeException("Expected a multipart/form-data upload with a \"file\" part");
+        }
+
+        AttachmentStorage.Blob blob = attachmentStorage.store(part.content());
+        TaskAttachment attachment = TaskAttachment.builder()
+                .task(task)
+                .userId(getCurrentUser().getId())
+                .filename(sanitizeFilename(part.filename()))
+                .contentType(normalizeContentType(part.contentType()))
+                .sizeBytes(blob.size())
+                .sha256(blob.sha256())
+                .createdAt(Instant.now())
+                .build();
+        try {
+            taskAttachmentRepository.save(attachment);
+        } catch (DataIntegrityViolationException e) {
+            // The task was deleted while the file was uploading
+            throw TaskService.TASK_NOT_FOUND;
+        }
+        return mapToResponse(attachment, taskId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TaskAttachmentResponse> getAttachments(Long taskId) {
+        taskService.getTaskOrThrow(taskId);
+        return taskAttachmentRepository.findByTaskIdOrderByCreatedAt(taskId).stream()
+                .map(attachment -> mapToResponse(attachment, taskId))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public TaskAttachmentResponse getAttachment(Long taskId, UUID attachmentId) {
+        return mapToResponse(getAttachmentOrThrow(taskId, attachmentId), taskId);
+    }
+
+    @Transactional
+    public void deleteAttachment(Long taskId, UUID attachmentId) {
+        taskAttachmentRepository.delete(getAttachmentOrThrow(taskId, attachmentId));
+    }
+
+    private TaskAttachment getAttachmentOrThrow(Long taskId, UUID attachmentId) {
+        taskService.getTaskOrThrow(taskId);
+        return taskAttachmentRepository.findByIdAndTaskId(attachmentId, taskId)
+                .orElseThrow(() -> ATTACHMENT_NOT_FOUND);
+    }
+
+    private FortisUser getCurrentUser() {
+        return (FortisUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    }
+
+    // Browsers may send a full client path; keep the last segment, without control characters
+    private static String sanitizeFilename(String filename) {
+        String name = filename.substring(Math.max(filename.lastIndexOf('/'), filename.lastIndexOf('\\')) + 1)
+                .replaceAll("\\p{Cntrl}", "")
+                .trim();
+        if (name.isEmpty()) {
+            return "attachment";
+        }
+        return name.length() > MAX_FILENAME_LENGTH ? name.substring(0, MAX_FILENAME_LENGTH) : name;
+    }
+
+    private static String normalizeContentType(String contentType) {
+        if (contentType == null) {
+            return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+        try {
+            String normalized = MediaType.parseMediaType(contentType).toString();
+            return normalized.length() <= MAX_CONTENT_TYPE_LENGTH ? normalized : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        } catch (IllegalArgumentException e) {
+            return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+    }
+
+    // The task id is the one just ownership-checked, so the lazy task proxy is never initialized
+    private static TaskAttachmentResponse mapToResponse(TaskAttachment attachment, Long taskId) {
+        return TaskAttachmentResponse.builder()
+                .id(attachment.getId())
+                .taskId(taskId)
+                .filename(attachment.getFilename())
+                .contentType(attachment.getContentType())
+                .size(attachment.getSizeBytes())
+                .sha256(attachment.getSha256())
+                .createdAt(attachment.getCreatedAt())
+                .build();
+    }
+}
@@ -1,15 +1,35 @@
 package com.the_olujare.fortis.service;
 
+import com.the_olujare.fortis.archive.ArchivedTask;
+import com.the_olujare.fortis.archive.TaskArchiveCodec;
+import com.the_olujare.fortis.dto.task.TaskArchiveResponse;
+import com.the_olujare.fortis.dto.task.TaskChangesResponse;
+import com.the_olujare.fortis.dto.task.TaskField;
 import com.the_olujare.fortis.dto.task.TaskRequest;
 import com.the_olujare.fortis.dto.task.TaskResponse;
 import com.the_olujare.fortis.entity.Task;
 import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.entity.TaskArchiveSegment;
+import com.the_olujare.fortis.entity.TaskSyncState;
+import com.the_olujare.fortis.entity.TaskTombstone;
+import com.the_olujare.fortis.event.TaskChangedEvent;
+import com.the_olujare.fortis.exception.ResourceNotFoundException;
+import com.the_olujare.fortis.repository.TaskArchiveSegmentRepository;
 import com.the_olujare.fortis.repository.TaskRepository;
+import com.the_olujare.fortis.repository.TaskSyncStateRepository;
+import com.the_olujare.fortis.repository.TaskTombstoneRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Task domain service scoped strictly to the authenticated user.
@@ -24,11 +44,20 @@ import java.util.List;
  * - User identity is resolved exclusively from SecurityContext
  * - Every task access passes through getTaskOrThrow()
  * - Cross-user access is explicitly blocked at the service layer
+ * - Missing and foreign tasks get the same 404, so task ids cannot be probed
  *
  * Design decisions:
  * - No task operation accepts a userId from the client
  * - Controllers remain thin and delegation-focused
  * - Entity-to-DTO mapping is centralized for consistency
+ * - Reads take an optional sparse fieldset (?fields=) that narrows both the selected
+ *   columns (TaskProjectionRepository) and the serialized response
+ * - Reads are readOnly transactions (replica-eligible); mutations read and write on the primary
+ * - Every mutation publishes a TaskChangedEvent, delivered to the owner's streams after commit
+ * - Every mutation takes the next per-user change sequence; deletions leave a tombstone,
+ *   so getChangesForCurrentUser() returns only what changed since a sync token
+ * - Completed tasks untouched for long are moved to compressed archive segments by
+ *   TaskArchivalService; getArchivedTasksForCurrentUser() decodes only the segments it returns
  *
  * Result:
  * - Zero task leakage
@@ -40,13 +69,25 @@ import java.util.List;
 @RequiredArgsConstructor
 public class TaskService {
 
+    static final ResourceNotFoundException TASK_NOT_FOUND =
+            new ResourceNotFoundException("Task not found or access denied");
+
+    private static final int MAX_CHANGES_PAGE = 1_000;
+    private static final int MAX_ARCHIVE_PAGE = 1_000;
+
     private final TaskRepository taskRepository;
+    private final TaskSyncStateRepository taskSyncStateRepository;
+    private final TaskTombstoneRepository taskTombstoneRepository;
+    private final TaskArchiveSegmentRepository taskArchiveSegmentRepository;
+    private final TaskArchiveCodec taskArchiveCodec;
+    private final ApplicationEventPublisher eventPublisher;
 
     private FortisUser getCurrentUser() {
         var authentication = SecurityContextHolder.getContext().getAuthentication();
         return (FortisUser) authentication.getPrincipal();
     }
 
+    @Transactional
     public TaskResponse createTask(TaskRequest taskRequest) {
         FortisUser fortisUser = getCurrentUser();
 
@@ -55,60 +96,236 @@ public class TaskService {
                 .description(taskRequest.getDescription())
                 .completed(false)
                 .fortisUser(fortisUser)
+                .changeSeq(taskSyncStateRepository.nextChangeSeq(fortisUser.getId()))
+                .updatedAt(Instant.now())
                 .build();
 
         taskRepository.save(task);
-        return mapToResponse(task);
+        return publish(TaskChangedEvent.Type.CREATED, mapToResponse(task, fortisUser));
     }
 
-    public List<TaskResponse> getTasksForCurrentUser() {
+    /**
+     * All tasks of the current user. With a sparse fieldset (fields != null)
+     * only the columns behind those fields are selected and serialized.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskResponse> getTasksForCurrentUser(Set<TaskField> fields) {
         FortisUser fortisUser = getCurrentUser();
-        return taskRepository.findAllByFortisUser(fortisUser).stream()
-                .map(this::mapToResponse)
+        List<Task> tasks = fields == null
+                ? taskRepository.findAllByFortisUser(fortisUser)
+                : taskRepository.findByFortisUserId(fortisUser.getId(), fields);
+        return tasks.stream()
+                .map(task -> mapToResponse(task, fortisUser, fields))
                 .toList();
     }
 
-    public TaskResponse getTaskById(Long id) {
-        Task task = getTaskOrThrow(id);
-        return mapToResponse(task);
+    @Transactional(readOnly = true)
+    public TaskResponse getTaskById(Long id, Set<TaskField> fields) {
+        FortisUser fortisUser = getCurrentUser();
+        Task task = fields == null
+                ? getTaskOrThrow(id)
+                : taskRepository.findByIdAndFortisUserId(id, fortisUser.getId(), fields).orElseThrow(() -> TASK_NOT_FOUND);
+        return mapToResponse(task, fortisUser, fields);
     }
 
+    @Transactional
     public TaskResponse updateTask(Long id, TaskRequest taskRequest) {
         Task task = getTaskOrThrow(id);
+        markChanged(task);
 
         task.setTitle(taskRequest.getTitle());
         task.setDescription(taskRequest.getDescription());
 
         taskRepository.save(task);
-        return mapToResponse(task);
+        return publish(TaskChangedEvent.Type.UPDATED, mapToResponse(task, getCurrentUser()));
     }
 
+    @Transactional
     public void deleteTask(Long id) {
         Task task = getTaskOrThrow(id);
+        Long userId = getCurrentUser().getId();
+        taskTombstoneRepository.save(TaskTombstone.builder()
+                .taskId(task.getId())
+                .userId(userId)
+                .changeSeq(taskSyncStateRepository.nextChangeSeq(userId))
+                .deletedAt(Instant.now())
+                .build());
         taskRepository.delete(task);
+        publish(TaskChangedEvent.Type.DELETED, mapToResponse(task, getCurrentUser()));
     }
 
-    public void toggleComplete(Long id) {
+    @Transactional
+    public TaskResponse toggleComplete(Long id) {
         Task task = getTaskOrThrow(id);
+        markChanged(task);
         task.setCompleted(!task.isCompleted());
         taskRepository.save(task);
+        return publish(TaskChangedEvent.Type.TOGGLED, mapToResponse(task, getCurrentUser()));
     }
 
-    private Task getTaskOrThrow(Long id) {
+    /**
+     * Tasks changed and deleted since a sync token, oldest change first, at most limit entries.
+     * Without a token, returns a snapshot of all tasks (paged the same way) and no deletions.
+     */
+    @Transactional(readOnly = true)
+    public TaskChangesResponse getChangesForCurrentUser(String since, int limit, Set<TaskField> fields) {
+        FortisUser fortisUser = getCurrentUser();
+        Long sinceSeq = parseSyncToken(since);
+        int pageSize = Math.max(1, Math.min(limit, MAX_CHANGES_PAGE));
+
+        // Read before the changes: every sequence up to this value is already committed
+        TaskSyncState syncState = taskSyncStateRepository.findById(fortisUser.getId()).orElse(null);
+        long currentSeq = syncState == null ? 0 : syncState.getChangeSeq();
+        long purgedThrough = syncState == null ? 0 : syncState.getPurgedThrough();
+
+        if (sinceSeq != null && sinceSeq < purgedThrough) {
+            return TaskChangesResponse.builder()
+                    .changed(List.of())
+                    .deleted(List.of())
+                    .resyncRequired(true)
+                    .build();
+        }
+
+        long from = sinceSeq == null ? -1 : sinceSeq;
+        Pageable page = PageRequest.of(0, pageSize + 1);
+        List<Task> tasks = fields == null
+                ? taskRepository.findByFortisUserAndChangeSeqGreaterThanOrderByChangeSeqAscIdAsc(fortisUser, from, page)
+                : taskRepository.findChangedSince(fortisUser.getId(), from, fields, pageSize + 1);
+        List<TaskTombstone> tombstones = sinceSeq == null
+                ? List.of()
+                : taskTombstoneRepository.findByUserIdAndChangeSeqGreaterThanOrderByChangeSeq(fortisUser.getId(), from, page);
+
+        // Merge both change streams in sequence order, up to one page
+        List<TaskResponse> changed = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        long lastSeq = Math.max(from, 0);
+        int taskIndex = 0;
+        int tombstoneIndex = 0;
+        while (changed.size() + deleted.size() < pageSize
+                && (taskIndex < tasks.size() || tombstoneIndex < tombstones.size())) {
+            boolean takeTask = tombstoneIndex >= tombstones.size()
+                    || (taskIndex < tasks.size()
+                    && tasks.get(taskIndex).getChangeSeq() < tombstones.get(tombstoneIndex).getChangeSeq());
+            if (takeTask) {
+                Task task = tasks.get(taskIndex++);
+                changed.add(mapToResponse(task, fortisUser, fields));
+                lastSeq = Math.max(lastSeq, task.getChangeSeq());
+            } else {
+                TaskTombstone tombstone = tombstones.get(tombstoneIndex++);
+                deleted.add(tombstone.getTaskId());
+                lastSeq = Math.max(lastSeq, tombstone.getChangeSeq());
+            }
+        }
+
+        boolean hasMore = taskIndex < tasks.size() || tombstoneIndex < tombstones.size();
+        return TaskChangesResponse.builder()
+                .changed(changed)
+                .deleted(deleted)
+                .nextToken(Long.toString(hasMore ? lastSeq : Math.max(lastSeq, currentSeq)))
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Archived tasks below a cursor (segment id), decoding one segment at a time until
+     * at least limit tasks are collected. Segments are never split across pages.
+     */
+    @Transactional(readOnly = true)
+    public TaskArchiveResponse getArchivedTasksForCurrentUser(String cursor, int limit, Set<TaskField> fields) {
+        FortisUser fortisUser = getCurrentUser();
+        long before = parseArchiveCursor(cursor);
+        int pageSize = Math.max(1, Math.min(limit, MAX_ARCHIVE_PAGE));
+
+        List<TaskResponse> tasks = new ArrayList<>();
+        while (tasks.size() < pageSize) {
+            TaskArchiveSegment segment = taskArchiveSegmentRepository
+                    .findFirstByUserIdAndIdLessThanOrderByIdDesc(fortisUser.getId(), before)
+                    .orElse(null);
+            if (segment == null) {
+                return TaskArchiveResponse.builder().tasks(tasks).hasMore(false).build();
+            }
+            List<ArchivedTask> archived = taskArchiveCodec.decode(segment.getPayload());
+            for (int i = archived.size() - 1; i >= 0; i--) {
+                tasks.add(mapToResponse(archived.get(i), fortisUser, fields));
+            }
+            before = segment.getId();
+        }
+
+        return TaskArchiveResponse.builder()
+                .tasks(tasks)
+                .nextCursor(Long.toString(before))
+                .hasMore(true)
+                .build();
+    }
+
+    private void markChanged(Task task) {
+        task.setChangeSeq(taskSyncStateRepository.nextChangeSeq(getCurrentUser().getId()));
+        task.setUpdatedAt(Instant.now());
+    }
+
+    private static long parseArchiveCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            return Long.parseLong(cursor.trim());
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid archive cursor");
+        }
+    }
+
+    private static Long parseSyncToken(String since) {
+        if (since == null || since.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(since.trim());
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid sync token");
+        }
+    }
+
+    private TaskResponse publish(TaskChangedEvent.Type type, TaskResponse taskResponse) {
+        eventPublisher.publishEvent(new TaskChangedEvent(taskResponse.getUserId(), type, taskResponse));
+        return taskResponse;
+    }
+
+    // Also the ownership check of TaskAttachmentService
+    Task getTaskOrThrow(Long id) {
         FortisUser fortisUser = getCurrentUser();
         return taskRepository.findById(id)
                 .filter(task -> task.getFortisUser().getId().equals(fortisUser.getId()))
-                .orElseThrow(() -> new RuntimeException("Task not found or access denied"));
+                .orElseThrow(() -> TASK_NOT_FOUND);
+    }
+
+    // Owner is always the current user (checked in getTaskOrThrow), so the lazy
+    // Task.fortisUser proxy is never initialized just to read the username.
+    private TaskResponse mapToResponse(Task task, FortisUser owner) {
+        return mapToResponse(task, owner, null);
     }
 
-    private TaskResponse mapToResponse(Task task) {
+    private TaskResponse mapToResponse(Task task, FortisUser owner, Set<TaskField> fields) {
         return TaskResponse.builder()
                 .id(task.getId())
                 .title(task.getTitle())
                 .description(task.getDescription())
                 .completed(task.isCompleted())
-                .userId(task.getFortisUser().getId())
-                .username(task.getFortisUser().getUsername())
+                .userId(owner.getId())
+                .username(owner.getUsername())
+                .fields(fields)
+                .build();
+    }
+
+    // Only completed tasks are archived
+    private TaskResponse mapToResponse(ArchivedTask task, FortisUser owner, Set<TaskField> fields) {
+        return TaskResponse.builder()
+                .id(task.id())
+                .title(task.title())
+                .description(task.description())
+                .completed(true)
+                .userId(owner.getId())
+                .username(owner.getUsername())
+                .fields(fields)
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,106 @@
+package com.the_olujare.fortis.service;
+
+import com.the_olujare.fortis.datasource.ShardDataSources;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Removes task tombstones older than the delta sync retention.
+ *
+ * Per database (main, and every task shard when sharding is enabled):
+ * 1. task_sync_state.purged_through is raised to the newest tombstone being purged,
+ *    so tokens older than that get resyncRequired instead of silently missing deletions
+ * 2. Tombstones are deleted in chunks of batchSize, pausing pauseMs between chunks,
+ *    as TokenPurgeService does for token tables
+ *
+ * Plain JDBC so the same statements run against shard pools, which have no JPA context.
+ *
+ * Metric: fortis.task.tombstone.purge.rows
+ */
+
+@Slf4j
+@Service
+public class TaskTombstonePurgeService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<ShardDataSources> shardDataSources;
+    private final Counter purgedRows;
+
+    @Value("${fortis.task-sync.tombstone-retention-ms:2592000000}")
+    private long retentionMs;
+
+    @Value("${fortis.task-sync.purge-batch-size:500}")
+    private int batchSize;
+
+    @Value("${fortis.task-sync.purge-pause-ms:200}")
+    private long pauseMs;
+
+    public TaskTombstonePurgeService(JdbcTemplate jdbcTemplate,
+                                     ObjectProvider<ShardDataSources> shardDataSources,
+                                     MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardDataSources = shardDataSources;
+        this.purgedRows = meterRegistry.counter("fortis.task.tombstone.purge.rows");
+    }
+
+    @Scheduled(initialDelayString = "${fortis.task-sync.purge-interval-ms:3600000}",
+            fixedDelayString = "${fortis.task-sync.purge-interval-ms:3600000}")
+    public void purgeExpiredTombstones() {
+        Timestamp cutoff = Timestamp.from(Instant.now().minusMillis(retentionMs));
+
+        List<JdbcTemplate> databases = new ArrayList<>();
+        databases.add(jdbcTemplate);
+        ShardDataSources shards = shardDataSources.getIfAvailable();
+        if (shards != null) {
+            for (int shard = 0; shard < shards.count(); shard++) {
+                databases.add(shards.jdbcTemplate(shard));
+            }
+        }
+
+        try {
+            for (JdbcTemplate database : databases) {
+                purge(database, cutoff);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void purge(JdbcTemplate database, Timestamp cutoff) throws InterruptedException {
+        database.update("""
+                update task_sync_state s
+                set purged_through = (select max(t.change_seq) from task_tombstone t
+                                      where t.user_id = s.user_id and t.deleted_at < ?)
+                where exists (select 1 from task_tombstone t where t.user_id = s.user_id and t.deleted_at < ?)""",
+                cutoff, cutoff);
+
+        long total = 0;
+        int deleted;
+        do {
+            deleted = database.update("""
+                    delete from task_tombstone where task_id in (
+                        select task_id from task_tombstone where deleted_at < ? fetch first ? rows only)""",
+                    cutoff, batchSize);
+            total += deleted;
+            purgedRows.increment(deleted);
+            if (deleted == batchSize) {
+                Thread.sleep(pauseMs);
+            }
+        } while (deleted == batchSize);
+
+        if (total > 0) {
+            log.info("Purged {} task tombstones", total);
+        }
+    }
+}
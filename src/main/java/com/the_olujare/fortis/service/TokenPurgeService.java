@@ -0,0 +1,118 @@
+package com.the_olujare.fortis.service;
+
+import com.the_olujare.fortis.config.TokenPurgeProperties;
+import com.the_olujare.fortis.repository.EmailVerificationTokenRepository;
+import com.the_olujare.fortis.repository.PasswordResetTokenRepository;
+import com.the_olujare.fortis.repository.RefreshTokenRepository;
+import com.the_olujare.fortis.repository.RevokedAccessTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Background reaper for token tables that would otherwise grow forever.
+ *
+ * What gets deleted:
+ * - PasswordResetToken: used or expired
+ * - EmailVerificationToken: used or expired
+ * - RefreshToken: expired only (revoked rows stay until expiry for reuse detection)
+ * - RevokedAccessToken: past the revoked JWT's own expiry
+ *
+ * How it deletes:
+ * - Selects at most batchSize ids, then deletes them in one short transaction
+ * - Sleeps pauseMs between chunks and stops after maxBatchesPerRun
+ * - Never runs a single unbounded DELETE, so no long-held locks
+ *
+ * Metrics (per table tag):
+ * - fortis.token.purge.rows → rows deleted
+ * - fortis.token.purge.duration → time spent per run
+ *
+ * Settings live under fortis.token-purge.* (see TokenPurgeProperties).
+ */
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenPurgeService {
+
+    private final TokenPurgeProperties tokenPurgeProperties;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final EmailVerificationTokenRepository emailVerificationTokenRepository;
+    private final RevokedAccessTokenRepository revokedAccessTokenRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Scheduled(initialDelayString = "${fortis.token-purge.interval-ms:3600000}",
+            fixedDelayString = "${fortis.token-purge.interval-ms:3600000}")
+    public void purgeExpiredTokens() {
+        purge("refresh_token", tokenPurgeProperties.getRefreshToken(),
+                pageable -> refreshTokenRepository.findPurgeableIds(Instant.now(), pageable),
+                refreshTokenRepository::deleteAllByIdIn);
+
+        purge("password_reset_token", tokenPurgeProperties.getPasswordResetToken(),
+                pageable -> passwordResetTokenRepository.findPurgeableIds(LocalDateTime.now(), pageable),
+                passwordResetTokenRepository::deleteAllByIdIn);
+
+        purge("email_verification_token", tokenPurgeProperties.getEmailVerificationToken(),
+                pageable -> emailVerificationTokenRepository.findPurgeableIds(LocalDateTime.now(), pageable),
+                emailVerificationTokenRepository::deleteAllByIdIn);
+
+        purge("revoked_access_token", tokenPurgeProperties.getRevokedAccessToken(),
+                pageable -> revokedAccessTokenRepository.findPurgeableIds(Instant.now(), pageable),
+                revokedAccessTokenRepository::deleteAllByIdIn);
+    }
+
+    private <ID> long purge(String table,
+                            TokenPurgeProperties.Table settings,
+                            Function<Pageable, List<ID>> findPurgeableIds,
+                            Function<List<ID>, Integer> deleteByIds) {
+        if (!settings.isEnabled()) {
+            return 0;
+        }
+
+        Counter purgedRows = meterRegistry.counter("fortis.token.purge.rows", "table", table);
+        Timer purgeDuration = meterRegistry.timer("fortis.token.purge.duration", "table", table);
+        Pageable firstChunk = PageRequest.ofSize(settings.getBatchSize());
+
+        long startNanos = System.nanoTime();
+        long total = 0;
+        try {
+            for (int batch = 0; batch < settings.getMaxBatchesPerRun(); batch++) {
+                List<ID> ids = findPurgeableIds.apply(firstChunk);
+                if (ids.isEmpty()) {
+                    break;
+                }
+
+                int deleted = deleteByIds.apply(ids);
+                total += deleted;
+                purgedRows.increment(deleted);
+
+                if (ids.size() < settings.getBatchSize()) {
+                    break;
+                }
+                Thread.sleep(settings.getPauseMs());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            purgeDuration.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        if (total > 0) {
+            log.info("Purged {} rows from {}", total, table);
+        }
+        return total;
+    }
+}
@@ -1,11 +1,13 @@
 package com.the_olujare.fortis.service;
 
 import com.the_olujare.fortis.repository.FortisUserRepository;
+import com.the_olujare.fortis.util.EmailUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Spring Security adapter responsible for loading application users during authentication.
@@ -19,6 +21,8 @@ import org.springframework.stereotype.Service;
  * - Used internally by AuthenticationManager
  * - Never exposed directly to controllers
  * - Ensures authentication fails fast for unknown users
+ * - Runs read-only, so it is served by the replica when routing is enabled;
+ *   during login AuthService moves it to the primary (see PrimaryReads)
  *
  * Design intent:
  * - Keeps authentication logic out of controllers and services
@@ -37,8 +41,9 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     private final FortisUserRepository fortisUserRepository;
 
     @Override
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        return fortisUserRepository.findByEmail(email)
+        return fortisUserRepository.findByEmail(EmailUtil.normalize(email))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
     }
 }
\ No newline at end of file
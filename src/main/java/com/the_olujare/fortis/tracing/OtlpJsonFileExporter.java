@@ -0,0 +1,252 @@
+package com.the_olujare.fortis.tracing;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Writes exported traces as OTLP/JSON to rolling local files, no collector needed.
+ *
+ * Format:
+ * - One ExportTraceServiceRequest per line (the OpenTelemetry file exporter layout),
+ *   readable by `otel-cli`, the collector's otlpjsonfile receiver, or jq
+ * - Ids are lowercase hex, timestamps are unix nanos as strings, per the OTLP/JSON mapping
+ *
+ * Delivery:
+ * - export() only offers the trace to a bounded queue; a full queue drops it (fortis.tracing.traces.dropped)
+ * - One daemon thread batches queued traces into a line and appends it
+ * - Files are named traces-{UTC timestamp}-{instance}.jsonl and roll at maxFileBytes;
+ *   only the newest maxFiles are kept
+ */
+
+@Slf4j
+public class OtlpJsonFileExporter {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss.SSS").withZone(ZoneOffset.UTC);
+    private static final String FILE_PREFIX = "traces-";
+    private static final String FILE_SUFFIX = ".jsonl";
+    private static final int MAX_TRACES_PER_LINE = 64;
+
+    private final TracingProperties properties;
+    private final Path directory;
+    private final String instanceId = UUID.randomUUID().toString().substring(0, 8);
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final ArrayBlockingQueue<Trace> queue;
+    private final Counter exported;
+    private final Counter dropped;
+
+    private volatile boolean running = true;
+    private Thread writerThread;
+    private OutputStream file;
+    private long fileBytes;
+
+    public OtlpJsonFileExporter(TracingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.directory = Path.of(properties.getDirectory());
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.exported = meterRegistry.counter("fortis.tracing.traces.exported");
+        this.dropped = meterRegistry.counter("fortis.tracing.traces.dropped");
+    }
+
+    public void start() {
+        writerThread = new Thread(this::writeLoop, "trace-exporter");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    public void stop() throws InterruptedException {
+        // Not interrupted: an interrupt would close the file channel mid-write
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        closeFile();
+    }
+
+    void export(Trace trace) {
+        if (!queue.offer(trace)) {
+            dropped.increment();
+        }
+    }
+
+    private void writeLoop() {
+        List<Trace> batch = new ArrayList<>(MAX_TRACES_PER_LINE);
+        while (running || !queue.isEmpty()) {
+            try {
+                Trace first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, MAX_TRACES_PER_LINE - batch.size());
+            if (batch.isEmpty()) {
+                continue;
+            }
+            try {
+                write(encode(batch));
+                exported.increment(batch.size());
+            } catch (IOException e) {
+                log.warn("Could not write {} traces to {}", batch.size(), directory, e);
+                dropped.increment(batch.size());
+                closeFile();
+            }
+            batch.clear();
+        }
+    }
+
+    private byte[] encode(List<Trace> traces) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(16 * 1024);
+        try (JsonGenerator json = jsonFactory.createGenerator(line, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("resourceSpans");
+            json.writeStartObject();
+
+            json.writeObjectFieldStart("resource");
+            json.writeArrayFieldStart("attributes");
+            writeAttribute(json, "service.name", properties.getServiceName());
+            writeAttribute(json, "service.instance.id", instanceId);
+            json.writeEndArray();
+            json.writeEndObject();
+
+            json.writeArrayFieldStart("scopeSpans");
+            json.writeStartObject();
+            json.writeObjectFieldStart("scope");
+            json.writeStringField("name", "com.the_olujare.fortis");
+            json.writeEndObject();
+            json.writeArrayFieldStart("spans");
+            for (Trace trace : traces) {
+                String traceId = TraceParent.traceId(trace.traceIdHigh(), trace.traceIdLow());
+                for (Span span : trace.finishedSpans()) {
+                    writeSpan(json, traceId, span);
+                }
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndArray();
+
+            json.writeEndObject();
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+        line.write('\n');
+        return line.toByteArray();
+    }
+
+    private static void writeSpan(JsonGenerator json, String traceId, Span span) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("traceId", traceId);
+        json.writeStringField("spanId", TraceParent.spanId(span.spanId()));
+        if (span.parentSpanId() != 0) {
+            json.writeStringField("parentSpanId", TraceParent.spanId(span.parentSpanId()));
+        }
+        json.writeStringField("name", span.name());
+        json.writeNumberField("kind", span.kind());
+        json.writeStringField("startTimeUnixNano", Long.toString(span.startEpochNanos()));
+        json.writeStringField("endTimeUnixNano", Long.toString(span.endEpochNanos()));
+
+        List<Object> attributes = span.attributeList();
+        if (!attributes.isEmpty()) {
+            json.writeArrayFieldStart("attributes");
+            for (int i = 0; i < attributes.size(); i += 2) {
+                Object value = attributes.get(i + 1);
+                if (value instanceof Long number) {
+                    json.writeStartObject();
+                    json.writeStringField("key", (String) attributes.get(i));
+                    json.writeObjectFieldStart("value");
+                    json.writeStringField("intValue", number.toString());
+                    json.writeEndObject();
+                    json.writeEndObject();
+                } else {
+                    writeAttribute(json, (String) attributes.get(i), (String) value);
+                }
+            }
+            json.writeEndArray();
+        }
+
+        if (span.error()) {
+            json.writeObjectFieldStart("status");
+            json.writeNumberField("code", 2);
+            json.writeStringField("message", span.errorMessage());
+            json.writeEndObject();
+        }
+        json.writeEndObject();
+    }
+
+    private static void writeAttribute(JsonGenerator json, String key, String value) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("key", key);
+        json.writeObjectFieldStart("value");
+        json.writeStringField("stringValue", value);
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+
+    private void write(byte[] line) throws IOException {
+        if (file == null || fileBytes + line.length > properties.getMaxFileBytes()) {
+            roll();
+        }
+        file.write(line);
+        file.flush();
+        fileBytes += line.length;
+    }
+
+    private void roll() throws IOException {
+        closeFile();
+        Files.createDirectories(directory);
+        Path path = directory.resolve(FILE_PREFIX + FILE_TIMESTAMP.format(Instant.now())
+                + "-" + instanceId + FILE_SUFFIX);
+        file = Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        fileBytes = Files.size(path);
+        deleteOldFiles();
+    }
+
+    private void deleteOldFiles() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+        for (int i = 0; i < files.size() - properties.getMaxFiles(); i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    private void closeFile() {
+        if (file == null) {
+            return;
+        }
+        try {
+            file.close();
+        } catch (IOException e) {
+            log.warn("Could not close trace file", e);
+        }
+        file = null;
+    }
+}
@@ -0,0 +1,128 @@
+package com.the_olujare.fortis.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One timed operation of a trace. Close it (try-with-resources) to end it.
+ *
+ * Spans started without an active trace (tracing disabled, background threads)
+ * are the shared NOOP instance: every method returns immediately.
+ *
+ * Not thread-safe: a span belongs to the request thread that started it.
+ */
+
+public final class Span implements AutoCloseable {
+
+    static final int KIND_INTERNAL = 1;
+    static final int KIND_SERVER = 2;
+
+    static final Span NOOP = new Span(null, null, 0, 0, KIND_INTERNAL, 0);
+
+    private final Trace trace;
+    private final long spanId;
+    private final long parentSpanId;
+    private final int kind;
+    private final long startEpochNanos;
+    private String name;
+    private long endEpochNanos;
+    // Alternating key / value (String or Long); allocated on first attribute
+    private List<Object> attributes;
+    private String errorMessage;
+    private boolean error;
+
+    Span(Trace trace, String name, long spanId, long parentSpanId, int kind, long startEpochNanos) {
+        this.trace = trace;
+        this.name = name;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.kind = kind;
+        this.startEpochNanos = startEpochNanos;
+    }
+
+    public Span attribute(String key, String value) {
+        if (trace != null && value != null) {
+            attributes().add(key);
+            attributes().add(value);
+        }
+        return this;
+    }
+
+    public Span attribute(String key, long value) {
+        if (trace != null) {
+            attributes().add(key);
+            attributes().add(value);
+        }
+        return this;
+    }
+
+    public void recordError(Throwable throwable) {
+        if (trace != null) {
+            error = true;
+            errorMessage = throwable.getClass().getSimpleName()
+                    + (throwable.getMessage() != null ? ": " + throwable.getMessage() : "");
+        }
+    }
+
+    @Override
+    public void close() {
+        if (trace != null) {
+            trace.end(this);
+        }
+    }
+
+    void rename(String name) {
+        this.name = name;
+    }
+
+    void end(long endEpochNanos) {
+        this.endEpochNanos = endEpochNanos;
+    }
+
+    boolean ended() {
+        return endEpochNanos != 0;
+    }
+
+    String name() {
+        return name;
+    }
+
+    long spanId() {
+        return spanId;
+    }
+
+    long parentSpanId() {
+        return parentSpanId;
+    }
+
+    int kind() {
+        return kind;
+    }
+
+    long startEpochNanos() {
+        return startEpochNanos;
+    }
+
+    long endEpochNanos() {
+        return endEpochNanos;
+    }
+
+    List<Object> attributeList() {
+        return attributes == null ? List.of() : attributes;
+    }
+
+    boolean error() {
+        return error;
+    }
+
+    String errorMessage() {
+        return errorMessage;
+    }
+
+    private List<Object> attributes() {
+        if (attributes == null) {
+            attributes = new ArrayList<>(8);
+        }
+        return attributes;
+    }
+}
@@ -0,0 +1,93 @@
+package com.the_olujare.fortis.tracing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Spans of one request in this process, collected until the request ends and
+ * TracingFilter decides whether to export them (tail sampling).
+ *
+ * - New spans are children of the innermost open span, or of the remote parent from traceparent
+ * - Timestamps are wall-clock at trace start plus System.nanoTime() offsets
+ * - At most maxSpans spans are kept; further spans are NOOP and counted
+ */
+
+final class Trace {
+
+    private final long traceIdHigh;
+    private final long traceIdLow;
+    private final long remoteParentSpanId;
+    private final boolean sampled;
+    private final int maxSpans;
+    private final long epochNanosAtStart = System.currentTimeMillis() * 1_000_000;
+    private final long nanoTimeAtStart = System.nanoTime();
+    private final ArrayDeque<Span> open = new ArrayDeque<>();
+    private final List<Span> finished = new ArrayList<>();
+    private int droppedSpans;
+
+    Trace(long traceIdHigh, long traceIdLow, long remoteParentSpanId, boolean sampled, int maxSpans) {
+        this.traceIdHigh = traceIdHigh;
+        this.traceIdLow = traceIdLow;
+        this.remoteParentSpanId = remoteParentSpanId;
+        this.sampled = sampled;
+        this.maxSpans = maxSpans;
+    }
+
+    Span start(String name, int kind) {
+        if (open.size() + finished.size() >= maxSpans) {
+            droppedSpans++;
+            return Span.NOOP;
+        }
+        Span parent = open.peek();
+        Span span = new Span(this, name, randomId(), parent != null ? parent.spanId() : remoteParentSpanId, kind, now());
+        open.push(span);
+        return span;
+    }
+
+    void end(Span span) {
+        if (span.ended()) {
+            return;
+        }
+        span.end(now());
+        if (open.peek() == span) {
+            open.pop();
+        } else {
+            open.remove(span);
+        }
+        finished.add(span);
+    }
+
+    static long randomId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return id;
+    }
+
+    long traceIdHigh() {
+        return traceIdHigh;
+    }
+
+    long traceIdLow() {
+        return traceIdLow;
+    }
+
+    boolean sampled() {
+        return sampled;
+    }
+
+    List<Span> finishedSpans() {
+        return finished;
+    }
+
+    int droppedSpans() {
+        return droppedSpans;
+    }
+
+    private long now() {
+        return epochNanosAtStart + (System.nanoTime() - nanoTimeAtStart);
+    }
+}
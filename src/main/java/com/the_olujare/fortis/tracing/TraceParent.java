@@ -0,0 +1,67 @@
+package com.the_olujare.fortis.tracing;
+
+import java.util.HexFormat;
+
+/**
+ * W3C Trace Context traceparent header: {@code 00-<32 hex trace id>-<16 hex parent id>-<2 hex flags>}.
+ *
+ * parse() returns null for anything malformed, an all-zero id or the reserved version ff;
+ * the request then starts a new trace, as the specification requires.
+ */
+
+record TraceParent(long traceIdHigh, long traceIdLow, long parentSpanId, boolean sampled) {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    static TraceParent parse(String header) {
+        if (header == null) {
+            return null;
+        }
+        String value = header.trim();
+        if (value.length() < 55 || value.charAt(2) != '-' || value.charAt(35) != '-' || value.charAt(52) != '-') {
+            return null;
+        }
+        // Future versions may append fields; version 00 must be exactly 55 characters
+        String version = value.substring(0, 2);
+        if (version.equals("ff") || (version.equals("00") && value.length() != 55)) {
+            return null;
+        }
+        try {
+            if (!isLowerHex(value, 0, 2) || !isLowerHex(value, 3, 35) || !isLowerHex(value, 36, 52) || !isLowerHex(value, 53, 55)) {
+                return null;
+            }
+            long high = Long.parseUnsignedLong(value, 3, 19, 16);
+            long low = Long.parseUnsignedLong(value, 19, 35, 16);
+            long parent = Long.parseUnsignedLong(value, 36, 52, 16);
+            int flags = Integer.parseInt(value, 53, 55, 16);
+            if ((high == 0 && low == 0) || parent == 0) {
+                return null;
+            }
+            return new TraceParent(high, low, parent, (flags & 1) == 1);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static String format(long traceIdHigh, long traceIdLow, long spanId, boolean sampled) {
+        return "00-" + traceId(traceIdHigh, traceIdLow) + "-" + spanId(spanId) + (sampled ? "-01" : "-00");
+    }
+
+    static String traceId(long high, long low) {
+        return HEX.toHexDigits(high) + HEX.toHexDigits(low);
+    }
+
+    static String spanId(long id) {
+        return HEX.toHexDigits(id);
+    }
+
+    private static boolean isLowerHex(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
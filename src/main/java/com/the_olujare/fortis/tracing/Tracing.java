@@ -0,0 +1,38 @@
+package com.the_olujare.fortis.tracing;
+
+/**
+ * Entry point for instrumentation code:
+ *
+ *   try (Span span = Tracing.start("Something")) {
+ *       ...
+ *   }
+ *
+ * The active trace is bound to the request thread by TracingFilter.
+ * Without one, start() returns Span.NOOP after a single ThreadLocal read.
+ * Work handed to other threads (e.g. TaskEventHub senders) is not traced.
+ */
+
+public final class Tracing {
+
+    private static final ThreadLocal<Trace> CURRENT = new ThreadLocal<>();
+
+    private Tracing() {
+    }
+
+    public static Span start(String name) {
+        Trace trace = CURRENT.get();
+        return trace == null ? Span.NOOP : trace.start(name, Span.KIND_INTERNAL);
+    }
+
+    public static boolean active() {
+        return CURRENT.get() != null;
+    }
+
+    static void attach(Trace trace) {
+        CURRENT.set(trace);
+    }
+
+    static void detach() {
+        CURRENT.remove();
+    }
+}
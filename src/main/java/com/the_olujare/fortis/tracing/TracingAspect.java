@@ -0,0 +1,55 @@
+package com.the_olujare.fortis.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * INTERNAL spans for AuthService / TaskService / TaskAttachmentService methods and Spring Data repository calls.
+ *
+ * - Service spans are named "TaskService.createTask"
+ * - Repository spans are named after the repository interface ("TaskRepository.findById"),
+ *   also for methods inherited from JpaRepository
+ * - An exception marks the span as errored; the trace is still only force-exported for 5xx
+ *
+ * Ordered like TaskShardAspect, ahead of the transaction interceptor, so
+ * transaction begin/commit time is inside the service span.
+ */
+
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TracingAspect {
+
+    @Around("execution(public * com.the_olujare.fortis.service.AuthService.*(..))"
+            + " || execution(public * com.the_olujare.fortis.service.TaskService.*(..))"
+            + " || execution(public * com.the_olujare.fortis.service.TaskAttachmentService.*(..))")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!Tracing.active()) {
+            return joinPoint.proceed();
+        }
+        return trace(joinPoint, joinPoint.getSignature().getDeclaringType().getSimpleName());
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!Tracing.active()) {
+            return joinPoint.proceed();
+        }
+        Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(joinPoint.getThis());
+        return trace(joinPoint, interfaces.length > 0 ? interfaces[0].getSimpleName() : "Repository");
+    }
+
+    private static Object trace(ProceedingJoinPoint joinPoint, String owner) throws Throwable {
+        try (Span span = Tracing.start(owner + "." + joinPoint.getSignature().getName())) {
+            try {
+                return joinPoint.proceed();
+            } catch (Throwable throwable) {
+                span.recordError(throwable);
+                throw throwable;
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.the_olujare.fortis.tracing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.Filter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * In-process tracing (fortis.tracing.enabled), exported as OTLP/JSON files.
+ *
+ * Span tree of a request:
+ *   GET /api/tasks/{id}                  TracingFilter (outermost servlet filter)
+ *   ├─ SecurityFilterChain               opened just before Spring Security, closed just after it
+ *   │  └─ JwtAuthenticationFilter
+ *   │     └─ FortisUserRepository.findByEmail
+ *   └─ TaskService.getTaskById           TracingAspect
+ *      └─ TaskRepository.findById
+ *
+ * The two SecurityFilterChain filters sit one position either side of the
+ * springSecurityFilterChain registration, so the span covers exactly the security filters.
+ */
+
+@Configuration
+@ConditionalOnProperty(name = "fortis.tracing.enabled", havingValue = "true")
+@EnableConfigurationProperties(TracingProperties.class)
+public class TracingConfig {
+
+    private static final String SECURITY_SPAN_ATTRIBUTE = TracingConfig.class.getName() + ".securitySpan";
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public OtlpJsonFileExporter otlpJsonFileExporter(TracingProperties properties, MeterRegistry meterRegistry) {
+        return new OtlpJsonFileExporter(properties, meterRegistry);
+    }
+
+    @Bean
+    public TracingAspect tracingAspect() {
+        return new TracingAspect();
+    }
+
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(TracingProperties properties,
+                                                               OtlpJsonFileExporter exporter) {
+        FilterRegistrationBean<TracingFilter> registration =
+                new FilterRegistrationBean<>(new TracingFilter(properties, exporter));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<Filter> securityChainSpanStart(SecurityProperties securityProperties) {
+        Filter filter = (request, response, chain) -> {
+            Span span = Tracing.start("SecurityFilterChain");
+            request.setAttribute(SECURITY_SPAN_ATTRIBUTE, span);
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                // Still open when security rejected the request before the end marker
+                span.close();
+            }
+        };
+        FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(securityProperties.getFilter().getOrder() - 1);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<Filter> securityChainSpanEnd(SecurityProperties securityProperties) {
+        Filter filter = (request, response, chain) -> {
+            if (request.getAttribute(SECURITY_SPAN_ATTRIBUTE) instanceof Span span) {
+                span.close();
+            }
+            chain.doFilter(request, response);
+        };
+        FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(securityProperties.getFilter().getOrder() + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,92 @@
+package com.the_olujare.fortis.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outermost filter: one SERVER span per request, the root of everything traced below it.
+ *
+ * Propagation (W3C Trace Context):
+ * - A valid traceparent continues the caller's trace and follows its sampled flag
+ * - Otherwise a new trace starts, head-sampled with sampleRate
+ * - The response carries traceresponse (same format) so a client can look its trace up
+ *
+ * Sampling:
+ * - Every request records its spans; the decision is taken when it ends
+ * - Exported when head-sampled, slower than slowThresholdMs, or answered with 5xx
+ *
+ * Span: named "{method} {route}" once the handler is known, with http.request.method,
+ * url.path, http.route and http.response.status_code attributes.
+ */
+
+public class TracingFilter extends OncePerRequestFilter {
+
+    private static final String TRACEPARENT = "traceparent";
+    private static final String TRACERESPONSE = "traceresponse";
+
+    private final TracingProperties properties;
+    private final OtlpJsonFileExporter exporter;
+    private final long slowThresholdNanos;
+
+    public TracingFilter(TracingProperties properties, OtlpJsonFileExporter exporter) {
+        this.properties = properties;
+        this.exporter = exporter;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(properties.getSlowThresholdMs());
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        TraceParent parent = TraceParent.parse(request.getHeader(TRACEPARENT));
+        Trace trace = parent != null
+                ? new Trace(parent.traceIdHigh(), parent.traceIdLow(), parent.parentSpanId(), parent.sampled(),
+                        properties.getMaxSpansPerTrace())
+                : new Trace(Trace.randomId(), Trace.randomId(), 0,
+                        ThreadLocalRandom.current().nextDouble() < properties.getSampleRate(),
+                        properties.getMaxSpansPerTrace());
+
+        Tracing.attach(trace);
+        Span span = trace.start(request.getMethod(), Span.KIND_SERVER);
+        response.setHeader(TRACERESPONSE,
+                TraceParent.format(trace.traceIdHigh(), trace.traceIdLow(), span.spanId(), trace.sampled()));
+
+        boolean failed = false;
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            failed = true;
+            span.recordError(e);
+            throw e;
+        } finally {
+            int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (route != null) {
+                span.rename(request.getMethod() + " " + route);
+                span.attribute("http.route", route.toString());
+            }
+            span.attribute("http.request.method", request.getMethod())
+                    .attribute("url.path", request.getRequestURI())
+                    .attribute("http.response.status_code", status);
+            if (trace.droppedSpans() > 0) {
+                span.attribute("fortis.dropped_spans", trace.droppedSpans());
+            }
+            span.close();
+            Tracing.detach();
+
+            long durationNanos = span.endEpochNanos() - span.startEpochNanos();
+            if (trace.sampled() || durationNanos >= slowThresholdNanos || status >= 500) {
+                exporter.export(trace);
+            }
+        }
+    }
+}
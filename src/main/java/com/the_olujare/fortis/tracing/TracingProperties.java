@@ -0,0 +1,42 @@
+package com.the_olujare.fortis.tracing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Binds the fortis.tracing.* settings.
+ *
+ * sampleRate
+ *  - Head sampling for requests without a traceparent header (0..1).
+ *  - Requests with traceparent follow its sampled flag.
+ *
+ * slowThresholdMs
+ *  - Tail sampling: traces at least this slow are always exported, sampled or not.
+ *  - Traces answered with 5xx are always exported too.
+ *
+ * maxSpansPerTrace
+ *  - Spans beyond this are not recorded (counted on the server span).
+ *
+ * directory / maxFileBytes / maxFiles
+ *  - OTLP-JSON lines are written to traces-*.jsonl, rolling by size; the oldest files are deleted.
+ *
+ * queueCapacity
+ *  - Traces waiting for the exporter thread; when full, traces are dropped and counted.
+ */
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "fortis.tracing")
+public class TracingProperties {
+
+    private boolean enabled = true;
+    private double sampleRate = 0.01;
+    private long slowThresholdMs = 500;
+    private int maxSpansPerTrace = 512;
+    private String directory = "traces";
+    private long maxFileBytes = 64L * 1024 * 1024;
+    private int maxFiles = 10;
+    private int queueCapacity = 2048;
+    private String serviceName = "fortis";
+}
@@ -0,0 +1,82 @@
+package com.the_olujare.fortis.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Minimal thread-safe Bloom filter over strings.
+ *
+ * Purpose:
+ * - Answers "definitely not present" without touching the database
+ * - A positive answer only means "maybe present" and must be confirmed elsewhere
+ *
+ * Sizing:
+ * - Bit count and hash count are derived from the expected insertions and the
+ *   target false-positive rate using the standard formulas
+ *
+ * Design intent:
+ * - Lock-free: bits live in an AtomicLongArray, so concurrent put/mightContain is safe
+ * - No removal: callers rebuild a fresh filter to drop stale entries
+ * - Double hashing (h1 + i * h2) over a 64-bit FNV-1a / murmur-style mix
+ */
+
+public final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = Math.max(64, m);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        this.bits = new AtomicLongArray((int) ((bitCount + 63) / 64));
+    }
+
+    public void put(String value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = bits.get(index);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(index, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        // Final avalanche so both 32-bit halves are well mixed
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
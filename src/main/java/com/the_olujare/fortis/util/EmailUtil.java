@@ -0,0 +1,26 @@
+package com.the_olujare.fortis.util;
+
+import java.util.Locale;
+
+/**
+ * Canonical form of an email address, applied once at every entry point.
+ *
+ * Purpose:
+ * - Registration stores, and login and lockout look up, the same string,
+ *   so every email lookup is an exact match on the indexed column
+ * - Rows stored before normalization are rewritten at startup by EmailNormalizationRunner
+ *
+ * Design intent:
+ * - Trimmed and lower-cased with Locale.ROOT (no locale-dependent case mapping)
+ * - Static helper, no state, no instantiation
+ */
+
+public final class EmailUtil {
+
+    private EmailUtil() {
+    }
+
+    public static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
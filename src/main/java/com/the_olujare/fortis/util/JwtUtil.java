@@ -1,6 +1,7 @@
 package com.the_olujare.fortis.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -11,6 +12,7 @@ import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
@@ -19,10 +21,13 @@ import java.util.function.Function;
  * Responsibilities:
  * - Generates signed JWT access tokens for authenticated users
  * - Extracts claims (subject, expiration) from incoming tokens
+ * - parseClaims verifies a token once; callers needing several claims read them
+ *   from the returned Claims instead of verifying again per claim
  * - Validates tokens against user identity and expiry time
  *
  * Token structure:
  * - Subject: user email (used as username)
+ * - ID (jti): random per token, lets a single token be revoked
  * - IssuedAt: token creation time
  * - Expiration: controlled via JwtConstants.EXPIRATION_TIME
  * - Signature: HMAC SHA-256
@@ -40,6 +45,11 @@ import java.util.function.Function;
 
 @Component
 public class JwtUtil {
+
+    // Key and parser are immutable and thread-safe: built once instead of per token
+    private final SecretKey signInKey = Keys.hmacShaKeyFor(Decoders.BASE64URL.decode(JwtConstants.SECRET));
+    private final JwtParser parser = Jwts.parser().verifyWith(signInKey).build();
+
     public String generateToken(UserDetails userDetails) {
         return generateToken(new HashMap<>(), userDetails);
     }
@@ -47,10 +57,11 @@ public class JwtUtil {
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
         return Jwts.builder()
                 .claims(extraClaims)
+                .id(UUID.randomUUID().toString())  // jti, used by the access-token denylist
                 .subject(userDetails.getUsername())  // email
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + JwtConstants.EXPIRATION_TIME))
-                .signWith(getSignInKey(), Jwts.SIG.HS256)
+                .signWith(signInKey, Jwts.SIG.HS256)
                 .compact();
     }
 
@@ -58,35 +69,34 @@ public class JwtUtil {
         return extractClaim(token, Claims::getSubject);
     }
 
+    public String extractTokenId(String token) {
+        return extractClaim(token, Claims::getId);
+    }
+
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String email = extractEmail(token);
-        return (email.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(parseClaims(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
     }
 
-    private Date extractExpiration(String token) {
+    public Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration);
     }
 
     private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseClaims(token);
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64URL.decode(JwtConstants.SECRET);  // ← Correct for JWT
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Verifies the signature and expiry and returns the claims.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
     }
 
 }
\ No newline at end of file
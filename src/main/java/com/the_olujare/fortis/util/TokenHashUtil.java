@@ -0,0 +1,34 @@
+package com.the_olujare.fortis.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Hashes opaque tokens before they touch the database.
+ *
+ * Purpose:
+ * - Raw refresh tokens are bearer credentials and must never be stored as-is
+ * - Lookups happen on the fixed-length hash, which is indexed
+ *
+ * Design intent:
+ * - SHA-256 is enough here: tokens are random, so no salt or slow hash is needed
+ * - Same input always produces the same hash, so the hash can be used as a lookup key
+ * - Static helper, no state, no instantiation
+ */
+
+public final class TokenHashUtil {
+
+    private TokenHashUtil() {
+    }
+
+    public static String sha256(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+-- Task tables of a task shard. Applied to every shard on startup by ShardDataSources.
+-- Mirrors the Task, TaskSyncState, TaskTombstone, TaskAttachment and TaskArchiveSegment entities.
+-- No foreign key to users, they live in the main database; attachments cascade with their task.
+-- @IDENTITY_START@ is replaced with shardIndex * 2^40 + 1 so task ids never collide across shards.
+create table if not exists task (
+    id bigint generated by default as identity (start with @IDENTITY_START@) primary key,
+    title varchar(255),
+    description varchar(255),
+    completed boolean not null,
+    user_id bigint,
+    change_seq bigint default 0 not null,
+    updated_at timestamp(6) with time zone
+);
+
+create index if not exists idx_task_user on task (user_id);
+create index if not exists idx_task_user_change on task (user_id, change_seq);
+create index if not exists idx_task_completed_updated on task (completed, updated_at);
+
+create table if not exists task_sync_state (
+    user_id bigint primary key,
+    change_seq bigint not null,
+    purged_through bigint not null
+);
+
+create table if not exists task_tombstone (
+    task_id bigint primary key,
+    user_id bigint not null,
+    change_seq bigint not null,
+    deleted_at timestamp(6) with time zone not null
+);
+
+create index if not exists idx_task_tombstone_user_change on task_tombstone (user_id, change_seq);
+create index if not exists idx_task_tombstone_deleted_at on task_tombstone (deleted_at);
+
+create table if not exists task_attachment (
+    id uuid primary key,
+    task_id bigint not null references task (id) on delete cascade,
+    user_id bigint not null,
+    filename varchar(255) not null,
+    content_type varchar(255) not null,
+    size_bytes bigint not null,
+    sha256 varchar(64) not null,
+    created_at timestamp(6) with time zone not null
+);
+
+create index if not exists idx_task_attachment_task on task_attachment (task_id);
+create index if not exists idx_task_attachment_user on task_attachment (user_id);
+create index if not exists idx_task_attachment_sha256 on task_attachment (sha256);
+
+create table if not exists task_archive_segment (
+    id bigint primary key,
+    user_id bigint not null,
+    task_count integer not null,
+    archived_at timestamp(6) with time zone not null,
+    payload blob not null
+);
+
+create index if not exists idx_task_archive_segment_user on task_archive_segment (user_id, id);
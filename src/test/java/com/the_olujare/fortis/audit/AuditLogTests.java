@@ -0,0 +1,140 @@
+package com.the_olujare.fortis.audit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * AuditLog writes every recorded event into a verifiable hash chain,
+ * survives restarts and rotation, and reports tampering.
+ */
+
+class AuditLogTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writtenEventsFormAnIntactChain() throws Exception {
+        AuditLog auditLog = start(properties());
+        for (int i = 0; i < 1_000; i++) {
+            auditLog.record(AuditEventType.LOGIN_SUCCEEDED, (long) i, "user-" + i + "@fortis.test");
+        }
+        auditLog.stop();
+
+        AuditVerification verification = auditLog.verify();
+        assertThat(verification.intact()).isTrue();
+        assertThat(verification.verifiedRecords()).isEqualTo(1_000);
+    }
+
+    @Test
+    void chainContinuesAcrossRotationAndRestart() throws Exception {
+        AuditProperties properties = properties();
+        properties.setSegmentMaxBytes(2_048);
+        properties.setBatchSize(4);
+
+        AuditLog first = start(properties);
+        for (int i = 0; i < 100; i++) {
+            first.record(AuditEventType.TOKEN_REFRESHED, (long) i, null);
+        }
+        first.stop();
+
+        AuditLog second = start(properties);
+        second.record(AuditEventType.LOGGED_OUT, 1L, "tab\there\nnewline");
+        second.stop();
+
+        AuditVerification verification = second.verify();
+        assertThat(verification.intact()).isTrue();
+        assertThat(verification.verifiedRecords()).isEqualTo(101);
+        assertThat(verification.segments()).isGreaterThan(1);
+    }
+
+    @Test
+    void editedRecordBreaksTheChain() throws Exception {
+        AuditLog auditLog = start(properties());
+        auditLog.record(AuditEventType.LOGIN_FAILED, null, "mallory@fortis.test");
+        auditLog.record(AuditEventType.LOGIN_SUCCEEDED, 7L, "alice@fortis.test");
+        auditLog.stop();
+
+        Path segment = segments().get(0);
+        String content = Files.readString(segment, StandardCharsets.UTF_8);
+        Files.writeString(segment, content.replace("LOGIN_FAILED", "LOGIN_SUCCEEDED"), StandardCharsets.UTF_8);
+
+        AuditVerification verification = auditLog.verify();
+        assertThat(verification.intact()).isFalse();
+        assertThat(verification.brokenAtSequence()).isEqualTo(1L);
+    }
+
+    @Test
+    void tornLastRecordIsDroppedOnRestart() throws Exception {
+        AuditLog first = start(properties());
+        first.record(AuditEventType.REGISTERED, 1L, "a@fortis.test");
+        first.stop();
+        Files.writeString(segments().get(0), "2\t123\tLOGIN_SUC", StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+
+        AuditLog second = start(properties());
+        second.record(AuditEventType.EMAIL_VERIFIED, 1L, null);
+        second.stop();
+
+        AuditVerification verification = second.verify();
+        assertThat(verification.intact()).isTrue();
+        assertThat(verification.verifiedRecords()).isEqualTo(2);
+    }
+
+    @Test
+    void secondWriterOnTheSameDirectoryStaysDisabled() throws Exception {
+        AuditLog owner = start(properties());
+        AuditLog intruder = start(properties());
+
+        intruder.record(AuditEventType.LOGIN_SUCCEEDED, 1L, null);
+        owner.record(AuditEventType.LOGIN_SUCCEEDED, 2L, null);
+        intruder.stop();
+        owner.stop();
+
+        assertThat(owner.verify().verifiedRecords()).isEqualTo(1);
+    }
+
+    @Test
+    void fullRingBufferDropsInsteadOfBlocking() {
+        AuditRingBuffer ringBuffer = new AuditRingBuffer(4);
+        for (int i = 0; i < 5; i++) {
+            ringBuffer.offer(AuditEventType.LOGIN_FAILED, (long) i, null);
+        }
+        assertThat(ringBuffer.dropped()).isEqualTo(1);
+
+        List<Long> drained = new ArrayList<>();
+        ringBuffer.drain((timestamp, type, userId, subject) -> drained.add(userId), 10);
+        assertThat(drained).containsExactly(0L, 1L, 2L, 3L);
+        assertThat(ringBuffer.offer(AuditEventType.LOGIN_FAILED, 5L, null)).isTrue();
+    }
+
+    private AuditProperties properties() {
+        AuditProperties properties = new AuditProperties();
+        properties.setDirectory(directory.toString());
+        properties.setIdleWaitMs(1);
+        return properties;
+    }
+
+    private static AuditLog start(AuditProperties properties) {
+        AuditLog auditLog = new AuditLog(properties, new SimpleMeterRegistry());
+        auditLog.start();
+        return auditLog;
+    }
+
+    private List<Path> segments() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.the_olujare.fortis.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.the_olujare.fortis.dto.task.TaskResponse;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compares the task list payload across JSON, CBOR and Smile.
+ *
+ * For each format it reports the encoded size and the median time to serialize
+ * the whole list, after a warmup long enough for the JIT to settle.
+ * Mappers are configured like the running application (see ContentNegotiationConfig).
+ *
+ * Run with: ./gradlew payloadBenchmark [-Ptasks=1000]
+ */
+
+public class PayloadFormatBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int MEASURED_ITERATIONS = 500;
+
+    public static void main(String[] args) throws Exception {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        List<TaskResponse> tasks = sampleTasks(taskCount);
+
+        System.out.printf("Task list with %d tasks%n", taskCount);
+        System.out.printf("%-6s %12s %10s %14s%n", "format", "bytes", "vs json", "median µs");
+
+        long jsonSize = run("json", mapper(null), tasks, -1);
+        run("cbor", mapper(new CBORFactory()), tasks, jsonSize);
+        run("smile", mapper(new SmileFactory()), tasks, jsonSize);
+    }
+
+    private static long run(String format, ObjectMapper mapper, List<TaskResponse> tasks, long jsonSize) throws Exception {
+        ObjectWriter writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, TaskResponse.class));
+
+        byte[] payload = writer.writeValueAsBytes(tasks);
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            payload = writer.writeValueAsBytes(tasks);
+        }
+
+        long[] timings = new long[MEASURED_ITERATIONS];
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            payload = writer.writeValueAsBytes(tasks);
+            timings[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(timings);
+
+        String ratio = jsonSize < 0 ? "-" : String.format(Locale.ROOT, "%.0f%%", 100.0 * payload.length / jsonSize);
+        System.out.printf(Locale.ROOT, "%-6s %12d %10s %14.1f%n",
+                format, payload.length, ratio, timings[MEASURED_ITERATIONS / 2] / 1_000.0);
+        return payload.length;
+    }
+
+    private static ObjectMapper mapper(JsonFactory factory) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule());
+        if (factory != null) {
+            builder.factory(factory);
+        }
+        return builder.build();
+    }
+
+    private static List<TaskResponse> sampleTasks(int count) {
+        List<TaskResponse> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(TaskResponse.builder()
+                    .id(1_000_000L + i)
+                    .userId(42L)
+                    .username("benchmark-user")
+                    .title("Task " + i)
+                    .description("Description of task " + i + " with a realistic amount of text in it")
+                    .completed(i % 3 == 0)
+                    .build());
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,180 @@
+package com.the_olujare.fortis.benchmark;
+
+import com.the_olujare.fortis.FortisApplication;
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.entity.Task;
+import com.the_olujare.fortis.reactive.ReactiveTaskServer;
+import com.the_olujare.fortis.repository.FortisUserRepository;
+import com.the_olujare.fortis.repository.TaskRepository;
+import com.the_olujare.fortis.util.JwtUtil;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * GET /api/tasks at high concurrency: servlet stack (Tomcat + JPA) vs reactive stack (Netty + R2DBC).
+ *
+ * Starts the application in-process with the reactive profile, so both stacks serve the same
+ * database, then keeps `connections` requests in flight against each port for `seconds`
+ * (after an equal warm-up) and reports throughput, latency percentiles, errors and peak JVM threads.
+ *
+ * - Tomcat's max-connections is raised to the connection count, so the servlet stack is
+ *   limited by its worker threads rather than by refused connections.
+ * - Client and server share the machine; absolute numbers are only comparable within one run.
+ * - 10k connections need ~2 file descriptors each in this process: raise `ulimit -n` first.
+ *
+ * Run with: ./gradlew reactiveBenchmark [-Pconnections=10000] [-Pseconds=30]
+ */
+
+public class ReactiveStackBenchmark {
+
+    private static final int TASKS_PER_USER = 20;
+    private static final int MAX_SAMPLES = 20_000_000;
+
+    public static void main(String[] args) {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        Duration duration = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 30);
+
+        ConfigurableApplicationContext context = SpringApplication.run(FortisApplication.class,
+                "--spring.profiles.active=reactive",
+                "--server.port=0",
+                "--fortis.reactive.port=0",
+                "--server.tomcat.max-connections=" + connections,
+                "--fortis.sql-monitor.enabled=false",
+                "--logging.level.root=WARN");
+        try {
+            String token = seedUserWithTasks(context);
+            int servletPort = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            int reactivePort = context.getBean(ReactiveTaskServer.class).getPort();
+
+            System.out.printf("GET /api/tasks, %d concurrent connections, %ds per stack%n",
+                    connections, duration.toSeconds());
+            System.out.printf("%-9s %10s %10s %10s %10s %8s %8s%n",
+                    "stack", "req/s", "p50 ms", "p99 ms", "max ms", "errors", "threads");
+
+            for (String[] target : List.of(
+                    new String[]{"servlet", String.valueOf(servletPort)},
+                    new String[]{"reactive", String.valueOf(reactivePort)})) {
+                int port = Integer.parseInt(target[1]);
+                load(target[0] + "-warmup", port, token, connections, duration);
+                load(target[0], port, token, connections, duration).print();
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    private static String seedUserWithTasks(ConfigurableApplicationContext context) {
+        FortisUser user = context.getBean(FortisUserRepository.class).save(FortisUser.builder()
+                .username("benchmark")
+                .email("benchmark@fortis.test")
+                .password("unused")
+                .enabled(true)
+                .build());
+        List<Task> tasks = new ArrayList<>(TASKS_PER_USER);
+        for (int i = 0; i < TASKS_PER_USER; i++) {
+            tasks.add(Task.builder().title("Task " + i).description("Description " + i).fortisUser(user).build());
+        }
+        context.getBean(TaskRepository.class).saveAll(tasks);
+        return context.getBean(JwtUtil.class).generateToken(user);
+    }
+
+    private static Result load(String name, int port, String token, int connections, Duration duration) {
+        ConnectionProvider provider = ConnectionProvider.builder(name)
+                .maxConnections(connections)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        HttpClient client = HttpClient.create(provider)
+                .baseUrl("http://localhost:" + port)
+                .headers(headers -> headers.set("Authorization", "Bearer " + token));
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+
+        Result result = new Result(name);
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+
+        Flux.range(0, connections)
+                .flatMap(i -> Mono.defer(() -> request(client, result))
+                        .repeat(() -> System.nanoTime() < deadline), connections)
+                .blockLast();
+
+        result.elapsedNanos = System.nanoTime() - start;
+        result.peakThreads = threads.getPeakThreadCount();
+        provider.disposeLater().block();
+        return result;
+    }
+
+    private static Mono<Integer> request(HttpClient client, Result result) {
+        long start = System.nanoTime();
+        return client.get().uri("/api/tasks")
+                .responseSingle((response, body) -> body.asByteArray().then(Mono.just(response.status().code())))
+                .doOnNext(status -> {
+                    if (status == 200) {
+                        result.record(System.nanoTime() - start);
+                    } else {
+                        result.errors.incrementAndGet();
+                    }
+                })
+                .onErrorResume(e -> {
+                    result.errors.incrementAndGet();
+                    return Mono.empty();
+                });
+    }
+
+    private static final class Result {
+        private final String name;
+        private final long[] latencies = new long[MAX_SAMPLES];
+        private final AtomicInteger count = new AtomicInteger();
+        private final AtomicLong errors = new AtomicLong();
+        private long elapsedNanos;
+        private int peakThreads;
+
+        private Result(String name) {
+            this.name = name;
+        }
+
+        private void record(long nanos) {
+            int index = count.getAndIncrement();
+            if (index < latencies.length) {
+                latencies[index] = nanos;
+            }
+        }
+
+        private void print() {
+            int samples = Math.min(count.get(), latencies.length);
+            long[] sorted = Arrays.copyOf(latencies, samples);
+            Arrays.sort(sorted);
+            System.out.printf(Locale.ROOT, "%-9s %10.0f %10.2f %10.2f %10.2f %8d %8d%n",
+                    name,
+                    count.get() / (elapsedNanos / 1e9),
+                    percentile(sorted, 0.50),
+                    percentile(sorted, 0.99),
+                    samples == 0 ? 0 : sorted[samples - 1] / 1e6,
+                    errors.get(),
+                    peakThreads);
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[(int) Math.min(sorted.length - 1, Math.round(percentile * (sorted.length - 1)))] / 1e6;
+        }
+    }
+}
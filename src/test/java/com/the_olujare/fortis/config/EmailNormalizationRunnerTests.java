@@ -0,0 +1,69 @@
+package com.the_olujare.fortis.config;
+
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.repository.FortisUserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Emails stored before normalization become reachable by the normalized lookup;
+ * rows that would collide with another account are left as they are.
+ */
+
+@SpringBootTest
+class EmailNormalizationRunnerTests {
+
+    @Autowired
+    private EmailNormalizationRunner emailNormalizationRunner;
+    @Autowired
+    private FortisUserRepository fortisUserRepository;
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Test
+    void mixedCaseEmailsAreLowerCased() {
+        String id = UUID.randomUUID().toString();
+        FortisUser legacy = save(" Legacy-" + id + "@Fortis.TEST ");
+
+        emailNormalizationRunner.run(null);
+
+        String normalized = "legacy-" + id + "@fortis.test";
+        assertThat(fortisUserRepository.findById(legacy.getId()).orElseThrow().getEmail()).isEqualTo(normalized);
+        assertThat(userDetailsService.loadUserByUsername(normalized).getUsername()).isEqualTo(normalized);
+    }
+
+    @Test
+    void collisionsAreLeftUnchanged() {
+        String id = UUID.randomUUID().toString();
+        FortisUser existing = save("taken-" + id + "@fortis.test");
+        FortisUser clashing = save("Taken-" + id + "@fortis.test");
+        FortisUser first = save("Twin-" + id + "@fortis.test");
+        FortisUser second = save("TWIN-" + id + "@fortis.test");
+
+        emailNormalizationRunner.run(null);
+
+        assertThat(emailOf(existing)).isEqualTo("taken-" + id + "@fortis.test");
+        assertThat(emailOf(clashing)).isEqualTo("Taken-" + id + "@fortis.test");
+        assertThat(emailOf(first)).isEqualTo("Twin-" + id + "@fortis.test");
+        assertThat(emailOf(second)).isEqualTo("TWIN-" + id + "@fortis.test");
+    }
+
+    private FortisUser save(String email) {
+        return fortisUserRepository.save(FortisUser.builder()
+                .username("legacy")
+                .email(email)
+                .password("unused")
+                .enabled(true)
+                .build());
+    }
+
+    private String emailOf(FortisUser user) {
+        return fortisUserRepository.findById(user.getId()).orElseThrow().getEmail();
+    }
+}
@@ -0,0 +1,130 @@
+package com.the_olujare.fortis.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.the_olujare.fortis.monitoring.SqlStatementListener;
+import com.the_olujare.fortis.monitoring.SqlStatementRecorder;
+import com.the_olujare.fortis.repository.*;
+import com.the_olujare.fortis.util.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The warm-up returns within its time budget even when a step is slow, and its
+ * scratch writes are always rolled back.
+ *
+ * The context's own runner is disabled (test config); each test drives a runner
+ * built from the context's beans.
+ */
+
+@SpringBootTest
+class JitWarmupRunnerTests {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private FortisUserRepository fortisUserRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private PasswordResetTokenRepository passwordResetTokenRepository;
+    @Autowired
+    private EmailVerificationTokenRepository emailVerificationTokenRepository;
+    @Autowired
+    private RevokedAccessTokenRepository revokedAccessTokenRepository;
+    @Autowired
+    private Environment environment;
+    @Autowired
+    private SqlStatementRecorder sqlStatementRecorder;
+
+    @Test
+    void runReturnsWithinTheTimeBudget() {
+        JitWarmupRunner runner = runner(new SlowPasswordEncoder(), 200);
+        ReflectionTestUtils.setField(runner, "passwordIterations", 1_000);
+
+        long start = System.nanoTime();
+        runner.run(new DefaultApplicationArguments());
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // 1,000 hashes of 50 ms would take 50 s
+        assertThat(elapsedMs).isBetween(200L, 2_000L);
+    }
+
+    @Test
+    void scratchWritesAreRolledBack() {
+        List<String> statements = new CopyOnWriteArrayList<>();
+        SqlStatementListener listener = (sql, elapsedNanos, rows) -> statements.add(sql.toLowerCase(Locale.ROOT));
+        sqlStatementRecorder.addListener(listener);
+        try {
+            runner(passwordEncoder, 30_000).run(new DefaultApplicationArguments());
+        } finally {
+            sqlStatementRecorder.removeListener(listener);
+        }
+
+        // The synthetic user and task were written, then rolled back
+        assertThat(statements).anyMatch(sql -> sql.startsWith("insert into fortis_user"));
+        assertThat(statements).anyMatch(sql -> sql.startsWith("insert into task"));
+        assertThat(fortisUserRepository.findAll()).noneMatch(user -> user.getEmail().endsWith("@fortis.invalid"));
+        assertThat(taskRepository.findAll()).noneMatch(task -> "warmup".equals(task.getTitle()));
+    }
+
+    @Test
+    void disabledRunnerDoesNothing() {
+        JitWarmupRunner runner = runner(new SlowPasswordEncoder(), 30_000);
+        ReflectionTestUtils.setField(runner, "enabled", false);
+
+        long start = System.nanoTime();
+        runner.run(new DefaultApplicationArguments());
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(50);
+    }
+
+    private JitWarmupRunner runner(PasswordEncoder encoder, long timeBudgetMs) {
+        JitWarmupRunner runner = new JitWarmupRunner(jwtUtil, encoder, objectMapper, transactionManager,
+                fortisUserRepository, taskRepository, refreshTokenRepository, passwordResetTokenRepository,
+                emailVerificationTokenRepository, revokedAccessTokenRepository, environment);
+        ReflectionTestUtils.setField(runner, "enabled", true);
+        ReflectionTestUtils.setField(runner, "iterations", 20);
+        ReflectionTestUtils.setField(runner, "passwordIterations", 1);
+        ReflectionTestUtils.setField(runner, "timeBudgetMs", timeBudgetMs);
+        return runner;
+    }
+
+    private static final class SlowPasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "{slow}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals(encode(rawPassword));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.the_olujare.fortis.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.repository.FortisUserRepository;
+import com.the_olujare.fortis.service.BatchService;
+import com.the_olujare.fortis.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Parallel batch reads never wait on the readers pool without bound: a read the queue
+ * cannot take, or one still queued at read-timeout-ms, is answered 503 without running.
+ *
+ * The single reader thread is held busy by the test, so every read of the batch queues.
+ */
+
+@SpringBootTest(properties = {
+        "fortis.batch.reader-threads=1",
+        "fortis.batch.reader-queue=2",
+        "fortis.batch.read-timeout-ms=300"
+})
+@AutoConfigureMockMvc
+class BatchReadLimitsTests {
+
+    private static final String READ = "{\"method\":\"GET\",\"path\":\"/api/user/profile\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private FortisUserRepository fortisUserRepository;
+    @Autowired
+    private JwtUtil jwtUtil;
+    @Autowired
+    private BatchService batchService;
+
+    private FortisUser user;
+
+    @BeforeEach
+    void createUser() {
+        user = fortisUserRepository.save(FortisUser.builder()
+                .username("batch-limits")
+                .email("batch-limits-" + UUID.randomUUID() + "@fortis.test")
+                .password("unused")
+                .enabled(true)
+                .build());
+    }
+
+    @Test
+    void readsThatNeverRunAreAnswered503() throws Exception {
+        ExecutorService readers = (ExecutorService) ReflectionTestUtils.getField(batchService, "readers");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        readers.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        try {
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            long start = System.nanoTime();
+            // Two reads fill the queue and time out there, the third is rejected outright
+            assertThat(statuses(READ, READ, READ)).containsExactly(503, 503, 503);
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5_000);
+        } finally {
+            release.countDown();
+        }
+
+        // Withdrawn reads gave their queue slots back
+        assertThat(statuses(READ, READ)).containsExactly(200, 200);
+    }
+
+    private List<Integer> statuses(String... requests) throws Exception {
+        String body = mockMvc.perform(post("/api/batch")
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken(user))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"requests\":[" + String.join(",", requests) + "]}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode responses = objectMapper.readTree(body).get("responses");
+        List<Integer> statuses = new ArrayList<>();
+        responses.forEach(response -> statuses.add(response.get("status").asInt()));
+        return statuses;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.the_olujare.fortis.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.repository.FortisUserRepository;
+import com.the_olujare.fortis.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * POST /api/batch runs sub-requests against the regular controllers, in order,
+ * with one status per sub-request, and optionally in one transaction.
+ */
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BatchTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private FortisUserRepository fortisUserRepository;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private FortisUser user;
+
+    @BeforeEach
+    void createUser() {
+        user = fortisUserRepository.save(FortisUser.builder()
+                .username("batch")
+                .email("batch-" + UUID.randomUUID() + "@fortis.test")
+                .password("unused")
+                .enabled(true)
+                .build());
+    }
+
+    @Test
+    void runsSubRequestsInOrderWithTheirOwnStatus() throws Exception {
+        long id = createTask("Launch");
+
+        JsonNode batch = batch(false,
+                "{\"id\":\"toggle\",\"method\":\"PATCH\",\"path\":\"/api/tasks/" + id + "/toggle\"}",
+                "{\"id\":\"list\",\"method\":\"GET\",\"path\":\"/api/tasks?fields=id,completed\"}",
+                "{\"id\":\"task\",\"method\":\"GET\",\"path\":\"/api/tasks/" + id + "\"}",
+                "{\"id\":\"profile\",\"method\":\"GET\",\"path\":\"/api/user/profile\"}",
+                "{\"id\":\"missing\",\"method\":\"DELETE\",\"path\":\"/api/tasks/999999999999\"}");
+
+        JsonNode responses = batch.get("responses");
+        assertThat(ids(responses)).containsExactly("toggle", "list", "task", "profile", "missing");
+        assertThat(statuses(responses)).containsExactly(200, 200, 200, 200, 404);
+
+        // The reads after the toggle see it, and keep their own query parameters
+        assertThat(responses.get(1).get("body").get(0).get("completed").asBoolean()).isTrue();
+        assertThat(responses.get(1).get("body").get(0).has("title")).isFalse();
+        assertThat(responses.get(2).get("body").get("title").asText()).isEqualTo("Launch");
+        assertThat(responses.get(3).get("body").get("username").asText()).isEqualTo("batch");
+    }
+
+    @Test
+    void atomicBatchRollsBackOnFirstFailure() throws Exception {
+        JsonNode batch = batch(true,
+                "{\"method\":\"POST\",\"path\":\"/api/tasks\",\"body\":{\"title\":\"Rolled back\",\"description\":\"Task\"}}",
+                "{\"method\":\"PATCH\",\"path\":\"/api/tasks/999999999999/toggle\"}",
+                "{\"method\":\"GET\",\"path\":\"/api/tasks\"}");
+
+        assertThat(statuses(batch.get("responses"))).containsExactly(200, 404, 424);
+        assertThat(batch.get("rolledBack").asBoolean()).isTrue();
+        assertThat(listTasks()).isEmpty();
+    }
+
+    @Test
+    void atomicBatchCommitsWhenEverySubRequestSucceeds() throws Exception {
+        JsonNode batch = batch(true,
+                "{\"method\":\"POST\",\"path\":\"/api/tasks\",\"body\":{\"title\":\"First\",\"description\":\"Task\"}}",
+                "{\"method\":\"POST\",\"path\":\"/api/tasks\",\"body\":{\"title\":\"Second\",\"description\":\"Task\"}}");
+
+        assertThat(statuses(batch.get("responses"))).containsExactly(200, 200);
+        assertThat(batch.get("rolledBack").asBoolean()).isFalse();
+        assertThat(listTasks()).hasSize(2);
+    }
+
+    @Test
+    void rejectsEndpointsOutsideTasksAndUser() throws Exception {
+        for (String path : List.of("/api/admin/sql-stats", "/api/batch", "/api/tasks/stream",
+                "/api/tasks/1/attachments", "/api/tasks/../admin/sql-stats")) {
+            perform(status().isBadRequest(), false, "{\"method\":\"GET\",\"path\":\"" + path + "\"}");
+        }
+    }
+
+    @Test
+    void rejectsIdempotencyKeyInAtomicBatch() throws Exception {
+        perform(status().isBadRequest(), true,
+                "{\"method\":\"PATCH\",\"path\":\"/api/tasks/1/toggle\",\"headers\":{\"Idempotency-Key\":\"k\"}}");
+    }
+
+    @Test
+    void requiresAuthentication() throws Exception {
+        mockMvc.perform(post("/api/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"requests\":[{\"method\":\"GET\",\"path\":\"/api/tasks\"}]}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private JsonNode batch(boolean atomic, String... requests) throws Exception {
+        return objectMapper.readTree(perform(status().isOk(), atomic, requests));
+    }
+
+    private String perform(ResultMatcher expected, boolean atomic, String... requests) throws Exception {
+        return mockMvc.perform(authenticated(post("/api/batch"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"atomic\":" + atomic + ",\"requests\":[" + String.join(",", requests) + "]}"))
+                .andExpect(expected)
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private static List<String> ids(JsonNode responses) {
+        List<String> ids = new ArrayList<>();
+        responses.forEach(response -> ids.add(response.get("id").asText()));
+        return ids;
+    }
+
+    private static List<Integer> statuses(JsonNode responses) {
+        List<Integer> statuses = new ArrayList<>();
+        responses.forEach(response -> statuses.add(response.get("status").asInt()));
+        return statuses;
+    }
+
+    private JsonNode listTasks() throws Exception {
+        String body = mockMvc.perform(authenticated(get("/api/tasks")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private long createTask(String title) throws Exception {
+        String body = mockMvc.perform(authenticated(post("/api/tasks"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"" + title + "\",\"description\":\"Task\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request) {
+        return request.header("Authorization", "Bearer " + jwtUtil.generateToken(user));
+    }
+}
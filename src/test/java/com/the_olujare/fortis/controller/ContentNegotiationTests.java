@@ -0,0 +1,123 @@
+package com.the_olujare.fortis.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.entity.Task;
+import com.the_olujare.fortis.repository.FortisUserRepository;
+import com.the_olujare.fortis.repository.TaskRepository;
+import com.the_olujare.fortis.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * CBOR and Smile are negotiated through Accept / Content-Type
+ * and carry exactly the same document as the JSON response.
+ */
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ContentNegotiationTests {
+
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final String PASSWORD = "correct-horse-battery";
+    private static final AtomicInteger CLIENT_IP = new AtomicInteger(1);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private FortisUserRepository fortisUserRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final CBORMapper cborMapper = new CBORMapper();
+    private final SmileMapper smileMapper = new SmileMapper();
+
+    private FortisUser user;
+
+    @BeforeEach
+    void createUserWithTasks() {
+        user = fortisUserRepository.save(FortisUser.builder()
+                .username("negotiation")
+                .email("negotiation-" + UUID.randomUUID() + "@fortis.test")
+                .password(passwordEncoder.encode(PASSWORD))
+                .enabled(true)
+                .build());
+        taskRepository.save(Task.builder().title("First").description("One").fortisUser(user).build());
+        taskRepository.save(Task.builder().title("Second").description(null).completed(true).fortisUser(user).build());
+    }
+
+    @Test
+    void taskListIsTheSameDocumentInEveryFormat() throws Exception {
+        JsonNode json = jsonMapper.readTree(fetchTasks(MediaType.APPLICATION_JSON));
+        JsonNode cbor = cborMapper.readTree(fetchTasks(CBOR));
+        JsonNode smile = smileMapper.readTree(fetchTasks(SMILE));
+
+        assertThat(json.size()).isEqualTo(2);
+        assertThat(json.get(0).fieldNames()).toIterable()
+                .containsExactly("id", "userId", "title", "username", "description", "completed");
+        assertThat(json.findValues("description")).anyMatch(JsonNode::isNull);
+        assertThat(cbor).isEqualTo(json);
+        assertThat(smile).isEqualTo(json);
+    }
+
+    @Test
+    void loginAcceptsAndReturnsCbor() throws Exception {
+        byte[] body = cborMapper.writeValueAsBytes(Map.of("email", user.getEmail(), "password", PASSWORD));
+
+        byte[] response = mockMvc.perform(fromNewClient(post("/api/auth/login"))
+                        .contentType(CBOR)
+                        .accept(CBOR)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode auth = cborMapper.readTree(response);
+        assertThat(auth.get("email").asText()).isEqualTo(user.getEmail());
+        assertThat(auth.get("token").asText()).isNotBlank();
+    }
+
+    private byte[] fetchTasks(MediaType mediaType) throws Exception {
+        return mockMvc.perform(fromNewClient(get("/api/tasks"))
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken(user))
+                        .accept(mediaType))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(mediaType))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    // Every request comes from its own IP so the per-IP rate limiter never interferes.
+    private MockHttpServletRequestBuilder fromNewClient(MockHttpServletRequestBuilder request) {
+        int ip = CLIENT_IP.getAndIncrement();
+        return request.with(mockRequest -> {
+            mockRequest.setRemoteAddr("10.1." + (ip / 250) + "." + (ip % 250 + 1));
+            return mockRequest;
+        });
+    }
+}
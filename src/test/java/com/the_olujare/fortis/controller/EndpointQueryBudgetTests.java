@@ -0,0 +1,308 @@
+package com.the_olujare.fortis.controller;
+
+import com.the_olujare.fortis.entity.EmailVerificationToken;
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.entity.PasswordResetToken;
+import com.the_olujare.fortis.entity.Task;
+import com.the_olujare.fortis.repository.EmailVerificationTokenRepository;
+import com.the_olujare.fortis.repository.FortisUserRepository;
+import com.the_olujare.fortis.repository.PasswordResetTokenRepository;
+import com.the_olujare.fortis.repository.TaskRepository;
+import com.the_olujare.fortis.service.RefreshTokenService;
+import com.the_olujare.fortis.support.QueryBudget;
+import com.the_olujare.fortis.support.QueryBudgetExtension;
+import com.the_olujare.fortis.util.JwtUtil;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.the_olujare.fortis.support.SqlStatementCounter.notCounted;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets for every endpoint of FortisTaskController, AuthController and UserController.
+ *
+ * Each budget counts the whole request, including the JWT filter's user lookup.
+ * The comment above each budget names the statements it allows, so a changed
+ * number always says which statement was added or removed.
+ * A failure lists every executed statement, so N+1 regressions are easy to spot.
+ */
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ExtendWith(QueryBudgetExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EndpointQueryBudgetTests {
+
+    private static final String PASSWORD = "correct-horse-battery";
+    private static final int TASK_COUNT = 1_000;
+    private static final AtomicInteger CLIENT_IP = new AtomicInteger(1);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private FortisUserRepository fortisUserRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private PasswordResetTokenRepository passwordResetTokenRepository;
+    @Autowired
+    private EmailVerificationTokenRepository emailVerificationTokenRepository;
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private FortisUser owner;
+    private FortisUser user;
+    private Task task;
+
+    @BeforeAll
+    void createOwnerWithManyTasks() {
+        owner = createUser();
+        List<Task> tasks = new ArrayList<>(TASK_COUNT);
+        for (int i = 0; i < TASK_COUNT; i++) {
+            tasks.add(Task.builder().title("Task " + i).description("Description " + i).fortisUser(owner).build());
+        }
+        taskRepository.saveAll(tasks);
+    }
+
+    @BeforeEach
+    void createUserWithOneTask() {
+        user = createUser();
+        task = taskRepository.save(Task.builder().title("Title").description("Description").fortisUser(user).build());
+    }
+
+    // ---- FortisTaskController ----
+
+    // user, tasks
+    @Test
+    @QueryBudget(2)
+    void listTasksDoesNotScaleWithTaskCount() throws Exception {
+        mockMvc.perform(authenticated(get("/api/tasks"), owner))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(TASK_COUNT));
+    }
+
+    // user, projected tasks
+    @Test
+    @QueryBudget(2)
+    void sparseTaskListDoesNotScaleWithTaskCount() throws Exception {
+        mockMvc.perform(authenticated(get("/api/tasks").param("fields", "id,title,completed"), owner))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(TASK_COUNT));
+    }
+
+    // user, change_seq merge, insert
+    @Test
+    @QueryBudget(3)
+    void createTask() throws Exception {
+        mockMvc.perform(authenticated(post("/api/tasks"), user)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"New\",\"description\":\"Task\"}"))
+                .andExpect(status().isOk());
+    }
+
+    // user, task
+    @Test
+    @QueryBudget(2)
+    void getTask() throws Exception {
+        mockMvc.perform(authenticated(get("/api/tasks/{id}", task.getId()), user))
+                .andExpect(status().isOk());
+    }
+
+    // user, task, change_seq merge, update
+    @Test
+    @QueryBudget(4)
+    void updateTask() throws Exception {
+        mockMvc.perform(authenticated(put("/api/tasks/{id}", task.getId()), user)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Updated\",\"description\":\"Task\"}"))
+                .andExpect(status().isOk());
+    }
+
+    // user, task, change_seq merge, tombstone insert, delete
+    @Test
+    @QueryBudget(5)
+    void deleteTask() throws Exception {
+        mockMvc.perform(authenticated(delete("/api/tasks/{id}", task.getId()), user))
+                .andExpect(status().isNoContent());
+    }
+
+    // user, task, change_seq merge, update
+    @Test
+    @QueryBudget(4)
+    void toggleTask() throws Exception {
+        mockMvc.perform(authenticated(patch("/api/tasks/{id}/toggle", task.getId()), user))
+                .andExpect(status().isOk());
+    }
+
+    // user, sync state, first page of tasks
+    @Test
+    @QueryBudget(3)
+    void taskSnapshotDoesNotScaleWithTaskCount() throws Exception {
+        mockMvc.perform(authenticated(get("/api/tasks/changes"), owner))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed.length()").value(500))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    // user, sync state, changed tasks, tombstones
+    @Test
+    @QueryBudget(4)
+    void taskChangesSinceToken() throws Exception {
+        mockMvc.perform(authenticated(get("/api/tasks/changes").param("since", "0"), user))
+                .andExpect(status().isOk());
+    }
+
+    // user, newest segment
+    @Test
+    @QueryBudget(2)
+    void emptyTaskArchive() throws Exception {
+        mockMvc.perform(authenticated(get("/api/tasks/archive"), user))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    // ---- AuthController ----
+
+    // existsByEmail, user insert, verification token insert
+    @Test
+    @QueryBudget(3)
+    void register() throws Exception {
+        mockMvc.perform(fromNewClient(post("/api/auth/register"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"new\",\"email\":\"" + uniqueEmail() + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .andExpect(status().isOk());
+    }
+
+    // user, refresh token revoke-all, refresh token insert
+    @Test
+    @QueryBudget(3)
+    void login() throws Exception {
+        mockMvc.perform(fromNewClient(post("/api/auth/login"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + user.getEmail() + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .andExpect(status().isOk());
+    }
+
+    // refresh token with user, claim update, refresh token insert
+    @Test
+    @QueryBudget(3)
+    void refresh() throws Exception {
+        String refreshToken = notCounted(() -> refreshTokenService.issueForLogin(user));
+
+        mockMvc.perform(fromNewClient(post("/api/auth/refresh"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + refreshToken + "\"}"))
+                .andExpect(status().isOk());
+    }
+
+    // user, revoked access token insert, refresh token, family revoke
+    @Test
+    @QueryBudget(4)
+    void logout() throws Exception {
+        String refreshToken = notCounted(() -> refreshTokenService.issueForLogin(user));
+
+        mockMvc.perform(authenticated(post("/api/auth/logout"), user)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + refreshToken + "\"}"))
+                .andExpect(status().isOk());
+    }
+
+    // user, reset token insert
+    @Test
+    @QueryBudget(2)
+    void forgotPassword() throws Exception {
+        mockMvc.perform(fromNewClient(post("/api/auth/forgot-password"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + user.getEmail() + "\"}"))
+                .andExpect(status().isOk());
+    }
+
+    // reset token, user, user update, token update
+    @Test
+    @QueryBudget(4)
+    void resetPassword() throws Exception {
+        String token = notCounted(() -> passwordResetTokenRepository.save(PasswordResetToken.builder()
+                .token(UUID.randomUUID().toString())
+                .fortisUser(user)
+                .expiryDate(LocalDateTime.now().plusHours(1))
+                .build()).getToken());
+
+        mockMvc.perform(fromNewClient(post("/api/auth/reset-password"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"token\":\"" + token + "\",\"newPassword\":\"" + PASSWORD + "\"}"))
+                .andExpect(status().isOk());
+    }
+
+    // verification token, user, user update, token update
+    @Test
+    @QueryBudget(4)
+    void verifyEmail() throws Exception {
+        String token = notCounted(() -> emailVerificationTokenRepository.save(EmailVerificationToken.builder()
+                .token(UUID.randomUUID().toString())
+                .fortisUser(user)
+                .expiryDate(LocalDateTime.now().plusHours(24))
+                .build()).getToken());
+
+        mockMvc.perform(fromNewClient(get("/api/auth/verify").param("token", token)))
+                .andExpect(status().isOk());
+    }
+
+    // ---- UserController ----
+
+    // user
+    @Test
+    @QueryBudget(1)
+    void profile() throws Exception {
+        mockMvc.perform(authenticated(get("/api/user/profile"), user))
+                .andExpect(status().isOk());
+    }
+
+    private FortisUser createUser() {
+        return fortisUserRepository.save(FortisUser.builder()
+                .username("budget")
+                .email(uniqueEmail())
+                .password(passwordEncoder.encode(PASSWORD))
+                .enabled(true)
+                .build());
+    }
+
+    private MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request, FortisUser fortisUser) {
+        String token = jwtUtil.generateToken(fortisUser);
+        return fromNewClient(request).header("Authorization", "Bearer " + token);
+    }
+
+    // Every request comes from its own IP so the per-IP rate limiter never interferes.
+    private MockHttpServletRequestBuilder fromNewClient(MockHttpServletRequestBuilder request) {
+        int ip = CLIENT_IP.getAndIncrement();
+        return request.with(mockRequest -> {
+            mockRequest.setRemoteAddr("10.0." + (ip / 250) + "." + (ip % 250 + 1));
+            return mockRequest;
+        });
+    }
+
+    private static String uniqueEmail() {
+        return "budget-" + UUID.randomUUID() + "@fortis.test";
+    }
+}
@@ -0,0 +1,136 @@
+package com.the_olujare.fortis.controller;
+
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.exception.FortisException;
+import com.the_olujare.fortis.exception.ResourceNotFoundException;
+import com.the_olujare.fortis.repository.FortisUserRepository;
+import com.the_olujare.fortis.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Expected failures map to 401 / 403 / 404 / 429 with the usual
+ * {"error", "status", "timestamp"} body, and never capture a stack trace.
+ */
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ErrorResponseTests {
+
+    private static final String PASSWORD = "correct-horse-battery";
+    private static final AtomicInteger CLIENT_IP = new AtomicInteger(1);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private FortisUserRepository fortisUserRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private FortisUser user;
+
+    @BeforeEach
+    void createUser() {
+        user = fortisUserRepository.save(FortisUser.builder()
+                .username("errors")
+                .email("errors-" + UUID.randomUUID() + "@fortis.test")
+                .password(passwordEncoder.encode(PASSWORD))
+                .enabled(true)
+                .build());
+    }
+
+    @Test
+    void wrongPasswordIsUnauthorized() throws Exception {
+        mockMvc.perform(fromNewClient(post("/api/auth/login"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + user.getEmail() + "\",\"password\":\"wrong\"}"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.error").value("Invalid email or password"))
+                .andExpect(jsonPath("$.status").value(401))
+                .andExpect(jsonPath("$.timestamp").isNotEmpty());
+    }
+
+    @Test
+    void missingOrInvalidTokenIsUnauthorized() throws Exception {
+        mockMvc.perform(fromNewClient(get("/api/tasks")))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.status").value(401));
+
+        mockMvc.perform(fromNewClient(get("/api/tasks")).header("Authorization", "Bearer not-a-jwt"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void adminEndpointWithoutRoleIsForbidden() throws Exception {
+        mockMvc.perform(authenticated(get("/api/admin/sql-stats")))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.status").value(403));
+    }
+
+    @Test
+    void unknownTaskIsNotFound() throws Exception {
+        mockMvc.perform(authenticated(get("/api/tasks/{id}", Long.MAX_VALUE)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Task not found or access denied"));
+    }
+
+    @Test
+    void rateLimitedClientGetsTooManyRequests() throws Exception {
+        int ip = CLIENT_IP.getAndIncrement();
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(fromClient(post("/api/auth/refresh"), ip)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"refreshToken\":\"unknown\"}"))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        mockMvc.perform(fromClient(post("/api/auth/refresh"), ip)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"unknown\"}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.status").value(429));
+    }
+
+    @Test
+    void exceptionsAreStacklessAndEscapeTheirMessage() {
+        FortisException exception = new ResourceNotFoundException("Quote \" and backslash \\");
+
+        assertThat(exception.getStackTrace()).isEmpty();
+        assertThat(new String(exception.responseBody()))
+                .startsWith("{\"error\":\"Quote \\\" and backslash \\\\\",\"status\":404,\"timestamp\":\"");
+    }
+
+    private MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request) {
+        return fromNewClient(request).header("Authorization", "Bearer " + jwtUtil.generateToken(user));
+    }
+
+    // Every request comes from its own IP so the per-IP rate limiter never interferes.
+    private MockHttpServletRequestBuilder fromNewClient(MockHttpServletRequestBuilder request) {
+        return fromClient(request, CLIENT_IP.getAndIncrement());
+    }
+
+    private MockHttpServletRequestBuilder fromClient(MockHttpServletRequestBuilder request, int ip) {
+        return request.with(mockRequest -> {
+            mockRequest.setRemoteAddr("10.2." + (ip / 250) + "." + (ip % 250 + 1));
+            return mockRequest;
+        });
+    }
+}
@@ -0,0 +1,202 @@
+package com.the_olujare.fortis.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.repository.FortisUserRepository;
+import com.the_olujare.fortis.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Retries carrying the same Idempotency-Key replay the first response instead of
+ * repeating the change, also when they arrive while the first is still running.
+ */
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class IdempotencyTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private FortisUserRepository fortisUserRepository;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private FortisUser user;
+
+    @BeforeEach
+    void createUser() {
+        user = createUser("idempotency");
+    }
+
+    @Test
+    void retriedCreateReplaysTheFirstResponse() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        MockHttpServletResponse first = createTask(user, key, "Buy milk");
+        MockHttpServletResponse retry = createTask(user, key, "Buy milk");
+
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(first.getHeader("Idempotent-Replayed")).isNull();
+        assertThat(retry.getStatus()).isEqualTo(200);
+        assertThat(retry.getHeader("Idempotent-Replayed")).isEqualTo("true");
+        assertThat(taskId(retry)).isEqualTo(taskId(first));
+        assertThat(taskCount(user)).isEqualTo(1);
+    }
+
+    @Test
+    void retriedToggleIsAppliedOnce() throws Exception {
+        long id = taskId(createTask(user, null, "Toggle me"));
+        String key = UUID.randomUUID().toString();
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(authenticated(user, patch("/api/tasks/{id}/toggle", id)).header("Idempotency-Key", key))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.completed").value(true));
+        }
+
+        mockMvc.perform(authenticated(user, get("/api/tasks/{id}", id)))
+                .andExpect(jsonPath("$.completed").value(true));
+    }
+
+    @Test
+    void concurrentDuplicatesRunOnce() throws Exception {
+        String key = UUID.randomUUID().toString();
+        int requests = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        try {
+            List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                responses.add(executor.submit(() -> {
+                    start.await();
+                    return createTask(user, key, "Only once");
+                }));
+            }
+            start.countDown();
+
+            List<Long> ids = new ArrayList<>();
+            for (Future<MockHttpServletResponse> response : responses) {
+                assertThat(response.get().getStatus()).isEqualTo(200);
+                ids.add(taskId(response.get()));
+            }
+            assertThat(ids).containsOnly(ids.get(0));
+            assertThat(taskCount(user)).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void reusingAKeyForADifferentRequestIsRejected() throws Exception {
+        String key = UUID.randomUUID().toString();
+        createTask(user, key, "Original");
+
+        assertThat(createTask(user, key, "Something else").getStatus()).isEqualTo(400);
+        assertThat(taskCount(user)).isEqualTo(1);
+    }
+
+    @Test
+    void fieldsAreNotConfusedAcrossBoundaries() throws Exception {
+        String key = UUID.randomUUID().toString();
+        assertThat(createTask(user, key, "a\nb", "c").getStatus()).isEqualTo(200);
+        assertThat(createTask(user, key, "a", "b\nc").getStatus()).isEqualTo(400);
+
+        String nullKey = UUID.randomUUID().toString();
+        assertThat(createTask(user, nullKey, "Title", null).getStatus()).isEqualTo(200);
+        assertThat(createTask(user, nullKey, "Title", "null").getStatus()).isEqualTo(400);
+        assertThat(taskCount(user)).isEqualTo(2);
+    }
+
+    @Test
+    void keysAreScopedPerUser() throws Exception {
+        FortisUser other = createUser("idempotency-other");
+        String key = UUID.randomUUID().toString();
+
+        long mine = taskId(createTask(user, key, "Same key"));
+        MockHttpServletResponse theirs = createTask(other, key, "Same key");
+
+        assertThat(theirs.getHeader("Idempotent-Replayed")).isNull();
+        assertThat(taskId(theirs)).isNotEqualTo(mine);
+        assertThat(taskCount(other)).isEqualTo(1);
+    }
+
+    @Test
+    void failedRequestIsNotStored() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        // The retry runs again (404 again) instead of replaying or waiting on a stuck key
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(authenticated(user, patch("/api/tasks/{id}/toggle", Long.MAX_VALUE))
+                            .header("Idempotency-Key", key))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    private FortisUser createUser(String username) {
+        return fortisUserRepository.save(FortisUser.builder()
+                .username(username)
+                .email(username + "-" + UUID.randomUUID() + "@fortis.test")
+                .password("unused")
+                .enabled(true)
+                .build());
+    }
+
+    private MockHttpServletResponse createTask(FortisUser owner, String key, String title) throws Exception {
+        return createTask(owner, key, title, "Task");
+    }
+
+    private MockHttpServletResponse createTask(FortisUser owner, String key, String title, String description)
+            throws Exception {
+        Map<String, String> body = new HashMap<>();
+        body.put("title", title);
+        body.put("description", description);
+        MockHttpServletRequestBuilder request = authenticated(owner, post("/api/tasks"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body));
+        if (key != null) {
+            request.header("Idempotency-Key", key);
+        }
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+
+    private long taskId(MockHttpServletResponse response) throws Exception {
+        return objectMapper.readTree(response.getContentAsString()).get("id").asLong();
+    }
+
+    private int taskCount(FortisUser owner) throws Exception {
+        String body = mockMvc.perform(authenticated(owner, get("/api/tasks")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).size();
+    }
+
+    private MockHttpServletRequestBuilder authenticated(FortisUser owner, MockHttpServletRequestBuilder request) {
+        return request.header("Authorization", "Bearer " + jwtUtil.generateToken(owner));
+    }
+}
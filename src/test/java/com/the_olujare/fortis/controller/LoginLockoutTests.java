@@ -0,0 +1,96 @@
+package com.the_olujare.fortis.controller;
+
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.repository.FortisUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A locked account is rejected with 429 before any password hash is computed
+ * (no "hash" entry in Server-Timing), even with the right password, and the lock
+ * is persisted on the user row.
+ */
+
+@SpringBootTest(properties = {
+        "fortis.server-timing.enabled=true",
+        "fortis.login-lockout.max-failures=3"
+})
+@AutoConfigureMockMvc
+class LoginLockoutTests {
+
+    private static final String PASSWORD = "correct-horse-battery";
+    private static final AtomicInteger CLIENT_IP = new AtomicInteger(1);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private FortisUserRepository fortisUserRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private FortisUser user;
+
+    @BeforeEach
+    void createUser() {
+        user = fortisUserRepository.save(FortisUser.builder()
+                .username("lockout")
+                .email("lockout-" + UUID.randomUUID() + "@fortis.test")
+                .password(passwordEncoder.encode(PASSWORD))
+                .enabled(true)
+                .build());
+    }
+
+    @Test
+    void lockedAccountIsRejectedBeforePasswordHashing() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            login(user.getEmail(), "wrong-password").andExpect(status().isUnauthorized());
+        }
+
+        String serverTiming = login(user.getEmail(), PASSWORD)
+                .andExpect(status().isTooManyRequests())
+                .andReturn().getResponse().getHeader("Server-Timing");
+
+        assertThat(serverTiming).contains("total;dur=").doesNotContain("hash;dur=");
+        assertThat(fortisUserRepository.findById(user.getId()).orElseThrow().getLockedUntil()).isNotNull();
+    }
+
+    @Test
+    void emailCaseDoesNotMatterForLoginOrLockout() throws Exception {
+        String upperCase = user.getEmail().toUpperCase(Locale.ROOT);
+
+        login(upperCase, PASSWORD).andExpect(status().isOk());
+        for (int i = 0; i < 3; i++) {
+            login(upperCase, "wrong-password").andExpect(status().isUnauthorized());
+        }
+
+        login(user.getEmail(), PASSWORD).andExpect(status().isTooManyRequests());
+        assertThat(fortisUserRepository.findById(user.getId()).orElseThrow().getLockedUntil()).isNotNull();
+    }
+
+    // Every request comes from its own IP so the per-IP rate limiter never interferes.
+    private ResultActions login(String email, String password) throws Exception {
+        int ip = CLIENT_IP.getAndIncrement();
+        return mockMvc.perform(post("/api/auth/login")
+                .with(request -> {
+                    request.setRemoteAddr("10.4." + (ip / 250) + "." + (ip % 250 + 1));
+                    return request;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}"));
+    }
+}
@@ -0,0 +1,150 @@
+package com.the_olujare.fortis.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.entity.RefreshToken;
+import com.the_olujare.fortis.repository.FortisUserRepository;
+import com.the_olujare.fortis.repository.RefreshTokenRepository;
+import com.the_olujare.fortis.service.RefreshTokenService;
+import com.the_olujare.fortis.util.TokenHashUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Refresh tokens are stored hashed, rotate on every use, and a replayed token
+ * revokes its whole rotation family, even though the replayed request itself fails.
+ */
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RefreshTokenTests {
+
+    private static final AtomicInteger CLIENT_IP = new AtomicInteger(1);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private FortisUserRepository fortisUserRepository;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    private FortisUser user;
+
+    @BeforeEach
+    void createUser() {
+        user = fortisUserRepository.save(FortisUser.builder()
+                .username("refresh")
+                .email("refresh-" + UUID.randomUUID() + "@fortis.test")
+                .password("unused")
+                .enabled(true)
+                .build());
+    }
+
+    @Test
+    void onlyTheHashIsStored() {
+        String rawToken = refreshTokenService.issueForLogin(user);
+
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(TokenHashUtil.sha256(rawToken)).orElseThrow();
+        assertThat(stored.getTokenHash()).hasSize(64).isNotEqualTo(rawToken);
+        assertThat(refreshTokenRepository.findByTokenHash(rawToken)).isEmpty();
+    }
+
+    @Test
+    void refreshRotatesTheToken() throws Exception {
+        String first = refreshTokenService.issueForLogin(user);
+
+        String second = refresh(first, status().isOk());
+
+        assertThat(second).isNotEqualTo(first);
+        RefreshToken retired = stored(first);
+        RefreshToken current = stored(second);
+        assertThat(retired.isRevoked()).isTrue();
+        assertThat(current.isRevoked()).isFalse();
+        assertThat(current.getFamilyId()).isEqualTo(retired.getFamilyId());
+    }
+
+    @Test
+    void replayingARotatedTokenRevokesTheFamily() throws Exception {
+        String first = refreshTokenService.issueForLogin(user);
+        String second = refresh(first, status().isOk());
+
+        refresh(first, status().isUnauthorized());
+
+        // The replayed request rolled back; the family revocation ran in its own transaction
+        assertThat(stored(second).isRevoked()).isTrue();
+        refresh(second, status().isUnauthorized());
+    }
+
+    @Test
+    void replayingAnExpiredRotatedTokenStillRevokesTheFamily() throws Exception {
+        String first = refreshTokenService.issueForLogin(user);
+        String second = refresh(first, status().isOk());
+        RefreshToken retired = stored(first);
+        retired.setExpiryDate(Instant.now().minusSeconds(60));
+        refreshTokenRepository.save(retired);
+
+        refresh(first, status().isUnauthorized());
+
+        assertThat(stored(second).isRevoked()).isTrue();
+    }
+
+    @Test
+    void expiredTokenIsRejectedWithoutRevokingTheFamily() throws Exception {
+        String first = refreshTokenService.issueForLogin(user);
+        RefreshToken expired = stored(first);
+        String sibling = refreshTokenService.createRefreshToken(user, expired.getFamilyId());
+        expired.setExpiryDate(Instant.now().minusSeconds(60));
+        refreshTokenRepository.save(expired);
+
+        refresh(first, status().isUnauthorized());
+
+        assertThat(stored(sibling).isRevoked()).isFalse();
+    }
+
+    @Test
+    void loginStartsANewFamilyAndRevokesTheOldOne() {
+        String first = refreshTokenService.issueForLogin(user);
+        String second = refreshTokenService.issueForLogin(user);
+
+        assertThat(stored(first).isRevoked()).isTrue();
+        assertThat(stored(second).isRevoked()).isFalse();
+        assertThat(stored(second).getFamilyId()).isNotEqualTo(stored(first).getFamilyId());
+    }
+
+    private RefreshToken stored(String rawToken) {
+        return refreshTokenRepository.findByTokenHash(TokenHashUtil.sha256(rawToken)).orElseThrow();
+    }
+
+    // Every request comes from its own IP so the per-IP rate limiter never interferes.
+    private String refresh(String refreshToken, ResultMatcher expected) throws Exception {
+        int ip = CLIENT_IP.getAndIncrement();
+        String body = mockMvc.perform(post("/api/auth/refresh")
+                        .with(request -> {
+                            request.setRemoteAddr("10.1." + (ip / 250) + "." + (ip % 250 + 1));
+                            return request;
+                        })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + refreshToken + "\"}"))
+                .andExpect(expected)
+                .andReturn().getResponse().getContentAsString();
+        return body.isEmpty() ? null : objectMapper.readTree(body).path("refreshToken").asText(null);
+    }
+}
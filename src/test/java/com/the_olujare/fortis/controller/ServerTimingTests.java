@@ -0,0 +1,101 @@
+package com.the_olujare.fortis.controller;
+
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.repository.FortisUserRepository;
+import com.the_olujare.fortis.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * With fortis.server-timing.enabled, responses carry a Server-Timing breakdown
+ * and the body is still delivered unchanged.
+ */
+
+@SpringBootTest(properties = "fortis.server-timing.enabled=true")
+@AutoConfigureMockMvc
+class ServerTimingTests {
+
+    private static final String PASSWORD = "correct-horse-battery";
+    private static final AtomicInteger CLIENT_IP = new AtomicInteger(1);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private FortisUserRepository fortisUserRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private FortisUser user;
+
+    @BeforeEach
+    void createUser() {
+        user = fortisUserRepository.save(FortisUser.builder()
+                .username("timing")
+                .email("timing-" + UUID.randomUUID() + "@fortis.test")
+                .password(passwordEncoder.encode(PASSWORD))
+                .enabled(true)
+                .build());
+    }
+
+    @Test
+    void authenticatedRequestReportsJwtUserRepositoryDbAndSerialization() throws Exception {
+        String serverTiming = mockMvc.perform(fromNewClient(get("/api/tasks"))
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken(user)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray())
+                .andReturn().getResponse().getHeader("Server-Timing");
+
+        assertThat(serverTiming).contains("jwt;dur=", "user;dur=", "repo;dur=", "db;dur=", "ser;dur=", "total;dur=");
+        assertThat(serverTiming).doesNotContain("hash;dur=");
+    }
+
+    @Test
+    void loginReportsPasswordHashing() throws Exception {
+        String serverTiming = mockMvc.perform(fromNewClient(post("/api/auth/login"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + user.getEmail() + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isNotEmpty())
+                .andReturn().getResponse().getHeader("Server-Timing");
+
+        assertThat(serverTiming).contains("hash;dur=", "total;dur=");
+        assertThat(serverTiming).doesNotContain("jwt;dur=");
+    }
+
+    @Test
+    void errorResponsesAreTimedToo() throws Exception {
+        String serverTiming = mockMvc.perform(fromNewClient(get("/api/tasks")))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.status").value(401))
+                .andReturn().getResponse().getHeader("Server-Timing");
+
+        assertThat(serverTiming).contains("total;dur=");
+    }
+
+    // Every request comes from its own IP so the per-IP rate limiter never interferes.
+    private MockHttpServletRequestBuilder fromNewClient(MockHttpServletRequestBuilder request) {
+        int ip = CLIENT_IP.getAndIncrement();
+        return request.with(mockRequest -> {
+            mockRequest.setRemoteAddr("10.3." + (ip / 250) + "." + (ip % 250 + 1));
+            return mockRequest;
+        });
+    }
+}
@@ -0,0 +1,145 @@
+package com.the_olujare.fortis.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.monitoring.SqlStatementRecorder;
+import com.the_olujare.fortis.repository.FortisUserRepository;
+import com.the_olujare.fortis.support.SqlStatementCounter;
+import com.the_olujare.fortis.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ?fields= on task reads narrows the response and the columns read, and rejects unknown fields.
+ */
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SparseFieldsetTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private FortisUserRepository fortisUserRepository;
+    @Autowired
+    private SqlStatementRecorder sqlStatementRecorder;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private FortisUser user;
+
+    @BeforeEach
+    void createUser() {
+        user = createUser("sparse");
+        sqlStatementRecorder.removeListener(SqlStatementCounter.INSTANCE);
+        sqlStatementRecorder.addListener(SqlStatementCounter.INSTANCE);
+    }
+
+    @Test
+    void listReturnsAndSelectsOnlyRequestedFields() throws Exception {
+        createTask(user, "First");
+        createTask(user, "Second");
+
+        SqlStatementCounter.start();
+        JsonNode tasks = getJson(authenticated(get("/api/tasks").param("fields", "id,title,completed"), user));
+        List<String> statements = SqlStatementCounter.stop();
+
+        assertThat(tasks).hasSize(2);
+        tasks.forEach(task -> assertThat(fieldNames(task)).containsExactly("id", "title", "completed"));
+        assertThat(statements).filteredOn(sql -> sql.contains("from task"))
+                .isNotEmpty()
+                .noneMatch(sql -> sql.contains("description"));
+    }
+
+    @Test
+    void listWithoutFieldsIsUnchanged() throws Exception {
+        createTask(user, "Full");
+
+        JsonNode tasks = getJson(authenticated(get("/api/tasks"), user));
+
+        assertThat(fieldNames(tasks.get(0)))
+                .containsExactly("id", "userId", "title", "username", "description", "completed");
+    }
+
+    @Test
+    void singleTaskKeepsOwnershipCheck() throws Exception {
+        long id = createTask(user, "Mine");
+        FortisUser other = createUser("other");
+
+        JsonNode task = getJson(authenticated(get("/api/tasks/{id}", id).param("fields", "title,username"), user));
+        assertThat(fieldNames(task)).containsExactly("title", "username");
+        assertThat(task.get("username").asText()).isEqualTo("sparse");
+
+        mockMvc.perform(authenticated(get("/api/tasks/{id}", id).param("fields", "title"), other))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void changesReturnOnlyRequestedFields() throws Exception {
+        long id = createTask(user, "Changed");
+
+        JsonNode changes = getJson(authenticated(get("/api/tasks/changes").param("fields", "id"), user));
+
+        assertThat(changes.get("changed")).hasSize(1);
+        assertThat(fieldNames(changes.get("changed").get(0))).containsExactly("id");
+        assertThat(changes.get("changed").get(0).get("id").asLong()).isEqualTo(id);
+        assertThat(changes.get("nextToken").asText()).isNotEmpty();
+    }
+
+    @Test
+    void rejectsUnknownField() throws Exception {
+        mockMvc.perform(authenticated(get("/api/tasks").param("fields", "id,secret"), user))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static List<String> fieldNames(JsonNode task) {
+        List<String> names = new ArrayList<>();
+        task.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private FortisUser createUser(String username) {
+        return fortisUserRepository.save(FortisUser.builder()
+                .username(username)
+                .email(username + "-" + UUID.randomUUID() + "@fortis.test")
+                .password("unused")
+                .enabled(true)
+                .build());
+    }
+
+    private long createTask(FortisUser owner, String title) throws Exception {
+        return getJson(authenticated(post("/api/tasks"), owner)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"" + title + "\",\"description\":\"A long description\"}"))
+                .get("id").asLong();
+    }
+
+    private JsonNode getJson(MockHttpServletRequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request, FortisUser owner) {
+        return request.header("Authorization", "Bearer " + jwtUtil.generateToken(owner));
+    }
+}
@@ -0,0 +1,185 @@
+package com.the_olujare.fortis.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.repository.FortisUserRepository;
+import com.the_olujare.fortis.service.TaskArchivalService;
+import com.the_olujare.fortis.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Completed tasks leave the task list for compressed archive segments and are read back
+ * from GET /api/tasks/archive.
+ *
+ * Minimum age is zero and segments hold two tasks, so one archiver run moves
+ * every completed task and splits them over several segments. Users are paged
+ * one at a time, so a run walks several pages of users.
+ */
+
+@SpringBootTest(properties = {
+        "fortis.task-archive.min-age-days=0",
+        "fortis.task-archive.segment-size=2",
+        "fortis.task-archive.user-batch-size=1",
+        "fortis.task-archive.pause-ms=0"
+})
+@AutoConfigureMockMvc
+class TaskArchiveTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private FortisUserRepository fortisUserRepository;
+    @Autowired
+    private TaskArchivalService taskArchivalService;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private FortisUser user;
+
+    @BeforeEach
+    void createUser() {
+        user = newUser();
+    }
+
+    @Test
+    void completedTasksMoveToArchive() throws Exception {
+        long first = createCompletedTask("First");
+        long second = createCompletedTask("Second");
+        long third = createCompletedTask("Third");
+        long open = createTask("Open");
+
+        taskArchivalService.archiveCompletedTasks();
+
+        JsonNode tasks = getJson(authenticated(get("/api/tasks")));
+        assertThat(tasks).hasSize(1);
+        assertThat(tasks.get(0).get("id").asLong()).isEqualTo(open);
+        mockMvc.perform(authenticated(get("/api/tasks/{id}", first))).andExpect(status().isNotFound());
+
+        JsonNode archive = archive(null, 500);
+        assertThat(ids(archive)).containsExactly(third, second, first);
+        assertThat(archive.get("tasks").get(0).get("title").asText()).isEqualTo("Third");
+        assertThat(archive.get("tasks").get(0).get("completed").asBoolean()).isTrue();
+    }
+
+    @Test
+    void archivePagesBySegment() throws Exception {
+        long first = createCompletedTask("First");
+        long second = createCompletedTask("Second");
+        long third = createCompletedTask("Third");
+
+        taskArchivalService.archiveCompletedTasks();
+
+        JsonNode page = archive(null, 1);
+        assertThat(ids(page)).containsExactly(third);
+        assertThat(page.get("hasMore").asBoolean()).isTrue();
+
+        // Segments are never split: a page may exceed the limit
+        JsonNode next = archive(page.get("nextCursor").asText(), 1);
+        assertThat(ids(next)).containsExactly(second, first);
+
+        JsonNode last = archive(next.get("nextCursor").asText(), 1);
+        assertThat(last.get("tasks")).isEmpty();
+        assertThat(last.get("hasMore").asBoolean()).isFalse();
+    }
+
+    @Test
+    void archivedTasksAreDeletionsForDeltaSync() throws Exception {
+        long archived = createCompletedTask("Archived");
+        String token = getJson(authenticated(get("/api/tasks/changes"))).get("nextToken").asText();
+
+        taskArchivalService.archiveCompletedTasks();
+
+        JsonNode delta = getJson(authenticated(get("/api/tasks/changes").param("since", token)));
+        assertThat(delta.get("changed")).isEmpty();
+        assertThat(delta.get("deleted")).hasSize(1);
+        assertThat(delta.get("deleted").get(0).asLong()).isEqualTo(archived);
+    }
+
+    @Test
+    void oneRunReachesEveryUser() throws Exception {
+        FortisUser firstUser = user;
+        long firstTask = createCompletedTask("First user");
+        user = newUser();
+        long secondTask = createCompletedTask("Second user");
+
+        taskArchivalService.archiveCompletedTasks();
+
+        assertThat(ids(archive(null, 500))).containsExactly(secondTask);
+        user = firstUser;
+        assertThat(ids(archive(null, 500))).containsExactly(firstTask);
+    }
+
+    @Test
+    void rejectsMalformedCursor() throws Exception {
+        mockMvc.perform(authenticated(get("/api/tasks/archive").param("cursor", "not-a-cursor")))
+                .andExpect(status().isBadRequest());
+    }
+
+    private FortisUser newUser() {
+        return fortisUserRepository.save(FortisUser.builder()
+                .username("archive")
+                .email("archive-" + UUID.randomUUID() + "@fortis.test")
+                .password("unused")
+                .enabled(true)
+                .build());
+    }
+
+    private JsonNode archive(String cursor, int limit) throws Exception {
+        MockHttpServletRequestBuilder request = authenticated(get("/api/tasks/archive"))
+                .param("limit", Integer.toString(limit));
+        if (cursor != null) {
+            request.param("cursor", cursor);
+        }
+        return getJson(request);
+    }
+
+    private static List<Long> ids(JsonNode archive) {
+        List<Long> ids = new ArrayList<>();
+        archive.get("tasks").forEach(task -> ids.add(task.get("id").asLong()));
+        return ids;
+    }
+
+    private long createCompletedTask(String title) throws Exception {
+        long id = createTask(title);
+        mockMvc.perform(authenticated(patch("/api/tasks/{id}/toggle", id))).andExpect(status().isOk());
+        return id;
+    }
+
+    private long createTask(String title) throws Exception {
+        String body = mockMvc.perform(authenticated(post("/api/tasks"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"" + title + "\",\"description\":\"Task\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private JsonNode getJson(MockHttpServletRequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request) {
+        return request.header("Authorization", "Bearer " + jwtUtil.generateToken(user));
+    }
+}
@@ -0,0 +1,307 @@
+package com.the_olujare.fortis.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.repository.FortisUserRepository;
+import com.the_olujare.fortis.service.AttachmentBlobPurgeService;
+import com.the_olujare.fortis.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Attachments stream in through the multipart parser, are stored once per content,
+ * and come back whole or by Range, only to the task's owner.
+ *
+ * The size cap is 4 KB here and orphaned files may be purged immediately.
+ */
+
+@SpringBootTest(properties = {
+        "fortis.attachments.max-bytes=4096",
+        "fortis.attachments.orphan-grace-ms=0"
+})
+@AutoConfigureMockMvc
+class TaskAttachmentTests {
+
+    private static final Path ATTACHMENT_DIRECTORY = createAttachmentDirectory();
+    private static final String BOUNDARY = "----fortis-test-boundary";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private FortisUserRepository fortisUserRepository;
+    @Autowired
+    private AttachmentBlobPurgeService attachmentBlobPurgeService;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private FortisUser user;
+
+    @DynamicPropertySource
+    static void attachmentDirectory(DynamicPropertyRegistry registry) {
+        registry.add("fortis.attachments.directory", ATTACHMENT_DIRECTORY::toString);
+    }
+
+    @BeforeEach
+    void createUser() {
+        user = createUser("attachments");
+    }
+
+    @Test
+    void uploadedFileIsDownloadedUnchanged() throws Exception {
+        long taskId = createTask(user);
+        byte[] content = randomBytes(3000);
+
+        JsonNode attachment = upload(user, taskId, "report.pdf", "application/pdf", content);
+        assertThat(attachment.get("size").asLong()).isEqualTo(3000);
+        assertThat(attachment.get("sha256").asText()).isEqualTo(sha256(content));
+        assertThat(attachment.get("filename").asText()).isEqualTo("report.pdf");
+
+        MockHttpServletResponse download = mockMvc.perform(authenticated(user,
+                        get("/api/tasks/{taskId}/attachments/{id}", taskId, attachment.get("id").asText())))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + sha256(content) + "\""))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().string("Content-Type", "application/pdf"))
+                .andReturn().getResponse();
+        assertThat(download.getContentAsByteArray()).isEqualTo(content);
+        assertThat(download.getHeader("Content-Disposition")).contains("attachment", "report.pdf");
+    }
+
+    @Test
+    void rangesAreServedPartially() throws Exception {
+        long taskId = createTask(user);
+        byte[] content = randomBytes(1000);
+        String id = upload(user, taskId, "data.bin", "application/octet-stream", content).get("id").asText();
+
+        MockHttpServletResponse middle = mockMvc.perform(authenticated(user,
+                        get("/api/tasks/{taskId}/attachments/{id}", taskId, id)).header("Range", "bytes=100-199"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 100-199/1000"))
+                .andReturn().getResponse();
+        assertThat(middle.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 100, 200));
+
+        MockHttpServletResponse suffix = mockMvc.perform(authenticated(user,
+                        get("/api/tasks/{taskId}/attachments/{id}", taskId, id)).header("Range", "bytes=-10"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 990-999/1000"))
+                .andReturn().getResponse();
+        assertThat(suffix.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 990, 1000));
+
+        mockMvc.perform(authenticated(user,
+                        get("/api/tasks/{taskId}/attachments/{id}", taskId, id)).header("Range", "bytes=5000-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */1000"));
+
+        // A stale If-Range gets the whole file
+        mockMvc.perform(authenticated(user, get("/api/tasks/{taskId}/attachments/{id}", taskId, id))
+                        .header("Range", "bytes=0-9")
+                        .header("If-Range", "\"outdated\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void otherPartsBeforeTheFileAreSkipped() throws Exception {
+        long taskId = createTask(user);
+        byte[] content = "--not-a-boundary\r\nstill content".getBytes(StandardCharsets.UTF_8);
+        byte[] body = concat(
+                ("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"note\"\r\n\r\nhello\r\n")
+                        .getBytes(StandardCharsets.UTF_8),
+                multipartBody("Documents/notes.txt", "text/plain", content));
+
+        JsonNode attachment = objectMapper.readTree(mockMvc.perform(authenticated(user,
+                        post("/api/tasks/{taskId}/attachments", taskId))
+                        .contentType("multipart/form-data; boundary=" + BOUNDARY)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        assertThat(attachment.get("filename").asText()).isEqualTo("notes.txt");
+        assertThat(attachment.get("sha256").asText()).isEqualTo(sha256(content));
+    }
+
+    @Test
+    void uploadAboveTheCapIsRejected() throws Exception {
+        long taskId = createTask(user);
+
+        mockMvc.perform(authenticated(user, post("/api/tasks/{taskId}/attachments", taskId))
+                        .contentType("multipart/form-data; boundary=" + BOUNDARY)
+                        .content(multipartBody("big.bin", "application/octet-stream", randomBytes(5000))))
+                .andExpect(status().isPayloadTooLarge());
+
+        assertThat(attachments(user, taskId)).isEmpty();
+        try (Stream<Path> temp = Files.list(ATTACHMENT_DIRECTORY.resolve("tmp"))) {
+            assertThat(temp).isEmpty();
+        }
+    }
+
+    @Test
+    void identicalContentIsStoredOnce() throws Exception {
+        long taskId = createTask(user);
+        byte[] content = randomBytes(500);
+
+        String first = upload(user, taskId, "a.bin", "application/octet-stream", content).get("sha256").asText();
+        String second = upload(user, taskId, "b.bin", "application/octet-stream", content).get("sha256").asText();
+
+        assertThat(second).isEqualTo(first);
+        assertThat(attachments(user, taskId)).hasSize(2);
+        assertThat(blobFile(first)).exists();
+    }
+
+    @Test
+    void attachmentsOfOtherUsersTasksAreNotFound() throws Exception {
+        long taskId = createTask(user);
+        String id = upload(user, taskId, "private.txt", "text/plain", randomBytes(10)).get("id").asText();
+        FortisUser intruder = createUser("intruder");
+
+        mockMvc.perform(authenticated(intruder, get("/api/tasks/{taskId}/attachments/{id}", taskId, id)))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(authenticated(intruder, get("/api/tasks/{taskId}/attachments", taskId)))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(authenticated(intruder, post("/api/tasks/{taskId}/attachments", taskId))
+                        .contentType("multipart/form-data; boundary=" + BOUNDARY)
+                        .content(multipartBody("x.txt", "text/plain", randomBytes(10))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void filesOfDeletedTasksArePurged() throws Exception {
+        long taskId = createTask(user);
+        String sha256 = upload(user, taskId, "gone.bin", "application/octet-stream", randomBytes(700))
+                .get("sha256").asText();
+
+        mockMvc.perform(authenticated(user, delete("/api/tasks/{id}", taskId))).andExpect(status().isNoContent());
+        attachmentBlobPurgeService.purgeOrphanedBlobs();
+
+        assertThat(blobFile(sha256)).doesNotExist();
+        assertThat(ATTACHMENT_DIRECTORY.resolve("trash").resolve(sha256)).doesNotExist();
+    }
+
+    @Test
+    void blobLeftInTheTrashIsPutBackWhileReferenced() throws Exception {
+        long taskId = createTask(user);
+        byte[] content = randomBytes(300);
+        JsonNode attachment = upload(user, taskId, "kept.bin", "application/octet-stream", content);
+        String sha256 = attachment.get("sha256").asText();
+
+        // As if a purge run stopped between moving the blob to the trash and its final check
+        Files.move(blobFile(sha256), ATTACHMENT_DIRECTORY.resolve("trash").resolve(sha256));
+        attachmentBlobPurgeService.purgeOrphanedBlobs();
+
+        assertThat(blobFile(sha256)).exists();
+        byte[] downloaded = mockMvc.perform(authenticated(user,
+                        get("/api/tasks/{taskId}/attachments/{id}", taskId, attachment.get("id").asText())))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(downloaded).isEqualTo(content);
+    }
+
+    private JsonNode upload(FortisUser owner, long taskId, String filename, String contentType, byte[] content)
+            throws Exception {
+        String body = mockMvc.perform(authenticated(owner, post("/api/tasks/{taskId}/attachments", taskId))
+                        .contentType("multipart/form-data; boundary=" + BOUNDARY)
+                        .content(multipartBody(filename, contentType, content)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private JsonNode attachments(FortisUser owner, long taskId) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(authenticated(owner, get("/api/tasks/{taskId}/attachments", taskId)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private long createTask(FortisUser owner) throws Exception {
+        String body = mockMvc.perform(authenticated(owner, post("/api/tasks"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"With files\",\"description\":\"Task\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private FortisUser createUser(String username) {
+        return fortisUserRepository.save(FortisUser.builder()
+                .username(username)
+                .email(username + "-" + UUID.randomUUID() + "@fortis.test")
+                .password("unused")
+                .enabled(true)
+                .build());
+    }
+
+    private MockHttpServletRequestBuilder authenticated(FortisUser owner, MockHttpServletRequestBuilder request) {
+        return request.header("Authorization", "Bearer " + jwtUtil.generateToken(owner));
+    }
+
+    private static byte[] multipartBody(String filename, String contentType, byte[] content) {
+        return concat(
+                ("--" + BOUNDARY + "\r\n"
+                        + "Content-Disposition: form-data; name=\"file\"; filename=\"" + filename + "\"\r\n"
+                        + "Content-Type: " + contentType + "\r\n\r\n").getBytes(StandardCharsets.UTF_8),
+                content,
+                ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        // Different per call: the first bytes carry a random UUID
+        byte[] unique = UUID.randomUUID().toString().getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(unique, 0, bytes, 0, Math.min(unique.length, size));
+        return bytes;
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+
+    private static Path blobFile(String sha256) {
+        return ATTACHMENT_DIRECTORY.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    private static Path createAttachmentDirectory() {
+        try {
+            return Files.createTempDirectory("fortis-attachments");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
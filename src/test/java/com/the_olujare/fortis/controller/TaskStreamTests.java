@@ -0,0 +1,208 @@
+package com.the_olujare.fortis.controller;
+
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.event.TaskEventHub;
+import com.the_olujare.fortis.repository.FortisUserRepository;
+import com.the_olujare.fortis.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/tasks/stream delivers the owner's task changes and resumes from Last-Event-ID.
+ *
+ * One sender thread and a short send timeout, so a stalled stream would hold up every
+ * other stream unless the hub closes it and replaces the thread.
+ * Heartbeats are frequent so a test can wait for one.
+ */
+
+@SpringBootTest(properties = {
+        "fortis.task-stream.sender-threads=1",
+        "fortis.task-stream.send-timeout-ms=200",
+        "fortis.task-stream.heartbeat-interval-ms=100"
+})
+@AutoConfigureMockMvc
+class TaskStreamTests {
+
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\d+)\\nevent:created");
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private FortisUserRepository fortisUserRepository;
+    @Autowired
+    private JwtUtil jwtUtil;
+    @Autowired
+    private TaskEventHub taskEventHub;
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    private FortisUser user;
+
+    @BeforeEach
+    void createUser() {
+        user = fortisUserRepository.save(FortisUser.builder()
+                .username("stream")
+                .email("stream-" + UUID.randomUUID() + "@fortis.test")
+                .password("unused")
+                .enabled(true)
+                .build());
+    }
+
+    @Test
+    void streamsChangesOfTheOwnerOnly() throws Exception {
+        MockHttpServletResponse stream = openStream(user, null);
+        MockHttpServletResponse otherStream = openStream(createOtherUser(), null);
+
+        String id = createTask("Streamed");
+        mockMvc.perform(authenticated(patch("/api/tasks/{id}/toggle", id), user)).andExpect(status().isOk());
+
+        String events = awaitContent(stream, "event:toggled");
+        assertThat(events).contains("event:created", "\"title\":\"Streamed\"", "\"completed\":true");
+        assertThat(otherStream.getContentAsString()).doesNotContain("event:");
+    }
+
+    @Test
+    void resumesAfterLastEventId() throws Exception {
+        MockHttpServletResponse stream = openStream(user, null);
+        createTask("First");
+        Matcher firstEvent = EVENT_ID.matcher(awaitContent(stream, "First"));
+        assertThat(firstEvent.find()).isTrue();
+
+        createTask("Second");
+        awaitContent(stream, "Second");
+
+        MockHttpServletResponse resumed = openStream(user, firstEvent.group(1));
+        String replayed = awaitContent(resumed, "Second");
+        assertThat(replayed).doesNotContain("First");
+    }
+
+    @Test
+    void unknownLastEventIdResets() throws Exception {
+        MockHttpServletResponse stream = openStream(user, "1");
+
+        assertThat(awaitContent(stream, "event:reset")).contains("event:reset");
+    }
+
+    @Test
+    void stalledStreamIsClosedWithoutHoldingUpOthers() throws Exception {
+        FortisUser other = createOtherUser();
+        MockHttpServletResponse stalled = openStream(user, null);
+        MockHttpServletResponse healthy = openStream(other, null);
+        awaitContent(stalled, ":connected");
+        awaitContent(healthy, ":connected");
+        int before = taskEventHub.connectionCount();
+
+        // Holding the response buffer's monitor blocks the sender thread inside its write
+        Object buffer = ReflectionTestUtils.getField(stalled, "content");
+        synchronized (buffer) {
+            createTask("Stuck");
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (taskEventHub.connectionCount() != before - 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertThat(taskEventHub.connectionCount()).isEqualTo(before - 1);
+
+            String id = createTask("Flowing", other);
+            awaitContent(healthy, "\"id\":" + id);
+        }
+    }
+
+    @Test
+    void heartbeatsFlowWhileTheSchedulerIsBusy() throws Exception {
+        // Spring's scheduler has one thread; a long maintenance job holds it like this
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        taskScheduler.schedule(() -> {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, Instant.now());
+        try {
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            MockHttpServletResponse stream = openStream(user, null);
+
+            awaitContent(stream, ":heartbeat");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private MockHttpServletResponse openStream(FortisUser fortisUser, String lastEventId) throws Exception {
+        MockHttpServletRequestBuilder streamRequest = authenticated(get("/api/tasks/stream"), fortisUser)
+                .accept(MediaType.TEXT_EVENT_STREAM);
+        if (lastEventId != null) {
+            streamRequest.header("Last-Event-ID", lastEventId);
+        }
+        MvcResult result = mockMvc.perform(streamRequest)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return result.getResponse();
+    }
+
+    private String createTask(String title) throws Exception {
+        return createTask(title, user);
+    }
+
+    private String createTask(String title, FortisUser fortisUser) throws Exception {
+        String body = mockMvc.perform(authenticated(post("/api/tasks"), fortisUser)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"" + title + "\",\"description\":\"Task\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Matcher id = Pattern.compile("\"id\":(\\d+)").matcher(body);
+        assertThat(id.find()).isTrue();
+        return id.group(1);
+    }
+
+    private FortisUser createOtherUser() {
+        return fortisUserRepository.save(FortisUser.builder()
+                .username("other")
+                .email("other-" + UUID.randomUUID() + "@fortis.test")
+                .password("unused")
+                .enabled(true)
+                .build());
+    }
+
+    // Events are written by the hub's sender threads, so wait for them
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String content = response.getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = response.getContentAsString();
+        }
+        assertThat(content).contains(expected);
+        return content;
+    }
+
+    private MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request, FortisUser fortisUser) {
+        return request.header("Authorization", "Bearer " + jwtUtil.generateToken(fortisUser));
+    }
+}
@@ -0,0 +1,141 @@
+package com.the_olujare.fortis.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.repository.FortisUserRepository;
+import com.the_olujare.fortis.service.TaskTombstonePurgeService;
+import com.the_olujare.fortis.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/tasks/changes returns only what changed since a sync token, including deletions.
+ *
+ * Tombstone retention is zero here, so a purge run expires every tombstone immediately.
+ */
+
+@SpringBootTest(properties = "fortis.task-sync.tombstone-retention-ms=0")
+@AutoConfigureMockMvc
+class TaskSyncTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private FortisUserRepository fortisUserRepository;
+    @Autowired
+    private TaskTombstonePurgeService taskTombstonePurgeService;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private FortisUser user;
+
+    @BeforeEach
+    void createUser() {
+        user = fortisUserRepository.save(FortisUser.builder()
+                .username("sync")
+                .email("sync-" + UUID.randomUUID() + "@fortis.test")
+                .password("unused")
+                .enabled(true)
+                .build());
+    }
+
+    @Test
+    void returnsOnlyChangesSinceToken() throws Exception {
+        createTask("Kept");
+        long updated = createTask("Updated");
+        long deleted = createTask("Deleted");
+
+        JsonNode snapshot = changes(null, 500);
+        assertThat(snapshot.get("changed")).hasSize(3);
+        assertThat(snapshot.get("hasMore").asBoolean()).isFalse();
+        String token = snapshot.get("nextToken").asText();
+
+        mockMvc.perform(authenticated(patch("/api/tasks/{id}/toggle", updated))).andExpect(status().isOk());
+        mockMvc.perform(authenticated(delete("/api/tasks/{id}", deleted))).andExpect(status().isNoContent());
+
+        JsonNode delta = changes(token, 500);
+        assertThat(delta.get("changed")).hasSize(1);
+        assertThat(delta.get("changed").get(0).get("id").asLong()).isEqualTo(updated);
+        assertThat(delta.get("changed").get(0).get("completed").asBoolean()).isTrue();
+        assertThat(delta.get("deleted")).hasSize(1);
+        assertThat(delta.get("deleted").get(0).asLong()).isEqualTo(deleted);
+
+        JsonNode nothing = changes(delta.get("nextToken").asText(), 500);
+        assertThat(nothing.get("changed")).isEmpty();
+        assertThat(nothing.get("deleted")).isEmpty();
+    }
+
+    @Test
+    void pagesInChangeOrder() throws Exception {
+        long first = createTask("First");
+        long second = createTask("Second");
+        long third = createTask("Third");
+
+        JsonNode page = changes(null, 2);
+        assertThat(page.get("hasMore").asBoolean()).isTrue();
+        assertThat(page.get("changed").get(0).get("id").asLong()).isEqualTo(first);
+        assertThat(page.get("changed").get(1).get("id").asLong()).isEqualTo(second);
+
+        JsonNode next = changes(page.get("nextToken").asText(), 2);
+        assertThat(next.get("hasMore").asBoolean()).isFalse();
+        assertThat(next.get("changed")).hasSize(1);
+        assertThat(next.get("changed").get(0).get("id").asLong()).isEqualTo(third);
+    }
+
+    @Test
+    void tokenOlderThanPurgedTombstonesRequiresResync() throws Exception {
+        long deleted = createTask("Deleted");
+        String token = changes(null, 500).get("nextToken").asText();
+        mockMvc.perform(authenticated(delete("/api/tasks/{id}", deleted))).andExpect(status().isNoContent());
+
+        taskTombstonePurgeService.purgeExpiredTombstones();
+
+        assertThat(changes(token, 500).get("resyncRequired").asBoolean()).isTrue();
+    }
+
+    @Test
+    void rejectsMalformedToken() throws Exception {
+        mockMvc.perform(authenticated(get("/api/tasks/changes").param("since", "not-a-token")))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode changes(String since, int limit) throws Exception {
+        MockHttpServletRequestBuilder request = authenticated(get("/api/tasks/changes"))
+                .param("limit", Integer.toString(limit));
+        if (since != null) {
+            request.param("since", since);
+        }
+        String body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private long createTask(String title) throws Exception {
+        String body = mockMvc.perform(authenticated(post("/api/tasks"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"" + title + "\",\"description\":\"Task\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request) {
+        return request.header("Authorization", "Bearer " + jwtUtil.generateToken(user));
+    }
+}
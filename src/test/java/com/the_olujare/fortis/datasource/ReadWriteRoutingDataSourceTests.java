@@ -0,0 +1,146 @@
+package com.the_olujare.fortis.datasource;
+
+import com.the_olujare.fortis.entity.FortisUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Verifies read/write routing against two separate in-memory H2 databases.
+ * Each database holds a marker row naming itself, so a query reveals which pool served it.
+ */
+
+class ReadWriteRoutingDataSourceTests {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate writeTransaction;
+
+    @BeforeEach
+    void setUp() {
+        route(60_000);
+    }
+
+    private void route(long stickyWindowMs) {
+        DataSource primary = h2("routing-primary", "primary");
+        DataSource replica = h2("routing-replica", "replica");
+
+        ReadWriteRoutingDataSource routingDataSource =
+                new ReadWriteRoutingDataSource(new ReplicaStickiness(stickyWindowMs), new SimpleMeterRegistry());
+        routingDataSource.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Route.PRIMARY, primary,
+                ReadWriteRoutingDataSource.Route.REPLICA, replica));
+        routingDataSource.setDefaultTargetDataSource(primary);
+        routingDataSource.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplica() {
+        assertEquals("replica", readOnlyTransaction.execute(status -> marker()));
+    }
+
+    @Test
+    void writeTransactionsGoToPrimary() {
+        assertEquals("primary", writeTransaction.execute(status -> marker()));
+    }
+
+    @Test
+    void userReadsOwnWritesFromPrimaryWithinStickyWindow() {
+        authenticateAs(42L);
+        writeTransaction.executeWithoutResult(status -> marker());
+
+        assertEquals("primary", readOnlyTransaction.execute(status -> marker()));
+    }
+
+    @Test
+    void otherUsersStayOnReplicaAfterSomeoneWrites() {
+        authenticateAs(1L);
+        writeTransaction.executeWithoutResult(status -> marker());
+
+        authenticateAs(2L);
+        assertEquals("replica", readOnlyTransaction.execute(status -> marker()));
+    }
+
+    @Test
+    void stickyWindowStartsAtCommit() {
+        route(200);
+        authenticateAs(42L);
+        writeTransaction.executeWithoutResult(status -> {
+            marker();
+            sleep(400);
+        });
+
+        assertEquals("primary", readOnlyTransaction.execute(status -> marker()));
+    }
+
+    @Test
+    void rolledBackWriteDoesNotStick() {
+        authenticateAs(42L);
+        writeTransaction.executeWithoutResult(status -> {
+            marker();
+            status.setRollbackOnly();
+        });
+
+        assertEquals("replica", readOnlyTransaction.execute(status -> marker()));
+    }
+
+    @Test
+    void primaryReadsGoToPrimaryWithoutAUser() {
+        assertEquals("primary", PrimaryReads.call(() -> readOnlyTransaction.execute(status -> marker())));
+        assertEquals("replica", readOnlyTransaction.execute(status -> marker()));
+    }
+
+    private String marker() {
+        return jdbcTemplate.queryForObject("select name from marker", String.class);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void authenticateAs(Long userId) {
+        FortisUser fortisUser = FortisUser.builder().id(userId).email(userId + "@fortis.test").build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(fortisUser, null, List.of()));
+    }
+
+    private static DataSource h2(String name, String marker) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate setup = new JdbcTemplate(dataSource);
+        setup.execute("create table if not exists marker (name varchar(16))");
+        setup.update("delete from marker");
+        setup.update("insert into marker (name) values (?)", marker);
+        return dataSource;
+    }
+}
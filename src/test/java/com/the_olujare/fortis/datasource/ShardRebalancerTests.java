@@ -0,0 +1,321 @@
+package com.the_olujare.fortis.datasource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.entity.UserShardAssignment;
+import com.the_olujare.fortis.repository.FortisUserRepository;
+import com.the_olujare.fortis.repository.UserShardAssignmentRepository;
+import com.the_olujare.fortis.service.TaskArchivalService;
+import com.the_olujare.fortis.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Task sharding over two in-memory H2 shards: routing by user, writes refused while
+ * a user is moving, a full move with every per-user table, and resuming a move that
+ * failed after the directory flip. The archiver leaves moving users alone.
+ *
+ * The directory cache TTL is zero, so the rebalancer does not wait between phases
+ * and every request sees the latest directory row. Completed tasks are archivable at once.
+ */
+
+@SpringBootTest(properties = {
+        "fortis.sharding.enabled=true",
+        "fortis.sharding.directory-cache-ttl-ms=0",
+        "fortis.sharding.rebalance-batch-size=2",
+        "fortis.task-archive.min-age-days=0",
+        "fortis.task-archive.pause-ms=0",
+        "fortis.sharding.shards[0].url=jdbc:h2:mem:rebalancer-shard-0;DB_CLOSE_DELAY=-1",
+        "fortis.sharding.shards[0].username=admin",
+        "fortis.sharding.shards[0].password=passcode",
+        "fortis.sharding.shards[1].url=jdbc:h2:mem:rebalancer-shard-1;DB_CLOSE_DELAY=-1",
+        "fortis.sharding.shards[1].username=admin",
+        "fortis.sharding.shards[1].password=passcode"
+})
+@AutoConfigureMockMvc
+class ShardRebalancerTests {
+
+    private static final List<String> USER_TABLES =
+            List.of("task", "task_attachment", "task_tombstone", "task_sync_state", "task_archive_segment");
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private FortisUserRepository fortisUserRepository;
+    @Autowired
+    private UserShardAssignmentRepository userShardAssignmentRepository;
+    @Autowired
+    private ShardDataSources shardDataSources;
+    @Autowired
+    private ShardResolver shardResolver;
+    @Autowired
+    private ShardRebalancer shardRebalancer;
+    @Autowired
+    private TaskArchivalService taskArchivalService;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private FortisUser user;
+
+    @BeforeEach
+    void createUser() {
+        user = saveUser("USER");
+    }
+
+    @Test
+    void tasksLiveOnTheUsersShard() throws Exception {
+        FortisUser other = saveUser("USER");
+        assign(user, 1, false);
+        assign(other, 0, false);
+
+        long id = createTask(user, "Mine");
+        createTask(other, "Theirs");
+
+        assertThat(count(1, "task", user)).isEqualTo(1);
+        assertThat(count(0, "task", user)).isZero();
+        assertThat(count(0, "task", other)).isEqualTo(1);
+        assertThat(id).isGreaterThan(ShardDataSources.ID_RANGE_PER_SHARD);
+        assertThat(listTasks(other)).hasSize(1);
+    }
+
+    @Test
+    void writesAreRefusedWhileMoving() throws Exception {
+        assign(user, 0, false);
+        long id = createTask(user, "Before");
+        assign(user, 0, true);
+
+        mockMvc.perform(authenticated(user, post("/api/tasks"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"During\",\"description\":\"Task\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        mockMvc.perform(authenticated(user, patch("/api/tasks/{id}/toggle", id)))
+                .andExpect(status().isServiceUnavailable());
+
+        // Reads keep going to the source
+        assertThat(listTasks(user)).hasSize(1);
+    }
+
+    @Test
+    void moveCarriesEveryPerUserTable() throws Exception {
+        assign(user, 0, false);
+        List<Long> ids = seedSource();
+
+        shardRebalancer.moveUser(user.getId(), 1);
+
+        for (String table : USER_TABLES) {
+            assertThat(count(0, table, user)).as(table).isZero();
+            assertThat(count(1, table, user)).as(table).isEqualTo(table.equals("task") ? 3 : 1);
+        }
+        assertDirectory(1, null);
+        assertThat(ids(listTasks(user))).containsExactlyInAnyOrderElementsOf(ids);
+    }
+
+    @Test
+    void rerunFinishesAMoveThatFailedAfterTheDirectoryFlip() throws Exception {
+        assign(user, 0, false);
+        List<Long> ids = seedSource();
+
+        assertThatThrownBy(() -> failingAfterFlip().moveUser(user.getId(), 1))
+                .isInstanceOf(IllegalStateException.class);
+
+        // The target serves the user; the source still holds the copies
+        assertDirectory(1, 0);
+        assertThat(count(0, "task", user)).isEqualTo(3);
+        assertThat(ids(listTasks(user))).containsExactlyInAnyOrderElementsOf(ids);
+
+        assertThat(shardRebalancer.moveUser(user.getId(), 1)).containsEntry("resumed", true).containsEntry("moved", 0L);
+
+        for (String table : USER_TABLES) {
+            assertThat(count(0, table, user)).as(table).isZero();
+        }
+        assertThat(count(1, "task", user)).isEqualTo(3);
+        assertDirectory(1, null);
+    }
+
+    @Test
+    void archiverSkipsUsersBeingMovedAndStaleSourceRows() throws Exception {
+        assign(user, 0, false);
+        long id = createTask(user, "Done");
+        mockMvc.perform(authenticated(user, patch("/api/tasks/{id}/toggle", id))).andExpect(status().isOk());
+
+        assign(user, 0, true);
+        taskArchivalService.archiveCompletedTasks();
+        assertThat(count(0, "task_archive_segment", user)).isZero();
+
+        // Directory already flipped to shard 1: the rows left on shard 0 are stale copies
+        userShardAssignmentRepository.save(UserShardAssignment.builder()
+                .userId(user.getId())
+                .shardIndex(1)
+                .movingFrom(0)
+                .build());
+        taskArchivalService.archiveCompletedTasks();
+        assertThat(count(0, "task_archive_segment", user)).isZero();
+        assertThat(count(0, "task", user)).isEqualTo(1);
+
+        assign(user, 0, false);
+        taskArchivalService.archiveCompletedTasks();
+        assertThat(count(0, "task_archive_segment", user)).isEqualTo(1);
+        assertThat(count(0, "task", user)).isZero();
+    }
+
+    @Test
+    void adminMoveRunsInTheBackground() throws Exception {
+        FortisUser admin = saveUser("ADMIN");
+        assign(user, 0, false);
+        createTask(user, "Moved");
+
+        mockMvc.perform(authenticated(admin, post("/api/admin/shards/users/{userId}/move", user.getId()))
+                        .param("targetShard", "1"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/api/admin/shards/users/" + user.getId() + "/move"));
+
+        JsonNode move = null;
+        for (int poll = 0; poll < 100; poll++) {
+            move = getJson(admin, get("/api/admin/shards/users/{userId}/move", user.getId()));
+            if (!move.get("state").asText().matches("QUEUED|RUNNING")) {
+                break;
+            }
+            Thread.sleep(50);
+        }
+        assertThat(move.get("state").asText()).isEqualTo("DONE");
+        assertThat(move.get("result").get("moved").asLong()).isEqualTo(1);
+        assertThat(count(1, "task", user)).isEqualTo(1);
+    }
+
+    /**
+     * Three tasks (one with an attachment), a deleted task's tombstone, the sync counter
+     * and an archive segment, all on shard 0. Returns the ids of the remaining tasks.
+     */
+    private List<Long> seedSource() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (String title : List.of("First", "Second", "Third", "Deleted")) {
+            ids.add(createTask(user, title));
+        }
+        long deleted = ids.remove(3);
+        mockMvc.perform(authenticated(user, delete("/api/tasks/{id}", deleted))).andExpect(status().isNoContent());
+
+        Timestamp now = Timestamp.from(Instant.now());
+        shardDataSources.jdbcTemplate(0).update(
+                "insert into task_attachment (id, task_id, user_id, filename, content_type, size_bytes, sha256, created_at) "
+                        + "values (?, ?, ?, 'notes.txt', 'text/plain', 5, ?, ?)",
+                UUID.randomUUID(), ids.get(0), user.getId(), "0".repeat(64), now);
+        shardDataSources.jdbcTemplate(0).update(
+                "insert into task_archive_segment (id, user_id, task_count, archived_at, payload) values (?, ?, 1, ?, ?)",
+                ids.get(0) - 1_000_000, user.getId(), now, new byte[]{1});
+
+        for (String table : USER_TABLES) {
+            assertThat(count(0, table, user)).as(table).isPositive();
+        }
+        return ids;
+    }
+
+    /**
+     * A rebalancer whose directory write of phase 3 succeeds and then fails,
+     * before any source row is deleted.
+     */
+    private ShardRebalancer failingAfterFlip() {
+        UserShardAssignmentRepository failing = (UserShardAssignmentRepository) Proxy.newProxyInstance(
+                UserShardAssignmentRepository.class.getClassLoader(),
+                new Class<?>[]{UserShardAssignmentRepository.class},
+                (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(userShardAssignmentRepository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (method.getName().equals("save") && ((UserShardAssignment) args[0]).getMovingFrom() != null) {
+                        throw new IllegalStateException("Injected failure after the directory flip");
+                    }
+                    return result;
+                });
+        return new ShardRebalancer(shardResolver, shardDataSources, failing, 0, 2);
+    }
+
+    private void assertDirectory(int shard, Integer movingFrom) {
+        UserShardAssignment assignment = userShardAssignmentRepository.findById(user.getId()).orElseThrow();
+        assertThat(assignment.getShardIndex()).isEqualTo(shard);
+        assertThat(assignment.isMoving()).isFalse();
+        assertThat(assignment.getMovingFrom()).isEqualTo(movingFrom);
+    }
+
+    private void assign(FortisUser fortisUser, int shard, boolean moving) {
+        userShardAssignmentRepository.save(UserShardAssignment.builder()
+                .userId(fortisUser.getId())
+                .shardIndex(shard)
+                .moving(moving)
+                .build());
+        shardResolver.invalidate(fortisUser.getId());
+    }
+
+    private int count(int shard, String table, FortisUser fortisUser) {
+        Integer count = shardDataSources.jdbcTemplate(shard).queryForObject(
+                "select count(*) from " + table + " where user_id = ?", Integer.class, fortisUser.getId());
+        return count == null ? 0 : count;
+    }
+
+    private FortisUser saveUser(String role) {
+        return fortisUserRepository.save(FortisUser.builder()
+                .username("shard")
+                .email("shard-" + UUID.randomUUID() + "@fortis.test")
+                .password("unused")
+                .role(role)
+                .enabled(true)
+                .build());
+    }
+
+    private long createTask(FortisUser fortisUser, String title) throws Exception {
+        String body = mockMvc.perform(authenticated(fortisUser, post("/api/tasks"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"" + title + "\",\"description\":\"Task\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private JsonNode listTasks(FortisUser fortisUser) throws Exception {
+        return getJson(fortisUser, get("/api/tasks"));
+    }
+
+    private JsonNode getJson(FortisUser fortisUser, MockHttpServletRequestBuilder request) throws Exception {
+        String body = mockMvc.perform(authenticated(fortisUser, request))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static List<Long> ids(JsonNode tasks) {
+        List<Long> ids = new ArrayList<>();
+        tasks.forEach(task -> ids.add(task.get("id").asLong()));
+        return ids;
+    }
+
+    private MockHttpServletRequestBuilder authenticated(FortisUser fortisUser, MockHttpServletRequestBuilder request) {
+        return request.header("Authorization", "Bearer " + jwtUtil.generateToken(fortisUser));
+    }
+}
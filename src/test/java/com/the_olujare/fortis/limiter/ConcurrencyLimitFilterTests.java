@@ -0,0 +1,149 @@
+package com.the_olujare.fortis.limiter;
+
+import com.the_olujare.fortis.limiter.AdaptiveConcurrencyLimit.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The limiter sheds with 503 once a partition is full, lets authenticated task traffic
+ * ahead of anonymous and auth traffic, and moves its limit with observed latency.
+ *
+ * A request already in flight is simulated by issuing the second request from
+ * inside the first one's filter chain.
+ */
+
+class ConcurrencyLimitFilterTests {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void requestBeyondTheLimitIsShedWith503() throws Exception {
+        ConcurrencyLimitFilter filter = filter(fixedTasksLimit(1));
+        MockHttpServletResponse nested = new MockHttpServletResponse();
+
+        MockHttpServletResponse outer = perform(filter, authenticatedTasksRequest(),
+                (request, response) -> filter.doFilter(authenticatedTasksRequest(), nested, (req, res) -> { }));
+
+        assertThat(outer.getStatus()).isEqualTo(200);
+        assertThat(nested.getStatus()).isEqualTo(503);
+        assertThat(nested.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(nested.getContentAsString()).contains("\"status\":503");
+    }
+
+    @Test
+    void slotIsReleasedWhenTheRequestEnds() throws Exception {
+        ConcurrencyLimitFilter filter = filter(fixedTasksLimit(1));
+
+        assertThat(perform(filter, authenticatedTasksRequest(), (request, response) -> { }).getStatus()).isEqualTo(200);
+        assertThat(perform(filter, authenticatedTasksRequest(), (request, response) -> { }).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void authTrafficIsShedWhileTasksAreSaturated() throws Exception {
+        ConcurrencyLimitFilter filter = filter(fixedTasksLimit(1));
+        MockHttpServletResponse login = new MockHttpServletResponse();
+
+        perform(filter, authenticatedTasksRequest(),
+                (request, response) -> filter.doFilter(new MockHttpServletRequest("POST", "/api/auth/login"), login,
+                        (req, res) -> { }));
+
+        assertThat(login.getStatus()).isEqualTo(503);
+    }
+
+    @Test
+    void otherEndpointsAreNotLimited() throws Exception {
+        ConcurrencyLimitFilter filter = filter(fixedTasksLimit(1));
+        MockHttpServletResponse health = new MockHttpServletResponse();
+
+        perform(filter, authenticatedTasksRequest(),
+                (request, response) -> filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), health,
+                        (req, res) -> { }));
+
+        assertThat(health.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void lowPriorityRequestsLeaveHeadroomForAuthenticatedOnes() {
+        ConcurrencyLimitProperties properties = fixedTasksLimit(5);
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(properties, properties.getTasks());
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(limit.tryAcquire(Priority.LOW)).isTrue();
+        }
+        assertThat(limit.tryAcquire(Priority.LOW)).isFalse();
+        assertThat(limit.tryAcquire(Priority.HIGH)).isTrue();
+        assertThat(limit.tryAcquire(Priority.HIGH)).isFalse();
+    }
+
+    @Test
+    void limitGrowsWhileBusyAndFastAndShrinksWhenLatencyRises() {
+        ConcurrencyLimitProperties properties = everySampleClosesAWindow();
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(properties, properties.getTasks());
+
+        for (int i = 0; i < 10; i++) {
+            limit.sample(FAST, limit.limit(), System.nanoTime());
+        }
+        int grown = limit.limit();
+        assertThat(grown).isGreaterThan(20);
+
+        for (int i = 0; i < 5; i++) {
+            limit.sample(SLOW, limit.limit(), System.nanoTime());
+        }
+        assertThat(limit.limit()).isLessThan(grown);
+    }
+
+    @Test
+    void limitDoesNotGrowWhenMostOfItIsUnused() {
+        ConcurrencyLimitProperties properties = everySampleClosesAWindow();
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(properties, properties.getTasks());
+
+        for (int i = 0; i < 10; i++) {
+            limit.sample(FAST, 1, System.nanoTime());
+        }
+
+        assertThat(limit.limit()).isEqualTo(20);
+    }
+
+    private static ConcurrencyLimitFilter filter(ConcurrencyLimitProperties properties) {
+        return new ConcurrencyLimitFilter(properties, new SimpleMeterRegistry());
+    }
+
+    private static ConcurrencyLimitProperties fixedTasksLimit(int limit) {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.getTasks().setInitialLimit(limit);
+        properties.getTasks().setMinLimit(limit);
+        properties.getTasks().setMaxLimit(limit);
+        return properties;
+    }
+
+    private static ConcurrencyLimitProperties everySampleClosesAWindow() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setWindowMs(0);
+        properties.setMinWindowSamples(1);
+        properties.getTasks().setInitialLimit(20);
+        properties.getTasks().setMinLimit(2);
+        properties.getTasks().setMaxLimit(100);
+        return properties;
+    }
+
+    private static MockHttpServletRequest authenticatedTasksRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.addHeader("Authorization", "Bearer token");
+        return request;
+    }
+
+    private static MockHttpServletResponse perform(ConcurrencyLimitFilter filter, MockHttpServletRequest request,
+                                                   FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
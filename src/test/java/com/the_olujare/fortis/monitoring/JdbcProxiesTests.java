@@ -0,0 +1,76 @@
+package com.the_olujare.fortis.monitoring;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Only execute* calls are timed; result sets reach the caller as the driver's own objects.
+ */
+
+class JdbcProxiesTests {
+
+    @Test
+    void executeIsRecordedOnceWithAffectedRows() throws Exception {
+        List<String> statements = new ArrayList<>();
+        List<Long> rows = new ArrayList<>();
+        try (Connection connection = JdbcProxies.connection(h2(), recorder((sql, elapsedNanos, count) -> {
+            statements.add(sql);
+            rows.add(count);
+        }))) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("create table item (id int)");
+            }
+            try (PreparedStatement insert = connection.prepareStatement("insert into item (id) values (?)")) {
+                insert.setInt(1, 1);
+                insert.addBatch();
+                insert.setInt(1, 2);
+                insert.addBatch();
+                insert.executeBatch();
+            }
+        }
+
+        assertThat(statements).containsExactly("create table item (id int)", "insert into item (id) values (?)");
+        assertThat(rows).containsExactly(0L, 2L);
+    }
+
+    @Test
+    void resultSetsAreNotProxied() throws Exception {
+        List<String> statements = new ArrayList<>();
+        try (Connection connection = JdbcProxies.connection(h2(), recorder((sql, elapsedNanos, count) -> statements.add(sql)));
+             PreparedStatement query = connection.prepareStatement("select 1")) {
+            try (ResultSet resultSet = query.executeQuery()) {
+                assertThat(Proxy.isProxyClass(resultSet.getClass())).isFalse();
+                assertThat(resultSet.next()).isTrue();
+            }
+            query.execute();
+            assertThat(Proxy.isProxyClass(query.getResultSet().getClass())).isFalse();
+        }
+
+        assertThat(statements).containsExactly("select 1", "select 1");
+    }
+
+    private static Connection h2() throws Exception {
+        return DriverManager.getConnection("jdbc:h2:mem:jdbc-proxies-" + System.nanoTime());
+    }
+
+    private static SqlStatementRecorder recorder(SqlStatementListener listener) {
+        SqlStatementRecorder recorder = new SqlStatementRecorder();
+        ReflectionTestUtils.setField(recorder, "enabled", true);
+        ReflectionTestUtils.setField(recorder, "slowThresholdMs", 60_000L);
+        ReflectionTestUtils.setField(recorder, "sampleRate", 1.0);
+        ReflectionTestUtils.setField(recorder, "maxStatements", 100);
+        recorder.addListener(listener);
+        return recorder;
+    }
+}
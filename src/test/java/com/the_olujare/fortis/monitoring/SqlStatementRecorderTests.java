@@ -0,0 +1,133 @@
+package com.the_olujare.fortis.monitoring;
+
+import com.the_olujare.fortis.dto.admin.SqlStatementStatsResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statements that differ only in literals, IN-list length or whitespace share one entry;
+ * distinct entries are capped, with the overflow counted under "<other>".
+ */
+
+class SqlStatementRecorderTests {
+
+    @Test
+    void literalsAreReplacedByPlaceholders() {
+        SqlStatementRecorder recorder = recorder(100);
+
+        recorder.record("select * from task t where t.title = 'a' and t.id = 42", 0, 1);
+        recorder.record("select * from task t where t.title = 'it''s' and t.id = 7", 0, 1);
+
+        assertThat(recorder.top(10, "count"))
+                .singleElement()
+                .satisfies(stats -> {
+                    assertThat(stats.getSql()).isEqualTo("select * from task t where t.title = ? and t.id = ?");
+                    assertThat(stats.getCount()).isEqualTo(2);
+                });
+    }
+
+    @Test
+    void inListsOfAnyLengthCollapse() {
+        SqlStatementRecorder recorder = recorder(100);
+
+        recorder.record("delete from refresh_token where id in (?)", 0, 1);
+        recorder.record("delete from refresh_token where id IN ( ?, ?, ? )", 0, 3);
+        recorder.record("delete from refresh_token where id in (1, 2)", 0, 2);
+
+        assertThat(recorder.top(10, "count"))
+                .singleElement()
+                .satisfies(stats -> {
+                    assertThat(stats.getSql()).isEqualTo("delete from refresh_token where id in (...)");
+                    assertThat(stats.getRows()).isEqualTo(6);
+                });
+    }
+
+    @Test
+    void whitespaceIsSquashedAndIdentifiersKeepTheirDigits() {
+        SqlStatementRecorder recorder = recorder(100);
+
+        recorder.record("select t1_0.id\n  from   task t1_0\twhere t1_0.user_id=?", 0, 0);
+
+        assertThat(recorder.top(1, "count").get(0).getSql())
+                .isEqualTo("select t1_0.id from task t1_0 where t1_0.user_id=?");
+    }
+
+    @Test
+    void timesAndRowsAreAggregatedPerStatement() {
+        SqlStatementRecorder recorder = recorder(100);
+
+        recorder.record("select 1", TimeUnit.MILLISECONDS.toNanos(2), 5);
+        recorder.record("select 2", TimeUnit.MILLISECONDS.toNanos(4), 1);
+
+        SqlStatementStatsResponse stats = recorder.top(1, "total").get(0);
+        assertThat(stats.getCount()).isEqualTo(2);
+        assertThat(stats.getTotalMs()).isEqualTo(6.0);
+        assertThat(stats.getMaxMs()).isEqualTo(4.0);
+        assertThat(stats.getAvgMs()).isEqualTo(3.0);
+        assertThat(stats.getRows()).isEqualTo(6);
+    }
+
+    @Test
+    void distinctStatementsBeyondTheCapAreCountedAsOther() {
+        SqlStatementRecorder recorder = recorder(3);
+
+        for (String table : List.of("a", "b", "c", "d", "e")) {
+            recorder.record("select * from " + table, 0, 0);
+        }
+
+        List<SqlStatementStatsResponse> top = recorder.top(10, "count");
+        assertThat(top).hasSize(4);
+        assertThat(top.get(0).getSql()).isEqualTo("<other>");
+        assertThat(top.get(0).getCount()).isEqualTo(2);
+    }
+
+    @Test
+    void normalizationStillAppliesOnceTheCacheIsFull() {
+        // Cache holds 4 * max-statements raw statements
+        SqlStatementRecorder recorder = recorder(1);
+
+        for (int i = 0; i < 20; i++) {
+            recorder.record("select * from task where id = " + i, 0, 0);
+        }
+
+        assertThat(recorder.top(10, "count"))
+                .singleElement()
+                .satisfies(stats -> assertThat(stats.getCount()).isEqualTo(20));
+    }
+
+    @Test
+    void listenersSeeTheRawStatement() {
+        SqlStatementRecorder recorder = recorder(100);
+        List<String> seen = new ArrayList<>();
+        recorder.addListener((sql, elapsedNanos, rows) -> seen.add(sql));
+
+        recorder.record("select * from task where id = 1", 0, 0);
+
+        assertThat(seen).containsExactly("select * from task where id = 1");
+    }
+
+    @Test
+    void disabledRecorderKeepsNothing() {
+        SqlStatementRecorder recorder = recorder(100);
+        ReflectionTestUtils.setField(recorder, "enabled", false);
+
+        recorder.record("select 1", 0, 0);
+
+        assertThat(recorder.top(10, "count")).isEmpty();
+    }
+
+    private static SqlStatementRecorder recorder(int maxStatements) {
+        SqlStatementRecorder recorder = new SqlStatementRecorder();
+        ReflectionTestUtils.setField(recorder, "enabled", true);
+        ReflectionTestUtils.setField(recorder, "slowThresholdMs", 60_000L);
+        ReflectionTestUtils.setField(recorder, "sampleRate", 1.0);
+        ReflectionTestUtils.setField(recorder, "maxStatements", maxStatements);
+        return recorder;
+    }
+}
@@ -0,0 +1,169 @@
+package com.the_olujare.fortis.reactive;
+
+import com.the_olujare.fortis.dto.task.TaskResponse;
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.entity.Task;
+import com.the_olujare.fortis.repository.FortisUserRepository;
+import com.the_olujare.fortis.repository.TaskRepository;
+import com.the_olujare.fortis.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * The reactive task API serves the same data and enforces the same rules
+ * as FortisTaskController, against tasks written through JPA, and its mutations
+ * reach the servlet stack's task stream.
+ */
+
+@SpringBootTest(properties = "fortis.reactive.port=0")
+@AutoConfigureMockMvc
+@ActiveProfiles("reactive")
+class ReactiveTaskApiTests {
+
+    @Autowired
+    private ReactiveTaskServer reactiveTaskServer;
+    @Autowired
+    private FortisUserRepository fortisUserRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private JwtUtil jwtUtil;
+    @Autowired
+    private MockMvc mockMvc;
+
+    private WebTestClient webTestClient;
+    private FortisUser user;
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + reactiveTaskServer.getPort())
+                .build();
+        user = createUser();
+        task = taskRepository.save(Task.builder().title("Title").description("Description").fortisUser(user).build());
+    }
+
+    @Test
+    void listsTasksOfTheCurrentUser() {
+        webTestClient.get().uri("/api/tasks")
+                .header("Authorization", bearer(user))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo(task.getId())
+                .jsonPath("$[0].username").isEqualTo(user.getEmail());
+    }
+
+    @Test
+    void createsUpdatesTogglesAndDeletes() {
+        createUpdateToggleAndDelete();
+    }
+
+    @Test
+    void mutationsReachTheTaskStream() throws Exception {
+        MockHttpServletResponse stream = mockMvc.perform(get("/api/tasks/stream")
+                        .header("Authorization", bearer(user))
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+
+        createUpdateToggleAndDelete();
+
+        String events = awaitContent(stream, "event:deleted");
+        assertThat(events).containsSubsequence("event:created", "event:updated", "event:toggled", "event:deleted");
+        assertThat(events).contains("\"title\":\"Updated\"", "\"completed\":true");
+    }
+
+    @Test
+    void foreignTaskIsNotFound() {
+        webTestClient.get().uri("/api/tasks/{id}", task.getId())
+                .header("Authorization", bearer(createUser()))
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.error").isEqualTo("Task not found or access denied");
+    }
+
+    @Test
+    void missingOrInvalidTokenIsUnauthorized() {
+        webTestClient.get().uri("/api/tasks")
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        webTestClient.get().uri("/api/tasks")
+                .header("Authorization", "Bearer not-a-jwt")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    private void createUpdateToggleAndDelete() {
+        Long id = webTestClient.post().uri("/api/tasks")
+                .header("Authorization", bearer(user))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("title", "New", "description", "Task"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TaskResponse.class)
+                .returnResult().getResponseBody().getId();
+
+        webTestClient.put().uri("/api/tasks/{id}", id)
+                .header("Authorization", bearer(user))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("title", "Updated", "description", "Task"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.title").isEqualTo("Updated");
+
+        webTestClient.patch().uri("/api/tasks/{id}/toggle", id)
+                .header("Authorization", bearer(user))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.completed").isEqualTo(true);
+
+        webTestClient.delete().uri("/api/tasks/{id}", id)
+                .header("Authorization", bearer(user))
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+
+    // Events are written by TaskEventHub's sender threads, so wait for them
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String content = response.getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = response.getContentAsString();
+        }
+        assertThat(content).contains(expected);
+        return content;
+    }
+
+    private FortisUser createUser() {
+        return fortisUserRepository.save(FortisUser.builder()
+                .username("reactive")
+                .email("reactive-" + UUID.randomUUID() + "@fortis.test")
+                .password("unused")
+                .enabled(true)
+                .build());
+    }
+
+    private String bearer(FortisUser fortisUser) {
+        return "Bearer " + jwtUtil.generateToken(fortisUser);
+    }
+}
@@ -0,0 +1,108 @@
+package com.the_olujare.fortis.service;
+
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.entity.RevokedAccessToken;
+import com.the_olujare.fortis.repository.FortisUserRepository;
+import com.the_olujare.fortis.repository.RevokedAccessTokenRepository;
+import com.the_olujare.fortis.util.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A logged-out access token is rejected on the next request, and revocations that
+ * are only in the database are honoured before the in-memory filter is built.
+ */
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AccessTokenDenylistServiceTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private FortisUserRepository fortisUserRepository;
+    @Autowired
+    private RevokedAccessTokenRepository revokedAccessTokenRepository;
+    @Autowired
+    private AccessTokenDenylistService accessTokenDenylistService;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void loggedOutAccessTokenIsRejected() throws Exception {
+        String token = jwtUtil.generateToken(createUser());
+        mockMvc.perform(get("/api/user/profile").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/auth/logout")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/user/profile").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+        assertThat(accessTokenDenylistService.isRevoked(jwtUtil.extractTokenId(token))).isTrue();
+    }
+
+    @Test
+    void filterIsBuiltBeforeTheFirstRequest() {
+        // An unbuilt filter answers "maybe" for every jti
+        long hits = Stream.generate(() -> UUID.randomUUID().toString())
+                .limit(100)
+                .filter(accessTokenDenylistService::mightBeRevoked)
+                .count();
+
+        assertThat(hits).isLessThan(100);
+    }
+
+    @Test
+    void revocationsInTheDatabaseCountBeforeTheFilterIsBuilt() {
+        String jti = UUID.randomUUID().toString();
+        revokedAccessTokenRepository.save(RevokedAccessToken.builder()
+                .jti(jti)
+                .expiryDate(Instant.now().plusSeconds(600))
+                .build());
+
+        // A fresh instance has not built its filter yet, as during startup
+        AccessTokenDenylistService starting = new AccessTokenDenylistService(revokedAccessTokenRepository);
+
+        assertThat(starting.isRevoked(jti)).isTrue();
+        assertThat(starting.isRevoked(UUID.randomUUID().toString())).isFalse();
+    }
+
+    @Test
+    void rebuildPicksUpRevocationsMadeElsewhere() {
+        String jti = UUID.randomUUID().toString();
+        revokedAccessTokenRepository.save(RevokedAccessToken.builder()
+                .jti(jti)
+                .expiryDate(Instant.now().plusSeconds(600))
+                .build());
+
+        accessTokenDenylistService.rebuild();
+
+        assertThat(accessTokenDenylistService.isRevoked(jti)).isTrue();
+    }
+
+    private FortisUser createUser() {
+        return fortisUserRepository.save(FortisUser.builder()
+                .username("denylist")
+                .email("denylist-" + UUID.randomUUID() + "@fortis.test")
+                .password("unused")
+                .enabled(true)
+                .build());
+    }
+}
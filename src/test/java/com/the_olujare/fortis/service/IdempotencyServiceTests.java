@@ -0,0 +1,136 @@
+package com.the_olujare.fortis.service;
+
+import com.the_olujare.fortis.entity.FortisUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Fingerprints are compared in full, and the per-stripe cap never evicts a key
+ * whose request is still running.
+ *
+ * max-keys is one per stripe, so every further key evicts from a stripe.
+ */
+
+class IdempotencyServiceTests {
+
+    private static final int STRIPES = 64;
+
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void createService() {
+        idempotencyService = new IdempotencyService();
+        ReflectionTestUtils.setField(idempotencyService, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(idempotencyService, "maxKeys", STRIPES);
+        ReflectionTestUtils.setField(idempotencyService, "waitTimeoutMs", 5_000L);
+        idempotencyService.initStripes();
+        SecurityContextHolder.setContext(authenticatedAs(1L));
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void fingerprintsWithTheSameHashCodeDoNotMatch() {
+        assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+        idempotencyService.execute("key", "Aa", () -> ResponseEntity.ok("first"));
+
+        assertThatThrownBy(() -> idempotencyService.execute("key", "BB", () -> ResponseEntity.ok("second")))
+                .hasMessageContaining("different request");
+    }
+
+    @Test
+    void inFlightKeyIsNeverEvicted() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        SecurityContext context = authenticatedAs(1L);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ResponseEntity<String>> first = executor.submit(() -> {
+                SecurityContextHolder.setContext(context);
+                return idempotencyService.execute("slow", "fp", () -> {
+                    runs.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return ResponseEntity.ok("first");
+                });
+            });
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // Far more finished keys than the cap; every stripe evicts repeatedly
+            for (int i = 0; i < STRIPES * 20; i++) {
+                idempotencyService.execute("key-" + i, "fp", () -> ResponseEntity.ok("done"));
+            }
+
+            Future<ResponseEntity<String>> duplicate = executor.submit(() -> {
+                SecurityContextHolder.setContext(context);
+                return idempotencyService.execute("slow", "fp", () -> {
+                    runs.incrementAndGet();
+                    return ResponseEntity.ok("second");
+                });
+            });
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS).getBody()).isEqualTo("first");
+            ResponseEntity<String> replayed = duplicate.get(5, TimeUnit.SECONDS);
+            assertThat(replayed.getBody()).isEqualTo("first");
+            assertThat(replayed.getHeaders().get(IdempotencyService.REPLAYED_HEADER)).isEqualTo(List.of("true"));
+            assertThat(runs).hasValue(1);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void finishedKeysAreStillEvictedAtTheCap() {
+        AtomicInteger runs = new AtomicInteger();
+        for (int i = 0; i < STRIPES * 20; i++) {
+            idempotencyService.execute("key-" + i, "fp", () -> ResponseEntity.ok("done"));
+        }
+
+        // At most one finished key per stripe survives, so most of them run again
+        for (int i = 0; i < STRIPES * 20; i++) {
+            idempotencyService.execute("key-" + i, "fp", () -> {
+                runs.incrementAndGet();
+                return ResponseEntity.ok("again");
+            });
+        }
+        assertThat(runs.get()).isGreaterThanOrEqualTo(STRIPES * 20 - STRIPES);
+    }
+
+    private static SecurityContext authenticatedAs(Long userId) {
+        FortisUser fortisUser = FortisUser.builder().id(userId).email(userId + "@fortis.test").build();
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new UsernamePasswordAuthenticationToken(fortisUser, null, List.of()));
+        return context;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
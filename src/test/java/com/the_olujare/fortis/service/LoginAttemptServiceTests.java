@@ -0,0 +1,155 @@
+package com.the_olujare.fortis.service;
+
+import com.the_olujare.fortis.exception.TooManyRequestsException;
+import com.the_olujare.fortis.repository.FortisUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Lockout starts after max-failures, doubles per further failure up to max-lockout,
+ * is persisted once per transition, and tracked state stays bounded per stripe.
+ *
+ * The repository is a recording proxy: only updateLockedUntil is expected to be called.
+ */
+
+class LoginAttemptServiceTests {
+
+    private static final int STRIPES = 64;
+
+    private final List<String> lockedEmails = new ArrayList<>();
+    private final List<Instant> lockedUntils = new ArrayList<>();
+    private LoginAttemptService loginAttemptService;
+
+    @BeforeEach
+    void createService() {
+        loginAttemptService = service(STRIPES * 100);
+    }
+
+    @Test
+    void locksAfterMaxFailures() {
+        fail("a@fortis.test", 2);
+        assertThatCode(() -> loginAttemptService.checkNotLocked("a@fortis.test")).doesNotThrowAnyException();
+
+        fail("a@fortis.test", 1);
+        assertThatThrownBy(() -> loginAttemptService.checkNotLocked("a@fortis.test"))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThat(lockedEmails).containsExactly("a@fortis.test");
+    }
+
+    @Test
+    void lockoutDoublesWithEveryFurtherFailureUpToTheCap() {
+        fail("b@fortis.test", 2);
+
+        List<Long> lockouts = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            long before = System.currentTimeMillis();
+            loginAttemptService.recordFailure("b@fortis.test");
+            lockouts.add(lockedUntils.get(lockedUntils.size() - 1).toEpochMilli() - before);
+        }
+
+        // base 1s, then 2s, then capped at 4s
+        long[] expected = {1_000, 2_000, 4_000, 4_000};
+        for (int i = 0; i < expected.length; i++) {
+            assertThat(lockouts.get(i)).isBetween(expected[i], expected[i] + 500);
+        }
+    }
+
+    @Test
+    void successClearsTheLockInMemoryAndInTheDatabase() {
+        fail("c@fortis.test", 3);
+
+        loginAttemptService.recordSuccess("c@fortis.test");
+
+        assertThatCode(() -> loginAttemptService.checkNotLocked("c@fortis.test")).doesNotThrowAnyException();
+        assertThat(lockedUntils).hasSize(2).last().isNull();
+    }
+
+    @Test
+    void successWithoutALockWritesNothing() {
+        fail("d@fortis.test", 1);
+
+        loginAttemptService.recordSuccess("d@fortis.test");
+
+        assertThat(lockedUntils).isEmpty();
+    }
+
+    @Test
+    void emailsAreNormalizedBeforeTrackingAndPersisting() {
+        fail("  Mixed.Case@Fortis.Test ", 3);
+
+        assertThatThrownBy(() -> loginAttemptService.checkNotLocked("mixed.case@fortis.test"))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThat(lockedEmails).containsExactly("mixed.case@fortis.test");
+    }
+
+    @Test
+    void eachStripeEvictsItsLeastRecentlyUsedAccount() {
+        // One tracked account per stripe
+        loginAttemptService = service(STRIPES);
+        String locked = "locked@fortis.test";
+        String sameStripe = emailInStripe(stripeOf(locked), locked);
+        String otherStripe = emailInStripe((stripeOf(locked) + 1) % STRIPES, locked);
+
+        fail(locked, 3);
+        fail(otherStripe, 1);
+        assertThatThrownBy(() -> loginAttemptService.checkNotLocked(locked))
+                .isInstanceOf(TooManyRequestsException.class);
+
+        fail(sameStripe, 1);
+        assertThatCode(() -> loginAttemptService.checkNotLocked(locked)).doesNotThrowAnyException();
+    }
+
+    private void fail(String email, int times) {
+        for (int i = 0; i < times; i++) {
+            loginAttemptService.recordFailure(email);
+        }
+    }
+
+    private LoginAttemptService service(int maxTrackedAccounts) {
+        LoginAttemptService service = new LoginAttemptService(recordingRepository());
+        ReflectionTestUtils.setField(service, "maxFailures", 3);
+        ReflectionTestUtils.setField(service, "failureWindowMs", 60_000L);
+        ReflectionTestUtils.setField(service, "baseLockoutMs", 1_000L);
+        ReflectionTestUtils.setField(service, "maxLockoutMs", 4_000L);
+        ReflectionTestUtils.setField(service, "maxTrackedAccounts", maxTrackedAccounts);
+        service.initStripes();
+        return service;
+    }
+
+    private FortisUserRepository recordingRepository() {
+        return (FortisUserRepository) Proxy.newProxyInstance(
+                FortisUserRepository.class.getClassLoader(),
+                new Class<?>[]{FortisUserRepository.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("updateLockedUntil")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    lockedEmails.add((String) args[0]);
+                    lockedUntils.add((Instant) args[1]);
+                    return 1;
+                });
+    }
+
+    private static int stripeOf(String email) {
+        return (email.hashCode() & 0x7fffffff) % STRIPES;
+    }
+
+    private static String emailInStripe(int stripe, String except) {
+        for (int i = 0; ; i++) {
+            String email = "user" + i + "@fortis.test";
+            if (!email.equals(except) && stripeOf(email) == stripe) {
+                return email;
+            }
+        }
+    }
+}
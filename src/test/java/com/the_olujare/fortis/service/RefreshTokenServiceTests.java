@@ -0,0 +1,52 @@
+package com.the_olujare.fortis.service;
+
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.repository.FortisUserRepository;
+import com.the_olujare.fortis.support.QueryBudget;
+import com.the_olujare.fortis.support.QueryBudgetExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Login issues its refresh token with two statements in one transaction: a set-based
+ * revoke of the previous tokens and the insert of the new one, however many tokens
+ * the user already has. The user is never reloaded.
+ */
+
+@SpringBootTest
+@ExtendWith(QueryBudgetExtension.class)
+class RefreshTokenServiceTests {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    @Autowired
+    private FortisUserRepository fortisUserRepository;
+
+    private FortisUser user;
+
+    @BeforeEach
+    void createUserWithTokenHistory() {
+        user = fortisUserRepository.save(FortisUser.builder()
+                .username("issue")
+                .email("issue-" + UUID.randomUUID() + "@fortis.test")
+                .password("unused")
+                .enabled(true)
+                .build());
+        for (int i = 0; i < 20; i++) {
+            refreshTokenService.createRefreshToken(user, UUID.randomUUID().toString());
+        }
+    }
+
+    @Test
+    @QueryBudget(2)
+    void issueForLoginDoesNotScaleWithTokenHistory() {
+        assertThat(refreshTokenService.issueForLogin(user)).isNotBlank();
+    }
+}
@@ -0,0 +1,128 @@
+package com.the_olujare.fortis.service;
+
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.entity.PasswordResetToken;
+import com.the_olujare.fortis.entity.RefreshToken;
+import com.the_olujare.fortis.repository.FortisUserRepository;
+import com.the_olujare.fortis.repository.PasswordResetTokenRepository;
+import com.the_olujare.fortis.repository.RefreshTokenRepository;
+import com.the_olujare.fortis.util.TokenHashUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The purge deletes in chunks of batch-size, pauses pause-ms between chunks,
+ * stops after max-batches-per-run, and never touches rows that are still live.
+ *
+ * The database is shared with other test classes, so deletions are measured with
+ * the purge's own row counter and survivors are checked per test user.
+ */
+
+@SpringBootTest(properties = {
+        "fortis.token-purge.refresh-token.batch-size=10",
+        "fortis.token-purge.refresh-token.pause-ms=50",
+        "fortis.token-purge.refresh-token.max-batches-per-run=2",
+        "fortis.token-purge.email-verification-token.enabled=false",
+        "fortis.token-purge.revoked-access-token.enabled=false"
+})
+class TokenPurgeServiceTests {
+
+    private static final int EXPIRED = 25;
+
+    @Autowired
+    private TokenPurgeService tokenPurgeService;
+    @Autowired
+    private FortisUserRepository fortisUserRepository;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private PasswordResetTokenRepository passwordResetTokenRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private FortisUser user;
+
+    @BeforeEach
+    void createUser() {
+        user = fortisUserRepository.save(FortisUser.builder()
+                .username("purge")
+                .email("purge-" + UUID.randomUUID() + "@fortis.test")
+                .password("unused")
+                .enabled(true)
+                .build());
+    }
+
+    @Test
+    void runDeletesAtMostBatchSizeTimesMaxBatches() {
+        List<Long> expired = saveRefreshTokens(EXPIRED, Instant.now().minusSeconds(60), false);
+        double before = purgedRefreshTokens();
+
+        long start = System.nanoTime();
+        tokenPurgeService.purgeExpiredTokens();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Two chunks of ten, with a pause after each full chunk
+        assertThat(purgedRefreshTokens() - before).isEqualTo(20);
+        assertThat(elapsedMs).isGreaterThanOrEqualTo(50);
+        assertThat(refreshTokenRepository.findAllById(expired)).hasSizeGreaterThanOrEqualTo(EXPIRED - 20);
+    }
+
+    @Test
+    void repeatedRunsDrainExpiredRowsAndKeepLiveOnes() {
+        List<Long> expired = saveRefreshTokens(EXPIRED, Instant.now().minusSeconds(60), false);
+        List<Long> live = saveRefreshTokens(3, Instant.now().plusSeconds(3600), false);
+        // Revoked but unexpired tokens are kept for family reuse detection
+        List<Long> revoked = saveRefreshTokens(3, Instant.now().plusSeconds(3600), true);
+        PasswordResetToken used = saveResetToken(LocalDateTime.now().plusHours(1), true);
+        PasswordResetToken pending = saveResetToken(LocalDateTime.now().plusHours(1), false);
+
+        for (int run = 0; run < 10 && !refreshTokenRepository.findAllById(expired).isEmpty(); run++) {
+            tokenPurgeService.purgeExpiredTokens();
+        }
+
+        assertThat(refreshTokenRepository.findAllById(expired)).isEmpty();
+        assertThat(refreshTokenRepository.findAllById(live)).hasSize(3);
+        assertThat(refreshTokenRepository.findAllById(revoked)).hasSize(3);
+        assertThat(passwordResetTokenRepository.findById(used.getId())).isEmpty();
+        assertThat(passwordResetTokenRepository.findById(pending.getId())).isPresent();
+    }
+
+    private double purgedRefreshTokens() {
+        return meterRegistry.counter("fortis.token.purge.rows", "table", "refresh_token").count();
+    }
+
+    private List<Long> saveRefreshTokens(int count, Instant expiryDate, boolean revoked) {
+        List<RefreshToken> tokens = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tokens.add(RefreshToken.builder()
+                    .fortisUser(user)
+                    .tokenHash(TokenHashUtil.sha256(UUID.randomUUID().toString()))
+                    .familyId(UUID.randomUUID().toString())
+                    .expiryDate(expiryDate)
+                    .revoked(revoked)
+                    .build());
+        }
+        return refreshTokenRepository.saveAll(tokens).stream().map(RefreshToken::getId).toList();
+    }
+
+    private PasswordResetToken saveResetToken(LocalDateTime expiryDate, boolean used) {
+        return passwordResetTokenRepository.save(PasswordResetToken.builder()
+                .token(UUID.randomUUID().toString())
+                .fortisUser(user)
+                .expiryDate(expiryDate)
+                .used(used)
+                .build());
+    }
+}
@@ -0,0 +1,21 @@
+package com.the_olujare.fortis.support;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails the annotated test if it executes more SQL statements than allowed.
+ *
+ * Counted: every statement run on the test thread during the test method,
+ * excluding @BeforeEach setup and anything wrapped in SqlStatementCounter.notCounted().
+ *
+ * Requires QueryBudgetExtension on the test class.
+ */
+
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+    int value();
+}
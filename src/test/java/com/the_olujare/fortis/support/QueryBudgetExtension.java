@@ -0,0 +1,53 @@
+package com.the_olujare.fortis.support;
+
+import com.the_olujare.fortis.monitoring.SqlStatementRecorder;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * JUnit 5 extension enforcing @QueryBudget on Spring integration tests.
+ *
+ * Before the test body: attaches SqlStatementCounter to the application's
+ * SqlStatementRecorder and opens a counting scope on the test thread.
+ * After the test body: closes the scope and fails with the full statement
+ * list when the budget is exceeded, which makes N+1 regressions obvious.
+ */
+
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        if (budgetOf(context) == null) {
+            return;
+        }
+
+        SqlStatementRecorder recorder = SpringExtension.getApplicationContext(context).getBean(SqlStatementRecorder.class);
+        recorder.removeListener(SqlStatementCounter.INSTANCE);
+        recorder.addListener(SqlStatementCounter.INSTANCE);
+        SqlStatementCounter.start();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        QueryBudget budget = budgetOf(context);
+        if (budget == null) {
+            return;
+        }
+
+        List<String> statements = SqlStatementCounter.stop();
+        if (statements.size() > budget.value()) {
+            fail("Query budget exceeded: " + statements.size() + " statements, budget " + budget.value()
+                    + "\n  " + String.join("\n  ", statements));
+        }
+    }
+
+    private QueryBudget budgetOf(ExtensionContext context) {
+        return context.getRequiredTestMethod().getAnnotation(QueryBudget.class);
+    }
+}
@@ -0,0 +1,58 @@
+package com.the_olujare.fortis.support;
+
+import com.the_olujare.fortis.monitoring.SqlStatementListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Counts SQL statements executed on the current thread.
+ *
+ * Registered once as a SqlStatementListener; counting is scoped with a ThreadLocal,
+ * so background jobs (token purge, denylist rebuild) never leak into a budget.
+ * MockMvc executes requests on the calling thread, so a scope opened in the test
+ * covers the whole request including the security filter chain.
+ */
+
+public final class SqlStatementCounter implements SqlStatementListener {
+
+    public static final SqlStatementCounter INSTANCE = new SqlStatementCounter();
+
+    private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PAUSED = ThreadLocal.withInitial(() -> false);
+
+    private SqlStatementCounter() {
+    }
+
+    @Override
+    public void onStatement(String sql, long elapsedNanos, long rows) {
+        List<String> statements = STATEMENTS.get();
+        if (statements != null && !PAUSED.get()) {
+            statements.add(sql);
+        }
+    }
+
+    public static void start() {
+        STATEMENTS.set(new ArrayList<>());
+    }
+
+    public static List<String> stop() {
+        List<String> statements = STATEMENTS.get();
+        STATEMENTS.remove();
+        return statements == null ? List.of() : statements;
+    }
+
+    /**
+     * Runs test setup inside a budgeted test without counting its statements.
+     */
+    public static <T> T notCounted(Supplier<T> setup) {
+        boolean previous = PAUSED.get();
+        PAUSED.set(true);
+        try {
+            return setup.get();
+        } finally {
+            PAUSED.set(previous);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.the_olujare.fortis.tracing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.the_olujare.fortis.entity.FortisUser;
+import com.the_olujare.fortis.repository.FortisUserRepository;
+import com.the_olujare.fortis.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Traces continue an incoming traceparent, cover security, service and repository
+ * layers, and reach the OTLP-JSON files only when sampled.
+ *
+ * Head sampling is off and the slow threshold out of reach, so only the
+ * traceparent flag decides what gets exported here.
+ */
+
+@SpringBootTest(properties = {
+        "fortis.tracing.enabled=true",
+        "fortis.tracing.sample-rate=0",
+        "fortis.tracing.slow-threshold-ms=600000"
+})
+@AutoConfigureMockMvc
+class TracingTests {
+
+    private static final Path TRACE_DIRECTORY = createTraceDirectory();
+    private static final AtomicInteger CLIENT_IP = new AtomicInteger(1);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private FortisUserRepository fortisUserRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private JwtUtil jwtUtil;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private FortisUser user;
+
+    @DynamicPropertySource
+    static void traceDirectory(DynamicPropertyRegistry registry) {
+        registry.add("fortis.tracing.directory", TRACE_DIRECTORY::toString);
+    }
+
+    @BeforeEach
+    void createUser() {
+        user = fortisUserRepository.save(FortisUser.builder()
+                .username("tracing")
+                .email("tracing-" + UUID.randomUUID() + "@fortis.test")
+                .password(passwordEncoder.encode("correct-horse-battery"))
+                .enabled(true)
+                .build());
+    }
+
+    @Test
+    void sampledTraceparentIsContinuedAndExported() throws Exception {
+        String traceId = randomHex(32);
+        String parentSpanId = randomHex(16);
+
+        String traceResponse = mockMvc.perform(fromNewClient(get("/api/tasks"))
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken(user))
+                        .header("traceparent", "00-" + traceId + "-" + parentSpanId + "-01"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("traceresponse");
+
+        assertThat(traceResponse).startsWith("00-" + traceId + "-").endsWith("-01");
+
+        List<JsonNode> spans = awaitSpans(traceId);
+        JsonNode root = spans.stream()
+                .filter(span -> span.path("name").asText().equals("GET /api/tasks"))
+                .findFirst().orElseThrow();
+        assertThat(root.path("parentSpanId").asText()).isEqualTo(parentSpanId);
+        assertThat(root.path("kind").asInt()).isEqualTo(2);
+        assertThat(traceResponse).contains("-" + root.path("spanId").asText() + "-");
+
+        List<String> names = spans.stream().map(span -> span.path("name").asText()).toList();
+        assertThat(names).contains(
+                "SecurityFilterChain",
+                "JwtAuthenticationFilter",
+                "TaskService.getTasksForCurrentUser");
+        assertThat(names).anyMatch(name -> name.startsWith("FortisUserRepository."));
+        assertThat(names).anyMatch(name -> name.startsWith("TaskRepository."));
+    }
+
+    @Test
+    void unsampledTraceparentIsNotExported() throws Exception {
+        String unsampledTraceId = randomHex(32);
+        mockMvc.perform(fromNewClient(get("/api/tasks"))
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken(user))
+                        .header("traceparent", "00-" + unsampledTraceId + "-" + randomHex(16) + "-00"))
+                .andExpect(status().isOk());
+
+        // A sampled request afterwards: once it is on disk, the earlier one would be too
+        String sampledTraceId = randomHex(32);
+        mockMvc.perform(fromNewClient(get("/api/tasks"))
+                        .header("traceparent", "00-" + sampledTraceId + "-" + randomHex(16) + "-01"))
+                .andExpect(status().isUnauthorized());
+
+        awaitSpans(sampledTraceId);
+        assertThat(readSpans(unsampledTraceId)).isEmpty();
+    }
+
+    @Test
+    void requestWithoutTraceparentStartsANewTrace() throws Exception {
+        String traceResponse = mockMvc.perform(fromNewClient(get("/api/tasks")))
+                .andExpect(status().isUnauthorized())
+                .andReturn().getResponse().getHeader("traceresponse");
+
+        assertThat(traceResponse).matches("00-[0-9a-f]{32}-[0-9a-f]{16}-00");
+    }
+
+    private List<JsonNode> awaitSpans(String traceId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        List<JsonNode> spans = readSpans(traceId);
+        while (spans.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            spans = readSpans(traceId);
+        }
+        assertThat(spans).as("exported spans of trace %s", traceId).isNotEmpty();
+        return spans;
+    }
+
+    private List<JsonNode> readSpans(String traceId) {
+        List<JsonNode> spans = new ArrayList<>();
+        try (Stream<Path> files = Files.list(TRACE_DIRECTORY)) {
+            for (Path file : files.filter(path -> path.toString().endsWith(".jsonl")).toList()) {
+                for (String line : Files.readAllLines(file)) {
+                    JsonNode request = parseLine(line);
+                    for (JsonNode resourceSpans : request.path("resourceSpans")) {
+                        for (JsonNode scopeSpans : resourceSpans.path("scopeSpans")) {
+                            for (JsonNode span : scopeSpans.path("spans")) {
+                                if (span.path("traceId").asText().equals(traceId)) {
+                                    spans.add(span);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return spans;
+    }
+
+    // A line still being written is skipped; the next poll sees it complete
+    private JsonNode parseLine(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            return objectMapper.missingNode();
+        }
+    }
+
+    private static String randomHex(int length) {
+        StringBuilder hex = new StringBuilder(length);
+        while (hex.length() < length) {
+            hex.append(UUID.randomUUID().toString().replace("-", ""));
+        }
+        return hex.substring(0, length);
+    }
+
+    private static Path createTraceDirectory() {
+        try {
+            return Files.createTempDirectory("fortis-traces");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Every request comes from its own IP so the per-IP rate limiter never interferes.
+    private MockHttpServletRequestBuilder fromNewClient(MockHttpServletRequestBuilder request) {
+        int ip = CLIENT_IP.getAndIncrement();
+        return request.with(mockRequest -> {
+            mockRequest.setRemoteAddr("10.4." + (ip / 250) + "." + (ip % 250 + 1));
+            return mockRequest;
+        });
+    }
+}
@@ -0,0 +1,56 @@
+package com.the_olujare.fortis.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The filter never forgets an inserted value, and its false-positive rate stays
+ * close to the configured target when filled to its expected size.
+ */
+
+class BloomFilterTests {
+
+    private static final int INSERTED = 10_000;
+    private static final int PROBES = 200_000;
+
+    @Test
+    void everyInsertedValueIsFound() {
+        BloomFilter filter = new BloomFilter(INSERTED, 0.001);
+        List<String> values = randomValues(INSERTED);
+        values.forEach(filter::put);
+
+        assertThat(values).allMatch(filter::mightContain);
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTarget() {
+        double target = 0.01;
+        BloomFilter filter = new BloomFilter(INSERTED, target);
+        randomValues(INSERTED).forEach(filter::put);
+
+        long falsePositives = randomValues(PROBES).stream().filter(filter::mightContain).count();
+
+        // Twice the target leaves room for sampling noise (expected ~2,000 hits, sd ~45)
+        assertThat((double) falsePositives / PROBES).isLessThan(target * 2);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(INSERTED, 0.001);
+
+        assertThat(randomValues(1_000)).noneMatch(filter::mightContain);
+    }
+
+    private static List<String> randomValues(int count) {
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(UUID.randomUUID().toString());
+        }
+        return values;
+    }
+}